@@ -17,6 +17,7 @@
 export interface GraphRequest {
   agentId: string;
   threadId?: string;
+  sessionId?: string;
   query: string;
   humanFeedback: boolean;
   humanFeedbackContent?: string;
@@ -67,6 +68,9 @@ class GraphService {
     if (request.threadId) {
       params.append('threadId', request.threadId);
     }
+    if (request.sessionId) {
+      params.append('sessionId', request.sessionId);
+    }
     params.append('query', request.query);
     params.append('humanFeedback', request.humanFeedback.toString());
     params.append('rejectedPlan', request.rejectedPlan.toString());
@@ -16,6 +16,16 @@
 export interface ResultData {
   displayStyle?: ResultDisplayStyleBO;
   resultSet: ResultSetData;
+  page?: ResultPage;
+}
+
+/**
+ * SQL 结果分页流式返回时的页信息
+ */
+export interface ResultPage {
+  index: number;
+  last: boolean;
+  totalRows?: number;
 }
 
 export interface ResultDisplayStyleBO {
@@ -38,4 +38,14 @@ public class DbConfigBO {
 
 	private String dialectType;
 
+	/**
+	 * 来源数据源 ID，用于选择按数据源配置的连接池参数，临时配置为空
+	 */
+	private Long datasourceId;
+
+	/**
+	 * 连接池用途，同一数据源不同用途使用各自的池，互不抢占连接；为空时视为普通查询
+	 */
+	private String poolWorkload;
+
 }
@@ -30,4 +30,9 @@ public class ResultBO {
 
 	private DisplayStyleBO displayStyle;
 
+	/**
+	 * 分页流式输出时的页信息，一次性输出时为 null
+	 */
+	private ResultPageBO page;
+
 }
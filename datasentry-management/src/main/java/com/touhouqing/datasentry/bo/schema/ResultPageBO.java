@@ -0,0 +1,47 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.bo.schema;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * SQL 结果分页流式输出时的页信息，前端据此把同一结果集的多页合并显示。
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultPageBO {
+
+	/**
+	 * 页序号，从 0 开始
+	 */
+	private int index;
+
+	/**
+	 * 是否为结束页：结束页不再携带数据行，只携带图表配置和总行数
+	 */
+	private boolean last;
+
+	/**
+	 * 结果集总行数，仅结束页有值
+	 */
+	private Integer totalRows;
+
+}
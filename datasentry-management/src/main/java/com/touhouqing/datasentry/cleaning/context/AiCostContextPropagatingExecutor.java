@@ -0,0 +1,68 @@
+package com.touhouqing.datasentry.cleaning.context;
+
+import com.touhouqing.datasentry.cleaning.aspect.AiCostTrackingAspect;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 传递计费上下文的执行器：提交任务时捕获调用方线程的 AiCostContextHolder 与 AiCostTrackingAspect 上下文，
+ * 在线程池线程上执行前恢复、执行后清理，使并发发起的大模型和向量请求仍计入原会话的费用
+ */
+public class AiCostContextPropagatingExecutor implements Executor {
+
+	private final ExecutorService delegate;
+
+	private AiCostContextPropagatingExecutor(ExecutorService delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * 创建固定大小的守护线程池，线程名为 threadNamePrefix-序号
+	 */
+	public static AiCostContextPropagatingExecutor fixedDaemonPool(String threadNamePrefix, int threads) {
+		ThreadFactory threadFactory = new ThreadFactory() {
+			private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, threadNamePrefix + "-" + threadNumber.getAndIncrement());
+				t.setDaemon(true);
+				return t;
+			}
+		};
+		return new AiCostContextPropagatingExecutor(new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), threadFactory));
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		AiCostContextHolder.RequestContext costContext = AiCostContextHolder.getContext();
+		AiCostTrackingAspect.RequestContext aspectContext = AiCostTrackingAspect.getContext();
+		delegate.execute(() -> {
+			if (costContext != null) {
+				AiCostContextHolder.setContext(costContext.threadId(), costContext.agentId());
+			}
+			if (aspectContext != null) {
+				AiCostTrackingAspect.setContext(aspectContext.threadId(), aspectContext.agentId());
+			}
+			try {
+				command.run();
+			}
+			finally {
+				AiCostContextHolder.clearContext();
+				AiCostTrackingAspect.clearContext();
+			}
+		});
+	}
+
+	public void shutdownNow() {
+		delegate.shutdownNow();
+	}
+
+}
@@ -2,12 +2,15 @@ package com.touhouqing.datasentry.cleaning.controller;
 
 import com.touhouqing.datasentry.cleaning.dto.CleaningJobCreateRequest;
 import com.touhouqing.datasentry.cleaning.dto.CleaningBudgetView;
+import com.touhouqing.datasentry.cleaning.dto.CleaningDryRunEstimateView;
+import com.touhouqing.datasentry.cleaning.dto.CleaningDryRunRequest;
 import com.touhouqing.datasentry.cleaning.dto.CleaningEvidenceBundleView;
 import com.touhouqing.datasentry.cleaning.enums.CleaningPermissionCode;
 import com.touhouqing.datasentry.cleaning.model.CleaningCostLedger;
 import com.touhouqing.datasentry.cleaning.model.CleaningJob;
 import com.touhouqing.datasentry.cleaning.model.CleaningJobRun;
 import com.touhouqing.datasentry.cleaning.security.CleaningPermissionGuard;
+import com.touhouqing.datasentry.cleaning.service.CleaningDryRunService;
 import com.touhouqing.datasentry.cleaning.service.CleaningJobService;
 import com.touhouqing.datasentry.vo.ApiResponse;
 import jakarta.validation.Valid;
@@ -26,6 +29,8 @@ public class CleaningJobController {
 
 	private final CleaningPermissionGuard permissionGuard;
 
+	private final CleaningDryRunService dryRunService;
+
 	@PostMapping("/jobs")
 	public ResponseEntity<ApiResponse<CleaningJob>> createJob(@RequestBody @Valid CleaningJobCreateRequest request) {
 		requireWritebackPermissionIfNeeded(request);
@@ -65,6 +70,12 @@ public class CleaningJobController {
 		return ResponseEntity.ok(ApiResponse.success("success", run));
 	}
 
+	@PostMapping("/jobs/{jobId}/estimate")
+	public ResponseEntity<ApiResponse<CleaningDryRunEstimateView>> estimateJob(@PathVariable Long jobId,
+			@RequestBody(required = false) CleaningDryRunRequest request) {
+		return ResponseEntity.ok(ApiResponse.success("success", dryRunService.estimate(jobId, request)));
+	}
+
 	@GetMapping("/job-runs/{runId}")
 	public ResponseEntity<ApiResponse<CleaningJobRun>> getRun(@PathVariable Long runId) {
 		CleaningJobRun run = jobService.getRun(runId);
@@ -2,6 +2,7 @@ package com.touhouqing.datasentry.cleaning.controller;
 
 import com.touhouqing.datasentry.cleaning.dto.CleaningReviewBatchRequest;
 import com.touhouqing.datasentry.cleaning.dto.CleaningReviewBatchResult;
+import com.touhouqing.datasentry.cleaning.dto.CleaningReviewBulkJobView;
 import com.touhouqing.datasentry.cleaning.dto.CleaningReviewDecisionRequest;
 import com.touhouqing.datasentry.cleaning.dto.CleaningReviewEscalateRequest;
 import com.touhouqing.datasentry.cleaning.dto.CleaningReviewEscalateResult;
@@ -111,6 +112,22 @@ public class CleaningReviewController {
 		return ResponseEntity.ok(ApiResponse.success("success", reviewService.batchApprove(request)));
 	}
 
+	@PostMapping("/reviews/batch-approve/async")
+	public ResponseEntity<ApiResponse<CleaningReviewBulkJobView>> submitBatchApprove(
+			@RequestBody @Valid CleaningReviewBatchRequest request) {
+		permissionGuard.require(CleaningPermissionCode.WRITEBACK_EXECUTE);
+		if (reviewService.requiresHardDeletePermission(request)) {
+			permissionGuard.require(CleaningPermissionCode.DELETE_HARD);
+		}
+		return ResponseEntity.ok(ApiResponse.success("success", reviewService.submitBatchApprove(request)));
+	}
+
+	@GetMapping("/reviews/bulk-jobs/{jobId}")
+	public ResponseEntity<ApiResponse<CleaningReviewBulkJobView>> getBulkJob(@PathVariable String jobId,
+			@RequestParam(required = false, defaultValue = "false") boolean includeOutcomes) {
+		return ResponseEntity.ok(ApiResponse.success("success", reviewService.getBulkJob(jobId, includeOutcomes)));
+	}
+
 	@PostMapping("/reviews/batch-reject")
 	public ResponseEntity<ApiResponse<CleaningReviewBatchResult>> batchReject(
 			@RequestBody @Valid CleaningReviewBatchRequest request) {
@@ -0,0 +1,73 @@
+package com.touhouqing.datasentry.cleaning.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CleaningDryRunEstimateView {
+
+	private Long jobId;
+
+	private String dialect;
+
+	private String samplingMethod;
+
+	private Long populationRows;
+
+	private boolean populationRowsApproximate;
+
+	private Integer sampledRows;
+
+	private boolean l3Stubbed;
+
+	private double confidenceLevel;
+
+	private Estimate flaggedRate;
+
+	private Estimate flaggedRows;
+
+	private Estimate findings;
+
+	private Estimate l3Items;
+
+	private Estimate l3Calls;
+
+	private Estimate tokens;
+
+	private Estimate cost;
+
+	private String currency;
+
+	private Estimate wallTimeSeconds;
+
+	private BigDecimal budgetSoftLimit;
+
+	private BigDecimal budgetHardLimit;
+
+	/**
+	 * 成本置信上界是否超过任务硬阈值
+	 */
+	private boolean hardLimitAtRisk;
+
+	@Data
+	@Builder
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Estimate {
+
+		private double expected;
+
+		private double lower;
+
+		private double upper;
+
+	}
+
+}
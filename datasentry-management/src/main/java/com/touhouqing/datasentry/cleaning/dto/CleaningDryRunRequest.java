@@ -0,0 +1,24 @@
+package com.touhouqing.datasentry.cleaning.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CleaningDryRunRequest {
+
+	/**
+	 * 抽样行数，为空时使用 cleaning.dry-run.default-sample-size
+	 */
+	private Integer sampleSize;
+
+	/**
+	 * 是否以空结果替代真实 L3 调用，默认 true；关闭后会产生真实 LLM 费用
+	 */
+	private Boolean stubL3;
+
+}
@@ -66,6 +66,13 @@ public class CleaningJobCreateRequest {
 
 	private Integer onlineRequestTokenLimit;
 
+	/**
+	 * 增量水位列，设置后每次运行只处理水位之后新增或变更的行
+	 */
+	private String watermarkColumn;
+
+	private Integer fullRescanOnPolicyChange;
+
 	private Integer enabled;
 
 }
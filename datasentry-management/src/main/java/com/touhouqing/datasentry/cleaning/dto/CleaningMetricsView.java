@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @Builder
@@ -120,6 +121,34 @@ public class CleaningMetricsView {
 
 	private Double evidenceBundleExportSuccessRate;
 
+	private Long backupEncodeCount;
+
+	private Long backupCompressedCount;
+
+	private Long backupDedupHitCount;
+
+	private Long backupRawBytes;
+
+	private Long backupStoredBytes;
+
+	private Double backupStorageRatio;
+
+	private Double backupEncodeAvgMicros;
+
+	private Double backupDecodeAvgMicros;
+
+	private Long dlqReplaySucceededCount;
+
+	private Long dlqReplayMissingCount;
+
+	private Long dlqReplayFailedCount;
+
+	private Long dlqDeadCount;
+
+	private Double dlqReplayRowsPerSecond;
+
+	private Map<String, Long> dlqFailureByClass;
+
 	private CleaningReviewOpsView reviewOps;
 
 }
@@ -0,0 +1,44 @@
+package com.touhouqing.datasentry.cleaning.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CleaningReviewBulkJobView {
+
+	private String jobId;
+
+	/**
+	 * RUNNING / SUCCEEDED / FAILED
+	 */
+	private String status;
+
+	private int total;
+
+	private int processed;
+
+	private int success;
+
+	private int failed;
+
+	private int conflict;
+
+	private int stale;
+
+	private String message;
+
+	private LocalDateTime createdTime;
+
+	private LocalDateTime finishedTime;
+
+	private List<CleaningReviewTaskOutcome> outcomes;
+
+}
@@ -0,0 +1,23 @@
+package com.touhouqing.datasentry.cleaning.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CleaningReviewTaskOutcome {
+
+	private Long taskId;
+
+	/**
+	 * WRITTEN / REJECTED / CONFLICT / FAILED / STALE
+	 */
+	private String status;
+
+	private String message;
+
+}
@@ -4,6 +4,9 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.touhouqing.datasentry.cleaning.model.CleaningBackupRecord;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,4 +33,31 @@ public interface CleaningBackupRecordMapper extends BaseMapper<CleaningBackupRec
 		return delete(wrapper);
 	}
 
+	/**
+	 * 被去重引用且创建时间早于 expireBefore 的备份记录 ID，生命周期清理删除它们之前需要先迁移快照。
+	 */
+	@Select("""
+			SELECT DISTINCT s.id FROM datasentry_cleaning_backup_record s
+			JOIN datasentry_cleaning_backup_record r ON r.payload_ref_id = s.id
+			WHERE s.created_time < #{expireBefore}
+			ORDER BY s.id
+			LIMIT #{limit}
+			""")
+	List<Long> findExpiringReferencedIds(@Param("expireBefore") LocalDateTime expireBefore, @Param("limit") int limit);
+
+	@Select("SELECT MAX(id) FROM datasentry_cleaning_backup_record WHERE payload_ref_id = #{payloadRefId}")
+	Long findLatestReferrerId(@Param("payloadRefId") Long payloadRefId);
+
+	@Update("""
+			UPDATE datasentry_cleaning_backup_record
+			SET before_row_json = #{source.beforeRowJson}, before_row_ciphertext = #{source.beforeRowCiphertext},
+			    payload_codec = #{source.payloadCodec}, encryption_provider = #{source.encryptionProvider},
+			    key_version = #{source.keyVersion}, payload_ref_id = NULL
+			WHERE id = #{holderId}
+			""")
+	int adoptPayload(@Param("holderId") Long holderId, @Param("source") CleaningBackupRecord source);
+
+	@Update("UPDATE datasentry_cleaning_backup_record SET payload_ref_id = #{toId} WHERE payload_ref_id = #{fromId}")
+	int repointPayloadRef(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
 }
@@ -45,6 +45,31 @@ public interface CleaningDlqMapper extends BaseMapper<CleaningDlqRecord> {
 					.set(CleaningDlqRecord::getUpdatedTime, LocalDateTime.now()));
 	}
 
+	/**
+	 * 领取待重放记录：把下次重试时间推到租约到期，多实例并发时只有一个能更新成功。
+	 */
+	default int claim(Long id, LocalDateTime now, LocalDateTime leaseUntil) {
+		return update(null,
+				new LambdaUpdateWrapper<CleaningDlqRecord>().eq(CleaningDlqRecord::getId, id)
+					.eq(CleaningDlqRecord::getStatus, "READY")
+					.and(condition -> condition.isNull(CleaningDlqRecord::getNextRetryTime)
+						.or()
+						.le(CleaningDlqRecord::getNextRetryTime, now))
+					.set(CleaningDlqRecord::getNextRetryTime, leaseUntil)
+					.set(CleaningDlqRecord::getUpdatedTime, LocalDateTime.now()));
+	}
+
+	default int recordReplayFailure(Long id, String status, int retryCount, LocalDateTime nextRetryTime,
+			String errorMessage) {
+		return update(null,
+				new LambdaUpdateWrapper<CleaningDlqRecord>().eq(CleaningDlqRecord::getId, id)
+					.set(CleaningDlqRecord::getStatus, status)
+					.set(CleaningDlqRecord::getRetryCount, retryCount)
+					.set(CleaningDlqRecord::getNextRetryTime, nextRetryTime)
+					.set(CleaningDlqRecord::getErrorMessage, errorMessage)
+					.set(CleaningDlqRecord::getUpdatedTime, LocalDateTime.now()));
+	}
+
 	default int deleteExpiredFinished(LocalDateTime expireBefore, int limit) {
 		LambdaQueryWrapper<CleaningDlqRecord> wrapper = new LambdaQueryWrapper<CleaningDlqRecord>()
 			.lt(CleaningDlqRecord::getCreatedTime, expireBefore)
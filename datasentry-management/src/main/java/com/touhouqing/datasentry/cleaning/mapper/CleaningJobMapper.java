@@ -1,10 +1,33 @@
 package com.touhouqing.datasentry.cleaning.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.touhouqing.datasentry.cleaning.model.CleaningJob;
 import org.apache.ibatis.annotations.Mapper;
 
+import java.time.LocalDateTime;
+
 @Mapper
 public interface CleaningJobMapper extends BaseMapper<CleaningJob> {
 
+	default int updateWatermark(Long id, String watermarkValue, Long policyVersionId, LocalDateTime now) {
+		LambdaUpdateWrapper<CleaningJob> wrapper = new LambdaUpdateWrapper<CleaningJob>().eq(CleaningJob::getId, id)
+			.set(CleaningJob::getWatermarkValue, watermarkValue)
+			.set(CleaningJob::getWatermarkPolicyVersionId, policyVersionId)
+			.set(CleaningJob::getUpdatedTime, now);
+		return update(null, wrapper);
+	}
+
+	/**
+	 * 更换水位列并清空已记录的高水位，下一次运行按全量处理。
+	 */
+	default int updateWatermarkColumn(Long id, String watermarkColumn, LocalDateTime now) {
+		LambdaUpdateWrapper<CleaningJob> wrapper = new LambdaUpdateWrapper<CleaningJob>().eq(CleaningJob::getId, id)
+			.set(CleaningJob::getWatermarkColumn, watermarkColumn)
+			.set(CleaningJob::getWatermarkValue, null)
+			.set(CleaningJob::getWatermarkPolicyVersionId, null)
+			.set(CleaningJob::getUpdatedTime, now);
+		return update(null, wrapper);
+	}
+
 }
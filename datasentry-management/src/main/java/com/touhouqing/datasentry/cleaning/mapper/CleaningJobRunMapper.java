@@ -111,6 +111,15 @@ public interface CleaningJobRunMapper extends BaseMapper<CleaningJobRun> {
 		return update(null, wrapper);
 	}
 
+	default int updateWatermarkRange(Long id, String watermarkFrom, String watermarkTo, LocalDateTime now) {
+		LambdaUpdateWrapper<CleaningJobRun> wrapper = new LambdaUpdateWrapper<CleaningJobRun>()
+			.eq(CleaningJobRun::getId, id)
+			.set(CleaningJobRun::getWatermarkFrom, watermarkFrom)
+			.set(CleaningJobRun::getWatermarkTo, watermarkTo)
+			.set(CleaningJobRun::getUpdatedTime, now);
+		return update(null, wrapper);
+	}
+
 	default int updateStatusWithoutEnd(Long id, String status, LocalDateTime now) {
 		LambdaUpdateWrapper<CleaningJobRun> wrapper = new LambdaUpdateWrapper<CleaningJobRun>()
 			.eq(CleaningJobRun::getId, id)
@@ -0,0 +1,45 @@
+package com.touhouqing.datasentry.cleaning.mapper;
+
+import com.touhouqing.datasentry.cleaning.model.CleaningPartitionInfo;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * MySQL 分区维护。表名与分区名只来自 {@code CleaningPartitionService} 的白名单与生成规则，因此可以安全使用 ${} 拼接。
+ */
+@Mapper
+public interface CleaningPartitionMapper {
+
+	@Select("""
+			SELECT PARTITION_NAME AS partitionName, PARTITION_DESCRIPTION AS partitionDescription,
+			       TABLE_ROWS AS tableRows
+			FROM information_schema.PARTITIONS
+			WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = #{tableName} AND PARTITION_NAME IS NOT NULL
+			ORDER BY PARTITION_ORDINAL_POSITION
+			""")
+	List<CleaningPartitionInfo> listPartitions(@Param("tableName") String tableName);
+
+	/**
+	 * 探测分区内是否有数据，TABLE_ROWS 只是统计估算值，不能据此判断分区为空。
+	 */
+	@Select("SELECT 1 FROM ${tableName} PARTITION (${partitionName}) LIMIT 1")
+	Integer probePartitionRow(@Param("tableName") String tableName, @Param("partitionName") String partitionName);
+
+	@Update("ALTER TABLE ${tableName} DROP PARTITION ${partitionName}")
+	int dropPartition(@Param("tableName") String tableName, @Param("partitionName") String partitionName);
+
+	@Update("ALTER TABLE ${tableName} TRUNCATE PARTITION ${partitionName}")
+	int truncatePartition(@Param("tableName") String tableName, @Param("partitionName") String partitionName);
+
+	@Update("ALTER TABLE ${tableName} REORGANIZE PARTITION ${maxPartition} INTO (${definitions})")
+	int reorganizeMaxPartition(@Param("tableName") String tableName, @Param("maxPartition") String maxPartition,
+			@Param("definitions") String definitions);
+
+	@Update("ALTER TABLE ${tableName} ADD PARTITION (${definitions})")
+	int addPartitions(@Param("tableName") String tableName, @Param("definitions") String definitions);
+
+}
@@ -7,6 +7,7 @@ import com.touhouqing.datasentry.cleaning.model.CleaningReviewTask;
 import org.apache.ibatis.annotations.Mapper;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 @Mapper
 public interface CleaningReviewTaskMapper extends BaseMapper<CleaningReviewTask> {
@@ -38,6 +39,22 @@ public interface CleaningReviewTaskMapper extends BaseMapper<CleaningReviewTask>
 		return update(null, wrapper);
 	}
 
+	default int updateStatusBatchIfMatch(Collection<Long> ids, String fromStatus, String toStatus, String reviewer,
+			String reason, LocalDateTime now) {
+		if (ids == null || ids.isEmpty()) {
+			return 0;
+		}
+		LambdaUpdateWrapper<CleaningReviewTask> wrapper = new LambdaUpdateWrapper<CleaningReviewTask>()
+			.in(CleaningReviewTask::getId, ids)
+			.eq(CleaningReviewTask::getStatus, fromStatus)
+			.set(CleaningReviewTask::getStatus, toStatus)
+			.set(CleaningReviewTask::getReviewer, reviewer)
+			.set(CleaningReviewTask::getReviewReason, reason)
+			.set(CleaningReviewTask::getUpdatedTime, now)
+			.setSql("version = version + 1");
+		return update(null, wrapper);
+	}
+
 	default int markEscalatedIfPending(Long id, String reviewer, String reason, LocalDateTime now) {
 		LambdaUpdateWrapper<CleaningReviewTask> wrapper = new LambdaUpdateWrapper<CleaningReviewTask>()
 			.eq(CleaningReviewTask::getId, id)
@@ -38,6 +38,10 @@ public class CleaningBackupRecord {
 
 	private String beforeRowJson;
 
+	private String payloadCodec;
+
+	private Long payloadRefId;
+
 	private LocalDateTime createdTime;
 
 }
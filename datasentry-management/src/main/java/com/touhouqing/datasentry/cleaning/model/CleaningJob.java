@@ -67,6 +67,14 @@ public class CleaningJob {
 
 	private Integer onlineRequestTokenLimit;
 
+	private String watermarkColumn;
+
+	private String watermarkValue;
+
+	private Long watermarkPolicyVersionId;
+
+	private Integer fullRescanOnPolicyChange;
+
 	private Integer enabled;
 
 	private LocalDateTime createdTime;
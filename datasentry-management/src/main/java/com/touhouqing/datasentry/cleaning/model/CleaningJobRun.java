@@ -35,6 +35,10 @@ public class CleaningJobRun {
 
 	private String checkpointJson;
 
+	private String watermarkFrom;
+
+	private String watermarkTo;
+
 	private String policySnapshotJson;
 
 	private Long policyVersionId;
@@ -0,0 +1,20 @@
+package com.touhouqing.datasentry.cleaning.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CleaningPartitionInfo {
+
+	private String partitionName;
+
+	private String partitionDescription;
+
+	private Long tableRows;
+
+}
@@ -4,6 +4,7 @@ import com.touhouqing.datasentry.cleaning.enums.CleaningCostChannel;
 import com.touhouqing.datasentry.dto.ModelConfigDTO;
 import com.touhouqing.datasentry.enums.ModelType;
 import com.touhouqing.datasentry.service.aimodelconfig.ModelConfigDataService;
+import com.touhouqing.datasentry.service.graph.GraphExecutionMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ChatResponse;
@@ -28,6 +29,8 @@ public class AiCostTrackingService {
 
 	private final ModelConfigDataService modelConfigDataService;
 
+	private final GraphExecutionMetricsService graphExecutionMetricsService;
+
 	// 存储 threadId 到 agentId 的映射
 	private final Map<String, Long> threadAgentMap = new ConcurrentHashMap<>();
 
@@ -118,6 +121,7 @@ public class AiCostTrackingService {
 			var usage = response.getMetadata().getUsage();
 			long inputTokens = usage.getPromptTokens() != null ? usage.getPromptTokens() : 0;
 			long outputTokens = usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0;
+			graphExecutionMetricsService.recordLlmUsage(threadId, inputTokens, outputTokens);
 
 			log.info("🔍 CostTracking: Tokens - Input: {}, Output: {}", inputTokens, outputTokens);
 
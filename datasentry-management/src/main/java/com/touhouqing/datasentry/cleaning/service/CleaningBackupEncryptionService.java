@@ -37,20 +37,27 @@ public class CleaningBackupEncryptionService {
 	}
 
 	public String encrypt(String plaintext) {
+		return encryptBytes(plaintext.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public String encryptBytes(byte[] plaintext) {
 		byte[] key = resolveKey();
 		if (key == null) {
 			throw new IllegalStateException("Backup master key is missing");
 		}
-		return AesGcmCipher.encryptToBase64(key, plaintext.getBytes(StandardCharsets.UTF_8));
+		return AesGcmCipher.encryptToBase64(key, plaintext);
 	}
 
 	public String decrypt(String ciphertextBase64) {
+		return new String(decryptBytes(ciphertextBase64), StandardCharsets.UTF_8);
+	}
+
+	public byte[] decryptBytes(String ciphertextBase64) {
 		byte[] key = resolveKey();
 		if (key == null) {
 			throw new IllegalStateException("Backup master key is missing");
 		}
-		byte[] plain = AesGcmCipher.decryptFromBase64(key, ciphertextBase64);
-		return new String(plain, StandardCharsets.UTF_8);
+		return AesGcmCipher.decryptFromBase64(key, ciphertextBase64);
 	}
 
 	public String getProviderName() {
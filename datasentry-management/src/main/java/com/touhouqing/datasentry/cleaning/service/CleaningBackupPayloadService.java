@@ -0,0 +1,288 @@
+package com.touhouqing.datasentry.cleaning.service;
+
+import com.touhouqing.datasentry.cleaning.mapper.CleaningBackupRecordMapper;
+import com.touhouqing.datasentry.cleaning.model.CleaningBackupRecord;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.util.JsonUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 备份旧值快照的编解码：JSON → Deflate 压缩（超过阈值且有收益时）→ AES-GCM 加密。
+ * payload_codec 记录加密前的编码，历史记录为空时按 JSON 处理，回滚读取对新旧格式透明。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CleaningBackupPayloadService {
+
+	public static final String CODEC_JSON = "JSON";
+
+	public static final String CODEC_DEFLATE_JSON = "DEFLATE_JSON";
+
+	private static final int INFLATE_BUFFER_SIZE = 4096;
+
+	private final DataSentryProperties dataSentryProperties;
+
+	private final CleaningBackupEncryptionService encryptionService;
+
+	private final CleaningBackupRecordMapper backupRecordMapper;
+
+	private final CleaningOpsStateService opsStateService;
+
+	private final Map<String, DedupEntry> dedupIndex = Collections
+		.synchronizedMap(new LinkedHashMap<String, DedupEntry>(256, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, DedupEntry> eldest) {
+				return size() > Math.max(dataSentryProperties.getCleaning().getBackup().getDedupMaxEntries(), 1);
+			}
+		});
+
+	/**
+	 * 编码旧值快照并填充到备份记录，不写库。
+	 */
+	public void encode(CleaningBackupRecord record, Map<String, ?> beforeRow) {
+		encode(record, toJsonBytes(beforeRow));
+	}
+
+	/**
+	 * 编码并写入备份记录；开启去重时，同一运行同一张表在窗口内出现相同快照则只记录引用。
+	 */
+	public void store(CleaningBackupRecord record, Map<String, ?> beforeRow) {
+		byte[] raw = toJsonBytes(beforeRow);
+		String dedupKey = resolveDedupKey(record, raw);
+		if (dedupKey != null) {
+			Long refId = lookupDedup(dedupKey);
+			if (refId != null) {
+				record.setPayloadRefId(refId);
+				record.setPayloadCodec(null);
+				record.setBeforeRowCiphertext(null);
+				record.setBeforeRowJson(null);
+				record.setEncryptionProvider(encryptionService.getProviderName());
+				record.setKeyVersion(encryptionService.getKeyVersion());
+				backupRecordMapper.insert(record);
+				opsStateService.markBackupDedupHit(raw.length);
+				return;
+			}
+		}
+		encode(record, raw);
+		backupRecordMapper.insert(record);
+		if (dedupKey != null && record.getId() != null) {
+			dedupIndex.put(dedupKey, new DedupEntry(record.getId(), System.currentTimeMillis()));
+		}
+	}
+
+	/**
+	 * 解析备份记录的旧值快照，兼容明文 JSON、加密 JSON、压缩后加密以及去重引用。
+	 */
+	public Map<String, Object> decode(CleaningBackupRecord record) {
+		long startNanos = System.nanoTime();
+		CleaningBackupRecord source = record;
+		if (record.getPayloadRefId() != null) {
+			source = backupRecordMapper.selectById(record.getPayloadRefId());
+			if (source == null) {
+				throw new IllegalStateException("Referenced backup payload is missing: " + record.getPayloadRefId());
+			}
+		}
+		byte[] payload;
+		boolean plainJson = false;
+		if (source.getBeforeRowJson() != null && !source.getBeforeRowJson().isBlank()) {
+			if (CODEC_DEFLATE_JSON.equals(source.getPayloadCodec())) {
+				payload = Base64.getDecoder().decode(source.getBeforeRowJson());
+			}
+			else {
+				payload = source.getBeforeRowJson().getBytes(StandardCharsets.UTF_8);
+				plainJson = true;
+			}
+		}
+		else if (source.getBeforeRowCiphertext() != null && !source.getBeforeRowCiphertext().isBlank()) {
+			payload = encryptionService.decryptBytes(source.getBeforeRowCiphertext());
+		}
+		else {
+			return new LinkedHashMap<>();
+		}
+		if (!plainJson && CODEC_DEFLATE_JSON.equals(source.getPayloadCodec())) {
+			payload = inflate(payload);
+		}
+		Map<String, Object> beforeRow = parseJsonMap(payload);
+		opsStateService.markBackupDecoded((System.nanoTime() - startNanos) / 1000L);
+		return beforeRow;
+	}
+
+	/**
+	 * 去重引用的快照只存放在被引用记录上，而生命周期清理（分批 DELETE 或整分区 DROP/TRUNCATE）按创建时间删除，
+	 * 可能先删掉被引用记录。清理前把即将过期的被引用快照迁移到最新的引用方，其余引用方改为指向它。
+	 * 最新的引用方最晚过期，只要还有引用方保留，快照就跟着保留。
+	 */
+	public int rehomeExpiringPayloads(LocalDateTime expireBefore, int batchLimit) {
+		int rehomed = 0;
+		while (true) {
+			List<Long> sourceIds = backupRecordMapper.findExpiringReferencedIds(expireBefore, batchLimit);
+			int moved = 0;
+			for (Long sourceId : sourceIds) {
+				if (rehome(sourceId)) {
+					moved++;
+				}
+			}
+			rehomed += moved;
+			if (sourceIds.size() < batchLimit || moved == 0) {
+				break;
+			}
+		}
+		if (rehomed > 0) {
+			log.info("Rehomed {} deduplicated backup payloads before lifecycle purge", rehomed);
+		}
+		return rehomed;
+	}
+
+	private boolean rehome(Long sourceId) {
+		CleaningBackupRecord source = backupRecordMapper.selectById(sourceId);
+		Long holderId = backupRecordMapper.findLatestReferrerId(sourceId);
+		if (source == null || holderId == null) {
+			return false;
+		}
+		// 先让新持有方拿到快照再改引用，中途失败时剩余引用方仍指向原记录，下次清理会重新迁移
+		backupRecordMapper.adoptPayload(holderId, source);
+		backupRecordMapper.repointPayloadRef(sourceId, holderId);
+		return true;
+	}
+
+	private void encode(CleaningBackupRecord record, byte[] raw) {
+		long startNanos = System.nanoTime();
+		DataSentryProperties.Cleaning.Backup backup = dataSentryProperties.getCleaning().getBackup();
+		byte[] payload = raw;
+		String codec = CODEC_JSON;
+		if (backup.isCompress() && raw.length >= Math.max(backup.getCompressMinBytes(), 0)) {
+			byte[] compressed = deflate(raw, backup.getCompressLevel());
+			if (compressed.length < raw.length) {
+				payload = compressed;
+				codec = CODEC_DEFLATE_JSON;
+			}
+		}
+		String stored;
+		if (encryptionService.isEncryptionEnabled()) {
+			stored = encryptionService.encryptBytes(payload);
+			record.setBeforeRowCiphertext(stored);
+			record.setBeforeRowJson(null);
+		}
+		else {
+			stored = CODEC_JSON.equals(codec) ? new String(raw, StandardCharsets.UTF_8)
+					: Base64.getEncoder().encodeToString(payload);
+			record.setBeforeRowJson(stored);
+			record.setBeforeRowCiphertext(null);
+		}
+		record.setPayloadCodec(codec);
+		record.setPayloadRefId(null);
+		record.setEncryptionProvider(encryptionService.getProviderName());
+		record.setKeyVersion(encryptionService.getKeyVersion());
+		opsStateService.markBackupEncoded(raw.length, stored != null ? stored.length() : 0L,
+				CODEC_DEFLATE_JSON.equals(codec), (System.nanoTime() - startNanos) / 1000L);
+	}
+
+	private String resolveDedupKey(CleaningBackupRecord record, byte[] raw) {
+		if (!dataSentryProperties.getCleaning().getBackup().isDedupEnabled() || record.getJobRunId() == null) {
+			return null;
+		}
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw);
+			return record.getJobRunId() + ":" + record.getTableName() + ":" + HexFormat.of().formatHex(digest);
+		}
+		catch (Exception e) {
+			return null;
+		}
+	}
+
+	private Long lookupDedup(String dedupKey) {
+		DedupEntry entry = dedupIndex.get(dedupKey);
+		if (entry == null) {
+			return null;
+		}
+		long windowMs = Math.max(dataSentryProperties.getCleaning().getBackup().getDedupWindowSeconds(), 0) * 1000L;
+		if (System.currentTimeMillis() - entry.createdAtMs() > windowMs) {
+			dedupIndex.remove(dedupKey);
+			return null;
+		}
+		return entry.recordId();
+	}
+
+	private byte[] toJsonBytes(Map<String, ?> beforeRow) {
+		try {
+			return JsonUtil.getObjectMapper().writeValueAsBytes(beforeRow);
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("Failed to serialize backup payload", e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> parseJsonMap(byte[] json) {
+		try {
+			Map<String, Object> parsed = JsonUtil.getObjectMapper().readValue(json, LinkedHashMap.class);
+			return parsed != null ? parsed : new LinkedHashMap<>();
+		}
+		catch (Exception e) {
+			log.warn("Failed to parse backup payload", e);
+			return new LinkedHashMap<>();
+		}
+	}
+
+	private static byte[] deflate(byte[] raw, int level) {
+		Deflater deflater = new Deflater(Math.min(Math.max(level, Deflater.BEST_SPEED), Deflater.BEST_COMPRESSION));
+		try {
+			deflater.setInput(raw);
+			deflater.finish();
+			ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(raw.length / 2, 64));
+			byte[] buffer = new byte[INFLATE_BUFFER_SIZE];
+			while (!deflater.finished()) {
+				int length = deflater.deflate(buffer);
+				output.write(buffer, 0, length);
+			}
+			return output.toByteArray();
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	private static byte[] inflate(byte[] compressed) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			ByteArrayOutputStream output = new ByteArrayOutputStream(compressed.length * 4);
+			byte[] buffer = new byte[INFLATE_BUFFER_SIZE];
+			while (!inflater.finished()) {
+				int length = inflater.inflate(buffer);
+				if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IllegalStateException("Truncated backup payload");
+				}
+				output.write(buffer, 0, length);
+			}
+			return output.toByteArray();
+		}
+		catch (DataFormatException e) {
+			throw new IllegalStateException("Corrupted backup payload", e);
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+	private record DedupEntry(Long recordId, long createdAtMs) {
+	}
+
+}
@@ -1,5 +1,6 @@
 package com.touhouqing.datasentry.cleaning.service;
 
+import com.touhouqing.datasentry.bo.DbConfigBO;
 import com.touhouqing.datasentry.cleaning.detector.LlmDetector;
 import com.touhouqing.datasentry.cleaning.enums.CleaningJobMode;
 import com.touhouqing.datasentry.cleaning.enums.CleaningBudgetStatus;
@@ -27,8 +28,10 @@ import com.touhouqing.datasentry.cleaning.pipeline.CleaningPipeline;
 import com.touhouqing.datasentry.cleaning.util.CleaningJsonPathProcessor;
 import com.touhouqing.datasentry.cleaning.util.CleaningOutboundSanitizer;
 import com.touhouqing.datasentry.cleaning.util.CleaningWritebackValidator;
+import com.touhouqing.datasentry.connector.StreamingCursorSupport;
 import com.touhouqing.datasentry.connector.pool.DBConnectionPool;
 import com.touhouqing.datasentry.connector.pool.DBConnectionPoolFactory;
+import com.touhouqing.datasentry.connector.pool.DataSourcePoolRegistry;
 import com.touhouqing.datasentry.entity.Datasource;
 import com.touhouqing.datasentry.enums.DatabaseDialectEnum;
 import com.touhouqing.datasentry.properties.DataSentryProperties;
@@ -46,7 +49,11 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.LinkedHashMap;
@@ -71,6 +78,10 @@ public class CleaningBatchProcessor {
 
 	private static final long PROGRESS_FLUSH_INTERVAL_MS = 5000L;
 
+	private static final int REPLAY_FETCH_CHUNK_SIZE = 200;
+
+	private static final String READ_MODE_STREAM = "STREAM";
+
 	private final CleaningJobMapper jobMapper;
 
 	private final CleaningJobRunMapper jobRunMapper;
@@ -113,21 +124,7 @@ public class CleaningBatchProcessor {
 
 	private final DataSentryProperties dataSentryProperties;
 
-	public CleaningBatchProcessor(CleaningJobMapper jobMapper, CleaningJobRunMapper jobRunMapper,
-			CleaningBackupRecordMapper backupRecordMapper, CleaningRecordMapper recordMapper,
-			CleaningReviewTaskMapper reviewTaskMapper, CleaningPolicyResolver policyResolver,
-			CleaningAllowlistMapper allowlistMapper, CleaningPipeline pipeline, DatasourceService datasourceService,
-			DBConnectionPoolFactory connectionPoolFactory, CleaningBackupEncryptionService encryptionService,
-			CleaningTokenEstimator tokenEstimator, CleaningPricingService pricingService,
-			CleaningCostLedgerService costLedgerService, CleaningBudgetService budgetService,
-			CleaningDlqService dlqService, CleaningNotificationService notificationService,
-			CleaningJsonPathProcessor jsonPathProcessor, LlmDetector llmDetector,
-			DataSentryProperties dataSentryProperties) {
-		this(jobMapper, jobRunMapper, backupRecordMapper, recordMapper, reviewTaskMapper, policyResolver,
-				allowlistMapper, pipeline, datasourceService, connectionPoolFactory, encryptionService, tokenEstimator,
-				pricingService, costLedgerService, budgetService, dlqService, notificationService, null,
-				jsonPathProcessor, llmDetector, dataSentryProperties);
-	}
+	private final CleaningBackupPayloadService backupPayloadService;
 
 	public void processRun(CleaningJobRun run, String leaseOwner) {
 		LocalDateTime now = LocalDateTime.now();
@@ -180,9 +177,20 @@ public class CleaningBatchProcessor {
 
 		Datasource datasource = datasourceService.getDatasourceById(job.getDatasourceId());
 		DBConnectionPool pool = connectionPoolFactory.getPoolByDbType(datasource.getType());
+		DbConfigBO dbConfig = datasourceService.getDbConfig(datasource, DataSourcePoolRegistry.WORKLOAD_CLEANING);
+		WatermarkRange watermark;
+		try {
+			watermark = resolveWatermarkRange(run, job, pool, dbConfig);
+		}
+		catch (Exception e) {
+			log.warn("Failed to resolve watermark for cleaning job run {}", run.getId(), e);
+			failRun(run.getId(), LocalDateTime.now(), "Watermark resolve failed");
+			return;
+		}
 
-		try (Connection connection = pool.getConnection(datasourceService.getDbConfig(datasource))) {
-			DatabaseDialectEnum dialect = resolveDialect(connection);
+		try (Connection connection = pool.getConnection(dbConfig);
+				RowChunkSource chunkSource = openChunkSource(pool, dbConfig, connection, job, pkColumns, selectColumns,
+						lastPkCursor, watermark)) {
 			Map<String, CleaningWritebackValidator.ColumnMeta> columnMeta = CleaningWritebackValidator
 				.loadColumnMeta(connection, job.getTableName());
 			long lastProgressFlushTimeMs = System.currentTimeMillis();
@@ -194,11 +202,11 @@ public class CleaningBatchProcessor {
 				if (!CleaningJobRunStatus.RUNNING.name().equals(latestRun.getStatus())) {
 					return;
 				}
-				List<Map<String, String>> rows = fetchRows(connection, dialect, job, pkColumns, selectColumns,
-						lastPkCursor);
+				List<Map<String, String>> rows = chunkSource.next(lastPkCursor);
 				if (rows.isEmpty()) {
 					jobRunMapper.updateStatus(run.getId(), CleaningJobRunStatus.SUCCEEDED.name(), LocalDateTime.now(),
 							LocalDateTime.now());
+					advanceWatermark(run, job, watermark);
 					return;
 				}
 				log.info("Cleaning batch chunk runId={} fetchedRows={} lastPk={} batchSize={}", run.getId(),
@@ -224,7 +232,7 @@ public class CleaningBatchProcessor {
 					String pkValueKey = buildPkValueKey(pkValues);
 					RowProcessResult rowResult = processRow(run.getId(), job, snapshot, allowlists, sanitizeRequested,
 							pkJson, pkValues, row, targetColumns, updateMapping, softDeleteMapping, columnMeta,
-							jsonPathMappings, precomputedL3ByPkAndColumn.get(pkValueKey), connection);
+							jsonPathMappings, precomputedL3ByPkAndColumn.get(pkValueKey), connection, true);
 					actualCost = actualCost.add(rowResult.costAmount());
 					totalScanned++;
 					if (rowResult.flagged()) {
@@ -290,12 +298,96 @@ public class CleaningBatchProcessor {
 		}
 	}
 
+	/**
+	 * 死信重放：同一运行同一张表的主键一次性回查，再复用批处理的检测与回写路径；失败不会再次写入死信，由调用方决定退避或终止。
+	 */
+	public List<ReplayOutcome> replayRows(Long runId, List<Map<String, String>> pkValuesList) {
+		if (pkValuesList == null || pkValuesList.isEmpty()) {
+			return List.of();
+		}
+		CleaningJobRun run = jobRunMapper.selectById(runId);
+		if (run == null) {
+			return rejectAll(pkValuesList.size(), "Job run not found");
+		}
+		CleaningJob job = jobMapper.selectById(run.getJobId());
+		if (job == null) {
+			return rejectAll(pkValuesList.size(), "Job not found");
+		}
+		if (job.getEnabled() == null || job.getEnabled() != 1) {
+			return rejectAll(pkValuesList.size(), "Job disabled");
+		}
+		Preflight preflight = preflight(job);
+		if (!preflight.ok()) {
+			return rejectAll(pkValuesList.size(), preflight.message());
+		}
+		List<String> pkColumns = preflight.pkColumns();
+		List<Map<String, String>> normalizedPks = new ArrayList<>(pkValuesList.size());
+		for (Map<String, String> requested : pkValuesList) {
+			normalizedPks.add(resolvePkValues(requested, pkColumns));
+		}
+		List<CleaningAllowlist> allowlists = Optional.ofNullable(allowlistMapper.findActive()).orElse(List.of());
+		CleaningPolicySnapshot snapshot = resolvePolicySnapshot(run, job);
+		Datasource datasource = datasourceService.getDatasourceById(job.getDatasourceId());
+		DBConnectionPool pool = connectionPoolFactory.getPoolByDbType(datasource.getType());
+		List<ReplayOutcome> outcomes = new ArrayList<>(pkValuesList.size());
+		try (Connection connection = pool
+			.getConnection(datasourceService.getDbConfig(datasource, DataSourcePoolRegistry.WORKLOAD_CLEANING))) {
+			Map<String, CleaningWritebackValidator.ColumnMeta> columnMeta = CleaningWritebackValidator
+				.loadColumnMeta(connection, job.getTableName());
+			List<Map<String, String>> validPks = normalizedPks.stream()
+				.filter(pkValues -> pkValues.size() == pkColumns.size())
+				.toList();
+			Map<String, Map<String, String>> rowsByPk = new LinkedHashMap<>();
+			for (Map<String, String> row : fetchRowsByPk(connection, job, pkColumns, preflight.selectColumns(),
+					validPks)) {
+				rowsByPk.put(buildPkValueKey(resolvePkValues(row, pkColumns)), row);
+			}
+			Map<String, Map<String, Map<Long, LlmDetector.LlmDetectResult>>> precomputedL3ByPkAndColumn = precomputeChunkL3(
+					runId, job, snapshot, new ArrayList<>(rowsByPk.values()), pkColumns, preflight.targetColumns(),
+					preflight.jsonPathMappings());
+			for (Map<String, String> pkValues : normalizedPks) {
+				if (pkValues.size() != pkColumns.size()) {
+					outcomes.add(ReplayOutcome.failed(new IllegalArgumentException("Invalid primary key values")));
+					continue;
+				}
+				String pkValueKey = buildPkValueKey(pkValues);
+				Map<String, String> row = rowsByPk.get(pkValueKey);
+				if (row == null) {
+					outcomes.add(ReplayOutcome.missing());
+					continue;
+				}
+				RowProcessResult result = processRow(runId, job, snapshot, allowlists, preflight.sanitizeRequested(),
+						toJsonSafe(pkValues), pkValues, row, preflight.targetColumns(), preflight.updateMapping(),
+						preflight.softDeleteMapping(), columnMeta, preflight.jsonPathMappings(),
+						precomputedL3ByPkAndColumn.get(pkValueKey), connection, false);
+				outcomes.add(result.failed() ? ReplayOutcome.failed(result.error())
+						: ReplayOutcome.succeeded(result.written()));
+			}
+		}
+		catch (Exception e) {
+			log.warn("Failed to replay rows runId={} table={}", runId, job.getTableName(), e);
+			while (outcomes.size() < pkValuesList.size()) {
+				outcomes.add(ReplayOutcome.failed(e));
+			}
+		}
+		return outcomes;
+	}
+
+	private List<ReplayOutcome> rejectAll(int size, String message) {
+		List<ReplayOutcome> outcomes = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			outcomes.add(ReplayOutcome.rejected(message));
+		}
+		return outcomes;
+	}
+
 	private RowProcessResult processRow(Long runId, CleaningJob job, CleaningPolicySnapshot snapshot,
 			List<CleaningAllowlist> allowlists, boolean sanitizeRequested, String pkJson, Map<String, String> pkValues,
 			Map<String, String> row, List<String> targetColumns, Map<String, String> updateMapping,
 			Map<String, Object> softDeleteMapping, Map<String, CleaningWritebackValidator.ColumnMeta> columnMeta,
 			Map<String, String> jsonPathMappings,
-			Map<String, Map<Long, LlmDetector.LlmDetectResult>> precomputedL3ByColumnAndRule, Connection connection) {
+			Map<String, Map<Long, LlmDetector.LlmDetectResult>> precomputedL3ByColumnAndRule, Connection connection,
+			boolean pushDlqOnFailure) {
 		try {
 			BigDecimal rowCost = BigDecimal.ZERO;
 			boolean writebackEnabled = CleaningJobMode.WRITEBACK.name().equalsIgnoreCase(job.getMode());
@@ -410,6 +502,7 @@ public class CleaningBatchProcessor {
 
 			boolean written = false;
 			boolean failed = false;
+			Exception writebackError = null;
 			Set<String> updateAppliedColumns = new LinkedHashSet<>();
 			if (writebackEnabled) {
 				try {
@@ -448,6 +541,7 @@ public class CleaningBatchProcessor {
 				catch (Exception e) {
 					log.warn("Failed to writeback for job {} pk {}", job.getId(), pkJson, e);
 					failed = true;
+					writebackError = e;
 				}
 			}
 
@@ -494,13 +588,15 @@ public class CleaningBatchProcessor {
 				recordMapper.insert(record);
 			}
 
-			return new RowProcessResult(flagged, written, failed, rowCost);
+			return new RowProcessResult(flagged, written, failed, rowCost, writebackError);
 		}
 		catch (Exception e) {
 			log.warn("Failed to process row for job {} pk {}", job.getId(), pkJson, e);
-			dlqService.push(job.getId(), runId, job.getDatasourceId(), job.getTableName(), pkJson,
-					Map.of("pkValues", pkValues, "targetColumns", targetColumns), e);
-			return new RowProcessResult(false, false, true, BigDecimal.ZERO);
+			if (pushDlqOnFailure) {
+				dlqService.push(job.getId(), runId, job.getDatasourceId(), job.getTableName(), pkJson,
+						Map.of("pkValues", pkValues, "targetColumns", targetColumns), e);
+			}
+			return new RowProcessResult(false, false, true, BigDecimal.ZERO, e);
 		}
 	}
 
@@ -722,56 +818,26 @@ public class CleaningBatchProcessor {
 		for (String column : updateValues.keySet()) {
 			beforeRow.put(column, row.get(column));
 		}
-		String beforeRowJson = toJsonSafe(beforeRow);
-		String ciphertext = null;
-		String plaintext = null;
-		if (dataSentryProperties.getCleaning().getBackup().isEncrypt()) {
-			ciphertext = encryptionService.encrypt(beforeRowJson);
-		}
-		else {
-			plaintext = beforeRowJson;
-		}
-		CleaningBackupRecord record = CleaningBackupRecord.builder()
-			.jobRunId(runId)
-			.datasourceId(job.getDatasourceId())
-			.tableName(job.getTableName())
-			.pkJson(pkJson)
-			.pkHash(hashPk(pkJson))
-			.encryptionProvider(encryptionService.getProviderName())
-			.keyVersion(encryptionService.getKeyVersion())
-			.beforeRowCiphertext(ciphertext)
-			.beforeRowJson(plaintext)
-			.createdTime(LocalDateTime.now())
-			.build();
-		backupRecordMapper.insert(record);
+		storeBackup(runId, job, pkJson, beforeRow);
 		executeUpdate(connection, job.getTableName(), updateValues, pkValues);
 	}
 
 	private void backupAndHardDelete(Long runId, CleaningJob job, String pkJson, Map<String, String> pkValues,
 			Map<String, String> row, Connection connection) throws Exception {
-		String beforeRowJson = toJsonSafe(row);
-		String ciphertext = null;
-		String plaintext = null;
-		if (dataSentryProperties.getCleaning().getBackup().isEncrypt()) {
-			ciphertext = encryptionService.encrypt(beforeRowJson);
-		}
-		else {
-			plaintext = beforeRowJson;
-		}
+		storeBackup(runId, job, pkJson, row);
+		executeDelete(connection, job.getTableName(), pkValues);
+	}
+
+	private void storeBackup(Long runId, CleaningJob job, String pkJson, Map<String, ?> beforeRow) {
 		CleaningBackupRecord record = CleaningBackupRecord.builder()
 			.jobRunId(runId)
 			.datasourceId(job.getDatasourceId())
 			.tableName(job.getTableName())
 			.pkJson(pkJson)
 			.pkHash(hashPk(pkJson))
-			.encryptionProvider(encryptionService.getProviderName())
-			.keyVersion(encryptionService.getKeyVersion())
-			.beforeRowCiphertext(ciphertext)
-			.beforeRowJson(plaintext)
 			.createdTime(LocalDateTime.now())
 			.build();
-		backupRecordMapper.insert(record);
-		executeDelete(connection, job.getTableName(), pkValues);
+		backupPayloadService.store(record, beforeRow);
 	}
 
 	private void executeUpdate(Connection connection, String tableName, Map<String, Object> updateValues,
@@ -802,7 +868,25 @@ public class CleaningBatchProcessor {
 	}
 
 	private List<Map<String, String>> fetchRows(Connection connection, DatabaseDialectEnum dialect, CleaningJob job,
-			List<String> pkColumns, List<String> selectColumns, Map<String, String> lastPkCursor) throws Exception {
+			List<String> pkColumns, List<String> selectColumns, Map<String, String> lastPkCursor,
+			WatermarkRange watermark) throws Exception {
+		boolean hasPkCursor = hasValidPkCursor(lastPkCursor, pkColumns);
+		String sql = buildScanSql(job, pkColumns, selectColumns, hasPkCursor, watermark) + resolveLimitClause(dialect);
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			int index = bindScanParameters(statement, pkColumns, hasPkCursor ? lastPkCursor : null, watermark);
+			statement.setInt(index, resolveBatchSize(job));
+			List<Map<String, String>> rows = new ArrayList<>();
+			try (ResultSet rs = statement.executeQuery()) {
+				while (rs.next()) {
+					rows.add(readRow(rs, selectColumns));
+				}
+			}
+			return rows;
+		}
+	}
+
+	private String buildScanSql(CleaningJob job, List<String> pkColumns, List<String> selectColumns,
+			boolean hasPkCursor, WatermarkRange watermark) {
 		StringBuilder sql = new StringBuilder();
 		sql.append("SELECT ").append(String.join(",", selectColumns)).append(" FROM ").append(job.getTableName());
 		boolean hasWhereClause = false;
@@ -810,7 +894,11 @@ public class CleaningBatchProcessor {
 			sql.append(" WHERE (").append(job.getWhereSql()).append(")");
 			hasWhereClause = true;
 		}
-		boolean hasPkCursor = hasValidPkCursor(lastPkCursor, pkColumns);
+		if (watermark != null && watermark.incremental()) {
+			sql.append(hasWhereClause ? " AND (" : " WHERE (");
+			sql.append(watermark.column()).append(" > ? AND ").append(watermark.column()).append(" <= ?)");
+			hasWhereClause = true;
+		}
 		if (hasPkCursor) {
 			sql.append(hasWhereClause ? " AND (" : " WHERE (");
 			sql.append(buildPkCursorWhereClause(pkColumns));
@@ -818,31 +906,214 @@ public class CleaningBatchProcessor {
 		}
 		sql.append(" ORDER BY ")
 			.append(pkColumns.stream().map(column -> column + " ASC").collect(Collectors.joining(", ")));
-		String limitClause = resolveLimitClause(dialect);
-		sql.append(limitClause);
-		try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
-			int index = 1;
-			if (hasPkCursor) {
-				for (int depth = 0; depth < pkColumns.size(); depth++) {
-					for (int prefix = 0; prefix < depth; prefix++) {
-						statement.setObject(index++, lastPkCursor.get(pkColumns.get(prefix)));
+		return sql.toString();
+	}
+
+	/**
+	 * 按 buildScanSql 的占位符顺序绑定参数：先水位区间，再主键游标，返回下一个参数下标。
+	 */
+	private int bindScanParameters(PreparedStatement statement, List<String> pkColumns,
+			Map<String, String> lastPkCursor, WatermarkRange watermark) throws Exception {
+		int index = 1;
+		if (watermark != null && watermark.incremental()) {
+			bindWatermarkValue(statement, index++, watermark.from());
+			bindWatermarkValue(statement, index++, watermark.to());
+		}
+		if (lastPkCursor == null) {
+			return index;
+		}
+		for (int depth = 0; depth < pkColumns.size(); depth++) {
+			for (int prefix = 0; prefix < depth; prefix++) {
+				statement.setObject(index++, lastPkCursor.get(pkColumns.get(prefix)));
+			}
+			statement.setObject(index++, lastPkCursor.get(pkColumns.get(depth)));
+		}
+		return index;
+	}
+
+	/**
+	 * 确定本次运行的水位区间：恢复的运行沿用已记录的区间；新运行以任务高水位为下界、当前 MAX 为上界，
+	 * 策略版本变化且任务开启了重扫时下界置空按全量处理。上界在运行开始时固定，运行期间新写入的行留给下一次；
+	 * 时间类水位的上界再按安全滞后回退，见 {@link #applySafetyLag}。
+	 */
+	private WatermarkRange resolveWatermarkRange(CleaningJobRun run, CleaningJob job, DBConnectionPool pool,
+			DbConfigBO dbConfig) throws Exception {
+		String column = job.getWatermarkColumn();
+		if (column == null || column.isBlank()) {
+			return null;
+		}
+		if (run.getWatermarkTo() != null) {
+			return new WatermarkRange(column, run.getWatermarkFrom(), run.getWatermarkTo());
+		}
+		String from = job.getWatermarkValue();
+		if (from != null && !Objects.equals(job.getWatermarkPolicyVersionId(), run.getPolicyVersionId())
+				&& !Integer.valueOf(0).equals(job.getFullRescanOnPolicyChange())) {
+			log.info("Cleaning batch full rescan runId={} jobId={} reason=POLICY_VERSION_CHANGED from={} to={}",
+					run.getId(), job.getId(), job.getWatermarkPolicyVersionId(), run.getPolicyVersionId());
+			from = null;
+		}
+		String to;
+		try (Connection connection = pool.getConnection(dbConfig)) {
+			to = queryMaxWatermark(connection, job, column);
+		}
+		to = to == null ? from : applySafetyLag(from, to);
+		jobRunMapper.updateWatermarkRange(run.getId(), from, to, LocalDateTime.now());
+		log.info("Cleaning batch watermark runId={} jobId={} column={} from={} to={}", run.getId(), job.getId(),
+				column, from, to);
+		return new WatermarkRange(column, from, to);
+	}
+
+	/**
+	 * 事务内较早写入的时间戳在提交前对 MAX 查询不可见，若直接以 MAX 推进水位，这些行提交后会落在下界之下被永久跳过。
+	 * 上界因此不超过当前时间减去安全滞后，(上界, MAX] 内的行留给下一次运行；数值类水位无法按时间回退，原样返回。
+	 */
+	private String applySafetyLag(String from, String to) {
+		long lagSeconds = dataSentryProperties.getCleaning().getBatch().getWatermarkSafetyLagSeconds();
+		if (lagSeconds <= 0) {
+			return to;
+		}
+		try {
+			LocalDateTime cutoff = LocalDateTime.now().minusSeconds(lagSeconds).truncatedTo(ChronoUnit.SECONDS);
+			if (!LocalDateTime.parse(to).isAfter(cutoff)) {
+				return to;
+			}
+			if (from != null && !cutoff.isAfter(LocalDateTime.parse(from))) {
+				return from;
+			}
+			return cutoff.toString();
+		}
+		catch (DateTimeParseException e) {
+			return to;
+		}
+	}
+
+	private String queryMaxWatermark(Connection connection, CleaningJob job, String column) throws Exception {
+		StringBuilder sql = new StringBuilder();
+		sql.append("SELECT MAX(").append(column).append(") FROM ").append(job.getTableName());
+		if (job.getWhereSql() != null && !job.getWhereSql().isBlank()) {
+			sql.append(" WHERE (").append(job.getWhereSql()).append(")");
+		}
+		try (PreparedStatement statement = connection.prepareStatement(sql.toString());
+				ResultSet rs = statement.executeQuery()) {
+			return rs.next() ? formatWatermark(rs.getObject(1)) : null;
+		}
+	}
+
+	private void advanceWatermark(CleaningJobRun run, CleaningJob job, WatermarkRange watermark) {
+		if (watermark == null || watermark.to() == null) {
+			return;
+		}
+		jobMapper.updateWatermark(job.getId(), watermark.to(), run.getPolicyVersionId(), LocalDateTime.now());
+		log.info("Cleaning batch watermark advanced runId={} jobId={} watermark={}", run.getId(), job.getId(),
+				watermark.to());
+	}
+
+	private static String formatWatermark(Object value) {
+		if (value == null) {
+			return null;
+		}
+		if (value instanceof Timestamp timestamp) {
+			return timestamp.toLocalDateTime().toString();
+		}
+		if (value instanceof java.util.Date date) {
+			return new Timestamp(date.getTime()).toLocalDateTime().toString();
+		}
+		if (value instanceof BigDecimal decimal) {
+			return decimal.toPlainString();
+		}
+		return String.valueOf(value);
+	}
+
+	/**
+	 * 水位以字符串存储，绑定时还原为数值或时间类型，避免 PostgreSQL 等强类型方言拒绝 varchar 与时间列比较。
+	 */
+	private static void bindWatermarkValue(PreparedStatement statement, int index, String value) throws Exception {
+		if (value.matches("-?\\d+(\\.\\d+)?")) {
+			statement.setBigDecimal(index, new BigDecimal(value));
+			return;
+		}
+		try {
+			statement.setTimestamp(index, Timestamp.valueOf(LocalDateTime.parse(value)));
+			return;
+		}
+		catch (DateTimeParseException ignored) {
+			// 非 ISO 本地时间，按带时区时间或原始字符串绑定
+		}
+		try {
+			statement.setObject(index, OffsetDateTime.parse(value));
+		}
+		catch (DateTimeParseException ignored) {
+			statement.setString(index, value);
+		}
+	}
+
+	private Map<String, String> readRow(ResultSet rs, List<String> selectColumns) throws Exception {
+		Map<String, String> row = new LinkedHashMap<>();
+		for (String column : selectColumns) {
+			row.put(column, rs.getString(column));
+		}
+		return row;
+	}
+
+	/**
+	 * 按配置的读取方式打开源表读取器。STREAM 打开失败（驱动不支持等）时记录告警并回退到 KEYSET。
+	 */
+	private RowChunkSource openChunkSource(DBConnectionPool pool, DbConfigBO dbConfig, Connection connection,
+			CleaningJob job, List<String> pkColumns, List<String> selectColumns, Map<String, String> lastPkCursor,
+			WatermarkRange watermark) {
+		DatabaseDialectEnum dialect = resolveDialect(connection);
+		if (READ_MODE_STREAM.equalsIgnoreCase(dataSentryProperties.getCleaning().getBatch().getReadMode())) {
+			try {
+				return new StreamingRowChunkSource(pool.getConnection(dbConfig),
+						dialect, job, pkColumns, selectColumns, lastPkCursor, watermark);
+			}
+			catch (Exception e) {
+				log.warn("Cleaning batch streaming read unavailable jobId={} dialect={}, fallback to keyset",
+						job.getId(), dialect, e);
+			}
+		}
+		return lastPk -> fetchRows(connection, dialect, job, pkColumns, selectColumns, lastPk, watermark);
+	}
+
+	private List<Map<String, String>> fetchRowsByPk(Connection connection, CleaningJob job, List<String> pkColumns,
+			List<String> selectColumns, List<Map<String, String>> pkValuesList) throws Exception {
+		List<Map<String, String>> rows = new ArrayList<>();
+		for (int from = 0; from < pkValuesList.size(); from += REPLAY_FETCH_CHUNK_SIZE) {
+			List<Map<String, String>> chunk = pkValuesList.subList(from,
+					Math.min(from + REPLAY_FETCH_CHUNK_SIZE, pkValuesList.size()));
+			StringBuilder sql = new StringBuilder();
+			sql.append("SELECT ").append(String.join(",", selectColumns)).append(" FROM ").append(job.getTableName());
+			sql.append(" WHERE ");
+			if (job.getWhereSql() != null && !job.getWhereSql().isBlank()) {
+				sql.append("(").append(job.getWhereSql()).append(") AND ");
+			}
+			if (pkColumns.size() == 1) {
+				sql.append(pkColumns.get(0))
+					.append(" IN (")
+					.append(chunk.stream().map(pk -> "?").collect(Collectors.joining(", ")))
+					.append(")");
+			}
+			else {
+				String tupleClause = "(" + buildPkWhereClause(pkColumns) + ")";
+				sql.append("(")
+					.append(chunk.stream().map(pk -> tupleClause).collect(Collectors.joining(" OR ")))
+					.append(")");
+			}
+			try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+				int index = 1;
+				for (Map<String, String> pkValues : chunk) {
+					for (String pkColumn : pkColumns) {
+						statement.setObject(index++, pkValues.get(pkColumn));
 					}
-					statement.setObject(index++, lastPkCursor.get(pkColumns.get(depth)));
 				}
-			}
-			statement.setInt(index, resolveBatchSize(job));
-			List<Map<String, String>> rows = new ArrayList<>();
-			try (ResultSet rs = statement.executeQuery()) {
-				while (rs.next()) {
-					Map<String, String> row = new LinkedHashMap<>();
-					for (String column : selectColumns) {
-						row.put(column, rs.getString(column));
+				try (ResultSet rs = statement.executeQuery()) {
+					while (rs.next()) {
+						rows.add(readRow(rs, selectColumns));
 					}
-					rows.add(row);
 				}
 			}
-			return rows;
 		}
+		return rows;
 	}
 
 	private Preflight preflight(CleaningJob job) {
@@ -897,6 +1168,10 @@ public class CleaningBatchProcessor {
 		if (!isValidIdentifier(job.getTableName()) || pkColumns.stream().anyMatch(pk -> !isValidIdentifier(pk))) {
 			return Preflight.fail("Invalid table or pk column");
 		}
+		boolean incremental = job.getWatermarkColumn() != null && !job.getWatermarkColumn().isBlank();
+		if (incremental && !isValidIdentifier(job.getWatermarkColumn())) {
+			return Preflight.fail("Invalid watermark column");
+		}
 		try {
 			List<String> existingColumns = datasourceService.getTableColumns(job.getDatasourceId(), job.getTableName());
 			if (writebackEnabled && writebackMode == CleaningWritebackMode.HARD_DELETE) {
@@ -907,6 +1182,9 @@ public class CleaningBatchProcessor {
 					return Preflight.fail("Column not found: " + column);
 				}
 			}
+			if (incremental && !existingColumns.contains(job.getWatermarkColumn())) {
+				return Preflight.fail("Watermark column not found: " + job.getWatermarkColumn());
+			}
 		}
 		catch (Exception e) {
 			return Preflight.fail("Failed to validate columns");
@@ -1367,7 +1645,36 @@ public class CleaningBatchProcessor {
 		}
 	}
 
-	private record RowProcessResult(boolean flagged, boolean written, boolean failed, BigDecimal costAmount) {
+	public record ReplayOutcome(String status, boolean written, String message, Exception error) {
+
+		public static final String SUCCEEDED = "SUCCEEDED";
+
+		public static final String MISSING = "MISSING";
+
+		public static final String REJECTED = "REJECTED";
+
+		public static final String FAILED = "FAILED";
+
+		static ReplayOutcome succeeded(boolean written) {
+			return new ReplayOutcome(SUCCEEDED, written, null, null);
+		}
+
+		static ReplayOutcome missing() {
+			return new ReplayOutcome(MISSING, false, "Row no longer exists or no longer matches job filter", null);
+		}
+
+		static ReplayOutcome rejected(String message) {
+			return new ReplayOutcome(REJECTED, false, message, null);
+		}
+
+		static ReplayOutcome failed(Exception error) {
+			return new ReplayOutcome(FAILED, false, error != null ? error.getMessage() : "unknown", error);
+		}
+
+	}
+
+	private record RowProcessResult(boolean flagged, boolean written, boolean failed, BigDecimal costAmount,
+			Exception error) {
 	}
 
 	private record L3BatchGroup(String column, Long ruleId, String prompt, List<LlmDetector.BatchInput> inputs,
@@ -1377,4 +1684,113 @@ public class CleaningBatchProcessor {
 	private record L3ItemRef(String itemId, String pkValueKey, String text) {
 	}
 
+	/**
+	 * 增量运行的水位区间 (from, to]，from 为空表示全量扫描，不附加水位条件。
+	 */
+	private record WatermarkRange(String column, String from, String to) {
+
+		private boolean incremental() {
+			return from != null;
+		}
+
+	}
+
+	/**
+	 * 源表分批读取器，lastPkCursor 为已处理的最后一行主键。
+	 */
+	@FunctionalInterface
+	private interface RowChunkSource extends AutoCloseable {
+
+		List<Map<String, String>> next(Map<String, String> lastPkCursor) throws Exception;
+
+		@Override
+		default void close() throws Exception {
+		}
+
+	}
+
+	/**
+	 * 只进、只读的服务端游标读取器：整次运行只执行一次查询，按批次从结果集中取行。
+	 * 使用独立的读连接，回写仍走主连接，PostgreSQL 读连接上的事务不会被回写提交打断。
+	 */
+	private final class StreamingRowChunkSource implements RowChunkSource {
+
+		private final Connection readConnection;
+
+		private final List<String> selectColumns;
+
+		private final int chunkSize;
+
+		private PreparedStatement statement;
+
+		private ResultSet resultSet;
+
+		private boolean autoCommitChanged;
+
+		private boolean exhausted;
+
+		private StreamingRowChunkSource(Connection readConnection, DatabaseDialectEnum dialect, CleaningJob job,
+				List<String> pkColumns, List<String> selectColumns, Map<String, String> lastPkCursor,
+				WatermarkRange watermark) throws Exception {
+			this.readConnection = readConnection;
+			this.selectColumns = selectColumns;
+			this.chunkSize = resolveBatchSize(job);
+			try {
+				autoCommitChanged = StreamingCursorSupport.beginCursorRead(readConnection, dialect);
+				boolean hasPkCursor = hasValidPkCursor(lastPkCursor, pkColumns);
+				statement = readConnection.prepareStatement(
+						buildScanSql(job, pkColumns, selectColumns, hasPkCursor, watermark),
+						ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+				statement.setFetchSize(StreamingCursorSupport.streamingFetchSize(dialect,
+						dataSentryProperties.getCleaning().getBatch().getStreamFetchSize()));
+				bindScanParameters(statement, pkColumns, hasPkCursor ? lastPkCursor : null, watermark);
+				resultSet = statement.executeQuery();
+				log.info("Cleaning batch streaming cursor opened jobId={} dialect={} resumeFrom={}", job.getId(),
+						dialect, hasPkCursor ? lastPkCursor : null);
+			}
+			catch (Exception e) {
+				close();
+				throw e;
+			}
+		}
+
+		@Override
+		public List<Map<String, String>> next(Map<String, String> lastPkCursor) throws Exception {
+			List<Map<String, String>> rows = new ArrayList<>();
+			while (!exhausted && rows.size() < chunkSize) {
+				if (!resultSet.next()) {
+					exhausted = true;
+					break;
+				}
+				rows.add(readRow(resultSet, selectColumns));
+			}
+			return rows;
+		}
+
+		@Override
+		public void close() {
+			try {
+				if (resultSet != null) {
+					resultSet.close();
+				}
+				if (statement != null) {
+					statement.close();
+				}
+				StreamingCursorSupport.endCursorRead(readConnection, autoCommitChanged);
+			}
+			catch (Exception e) {
+				log.warn("Failed to release cleaning streaming cursor", e);
+			}
+			finally {
+				try {
+					readConnection.close();
+				}
+				catch (Exception e) {
+					log.warn("Failed to close cleaning streaming connection", e);
+				}
+			}
+		}
+
+	}
+
 }
@@ -7,18 +7,40 @@ import com.touhouqing.datasentry.properties.DataSentryProperties;
 import com.touhouqing.datasentry.util.JsonUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CleaningDlqService {
 
-	private static final int MAX_RETRY = 3;
+	static final String FAILURE_TRANSIENT = "TRANSIENT";
+
+	static final String FAILURE_DATA = "DATA";
+
+	static final String FAILURE_DATABASE = "DATABASE";
+
+	static final String FAILURE_CONFIG = "CONFIG";
+
+	static final String FAILURE_UNKNOWN = "UNKNOWN";
+
+	private static final int MAX_ERROR_MESSAGE_LENGTH = 2000;
 
 	private final CleaningDlqMapper dlqMapper;
 
@@ -26,6 +48,10 @@ public class CleaningDlqService {
 
 	private final CleaningNotificationService notificationService;
 
+	private final ObjectProvider<CleaningBatchProcessor> batchProcessorProvider;
+
+	private final CleaningOpsStateService opsStateService;
+
 	public void push(Long jobId, Long runId, Long datasourceId, String tableName, String pkJson, Object payload,
 			Exception error) {
 		CleaningDlqRecord record = CleaningDlqRecord.builder()
@@ -63,28 +89,40 @@ public class CleaningDlqService {
 		return dlqMapper.selectList(wrapper.orderByDesc(CleaningDlqRecord::getId));
 	}
 
+	/**
+	 * 领取到期的死信，按运行和表分组后交给批处理重放；成功或行已不存在则结束，失败按分类指数退避或标记 DEAD。
+	 */
 	public void retryBatch() {
-		List<CleaningDlqRecord> records = dlqMapper.findRunnable(LocalDateTime.now(), 50);
+		DataSentryProperties.Cleaning.Dlq dlqConfig = dataSentryProperties.getCleaning().getDlq();
+		LocalDateTime now = LocalDateTime.now();
+		List<CleaningDlqRecord> records = dlqMapper.findRunnable(now, Math.max(dlqConfig.getReplayBatchSize(), 1));
+		if (records.isEmpty()) {
+			return;
+		}
+		long startMs = System.currentTimeMillis();
+		LocalDateTime leaseUntil = now.plusSeconds(Math.max(dlqConfig.getClaimLeaseSeconds(), 1));
+		ReplayStats stats = new ReplayStats();
+		Map<ReplayGroupKey, List<CleaningDlqRecord>> groups = new LinkedHashMap<>();
 		for (CleaningDlqRecord record : records) {
-			try {
-				if (record.getRetryCount() != null && record.getRetryCount() >= MAX_RETRY) {
-					dlqMapper.markDead(record.getId());
-					continue;
-				}
-				log.info("Replaying DLQ id={} jobRun={} table={} pk={}", record.getId(), record.getJobRunId(),
-						record.getTableName(), record.getPkJson());
-				dlqMapper.markDone(record.getId());
+			if (record.getRetryCount() != null && record.getRetryCount() >= dlqConfig.getMaxRetry()) {
+				dlqMapper.markDead(record.getId());
+				stats.dead++;
+				continue;
 			}
-			catch (Exception e) {
-				int nextRetry = record.getRetryCount() != null ? record.getRetryCount() + 1 : 1;
-				if (nextRetry >= MAX_RETRY) {
-					dlqMapper.markDead(record.getId());
-				}
-				else {
-					dlqMapper.increaseRetry(record.getId(), nextRetry, LocalDateTime.now().plusMinutes(nextRetry * 5L));
-				}
+			if (dlqMapper.claim(record.getId(), now, leaseUntil) != 1) {
+				continue;
 			}
+			groups.computeIfAbsent(new ReplayGroupKey(record.getJobRunId(), record.getTableName()),
+					key -> new ArrayList<>())
+				.add(record);
 		}
+		for (Map.Entry<ReplayGroupKey, List<CleaningDlqRecord>> entry : groups.entrySet()) {
+			replayGroup(entry.getKey(), entry.getValue(), dlqConfig, stats);
+		}
+		long elapsedMs = System.currentTimeMillis() - startMs;
+		opsStateService.markDlqReplayBatch(stats.succeeded, stats.missing, stats.failed, stats.dead, elapsedMs);
+		log.info("DLQ replay finished groups={} succeeded={} missing={} failed={} dead={} elapsedMs={}",
+				groups.size(), stats.succeeded, stats.missing, stats.failed, stats.dead, elapsedMs);
 	}
 
 	public void retryOne(Long id) {
@@ -96,6 +134,117 @@ public class CleaningDlqService {
 				LocalDateTime.now());
 	}
 
+	private void replayGroup(ReplayGroupKey key, List<CleaningDlqRecord> records,
+			DataSentryProperties.Cleaning.Dlq dlqConfig, ReplayStats stats) {
+		List<Map<String, String>> pkValuesList = new ArrayList<>(records.size());
+		for (CleaningDlqRecord record : records) {
+			pkValuesList.add(parsePkValues(record.getPkJson()));
+		}
+		List<CleaningBatchProcessor.ReplayOutcome> outcomes;
+		try {
+			outcomes = batchProcessorProvider.getObject().replayRows(key.jobRunId(), pkValuesList);
+		}
+		catch (Exception e) {
+			log.warn("DLQ replay failed jobRun={} table={}", key.jobRunId(), key.tableName(), e);
+			outcomes = List.of();
+		}
+		for (int i = 0; i < records.size(); i++) {
+			CleaningBatchProcessor.ReplayOutcome outcome = i < outcomes.size() ? outcomes.get(i)
+					: CleaningBatchProcessor.ReplayOutcome.failed(new IllegalStateException("Replay aborted"));
+			settle(records.get(i), outcome, dlqConfig, stats);
+		}
+	}
+
+	private void settle(CleaningDlqRecord record, CleaningBatchProcessor.ReplayOutcome outcome,
+			DataSentryProperties.Cleaning.Dlq dlqConfig, ReplayStats stats) {
+		if (CleaningBatchProcessor.ReplayOutcome.SUCCEEDED.equals(outcome.status())) {
+			dlqMapper.markDone(record.getId());
+			stats.succeeded++;
+			return;
+		}
+		if (CleaningBatchProcessor.ReplayOutcome.MISSING.equals(outcome.status())) {
+			dlqMapper.markDone(record.getId());
+			stats.missing++;
+			return;
+		}
+		stats.failed++;
+		String failureClass = classifyFailure(outcome);
+		opsStateService.markDlqFailure(failureClass);
+		int nextRetry = record.getRetryCount() != null ? record.getRetryCount() + 1 : 1;
+		String errorMessage = truncate("[" + failureClass + "] " + outcome.message());
+		if (FAILURE_DATA.equals(failureClass) || nextRetry >= dlqConfig.getMaxRetry()) {
+			dlqMapper.recordReplayFailure(record.getId(), "DEAD", nextRetry, null, errorMessage);
+			stats.dead++;
+			return;
+		}
+		LocalDateTime nextRetryTime = resolveNextRetryTime(nextRetry, LocalDateTime.now(), dlqConfig);
+		dlqMapper.recordReplayFailure(record.getId(), "READY", nextRetry, nextRetryTime, errorMessage);
+		log.info("DLQ replay failed id={} class={} retry={} nextRetryTime={}", record.getId(), failureClass,
+				nextRetry, nextRetryTime);
+	}
+
+	/**
+	 * 第 n 次重试等待 base * 2^(n-1) 秒，封顶 max，并在 [delay * (1 - jitter), delay] 内随机，避免同批失败集中回放。
+	 */
+	static LocalDateTime resolveNextRetryTime(int retryCount, LocalDateTime now,
+			DataSentryProperties.Cleaning.Dlq dlqConfig) {
+		long baseSeconds = Math.max(dlqConfig.getBackoffBaseSeconds(), 1);
+		long maxSeconds = Math.max(dlqConfig.getBackoffMaxSeconds(), baseSeconds);
+		int exponent = Math.min(Math.max(retryCount - 1, 0), 30);
+		long delaySeconds = Math.min(baseSeconds << exponent, maxSeconds);
+		double jitterRatio = Math.min(Math.max(dlqConfig.getBackoffJitterRatio(), 0.0), 1.0);
+		long minSeconds = (long) Math.floor(delaySeconds * (1.0 - jitterRatio));
+		long actualSeconds = minSeconds + ThreadLocalRandom.current().nextLong(delaySeconds - minSeconds + 1);
+		return now.plusSeconds(actualSeconds);
+	}
+
+	static String classifyFailure(CleaningBatchProcessor.ReplayOutcome outcome) {
+		if (CleaningBatchProcessor.ReplayOutcome.REJECTED.equals(outcome.status())) {
+			return FAILURE_CONFIG;
+		}
+		Throwable current = outcome.error();
+		String fallback = FAILURE_UNKNOWN;
+		while (current != null) {
+			if (current instanceof SQLTransientException || current instanceof SQLRecoverableException
+					|| current instanceof SocketTimeoutException || current instanceof ConnectException
+					|| current instanceof TimeoutException) {
+				return FAILURE_TRANSIENT;
+			}
+			if (current instanceof SQLIntegrityConstraintViolationException || current instanceof SQLDataException
+					|| current instanceof IllegalArgumentException) {
+				return FAILURE_DATA;
+			}
+			if (current instanceof SQLException) {
+				fallback = FAILURE_DATABASE;
+			}
+			current = current.getCause() != current ? current.getCause() : null;
+		}
+		return fallback;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, String> parsePkValues(String pkJson) {
+		Map<String, String> pkValues = new LinkedHashMap<>();
+		if (pkJson == null || pkJson.isBlank()) {
+			return pkValues;
+		}
+		try {
+			Map<String, Object> parsed = JsonUtil.getObjectMapper().readValue(pkJson, LinkedHashMap.class);
+			parsed.forEach((column, value) -> pkValues.put(column, value != null ? String.valueOf(value) : null));
+		}
+		catch (Exception e) {
+			log.warn("Failed to parse DLQ pk json: {}", pkJson);
+		}
+		return pkValues;
+	}
+
+	private String truncate(String message) {
+		if (message == null || message.length() <= MAX_ERROR_MESSAGE_LENGTH) {
+			return message;
+		}
+		return message.substring(0, MAX_ERROR_MESSAGE_LENGTH);
+	}
+
 	private String toJson(Object value) {
 		if (value == null) {
 			return null;
@@ -108,4 +257,19 @@ public class CleaningDlqService {
 		}
 	}
 
+	private record ReplayGroupKey(Long jobRunId, String tableName) {
+	}
+
+	private static final class ReplayStats {
+
+		private long succeeded;
+
+		private long missing;
+
+		private long failed;
+
+		private long dead;
+
+	}
+
 }
@@ -0,0 +1,540 @@
+package com.touhouqing.datasentry.cleaning.service;
+
+import com.touhouqing.datasentry.cleaning.detector.LlmDetector;
+import com.touhouqing.datasentry.cleaning.dto.CleaningDryRunEstimateView;
+import com.touhouqing.datasentry.cleaning.dto.CleaningDryRunRequest;
+import com.touhouqing.datasentry.cleaning.enums.CleaningRuleType;
+import com.touhouqing.datasentry.cleaning.mapper.CleaningAllowlistMapper;
+import com.touhouqing.datasentry.cleaning.mapper.CleaningJobMapper;
+import com.touhouqing.datasentry.cleaning.model.CleaningAllowlist;
+import com.touhouqing.datasentry.cleaning.model.CleaningContext;
+import com.touhouqing.datasentry.cleaning.model.CleaningJob;
+import com.touhouqing.datasentry.cleaning.model.CleaningPolicySnapshot;
+import com.touhouqing.datasentry.cleaning.model.CleaningRule;
+import com.touhouqing.datasentry.cleaning.pipeline.CleaningPipeline;
+import com.touhouqing.datasentry.cleaning.util.CleaningJsonPathProcessor;
+import com.touhouqing.datasentry.connector.pool.DBConnectionPool;
+import com.touhouqing.datasentry.connector.pool.DBConnectionPoolFactory;
+import com.touhouqing.datasentry.connector.pool.DataSourcePoolRegistry;
+import com.touhouqing.datasentry.entity.Datasource;
+import com.touhouqing.datasentry.enums.DatabaseDialectEnum;
+import com.touhouqing.datasentry.exception.InvalidInputException;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.service.datasource.DatasourceService;
+import com.touhouqing.datasentry.util.JsonUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 任务启动前的抽样预估：按方言随机抽样，用真实流水线检测样本（L3 可替身只计数），
+ * 再按总体行数外推命中、L3 调用、token、成本与耗时，并给出正态近似的置信区间（含有限总体修正）。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CleaningDryRunService {
+
+	private static final String METHOD_FULL = "FULL";
+
+	private static final String METHOD_TABLESAMPLE = "TABLESAMPLE_BERNOULLI";
+
+	private static final String METHOD_ORACLE_SAMPLE = "SAMPLE";
+
+	private static final String METHOD_RANDOM_FILTER = "RANDOM_FILTER";
+
+	private static final String STUB_MODE = "DRY_RUN_STUB";
+
+	private final CleaningJobMapper jobMapper;
+
+	private final CleaningPolicyResolver policyResolver;
+
+	private final CleaningAllowlistMapper allowlistMapper;
+
+	private final CleaningPipeline pipeline;
+
+	private final CleaningJsonPathProcessor jsonPathProcessor;
+
+	private final CleaningTokenEstimator tokenEstimator;
+
+	private final CleaningPricingService pricingService;
+
+	private final DatasourceService datasourceService;
+
+	private final DBConnectionPoolFactory connectionPoolFactory;
+
+	private final DataSentryProperties dataSentryProperties;
+
+	public CleaningDryRunEstimateView estimate(Long jobId, CleaningDryRunRequest request) {
+		CleaningJob job = jobMapper.selectById(jobId);
+		if (job == null) {
+			throw new InvalidInputException("清理任务不存在");
+		}
+		DataSentryProperties.Cleaning.DryRun dryRun = dataSentryProperties.getCleaning().getDryRun();
+		int sampleSize = resolveSampleSize(request != null ? request.getSampleSize() : null, dryRun);
+		boolean stubL3 = request == null || request.getStubL3() == null || request.getStubL3();
+		List<String> targetColumns = parseJsonArray(job.getTargetColumnsJson());
+		if (targetColumns.isEmpty() || !isValidIdentifier(job.getTableName())
+				|| targetColumns.stream().anyMatch(column -> !isValidIdentifier(column))) {
+			throw new InvalidInputException("任务目标表或目标列不合法");
+		}
+		Map<String, String> jsonPathMappings = parseJsonPathMappings(job);
+		CleaningPolicySnapshot snapshot = policyResolver.resolveSnapshot(job.getPolicyId(), "DRY_RUN:" + jobId);
+		List<CleaningRule> llmRules = snapshot != null && snapshot.getRules() != null ? snapshot.getRules()
+			.stream()
+			.filter(rule -> CleaningRuleType.LLM.name().equalsIgnoreCase(rule.getRuleType()))
+			.toList() : List.of();
+		List<CleaningAllowlist> allowlists = Optional.ofNullable(allowlistMapper.findActive()).orElse(List.of());
+
+		Datasource datasource = datasourceService.getDatasourceById(job.getDatasourceId());
+		if (datasource == null) {
+			throw new InvalidInputException("数据源不存在");
+		}
+		DBConnectionPool pool = connectionPoolFactory.getPoolByDbType(datasource.getType());
+		DatabaseDialectEnum dialect;
+		RowCount population;
+		SampleQuery sampleQuery;
+		List<Map<String, String>> rows;
+		try (Connection connection = pool
+			.getConnection(datasourceService.getDbConfig(datasource, DataSourcePoolRegistry.WORKLOAD_CLEANING))) {
+			dialect = resolveDialect(connection);
+			population = countRows(connection, dialect, job);
+			sampleQuery = buildSampleQuery(dialect, job, targetColumns, population.rows(), sampleSize,
+					dryRun.getOversampleFactor());
+			rows = fetchSample(connection, sampleQuery.sql(), targetColumns);
+		}
+		catch (InvalidInputException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			log.warn("Cleaning dry run sampling failed jobId={}", jobId, e);
+			throw new InvalidInputException("抽样失败：" + e.getMessage());
+		}
+
+		SampleStats stats = new SampleStats();
+		for (Map<String, String> row : rows) {
+			try {
+				stats.add(evaluateRow(job, snapshot, llmRules, allowlists, row, targetColumns, jsonPathMappings,
+						stubL3));
+			}
+			catch (Exception e) {
+				stats.failedRows++;
+				log.warn("Cleaning dry run row failed jobId={}", jobId, e);
+			}
+		}
+		log.info("Cleaning dry run jobId={} dialect={} method={} population={} sampled={} failed={} stubL3={}", jobId,
+				dialect, sampleQuery.method(), population.rows(), stats.count, stats.failedRows, stubL3);
+		return buildView(job, dialect, sampleQuery.method(), population, stats, stubL3, dryRun);
+	}
+
+	private RowSample evaluateRow(CleaningJob job, CleaningPolicySnapshot snapshot, List<CleaningRule> llmRules,
+			List<CleaningAllowlist> allowlists, Map<String, String> row, List<String> targetColumns,
+			Map<String, String> jsonPathMappings, boolean stubL3) {
+		long startNanos = System.nanoTime();
+		boolean flagged = false;
+		long findings = 0;
+		long l3Items = 0;
+		long tokens = 0;
+		for (String column : targetColumns) {
+			String value = row.get(column);
+			if (value == null || value.isBlank()) {
+				continue;
+			}
+			String sourceText = resolveSourceText(column, value, jsonPathMappings);
+			if (sourceText == null || sourceText.isBlank()) {
+				continue;
+			}
+			tokens += tokenEstimator.estimateTokens(sourceText);
+			CleaningContext context = CleaningContext.builder()
+				.agentId(job.getAgentId())
+				.datasourceId(job.getDatasourceId())
+				.tableName(job.getTableName())
+				.columnName(column)
+				.traceId("DRY_RUN:" + job.getId())
+				.originalText(sourceText)
+				.policySnapshot(snapshot)
+				.build();
+			context.getMetadata().put("allowlists", allowlists);
+			context.getMetadata().put("skipAudit", true);
+			if (stubL3 && !llmRules.isEmpty()) {
+				context.getMetadata().put("precomputedL3Results", buildStubL3Results(llmRules));
+			}
+			CleaningContext result = pipeline.execute(context, false);
+			if (Boolean.TRUE.equals(result.getMetadata().get("l3Attempted"))) {
+				l3Items += llmRules.size();
+			}
+			findings += result.getFindings() != null ? result.getFindings().size() : 0;
+			if (result.getVerdict() != null && !"ALLOW".equals(result.getVerdict().name())) {
+				flagged = true;
+			}
+		}
+		double elapsedMs = (System.nanoTime() - startNanos) / 1_000_000D;
+		return new RowSample(flagged, findings, l3Items, tokens, elapsedMs);
+	}
+
+	private Map<Long, LlmDetector.LlmDetectResult> buildStubL3Results(List<CleaningRule> llmRules) {
+		Map<Long, LlmDetector.LlmDetectResult> results = new LinkedHashMap<>();
+		for (CleaningRule rule : llmRules) {
+			if (rule.getId() != null) {
+				results.put(rule.getId(), LlmDetector.LlmDetectResult.success(List.of(), false, STUB_MODE));
+			}
+		}
+		return results;
+	}
+
+	private CleaningDryRunEstimateView buildView(CleaningJob job, DatabaseDialectEnum dialect, String method,
+			RowCount population, SampleStats stats, boolean stubL3, DataSentryProperties.Cleaning.DryRun dryRun) {
+		long populationRows = population.rows();
+		int n = stats.count;
+		double z = dryRun.getConfidenceZ();
+		double fpc = finitePopulationCorrection(populationRows, n);
+		CleaningDryRunEstimateView.Estimate flaggedRate = proportion(stats.flagged, n, z, fpc);
+		CleaningDryRunEstimateView.Estimate flaggedRows = scale(flaggedRate, populationRows);
+		CleaningDryRunEstimateView.Estimate findings = total(stats.findings, n, populationRows, z, fpc);
+		CleaningDryRunEstimateView.Estimate l3Items = total(stats.l3Items, n, populationRows, z, fpc);
+		CleaningDryRunEstimateView.Estimate tokens = total(stats.tokens, n, populationRows, z, fpc);
+		CleaningDryRunEstimateView.Estimate localMs = total(stats.elapsedMs, n, populationRows, z, fpc);
+
+		DataSentryProperties.Cleaning.L3 l3 = dataSentryProperties.getCleaning().getL3();
+		double itemsPerCall = l3.isBatchEnabled() ? Math.max(l3.getBatchSize(), 1) : 1D;
+		CleaningDryRunEstimateView.Estimate l3Calls = scale(l3Items, 1D / itemsPerCall);
+		CleaningDryRunEstimateView.Estimate wallTime = scale(localMs, 1D / 1000D);
+		if (stubL3) {
+			// 替身不产生网络耗时，按单次调用预估耗时和并发度补上 L3 部分
+			int concurrency = Math.max(l3.isBatchEnabled() ? l3.getMaxBatchConcurrency() : l3.getMaxRuleConcurrency(),
+					1);
+			double secondsPerCall = dryRun.getL3LatencyMsPerCall() / 1000D / concurrency;
+			wallTime = add(wallTime, scale(l3Calls, secondsPerCall));
+		}
+
+		CleaningDryRunEstimateView.Estimate cost = null;
+		String currency = null;
+		try {
+			CleaningPricingService.Pricing pricing = pricingService
+				.resolvePricing(CleaningPricingService.DEFAULT_PROVIDER, CleaningPricingService.DEFAULT_MODEL);
+			cost = scale(tokens, pricing.inputPricePer1k().doubleValue() / 1000D);
+			currency = pricing.currency();
+		}
+		catch (CleaningPricingService.PricingNotConfiguredException e) {
+			log.info("Cleaning dry run pricing not configured jobId={}: {}", job.getId(), e.getMessage());
+		}
+		boolean hardLimitAtRisk = cost != null && job.getBudgetHardLimit() != null
+				&& BigDecimal.valueOf(cost.getUpper()).compareTo(job.getBudgetHardLimit()) > 0;
+		return CleaningDryRunEstimateView.builder()
+			.jobId(job.getId())
+			.dialect(dialect.name())
+			.samplingMethod(method)
+			.populationRows(populationRows)
+			.populationRowsApproximate(population.approximate())
+			.sampledRows(n)
+			.l3Stubbed(stubL3)
+			.confidenceLevel(confidenceLevel(z))
+			.flaggedRate(flaggedRate)
+			.flaggedRows(flaggedRows)
+			.findings(findings)
+			.l3Items(l3Items)
+			.l3Calls(l3Calls)
+			.tokens(tokens)
+			.cost(cost)
+			.currency(currency)
+			.wallTimeSeconds(wallTime)
+			.budgetSoftLimit(job.getBudgetSoftLimit())
+			.budgetHardLimit(job.getBudgetHardLimit())
+			.hardLimitAtRisk(hardLimitAtRisk)
+			.build();
+	}
+
+	private static double finitePopulationCorrection(long population, int sampleSize) {
+		if (population <= 1 || sampleSize >= population) {
+			return 0D;
+		}
+		return (double) (population - sampleSize) / (population - 1);
+	}
+
+	private static CleaningDryRunEstimateView.Estimate proportion(long hits, int n, double z, double fpc) {
+		if (n <= 0) {
+			return new CleaningDryRunEstimateView.Estimate(0D, 0D, 0D);
+		}
+		double p = (double) hits / n;
+		double margin = z * Math.sqrt(p * (1 - p) / n * fpc);
+		return new CleaningDryRunEstimateView.Estimate(p, Math.max(0D, p - margin), Math.min(1D, p + margin));
+	}
+
+	/**
+	 * 以样本均值外推总体总量：N * (mean ± z * s / sqrt(n) * sqrt(fpc))。
+	 */
+	private static CleaningDryRunEstimateView.Estimate total(Moments moments, int n, long population, double z,
+			double fpc) {
+		if (n <= 0) {
+			return new CleaningDryRunEstimateView.Estimate(0D, 0D, 0D);
+		}
+		double mean = moments.sum / n;
+		double variance = n > 1 ? Math.max(0D, (moments.sumSquares - n * mean * mean) / (n - 1)) : 0D;
+		double margin = z * Math.sqrt(variance / n * fpc);
+		return new CleaningDryRunEstimateView.Estimate(mean * population, Math.max(0D, mean - margin) * population,
+				(mean + margin) * population);
+	}
+
+	private static CleaningDryRunEstimateView.Estimate scale(CleaningDryRunEstimateView.Estimate estimate,
+			double factor) {
+		return new CleaningDryRunEstimateView.Estimate(estimate.getExpected() * factor, estimate.getLower() * factor,
+				estimate.getUpper() * factor);
+	}
+
+	private static CleaningDryRunEstimateView.Estimate add(CleaningDryRunEstimateView.Estimate left,
+			CleaningDryRunEstimateView.Estimate right) {
+		return new CleaningDryRunEstimateView.Estimate(left.getExpected() + right.getExpected(),
+				left.getLower() + right.getLower(), left.getUpper() + right.getUpper());
+	}
+
+	private static double confidenceLevel(double z) {
+		// erf 的 Abramowitz-Stegun 近似，足够用于展示 z 对应的双侧置信度
+		double x = z / Math.sqrt(2D);
+		double t = 1D / (1D + 0.3275911 * x);
+		double erf = 1D - (((((1.061405429 * t - 1.453152027) * t) + 1.421413741) * t - 0.284496736) * t
+				+ 0.254829592) * t * Math.exp(-x * x);
+		return BigDecimal.valueOf(erf).setScale(4, RoundingMode.HALF_UP).doubleValue();
+	}
+
+	private RowCount countRows(Connection connection, DatabaseDialectEnum dialect, CleaningJob job) throws Exception {
+		boolean filtered = job.getWhereSql() != null && !job.getWhereSql().isBlank();
+		if (!filtered) {
+			Long approximate = approximateRowCount(connection, dialect, job.getTableName());
+			if (approximate != null && approximate > 0) {
+				return new RowCount(approximate, true);
+			}
+		}
+		StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ").append(job.getTableName());
+		if (filtered) {
+			sql.append(" WHERE (").append(job.getWhereSql()).append(")");
+		}
+		try (PreparedStatement statement = connection.prepareStatement(sql.toString());
+				ResultSet rs = statement.executeQuery()) {
+			return new RowCount(rs.next() ? rs.getLong(1) : 0L, false);
+		}
+	}
+
+	/**
+	 * 无过滤条件时优先读取统计信息中的行数，避免大表 COUNT(*) 全扫描。
+	 */
+	private Long approximateRowCount(Connection connection, DatabaseDialectEnum dialect, String tableName) {
+		String bareTable = tableName.contains(".") ? tableName.substring(tableName.lastIndexOf('.') + 1) : tableName;
+		String sql = switch (dialect) {
+			case MYSQL -> "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+			case POSTGRESQL -> "SELECT reltuples::bigint FROM pg_class WHERE relname = ? AND relkind IN ('r', 'p')";
+			case ORACLE -> "SELECT NUM_ROWS FROM USER_TABLES WHERE TABLE_NAME = UPPER(?)";
+			default -> null;
+		};
+		if (sql == null) {
+			return null;
+		}
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			statement.setString(1, bareTable);
+			try (ResultSet rs = statement.executeQuery()) {
+				return rs.next() ? rs.getLong(1) : null;
+			}
+		}
+		catch (Exception e) {
+			log.debug("Approximate row count unavailable table={}: {}", tableName, e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * 先按比例过采样（随机过滤、TABLESAMPLE 或 SAMPLE），再按随机值排序后截取 sampleSize 行。
+	 * 截取前必须随机排序，否则取到的是扫描顺序的前几行；FULL 分支在行数估算偏小时同样依赖排序保证均匀
+	 */
+	private static SampleQuery buildSampleQuery(DatabaseDialectEnum dialect, CleaningJob job, List<String> columns,
+			long population, int sampleSize, double oversampleFactor) {
+		boolean filtered = job.getWhereSql() != null && !job.getWhereSql().isBlank();
+		double fraction = population <= 0 ? 1D
+				: Math.min(1D, Math.max(oversampleFactor, 1D) * sampleSize / (double) population);
+		String method;
+		StringBuilder sql = new StringBuilder("SELECT ");
+		if (dialect == DatabaseDialectEnum.SQL_SERVER) {
+			sql.append("TOP (").append(sampleSize).append(") ");
+		}
+		sql.append(String.join(",", columns)).append(" FROM ").append(job.getTableName());
+		List<String> conditions = new ArrayList<>();
+		if (filtered) {
+			conditions.add("(" + job.getWhereSql() + ")");
+		}
+		if (fraction >= 1D) {
+			method = METHOD_FULL;
+		}
+		else if (!filtered && dialect == DatabaseDialectEnum.POSTGRESQL) {
+			sql.append(" TABLESAMPLE BERNOULLI (").append(formatPercent(fraction)).append(")");
+			method = METHOD_TABLESAMPLE;
+		}
+		else if (!filtered && dialect == DatabaseDialectEnum.ORACLE) {
+			sql.append(" SAMPLE (").append(formatPercent(fraction)).append(")");
+			method = METHOD_ORACLE_SAMPLE;
+		}
+		else {
+			conditions.add(randomExpression(dialect) + " < " + BigDecimal.valueOf(fraction).toPlainString());
+			method = METHOD_RANDOM_FILTER;
+		}
+		if (!conditions.isEmpty()) {
+			sql.append(" WHERE ").append(String.join(" AND ", conditions));
+		}
+		sql.append(" ORDER BY ").append(randomExpression(dialect));
+		if (dialect == DatabaseDialectEnum.ORACLE) {
+			sql.append(" FETCH FIRST ").append(sampleSize).append(" ROWS ONLY");
+		}
+		else if (dialect != DatabaseDialectEnum.SQL_SERVER) {
+			sql.append(" LIMIT ").append(sampleSize);
+		}
+		return new SampleQuery(sql.toString(), method);
+	}
+
+	private static String randomExpression(DatabaseDialectEnum dialect) {
+		return switch (dialect) {
+			case POSTGRESQL -> "random()";
+			case ORACLE -> "DBMS_RANDOM.VALUE";
+			case SQL_SERVER -> "(ABS(CHECKSUM(NEWID())) % 1000000) / 1000000.0";
+			default -> "RAND()";
+		};
+	}
+
+	private static String formatPercent(double fraction) {
+		BigDecimal percent = BigDecimal.valueOf(fraction * 100D).setScale(6, RoundingMode.UP);
+		return percent.max(new BigDecimal("0.000001")).stripTrailingZeros().toPlainString();
+	}
+
+	private List<Map<String, String>> fetchSample(Connection connection, String sql, List<String> columns)
+			throws Exception {
+		List<Map<String, String>> rows = new ArrayList<>();
+		try (PreparedStatement statement = connection.prepareStatement(sql); ResultSet rs = statement.executeQuery()) {
+			while (rs.next()) {
+				Map<String, String> row = new LinkedHashMap<>();
+				for (String column : columns) {
+					row.put(column, rs.getString(column));
+				}
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+
+	private int resolveSampleSize(Integer requested, DataSentryProperties.Cleaning.DryRun dryRun) {
+		int size = requested != null && requested > 0 ? requested : dryRun.getDefaultSampleSize();
+		return Math.max(1, Math.min(size, Math.max(dryRun.getMaxSampleSize(), 1)));
+	}
+
+	private String resolveSourceText(String column, String rawValue, Map<String, String> jsonPathMappings) {
+		String jsonPath = jsonPathMappings.get(column);
+		if (jsonPath == null || jsonPath.isBlank()) {
+			return rawValue;
+		}
+		String extracted = jsonPathProcessor.extractText(rawValue, jsonPath);
+		return extracted != null ? extracted : rawValue;
+	}
+
+	private DatabaseDialectEnum resolveDialect(Connection connection) {
+		try {
+			DatabaseMetaData metaData = connection.getMetaData();
+			return DatabaseDialectEnum.getByCode(metaData.getDatabaseProductName()).orElse(DatabaseDialectEnum.MYSQL);
+		}
+		catch (Exception e) {
+			return DatabaseDialectEnum.MYSQL;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, String> parseJsonPathMappings(CleaningJob job) {
+		if (job.getTargetConfigType() == null || !"JSONPATH".equalsIgnoreCase(job.getTargetConfigType())
+				|| job.getTargetConfigJson() == null || job.getTargetConfigJson().isBlank()) {
+			return Map.of();
+		}
+		try {
+			return JsonUtil.getObjectMapper().readValue(job.getTargetConfigJson(), Map.class);
+		}
+		catch (Exception e) {
+			return Map.of();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<String> parseJsonArray(String json) {
+		if (json == null || json.isBlank()) {
+			return List.of();
+		}
+		try {
+			Set<String> values = new LinkedHashSet<>(JsonUtil.getObjectMapper().readValue(json, List.class));
+			return new ArrayList<>(values);
+		}
+		catch (Exception e) {
+			return List.of();
+		}
+	}
+
+	private boolean isValidIdentifier(String value) {
+		return value != null && value.matches("[A-Za-z0-9_]+(\\.[A-Za-z0-9_]+)*");
+	}
+
+	private record SampleQuery(String sql, String method) {
+	}
+
+	private record RowCount(long rows, boolean approximate) {
+	}
+
+	private record RowSample(boolean flagged, long findings, long l3Items, long tokens, double elapsedMs) {
+	}
+
+	private static final class Moments {
+
+		private double sum;
+
+		private double sumSquares;
+
+		private void add(double value) {
+			sum += value;
+			sumSquares += value * value;
+		}
+
+	}
+
+	private static final class SampleStats {
+
+		private int count;
+
+		private int failedRows;
+
+		private long flagged;
+
+		private final Moments findings = new Moments();
+
+		private final Moments l3Items = new Moments();
+
+		private final Moments tokens = new Moments();
+
+		private final Moments elapsedMs = new Moments();
+
+		private void add(RowSample sample) {
+			count++;
+			if (sample.flagged()) {
+				flagged++;
+			}
+			findings.add(sample.findings());
+			l3Items.add(sample.l3Items());
+			tokens.add(sample.tokens());
+			elapsedMs.add(sample.elapsedMs());
+		}
+
+	}
+
+}
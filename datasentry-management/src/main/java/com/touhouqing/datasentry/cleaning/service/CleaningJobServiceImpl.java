@@ -25,11 +25,15 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 public class CleaningJobServiceImpl implements CleaningJobService {
 
+	private static final Pattern WATERMARK_COLUMN_PATTERN = Pattern.compile("[A-Za-z0-9_]+");
+
 	private final CleaningJobMapper jobMapper;
 
 	private final CleaningJobRunMapper jobRunMapper;
@@ -80,6 +84,8 @@ public class CleaningJobServiceImpl implements CleaningJobService {
 			.budgetCurrency(resolveBudgetCurrency(request.getBudgetCurrency()))
 			.onlineFailClosedEnabled(resolveFailClosedEnabled(request.getOnlineFailClosedEnabled()))
 			.onlineRequestTokenLimit(resolveOnlineTokenLimit(request.getOnlineRequestTokenLimit()))
+			.watermarkColumn(resolveWatermarkColumn(request.getWatermarkColumn()))
+			.fullRescanOnPolicyChange(resolveFullRescanOnPolicyChange(request.getFullRescanOnPolicyChange()))
 			.enabled(request.getEnabled() != null ? request.getEnabled() : 1)
 			.createdTime(now)
 			.updatedTime(now)
@@ -102,6 +108,7 @@ public class CleaningJobServiceImpl implements CleaningJobService {
 		String targetConfigType = targetConfigValidator.resolveType(request.getTargetConfigType());
 		Map<String, String> normalizedJsonPathMappings = targetConfigValidator
 			.normalizeJsonPathMappings(targetConfigType, request.getTargetColumns(), request.getTargetConfig());
+		String watermarkColumn = resolveWatermarkColumn(request.getWatermarkColumn());
 		LocalDateTime now = LocalDateTime.now();
 		CleaningJob job = CleaningJob.builder()
 			.id(jobId)
@@ -129,11 +136,18 @@ public class CleaningJobServiceImpl implements CleaningJobService {
 			.budgetCurrency(resolveBudgetCurrency(request.getBudgetCurrency()))
 			.onlineFailClosedEnabled(resolveFailClosedEnabled(request.getOnlineFailClosedEnabled()))
 			.onlineRequestTokenLimit(resolveOnlineTokenLimit(request.getOnlineRequestTokenLimit()))
+			.fullRescanOnPolicyChange(resolveFullRescanOnPolicyChange(request.getFullRescanOnPolicyChange()))
 			.enabled(request.getEnabled() != null ? request.getEnabled() : existing.getEnabled())
 			.createdTime(existing.getCreatedTime())
 			.updatedTime(now)
 			.build();
 		jobMapper.updateById(job);
+		if (!Objects.equals(existing.getWatermarkColumn(), watermarkColumn)
+				|| !Objects.equals(existing.getTableName(), request.getTableName())
+				|| !Objects.equals(existing.getWhereSql(), request.getWhereSql())) {
+			// 扫描范围变化后旧高水位不再可信，下一次运行全量处理
+			jobMapper.updateWatermarkColumn(jobId, watermarkColumn, now);
+		}
 		return jobMapper.selectById(jobId);
 	}
 
@@ -359,6 +373,24 @@ public class CleaningJobServiceImpl implements CleaningJobService {
 		return dataSentryProperties.getCleaning().getBudget().getOnlineRequestTokenLimit();
 	}
 
+	private String resolveWatermarkColumn(String value) {
+		if (value == null || value.isBlank()) {
+			return null;
+		}
+		String column = value.trim();
+		if (!WATERMARK_COLUMN_PATTERN.matcher(column).matches()) {
+			throw new InvalidInputException("水位列名非法：" + value);
+		}
+		return column;
+	}
+
+	private Integer resolveFullRescanOnPolicyChange(Integer value) {
+		if (value != null) {
+			return value;
+		}
+		return 1;
+	}
+
 	private String toJson(Object value) {
 		if (value == null) {
 			return null;
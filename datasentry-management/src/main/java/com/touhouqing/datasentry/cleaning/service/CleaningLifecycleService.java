@@ -48,6 +48,10 @@ public class CleaningLifecycleService {
 
 	private final CleaningDlqMapper dlqMapper;
 
+	private final CleaningPartitionService partitionService;
+
+	private final CleaningBackupPayloadService backupPayloadService;
+
 	public CleaningLifecyclePurgeResult purgeExpiredData() {
 		DataSentryProperties.Cleaning.Lifecycle lifecycle = dataSentryProperties.getCleaning().getLifecycle();
 		if (!dataSentryProperties.getCleaning().isEnabled() || !lifecycle.isEnabled()) {
@@ -55,16 +59,25 @@ public class CleaningLifecycleService {
 		}
 		int batchLimit = Math.max(lifecycle.getBatchLimit(), 1);
 		LocalDateTime now = LocalDateTime.now();
-		long backupDeleted = purgeByBatch(batchLimit, () -> backupRecordMapper
-			.deleteExpired(now.minusDays(resolveDays(lifecycle.getBackupRetentionDays())), batchLimit));
-		long auditDeleted = purgeByBatch(batchLimit, () -> recordMapper
-			.deleteExpired(now.minusDays(resolveDays(lifecycle.getAuditRetentionDays())), batchLimit));
-		long reviewDeleted = purgeByBatch(batchLimit, () -> reviewTaskMapper
-			.deleteExpired(now.minusDays(resolveDays(lifecycle.getReviewRetentionDays())), batchLimit));
-		long reviewFeedbackDeleted = purgeByBatch(batchLimit, () -> reviewFeedbackRecordMapper
-			.deleteExpired(now.minusDays(resolveDays(lifecycle.getReviewFeedbackRetentionDays())), batchLimit));
-		long shadowDeleted = purgeByBatch(batchLimit, () -> shadowCompareRecordMapper
-			.deleteExpired(now.minusDays(resolveDays(lifecycle.getShadowRetentionDays())), batchLimit));
+		partitionService.ensureFuturePartitions();
+		LocalDateTime backupExpireBefore = now.minusDays(resolveDays(lifecycle.getBackupRetentionDays()));
+		backupPayloadService.rehomeExpiringPayloads(backupExpireBefore, batchLimit);
+		long backupDeleted = purge(CleaningPartitionService.BACKUP_TABLE, backupExpireBefore, batchLimit,
+				() -> backupRecordMapper.deleteExpired(backupExpireBefore, batchLimit));
+		LocalDateTime auditExpireBefore = now.minusDays(resolveDays(lifecycle.getAuditRetentionDays()));
+		long auditDeleted = purge(CleaningPartitionService.RECORD_TABLE, auditExpireBefore, batchLimit,
+				() -> recordMapper.deleteExpired(auditExpireBefore, batchLimit));
+		LocalDateTime reviewExpireBefore = now.minusDays(resolveDays(lifecycle.getReviewRetentionDays()));
+		long reviewDeleted = purge(CleaningPartitionService.REVIEW_TABLE, reviewExpireBefore, batchLimit,
+				() -> reviewTaskMapper.deleteExpired(reviewExpireBefore, batchLimit));
+		LocalDateTime reviewFeedbackExpireBefore = now
+			.minusDays(resolveDays(lifecycle.getReviewFeedbackRetentionDays()));
+		long reviewFeedbackDeleted = purge(CleaningPartitionService.REVIEW_FEEDBACK_TABLE,
+				reviewFeedbackExpireBefore, batchLimit,
+				() -> reviewFeedbackRecordMapper.deleteExpired(reviewFeedbackExpireBefore, batchLimit));
+		LocalDateTime shadowExpireBefore = now.minusDays(resolveDays(lifecycle.getShadowRetentionDays()));
+		long shadowDeleted = purge(CleaningPartitionService.SHADOW_TABLE, shadowExpireBefore, batchLimit,
+				() -> shadowCompareRecordMapper.deleteExpired(shadowExpireBefore, batchLimit));
 		long rollbackVerifyDeleted = purgeByBatch(batchLimit, () -> rollbackVerifyRecordMapper
 			.deleteExpired(now.minusDays(resolveDays(lifecycle.getRollbackRetentionDays())), batchLimit));
 		long rollbackConflictDeleted = purgeByBatch(batchLimit, () -> rollbackConflictRecordMapper
@@ -111,6 +124,21 @@ public class CleaningLifecycleService {
 		return configuredDays;
 	}
 
+	/**
+	 * 已分区的表按整分区清理；未分区或非 MySQL 元数据库时回退到分批 DELETE。
+	 */
+	private long purge(String tableName, LocalDateTime expireBefore, int batchLimit, IntSupplier purgeAction) {
+		if (partitionService.isPartitionManaged(tableName)) {
+			try {
+				return partitionService.purgeExpiredPartitions(tableName, expireBefore);
+			}
+			catch (Exception e) {
+				log.warn("Partition purge failed for {}, falling back to batched delete", tableName, e);
+			}
+		}
+		return purgeByBatch(batchLimit, purgeAction);
+	}
+
 	private long purgeByBatch(int batchLimit, IntSupplier purgeAction) {
 		long total = 0;
 		int round = 0;
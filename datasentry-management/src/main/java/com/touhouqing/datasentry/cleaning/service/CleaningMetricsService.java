@@ -190,6 +190,20 @@ public class CleaningMetricsService {
 			.evidenceBundleExportSuccessCount(evidenceBundleExportSuccessCount)
 			.evidenceBundleExportFailureCount(evidenceBundleExportFailureCount)
 			.evidenceBundleExportSuccessRate(evidenceBundleExportSuccessRate)
+			.backupEncodeCount(opsStateService.getBackupEncodeCount())
+			.backupCompressedCount(opsStateService.getBackupCompressedCount())
+			.backupDedupHitCount(opsStateService.getBackupDedupHitCount())
+			.backupRawBytes(opsStateService.getBackupRawBytes())
+			.backupStoredBytes(opsStateService.getBackupStoredBytes())
+			.backupStorageRatio(opsStateService.getBackupStorageRatio())
+			.backupEncodeAvgMicros(opsStateService.getBackupEncodeAvgMicros())
+			.backupDecodeAvgMicros(opsStateService.getBackupDecodeAvgMicros())
+			.dlqReplaySucceededCount(opsStateService.getDlqReplaySucceededCount())
+			.dlqReplayMissingCount(opsStateService.getDlqReplayMissingCount())
+			.dlqReplayFailedCount(opsStateService.getDlqReplayFailedCount())
+			.dlqDeadCount(opsStateService.getDlqDeadCount())
+			.dlqReplayRowsPerSecond(opsStateService.getDlqReplayRowsPerSecond())
+			.dlqFailureByClass(opsStateService.getDlqFailureByClass())
 			.reviewOps(reviewOps)
 			.build();
 	}
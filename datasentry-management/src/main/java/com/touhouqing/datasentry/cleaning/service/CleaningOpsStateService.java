@@ -5,7 +5,10 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Service
@@ -51,6 +54,34 @@ public class CleaningOpsStateService {
 
 	private final ArrayList<Long> cloudLatencyWindow = new ArrayList<>();
 
+	private final AtomicLong backupEncodeCount = new AtomicLong();
+
+	private final AtomicLong backupCompressedCount = new AtomicLong();
+
+	private final AtomicLong backupDedupHitCount = new AtomicLong();
+
+	private final AtomicLong backupRawBytes = new AtomicLong();
+
+	private final AtomicLong backupStoredBytes = new AtomicLong();
+
+	private final AtomicLong backupEncodeTotalMicros = new AtomicLong();
+
+	private final AtomicLong backupDecodeCount = new AtomicLong();
+
+	private final AtomicLong backupDecodeTotalMicros = new AtomicLong();
+
+	private final AtomicLong dlqReplaySucceededCount = new AtomicLong();
+
+	private final AtomicLong dlqReplayMissingCount = new AtomicLong();
+
+	private final AtomicLong dlqReplayFailedCount = new AtomicLong();
+
+	private final AtomicLong dlqDeadCount = new AtomicLong();
+
+	private final AtomicLong dlqReplayTotalElapsedMs = new AtomicLong();
+
+	private final Map<String, AtomicLong> dlqFailureByClass = new ConcurrentHashMap<>();
+
 	private volatile LocalDateTime lastPricingSyncTime;
 
 	private volatile String l2ProviderStatus = "DUMMY/OK";
@@ -131,6 +162,39 @@ public class CleaningOpsStateService {
 		cloudFallbackCount.incrementAndGet();
 	}
 
+	public void markBackupEncoded(long rawBytes, long storedBytes, boolean compressed, long costMicros) {
+		backupEncodeCount.incrementAndGet();
+		if (compressed) {
+			backupCompressedCount.incrementAndGet();
+		}
+		backupRawBytes.addAndGet(Math.max(rawBytes, 0L));
+		backupStoredBytes.addAndGet(Math.max(storedBytes, 0L));
+		backupEncodeTotalMicros.addAndGet(Math.max(costMicros, 0L));
+	}
+
+	public void markBackupDedupHit(long rawBytes) {
+		backupDedupHitCount.incrementAndGet();
+		backupRawBytes.addAndGet(Math.max(rawBytes, 0L));
+	}
+
+	public void markBackupDecoded(long costMicros) {
+		backupDecodeCount.incrementAndGet();
+		backupDecodeTotalMicros.addAndGet(Math.max(costMicros, 0L));
+	}
+
+	public void markDlqReplayBatch(long succeeded, long missing, long failed, long dead, long elapsedMs) {
+		dlqReplaySucceededCount.addAndGet(Math.max(succeeded, 0L));
+		dlqReplayMissingCount.addAndGet(Math.max(missing, 0L));
+		dlqReplayFailedCount.addAndGet(Math.max(failed, 0L));
+		dlqDeadCount.addAndGet(Math.max(dead, 0L));
+		dlqReplayTotalElapsedMs.addAndGet(Math.max(elapsedMs, 0L));
+	}
+
+	public void markDlqFailure(String failureClass) {
+		String key = failureClass != null && !failureClass.isBlank() ? failureClass : "UNKNOWN";
+		dlqFailureByClass.computeIfAbsent(key, ignored -> new AtomicLong()).incrementAndGet();
+	}
+
 	public LocalDateTime getLastPricingSyncTime() {
 		return lastPricingSyncTime;
 	}
@@ -223,6 +287,81 @@ public class CleaningOpsStateService {
 		return percentile(cloudLatencyLock, cloudLatencyWindow, 0.95);
 	}
 
+	public long getBackupEncodeCount() {
+		return backupEncodeCount.get();
+	}
+
+	public long getBackupCompressedCount() {
+		return backupCompressedCount.get();
+	}
+
+	public long getBackupDedupHitCount() {
+		return backupDedupHitCount.get();
+	}
+
+	public long getBackupRawBytes() {
+		return backupRawBytes.get();
+	}
+
+	public long getBackupStoredBytes() {
+		return backupStoredBytes.get();
+	}
+
+	public double getBackupStorageRatio() {
+		long raw = backupRawBytes.get();
+		if (raw <= 0) {
+			return 1.0;
+		}
+		return (double) backupStoredBytes.get() / (double) raw;
+	}
+
+	public double getBackupEncodeAvgMicros() {
+		long count = backupEncodeCount.get();
+		if (count <= 0) {
+			return 0.0;
+		}
+		return (double) backupEncodeTotalMicros.get() / (double) count;
+	}
+
+	public double getBackupDecodeAvgMicros() {
+		long count = backupDecodeCount.get();
+		if (count <= 0) {
+			return 0.0;
+		}
+		return (double) backupDecodeTotalMicros.get() / (double) count;
+	}
+
+	public long getDlqReplaySucceededCount() {
+		return dlqReplaySucceededCount.get();
+	}
+
+	public long getDlqReplayMissingCount() {
+		return dlqReplayMissingCount.get();
+	}
+
+	public long getDlqReplayFailedCount() {
+		return dlqReplayFailedCount.get();
+	}
+
+	public long getDlqDeadCount() {
+		return dlqDeadCount.get();
+	}
+
+	public double getDlqReplayRowsPerSecond() {
+		long elapsedMs = dlqReplayTotalElapsedMs.get();
+		if (elapsedMs <= 0) {
+			return 0.0;
+		}
+		long rows = dlqReplaySucceededCount.get() + dlqReplayMissingCount.get() + dlqReplayFailedCount.get();
+		return rows * 1000.0 / elapsedMs;
+	}
+
+	public Map<String, Long> getDlqFailureByClass() {
+		Map<String, Long> snapshot = new LinkedHashMap<>();
+		dlqFailureByClass.forEach((key, value) -> snapshot.put(key, value.get()));
+		return snapshot;
+	}
+
 	private void recordLatency(long latencyMs, AtomicLong totalLatency, Object lock, ArrayList<Long> window) {
 		long safeLatency = Math.max(latencyMs, 0L);
 		totalLatency.addAndGet(safeLatency);
@@ -0,0 +1,230 @@
+package com.touhouqing.datasentry.cleaning.service;
+
+import com.touhouqing.datasentry.cleaning.mapper.CleaningPartitionMapper;
+import com.touhouqing.datasentry.cleaning.model.CleaningPartitionInfo;
+import com.touhouqing.datasentry.enums.DatabaseDialectEnum;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 审计类表的分区存储模式：表按 RANGE(UNIX_TIMESTAMP(created_time)) 以天或月分区，过期数据按整分区 DROP/TRUNCATE，
+ * 并自动在 pmax 之前预创建未来分区。仅对元数据库为 MySQL 且已完成分区改造（见 sql/partition/mysql-cleaning-partition.sql）的表生效。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CleaningPartitionService {
+
+	public static final String BACKUP_TABLE = "datasentry_cleaning_backup_record";
+
+	public static final String RECORD_TABLE = "datasentry_cleaning_record";
+
+	public static final String REVIEW_TABLE = "datasentry_cleaning_review_task";
+
+	public static final String REVIEW_FEEDBACK_TABLE = "datasentry_cleaning_review_feedback_record";
+
+	public static final String SHADOW_TABLE = "datasentry_cleaning_shadow_compare_record";
+
+	public static final List<String> PARTITIONED_TABLES = List.of(BACKUP_TABLE, RECORD_TABLE, REVIEW_TABLE,
+			REVIEW_FEEDBACK_TABLE, SHADOW_TABLE);
+
+	private static final String MAX_PARTITION = "pmax";
+
+	private static final Pattern PARTITION_NAME_PATTERN = Pattern.compile("p\\d{6}(\\d{2})?");
+
+	private static final DateTimeFormatter BOUND_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+	private final DataSentryProperties dataSentryProperties;
+
+	private final CleaningPartitionMapper partitionMapper;
+
+	private final DataSource dataSource;
+
+	private volatile Boolean mysqlMetadb;
+
+	public boolean isPartitionManaged(String tableName) {
+		if (!isEnabled() || !PARTITIONED_TABLES.contains(tableName)) {
+			return false;
+		}
+		try {
+			return !partitionMapper.listPartitions(tableName).isEmpty();
+		}
+		catch (Exception e) {
+			log.debug("Failed to inspect partitions of {}", tableName, e);
+			return false;
+		}
+	}
+
+	/**
+	 * 删除上界不晚于 expireBefore 的分区，返回 information_schema 估算的行数。边界所在分区保留到整段过期为止。
+	 */
+	public long purgeExpiredPartitions(String tableName, LocalDateTime expireBefore) {
+		boolean truncate = "TRUNCATE"
+			.equalsIgnoreCase(dataSentryProperties.getCleaning().getLifecycle().getPartition().getRetentionAction());
+		long purged = 0L;
+		for (CleaningPartitionInfo partition : partitionMapper.listPartitions(tableName)) {
+			LocalDateTime end = partitionEnd(partition.getPartitionName());
+			if (end == null || end.isAfter(expireBefore)) {
+				continue;
+			}
+			long rows = partition.getTableRows() != null ? partition.getTableRows() : 0L;
+			if (truncate) {
+				if (partitionMapper.probePartitionRow(tableName, partition.getPartitionName()) == null) {
+					continue;
+				}
+				partitionMapper.truncatePartition(tableName, partition.getPartitionName());
+			}
+			else {
+				partitionMapper.dropPartition(tableName, partition.getPartitionName());
+			}
+			purged += rows;
+			log.info("Lifecycle partition purge table={} partition={} action={} estimatedRows={}", tableName,
+					partition.getPartitionName(), truncate ? "TRUNCATE" : "DROP", rows);
+		}
+		return purged;
+	}
+
+	public void ensureFuturePartitions() {
+		if (!isEnabled()) {
+			return;
+		}
+		for (String tableName : PARTITIONED_TABLES) {
+			try {
+				ensureFuturePartitions(tableName);
+			}
+			catch (Exception e) {
+				log.warn("Failed to pre-create partitions for {}", tableName, e);
+			}
+		}
+	}
+
+	private void ensureFuturePartitions(String tableName) {
+		List<CleaningPartitionInfo> partitions = partitionMapper.listPartitions(tableName);
+		if (partitions.isEmpty()) {
+			log.debug("Table {} is not partitioned, skip pre-create", tableName);
+			return;
+		}
+		Granularity granularity = resolveGranularity();
+		LocalDateTime latestEnd = null;
+		boolean hasMaxPartition = false;
+		for (CleaningPartitionInfo partition : partitions) {
+			if (MAX_PARTITION.equalsIgnoreCase(partition.getPartitionName())) {
+				hasMaxPartition = true;
+				continue;
+			}
+			LocalDateTime end = partitionEnd(partition.getPartitionName());
+			if (end != null && (latestEnd == null || end.isAfter(latestEnd))) {
+				latestEnd = end;
+			}
+		}
+		LocalDateTime current = granularity.truncate(LocalDateTime.now());
+		LocalDateTime from = latestEnd == null || latestEnd.isBefore(current) ? current
+				: granularity.truncate(latestEnd);
+		int precreatePeriods = Math.max(dataSentryProperties.getCleaning().getLifecycle().getPartition()
+			.getPrecreatePeriods(), 1);
+		LocalDateTime until = current;
+		for (int i = 0; i < precreatePeriods; i++) {
+			until = granularity.next(until);
+		}
+		List<String> definitions = new ArrayList<>();
+		for (LocalDateTime start = from; !start.isAfter(until); start = granularity.next(start)) {
+			if (latestEnd != null && granularity.next(start).compareTo(latestEnd) <= 0) {
+				continue;
+			}
+			definitions.add("PARTITION " + granularity.partitionName(start) + " VALUES LESS THAN (UNIX_TIMESTAMP('"
+					+ BOUND_FORMATTER.format(granularity.next(start)) + "'))");
+		}
+		if (definitions.isEmpty()) {
+			return;
+		}
+		if (hasMaxPartition) {
+			definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE");
+			partitionMapper.reorganizeMaxPartition(tableName, MAX_PARTITION, String.join(", ", definitions));
+		}
+		else {
+			partitionMapper.addPartitions(tableName, String.join(", ", definitions));
+		}
+		log.info("Pre-created {} partitions for {}", hasMaxPartition ? definitions.size() - 1 : definitions.size(),
+				tableName);
+	}
+
+	private boolean isEnabled() {
+		return dataSentryProperties.getCleaning().getLifecycle().getPartition().isEnabled() && isMysqlMetadb();
+	}
+
+	private boolean isMysqlMetadb() {
+		Boolean cached = mysqlMetadb;
+		if (cached != null) {
+			return cached;
+		}
+		boolean resolved = false;
+		try (Connection connection = dataSource.getConnection()) {
+			String productName = connection.getMetaData().getDatabaseProductName();
+			resolved = DatabaseDialectEnum.getByCode(productName).orElse(null) == DatabaseDialectEnum.MYSQL;
+		}
+		catch (Exception e) {
+			log.warn("Failed to resolve metadata database dialect, partition mode disabled", e);
+		}
+		if (!resolved) {
+			log.info("Partition storage mode requires MySQL metadata database, falling back to batched delete");
+		}
+		mysqlMetadb = resolved;
+		return resolved;
+	}
+
+	private Granularity resolveGranularity() {
+		String configured = dataSentryProperties.getCleaning().getLifecycle().getPartition().getGranularity();
+		return "MONTHLY".equalsIgnoreCase(configured) ? Granularity.MONTHLY : Granularity.DAILY;
+	}
+
+	/**
+	 * 分区上界由分区名推导：pYYYYMMDD 为日分区，pYYYYMM 为月分区；其它命名（含 pmax）返回 null，不参与清理。
+	 */
+	static LocalDateTime partitionEnd(String partitionName) {
+		if (partitionName == null || !PARTITION_NAME_PATTERN.matcher(partitionName).matches()) {
+			return null;
+		}
+		String digits = partitionName.substring(1);
+		try {
+			if (digits.length() == 8) {
+				return Granularity.DAILY.next(LocalDate.parse(digits, DateTimeFormatter.BASIC_ISO_DATE).atStartOfDay());
+			}
+			LocalDate month = LocalDate.parse(digits + "01", DateTimeFormatter.BASIC_ISO_DATE);
+			return Granularity.MONTHLY.next(month.atStartOfDay());
+		}
+		catch (Exception e) {
+			return null;
+		}
+	}
+
+	enum Granularity {
+
+		DAILY, MONTHLY;
+
+		LocalDateTime truncate(LocalDateTime time) {
+			LocalDate date = time.toLocalDate();
+			return this == MONTHLY ? date.withDayOfMonth(1).atStartOfDay() : date.atStartOfDay();
+		}
+
+		LocalDateTime next(LocalDateTime start) {
+			return this == MONTHLY ? start.plusMonths(1) : start.plusDays(1);
+		}
+
+		String partitionName(LocalDateTime start) {
+			return "p" + DateTimeFormatter.ofPattern(this == MONTHLY ? "yyyyMM" : "yyyyMMdd").format(start);
+		}
+
+	}
+
+}
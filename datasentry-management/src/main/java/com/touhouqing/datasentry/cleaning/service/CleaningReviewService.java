@@ -3,10 +3,12 @@ package com.touhouqing.datasentry.cleaning.service;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.touhouqing.datasentry.cleaning.dto.CleaningReviewBatchRequest;
 import com.touhouqing.datasentry.cleaning.dto.CleaningReviewBatchResult;
+import com.touhouqing.datasentry.cleaning.dto.CleaningReviewBulkJobView;
 import com.touhouqing.datasentry.cleaning.dto.CleaningReviewDecisionRequest;
 import com.touhouqing.datasentry.cleaning.dto.CleaningReviewEscalateRequest;
 import com.touhouqing.datasentry.cleaning.dto.CleaningReviewEscalateResult;
 import com.touhouqing.datasentry.cleaning.dto.CleaningReviewRejudgeRequest;
+import com.touhouqing.datasentry.cleaning.dto.CleaningReviewTaskOutcome;
 import com.touhouqing.datasentry.cleaning.dto.CleaningReviewTransferRequest;
 import com.touhouqing.datasentry.cleaning.enums.CleaningReviewStatus;
 import com.touhouqing.datasentry.cleaning.mapper.CleaningBackupRecordMapper;
@@ -22,13 +24,15 @@ import com.touhouqing.datasentry.cleaning.model.CleaningReviewTask;
 import com.touhouqing.datasentry.cleaning.util.CleaningWritebackValidator;
 import com.touhouqing.datasentry.connector.pool.DBConnectionPool;
 import com.touhouqing.datasentry.connector.pool.DBConnectionPoolFactory;
+import com.touhouqing.datasentry.connector.pool.DataSourcePoolRegistry;
 import com.touhouqing.datasentry.entity.Datasource;
 import com.touhouqing.datasentry.exception.InvalidInputException;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
 import com.touhouqing.datasentry.service.datasource.DatasourceService;
 import com.touhouqing.datasentry.util.JsonUtil;
 import com.touhouqing.datasentry.vo.PageResult;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
@@ -38,18 +42,26 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class CleaningReviewService {
 
 	private static final int BULK_LIMIT = 5000;
@@ -70,6 +82,8 @@ public class CleaningReviewService {
 
 	private static final int MAX_FEEDBACK_LIMIT = 1000;
 
+	private static final int MAX_BULK_CHUNK_SIZE = 500;
+
 	private final CleaningReviewTaskMapper reviewTaskMapper;
 
 	private final CleaningBackupRecordMapper backupRecordMapper;
@@ -86,6 +100,41 @@ public class CleaningReviewService {
 
 	private final DBConnectionPoolFactory connectionPoolFactory;
 
+	private final DataSentryProperties dataSentryProperties;
+
+	private final Executor reviewExecutor;
+
+	private final CleaningBackupPayloadService backupPayloadService;
+
+	private final Map<String, BulkJob> bulkJobs;
+
+	public CleaningReviewService(CleaningReviewTaskMapper reviewTaskMapper,
+			CleaningBackupRecordMapper backupRecordMapper, CleaningReviewFeedbackRecordMapper reviewFeedbackRecordMapper,
+			CleaningJobRunMapper jobRunMapper, CleaningRecordMapper recordMapper,
+			CleaningBackupEncryptionService encryptionService, DatasourceService datasourceService,
+			DBConnectionPoolFactory connectionPoolFactory, DataSentryProperties dataSentryProperties,
+			@Qualifier("cleaningReviewExecutor") Executor reviewExecutor,
+			CleaningBackupPayloadService backupPayloadService) {
+		this.reviewTaskMapper = reviewTaskMapper;
+		this.backupRecordMapper = backupRecordMapper;
+		this.reviewFeedbackRecordMapper = reviewFeedbackRecordMapper;
+		this.jobRunMapper = jobRunMapper;
+		this.recordMapper = recordMapper;
+		this.encryptionService = encryptionService;
+		this.datasourceService = datasourceService;
+		this.connectionPoolFactory = connectionPoolFactory;
+		this.dataSentryProperties = dataSentryProperties;
+		this.reviewExecutor = reviewExecutor;
+		this.backupPayloadService = backupPayloadService;
+		int retention = Math.max(1, dataSentryProperties.getCleaning().getReview().getBulkJobRetention());
+		this.bulkJobs = Collections.synchronizedMap(new LinkedHashMap<String, BulkJob>() {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, BulkJob> eldest) {
+				return size() > retention;
+			}
+		});
+	}
+
 	public PageResult<CleaningReviewTask> listReviews(String status, Long jobRunId, Long agentId, Integer pageNum,
 			Integer pageSize) {
 		int safePageNum = pageNum != null && pageNum > 0 ? pageNum : DEFAULT_PAGE_NUM;
@@ -262,60 +311,415 @@ public class CleaningReviewService {
 		return batchHandle(request, false);
 	}
 
+	/**
+	 * 异步批量审批：立即返回任务句柄，按数据源+表分组写回，进度与逐条结果通过 {@link #getBulkJob} 查询。
+	 */
+	public CleaningReviewBulkJobView submitBatchApprove(CleaningReviewBatchRequest request) {
+		BulkJob job = new BulkJob(UUID.randomUUID().toString());
+		bulkJobs.put(job.jobId, job);
+		try {
+			reviewExecutor.execute(() -> {
+				try {
+					batchHandle(request, true, job);
+					job.finish("SUCCEEDED", null);
+				}
+				catch (Exception e) {
+					log.warn("Bulk review job {} failed", job.jobId, e);
+					job.finish("FAILED", e.getMessage());
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			bulkJobs.remove(job.jobId);
+			throw new InvalidInputException("Too many bulk review jobs in progress");
+		}
+		return job.toView(false);
+	}
+
+	public CleaningReviewBulkJobView getBulkJob(String jobId, boolean includeOutcomes) {
+		BulkJob job = jobId != null ? bulkJobs.get(jobId) : null;
+		if (job == null) {
+			throw new InvalidInputException("Bulk review job not found");
+		}
+		return job.toView(includeOutcomes);
+	}
+
 	private CleaningReviewBatchResult batchHandle(CleaningReviewBatchRequest request, boolean approve) {
+		BulkJob job = new BulkJob(null);
+		batchHandle(request, approve, job);
+		return job.toResult();
+	}
+
+	private void batchHandle(CleaningReviewBatchRequest request, boolean approve, BulkJob job) {
 		List<CleaningReviewTask> tasks = resolveBatchTargets(request);
-		int total = tasks.size();
-		int success = 0;
-		int failed = 0;
-		int conflict = 0;
-		int stale = 0;
+		job.total.set(tasks.size());
+		String reviewer = resolveReviewer(request.getReviewer());
+		String reason = request.getReason();
+		String targetStatus = approve ? CleaningReviewStatus.APPROVED.name() : CleaningReviewStatus.REJECTED.name();
+		List<CleaningReviewTask> claimed = new ArrayList<>();
 		for (CleaningReviewTask task : tasks) {
 			try {
-				if (!CleaningReviewStatus.PENDING.name().equals(task.getStatus())) {
-					stale++;
-					continue;
+				if (claimTask(task, targetStatus, reviewer, reason)) {
+					claimed.add(task);
 				}
-				String reviewer = resolveReviewer(request.getReviewer());
-				String reason = request.getReason();
-				LocalDateTime now = LocalDateTime.now();
-				int updated = reviewTaskMapper.updateStatusWithVersion(task.getId(), task.getVersion(),
-						approve ? CleaningReviewStatus.APPROVED.name() : CleaningReviewStatus.REJECTED.name(), reviewer,
-						reason, now);
-				if (updated == 0) {
-					stale++;
-					continue;
+				else {
+					job.record(task.getId(), "STALE", null);
+				}
+			}
+			catch (Exception e) {
+				log.warn("Failed to claim review task {}", task.getId(), e);
+				job.record(task.getId(), CleaningReviewStatus.FAILED.name(), e.getMessage());
+			}
+		}
+		BulkSettlement settlement = new BulkSettlement(job, reviewer);
+		if (!approve) {
+			for (CleaningReviewTask task : claimed) {
+				settlement.reject(task, reason);
+			}
+			settlement.flush();
+			return;
+		}
+		Map<WriteGroupKey, List<PendingWrite>> groups = new LinkedHashMap<>();
+		for (CleaningReviewTask task : claimed) {
+			try {
+				PendingWrite write = prepareWrite(task, reason, settlement);
+				if (write != null) {
+					groups.computeIfAbsent(new WriteGroupKey(task.getDatasourceId(), task.getTableName(),
+							write.pkRef().columns()), key -> new ArrayList<>())
+						.add(write);
+				}
+			}
+			catch (Exception e) {
+				log.warn("Failed to prepare writeback for review task {}", task.getId(), e);
+				settlement.settle(task, CleaningReviewStatus.FAILED.name(),
+						"Failed to prepare writeback: " + e.getMessage(), false, null);
+			}
+		}
+		settlement.flush();
+		for (Map.Entry<WriteGroupKey, List<PendingWrite>> entry : groups.entrySet()) {
+			writeGroup(entry.getKey(), entry.getValue(), reason, settlement);
+			settlement.flush();
+		}
+	}
+
+	private boolean claimTask(CleaningReviewTask task, String targetStatus, String reviewer, String reason) {
+		if (!CleaningReviewStatus.PENDING.name().equals(task.getStatus())) {
+			return false;
+		}
+		LocalDateTime now = LocalDateTime.now();
+		int updated = reviewTaskMapper.updateStatusWithVersion(task.getId(), task.getVersion(), targetStatus, reviewer,
+				reason, now);
+		if (updated == 0) {
+			return false;
+		}
+		task.setStatus(targetStatus);
+		task.setReviewer(reviewer);
+		task.setReviewReason(reason);
+		task.setUpdatedTime(now);
+		task.setVersion(task.getVersion() != null ? task.getVersion() + 1 : null);
+		return true;
+	}
+
+	private PendingWrite prepareWrite(CleaningReviewTask task, String reason, BulkSettlement settlement) {
+		if ("BLOCK_ONLY".equals(task.getActionSuggested()) || "REVIEW_ONLY".equals(task.getActionSuggested())) {
+			settlement.settle(task, CleaningReviewStatus.WRITTEN.name(), reason, true, task.getActionSuggested());
+			return null;
+		}
+		if (encryptionService.isEncryptionEnabled() && !encryptionService.hasValidKey()) {
+			settlement.settle(task, CleaningReviewStatus.FAILED.name(), encryptionService.missingKeyHint(), false,
+					null);
+			return null;
+		}
+		Map<String, Object> beforeRow = parseJsonMap(task.getBeforeRowJson());
+		Map<String, Object> writebackPayload = parseJsonMap(task.getWritebackPayloadJson());
+		boolean hardDeleteAction = "HARD_DELETE".equals(task.getActionSuggested());
+		PkRef pkRef = resolvePk(task.getPkJson());
+		if (beforeRow.isEmpty() || (!hardDeleteAction && writebackPayload.isEmpty()) || pkRef == null) {
+			settlement.settle(task, CleaningReviewStatus.FAILED.name(),
+					"Missing before row, writeback payload or primary key", false, null);
+			return null;
+		}
+		return new PendingWrite(task, beforeRow, writebackPayload, pkRef, hardDeleteAction);
+	}
+
+	/**
+	 * 同一数据源+表的任务共用一个连接与事务：分块多行读取当前值比对，批量写备份、批量执行 UPDATE/DELETE，全部成功后统一提交。
+	 */
+	private void writeGroup(WriteGroupKey key, List<PendingWrite> writes, String reason, BulkSettlement settlement) {
+		Set<Long> settledIds = new LinkedHashSet<>();
+		List<PendingWrite> applied = new ArrayList<>();
+		Datasource datasource = datasourceService.getDatasourceById(key.datasourceId());
+		if (datasource == null) {
+			for (PendingWrite write : writes) {
+				settlement.settle(write.task(), CleaningReviewStatus.FAILED.name(),
+						"Datasource not found: " + key.datasourceId(), false, null);
+			}
+			return;
+		}
+		DBConnectionPool pool = connectionPoolFactory.getPoolByDbType(datasource.getType());
+		try (Connection connection = pool
+			.getConnection(datasourceService.getDbConfig(datasource, DataSourcePoolRegistry.WORKLOAD_CLEANING))) {
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try {
+				Map<String, CleaningWritebackValidator.ColumnMeta> columnMeta = CleaningWritebackValidator
+					.loadColumnMeta(connection, key.tableName());
+				Map<String, Map<String, String>> rowStates = new HashMap<>();
+				int chunkSize = resolveBulkChunkSize();
+				for (int start = 0; start < writes.size(); start += chunkSize) {
+					List<PendingWrite> chunk = writes.subList(start, Math.min(start + chunkSize, writes.size()));
+					applied.addAll(
+							writeChunk(connection, key, chunk, columnMeta, rowStates, reason, settlement, settledIds));
+				}
+				connection.commit();
+			}
+			catch (Exception e) {
+				rollbackQuietly(connection);
+				throw e;
+			}
+			finally {
+				restoreAutoCommitQuietly(connection, autoCommit);
+			}
+		}
+		catch (Exception e) {
+			log.warn("Failed to bulk writeback datasourceId={} table={} tasks={}", key.datasourceId(), key.tableName(),
+					writes.size(), e);
+			String error = "Writeback failed: " + e.getMessage();
+			for (PendingWrite write : writes) {
+				if (!settledIds.contains(write.task().getId())) {
+					settlement.settle(write.task(), CleaningReviewStatus.FAILED.name(), error, false, null);
 				}
-				CleaningReviewTask locked = reviewTaskMapper.selectById(task.getId());
-				if (approve) {
-					CleaningReviewTask handled = executeWriteback(locked, reviewer, reason);
-					if (CleaningReviewStatus.CONFLICT.name().equals(handled.getStatus())) {
-						conflict++;
+			}
+			return;
+		}
+		for (PendingWrite write : applied) {
+			settlement.settle(write.task(), CleaningReviewStatus.WRITTEN.name(), reason, true,
+					write.task().getActionSuggested());
+		}
+	}
+
+	/**
+	 * 按任务顺序攒批：SQL 文本变化时先执行已攒的批次，保证同一行的多个任务按原顺序落库。
+	 */
+	private List<PendingWrite> writeChunk(Connection connection, WriteGroupKey key, List<PendingWrite> chunk,
+			Map<String, CleaningWritebackValidator.ColumnMeta> columnMeta, Map<String, Map<String, String>> rowStates,
+			String reason, BulkSettlement settlement, Set<Long> settledIds) throws Exception {
+		loadCurrentRows(connection, key, chunk, rowStates);
+		List<PendingWrite> applied = new ArrayList<>();
+		WriteBatch batch = null;
+		try {
+			for (PendingWrite write : chunk) {
+				CleaningReviewTask task = write.task();
+				if (!write.hardDelete()) {
+					String validationError = CleaningWritebackValidator.validateValues(columnMeta, write.payload());
+					if (validationError != null) {
+						settlement.settle(task, CleaningReviewStatus.FAILED.name(), validationError, false, null);
+						settledIds.add(task.getId());
+						continue;
 					}
-					else if (CleaningReviewStatus.WRITTEN.name().equals(handled.getStatus())) {
-						success++;
+				}
+				String rowKey = buildRowKey(write.pkRef().values());
+				Map<String, String> rowState = rowStates.get(rowKey);
+				if (!matchesRowState(rowState, write.beforeRow())) {
+					settlement.settle(task, CleaningReviewStatus.CONFLICT.name(), reason, false, null);
+					settledIds.add(task.getId());
+					continue;
+				}
+				String sql;
+				if (write.hardDelete()) {
+					sql = "DELETE FROM " + key.tableName() + " WHERE " + buildPkWhereClause(write.pkRef());
+				}
+				else {
+					String setClause = write.payload()
+						.keySet()
+						.stream()
+						.map(col -> col + " = ?")
+						.collect(Collectors.joining(", "));
+					sql = "UPDATE " + key.tableName() + " SET " + setClause + " WHERE "
+							+ buildPkWhereClause(write.pkRef());
+				}
+				if (batch == null || !batch.sql().equals(sql)) {
+					if (batch != null) {
+						applied.addAll(executeBatch(batch, reason, rowStates, settlement, settledIds));
 					}
-					else {
-						failed++;
+					batch = new WriteBatch(sql, prepare(connection, sql), new ArrayList<>());
+				}
+				int index = 1;
+				if (!write.hardDelete()) {
+					for (Object value : write.payload().values()) {
+						batch.statement().setObject(index++, value);
 					}
 				}
+				bindPkValues(batch.statement(), index, write.pkRef());
+				batch.statement().addBatch();
+				batch.writes().add(write);
+				if (write.hardDelete()) {
+					// 同一行后续任务按串行语义视为冲突
+					rowStates.put(rowKey, null);
+				}
 				else {
-					appendReviewRecord(locked, "REJECT");
-					appendFeedbackRecord(locked, reviewer, reason);
-					success++;
+					for (Map.Entry<String, Object> entry : write.payload().entrySet()) {
+						rowState.put(entry.getKey(), entry.getValue() != null ? String.valueOf(entry.getValue()) : null);
+					}
 				}
 			}
-			catch (Exception e) {
-				log.warn("Failed to handle review task {}", task.getId(), e);
-				failed++;
+			if (batch != null) {
+				applied.addAll(executeBatch(batch, reason, rowStates, settlement, settledIds));
 			}
 		}
-		return CleaningReviewBatchResult.builder()
-			.total(total)
-			.success(success)
-			.failed(failed)
-			.conflict(conflict)
-			.stale(stale)
-			.build();
+		finally {
+			if (batch != null) {
+				closeQuietly(batch.statement());
+			}
+		}
+		return applied;
+	}
+
+	/**
+	 * 执行一个批次并核对每条语句的影响行数：为 0 说明该行在读取后已被修改或删除，记为冲突且不写备份；
+	 * 其余任务批量写入备份。业务连接在全部分块完成后才提交，备份仍先于写回生效。
+	 */
+	private List<PendingWrite> executeBatch(WriteBatch batch, String reason, Map<String, Map<String, String>> rowStates,
+			BulkSettlement settlement, Set<Long> settledIds) throws Exception {
+		int[] updateCounts;
+		try {
+			updateCounts = batch.statement().executeBatch();
+		}
+		finally {
+			closeQuietly(batch.statement());
+		}
+		List<PendingWrite> applied = new ArrayList<>();
+		List<CleaningBackupRecord> backups = new ArrayList<>();
+		for (int i = 0; i < batch.writes().size(); i++) {
+			PendingWrite write = batch.writes().get(i);
+			if (i < updateCounts.length && updateCounts[i] == 0) {
+				settlement.settle(write.task(), CleaningReviewStatus.CONFLICT.name(), reason, false, null);
+				settledIds.add(write.task().getId());
+				rowStates.put(buildRowKey(write.pkRef().values()), null);
+				continue;
+			}
+			backups.add(buildBackupRecord(write.task(), write.beforeRow()));
+			applied.add(write);
+		}
+		if (!backups.isEmpty()) {
+			backupRecordMapper.insert(backups);
+		}
+		return applied;
+	}
+
+	/**
+	 * 一次多行查询读取分块内所有主键的当前值；已读取过的行沿用内存中的最新状态（含本批次已排队的写入）。
+	 */
+	private void loadCurrentRows(Connection connection, WriteGroupKey key, List<PendingWrite> chunk,
+			Map<String, Map<String, String>> rowStates) throws Exception {
+		Map<String, List<Object>> missingPks = new LinkedHashMap<>();
+		Set<String> columns = new LinkedHashSet<>(key.pkColumns());
+		for (PendingWrite write : chunk) {
+			String rowKey = buildRowKey(write.pkRef().values());
+			if (!rowStates.containsKey(rowKey)) {
+				missingPks.putIfAbsent(rowKey, write.pkRef().values());
+			}
+			columns.addAll(write.beforeRow().keySet());
+		}
+		if (missingPks.isEmpty()) {
+			return;
+		}
+		List<String> pkColumns = key.pkColumns();
+		String whereClause;
+		if (pkColumns.size() == 1) {
+			whereClause = pkColumns.get(0) + " IN ("
+					+ String.join(",", Collections.nCopies(missingPks.size(), "?")) + ")";
+		}
+		else {
+			String pkClause = "(" + pkColumns.stream().map(column -> column + " = ?").collect(Collectors.joining(" AND "))
+					+ ")";
+			whereClause = String.join(" OR ", Collections.nCopies(missingPks.size(), pkClause));
+		}
+		String sql = "SELECT " + String.join(",", columns) + " FROM " + key.tableName() + " WHERE " + whereClause;
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			int index = 1;
+			for (List<Object> pkValues : missingPks.values()) {
+				for (Object pkValue : pkValues) {
+					statement.setObject(index++, pkValue);
+				}
+			}
+			try (ResultSet rs = statement.executeQuery()) {
+				while (rs.next()) {
+					Map<String, String> row = new HashMap<>();
+					for (String column : columns) {
+						row.put(column, rs.getString(column));
+					}
+					List<Object> pkValues = new ArrayList<>();
+					for (String pkColumn : pkColumns) {
+						pkValues.add(row.get(pkColumn));
+					}
+					rowStates.put(buildRowKey(pkValues), row);
+				}
+			}
+		}
+		for (String rowKey : missingPks.keySet()) {
+			rowStates.putIfAbsent(rowKey, null);
+		}
+	}
+
+	private boolean matchesRowState(Map<String, String> rowState, Map<String, Object> beforeRow) {
+		if (rowState == null) {
+			return false;
+		}
+		for (Map.Entry<String, Object> entry : beforeRow.entrySet()) {
+			String beforeValue = entry.getValue() != null ? String.valueOf(entry.getValue()) : null;
+			if (!Objects.equals(beforeValue, rowState.get(entry.getKey()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String buildRowKey(List<Object> pkValues) {
+		return pkValues.stream().map(value -> value != null ? String.valueOf(value) : "").collect(Collectors.joining("|"));
+	}
+
+	private PreparedStatement prepare(Connection connection, String sql) {
+		try {
+			return connection.prepareStatement(sql);
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("Failed to prepare statement: " + sql, e);
+		}
+	}
+
+	private void closeQuietly(PreparedStatement statement) {
+		try {
+			statement.close();
+		}
+		catch (Exception ignored) {
+		}
+	}
+
+	private void restoreAutoCommitQuietly(Connection connection, boolean autoCommit) {
+		try {
+			connection.setAutoCommit(autoCommit);
+		}
+		catch (Exception e) {
+			log.debug("Failed to restore auto-commit", e);
+		}
+	}
+
+	private void rollbackQuietly(Connection connection) {
+		try {
+			connection.rollback();
+		}
+		catch (Exception e) {
+			log.warn("Failed to rollback bulk writeback transaction", e);
+		}
+	}
+
+	private int resolveBulkChunkSize() {
+		int configured = dataSentryProperties.getCleaning().getReview().getBulkChunkSize();
+		if (configured <= 0) {
+			return 200;
+		}
+		return Math.min(configured, MAX_BULK_CHUNK_SIZE);
 	}
 
 	private CleaningReviewTask requirePendingTask(Long id) {
@@ -375,7 +779,8 @@ public class CleaningReviewService {
 			return completeApprovedTask(task, CleaningReviewStatus.FAILED.name(), reviewer, reason, false, null);
 		}
 		DBConnectionPool pool = connectionPoolFactory.getPoolByDbType(datasource.getType());
-		try (Connection connection = pool.getConnection(datasourceService.getDbConfig(datasource))) {
+		try (Connection connection = pool
+			.getConnection(datasourceService.getDbConfig(datasource, DataSourcePoolRegistry.WORKLOAD_CLEANING))) {
 			Map<String, CleaningWritebackValidator.ColumnMeta> columnMeta = CleaningWritebackValidator
 				.loadColumnMeta(connection, task.getTableName());
 			String validationError = CleaningWritebackValidator.validateValues(columnMeta, writebackPayload);
@@ -419,28 +824,20 @@ public class CleaningReviewService {
 	}
 
 	private void backupBeforeRow(CleaningReviewTask task, Map<String, Object> beforeRow) {
-		String beforeRowJson = toJsonSafe(beforeRow);
-		String ciphertext = null;
-		String plaintext = null;
-		if (encryptionService.isEncryptionEnabled()) {
-			ciphertext = encryptionService.encrypt(beforeRowJson);
-		}
-		else {
-			plaintext = beforeRowJson;
-		}
+		backupRecordMapper.insert(buildBackupRecord(task, beforeRow));
+	}
+
+	private CleaningBackupRecord buildBackupRecord(CleaningReviewTask task, Map<String, Object> beforeRow) {
 		CleaningBackupRecord record = CleaningBackupRecord.builder()
 			.jobRunId(task.getJobRunId())
 			.datasourceId(task.getDatasourceId())
 			.tableName(task.getTableName())
 			.pkJson(task.getPkJson())
 			.pkHash(hashPk(task.getPkJson()))
-			.encryptionProvider(encryptionService.getProviderName())
-			.keyVersion(encryptionService.getKeyVersion())
-			.beforeRowCiphertext(ciphertext)
-			.beforeRowJson(plaintext)
 			.createdTime(LocalDateTime.now())
 			.build();
-		backupRecordMapper.insert(record);
+		backupPayloadService.encode(record, beforeRow);
+		return record;
 	}
 
 	private boolean matchesCurrentRow(Connection connection, String tableName, PkRef pkRef,
@@ -491,8 +888,11 @@ public class CleaningReviewService {
 		if (task == null) {
 			return;
 		}
-		String policySnapshotJson = resolvePolicySnapshot(task.getJobRunId());
-		CleaningRecord record = CleaningRecord.builder()
+		recordMapper.insert(buildReviewRecord(task, actionTaken, resolvePolicySnapshot(task.getJobRunId())));
+	}
+
+	private CleaningRecord buildReviewRecord(CleaningReviewTask task, String actionTaken, String policySnapshotJson) {
+		return CleaningRecord.builder()
 			.agentId(task.getAgentId())
 			.traceId(task.getJobRunId() != null ? String.valueOf(task.getJobRunId()) : null)
 			.jobRunId(task.getJobRunId())
@@ -510,14 +910,19 @@ public class CleaningReviewService {
 			.detectorSource(null)
 			.createdTime(LocalDateTime.now())
 			.build();
-		recordMapper.insert(record);
 	}
 
 	private void appendFeedbackRecord(CleaningReviewTask task, String reviewer, String reason) {
 		if (task == null) {
 			return;
 		}
-		reviewFeedbackRecordMapper.insert(CleaningReviewFeedbackRecord.builder()
+		reviewFeedbackRecordMapper
+			.insert(buildFeedbackRecord(task, reviewer, reason, resolvePolicySnapshot(task.getJobRunId())));
+	}
+
+	private CleaningReviewFeedbackRecord buildFeedbackRecord(CleaningReviewTask task, String reviewer, String reason,
+			String policySnapshotJson) {
+		return CleaningReviewFeedbackRecord.builder()
 			.reviewTaskId(task.getId())
 			.jobRunId(task.getJobRunId())
 			.agentId(task.getAgentId())
@@ -532,9 +937,9 @@ public class CleaningReviewService {
 			.reviewer(reviewer)
 			.reviewReason(reason)
 			.sanitizedPreview(task.getSanitizedPreview())
-			.policySnapshotJson(resolvePolicySnapshot(task.getJobRunId()))
+			.policySnapshotJson(policySnapshotJson)
 			.createdTime(LocalDateTime.now())
-			.build());
+			.build();
 	}
 
 	private String resolvePolicySnapshot(Long jobRunId) {
@@ -671,4 +1076,187 @@ public class CleaningReviewService {
 	private record PkRef(List<String> columns, List<Object> values) {
 	}
 
+	private record WriteGroupKey(Long datasourceId, String tableName, List<String> pkColumns) {
+	}
+
+	private record PendingWrite(CleaningReviewTask task, Map<String, Object> beforeRow, Map<String, Object> payload,
+			PkRef pkRef, boolean hardDelete) {
+	}
+
+	private record WriteBatch(String sql, PreparedStatement statement, List<PendingWrite> writes) {
+	}
+
+	/**
+	 * 汇总批量审批的终态：状态按 (终态, 原因) 合并为一条 UPDATE，审计与反馈记录批量插入，快照按 jobRunId 缓存。
+	 */
+	private final class BulkSettlement {
+
+		private final BulkJob job;
+
+		private final String reviewer;
+
+		private final Map<List<String>, List<CleaningReviewTask>> statusGroups = new LinkedHashMap<>();
+
+		private final List<CleaningRecord> records = new ArrayList<>();
+
+		private final Map<Long, String> snapshotCache = new HashMap<>();
+
+		private BulkSettlement(BulkJob job, String reviewer) {
+			this.job = job;
+			this.reviewer = reviewer;
+		}
+
+		private void reject(CleaningReviewTask task, String reason) {
+			records.add(buildReviewRecord(task, "REJECT", snapshot(task.getJobRunId())));
+			statusGroups.computeIfAbsent(List.of(CleaningReviewStatus.REJECTED.name(), Objects.toString(reason, "")),
+					key -> new ArrayList<>())
+				.add(task);
+		}
+
+		private void settle(CleaningReviewTask task, String toStatus, String reason, boolean appendAuditRecord,
+				String actionTaken) {
+			if (appendAuditRecord) {
+				records.add(buildReviewRecord(task, actionTaken, snapshot(task.getJobRunId())));
+			}
+			statusGroups.computeIfAbsent(List.of(toStatus, Objects.toString(reason, "")), key -> new ArrayList<>())
+				.add(task);
+		}
+
+		private void flush() {
+			LocalDateTime now = LocalDateTime.now();
+			List<CleaningReviewFeedbackRecord> feedbacks = new ArrayList<>();
+			for (Map.Entry<List<String>, List<CleaningReviewTask>> entry : statusGroups.entrySet()) {
+				String toStatus = entry.getKey().get(0);
+				String reason = entry.getKey().get(1).isEmpty() ? null : entry.getKey().get(1);
+				List<CleaningReviewTask> tasks = entry.getValue();
+				if (!CleaningReviewStatus.REJECTED.name().equals(toStatus)) {
+					reviewTaskMapper.updateStatusBatchIfMatch(tasks.stream().map(CleaningReviewTask::getId).toList(),
+							CleaningReviewStatus.APPROVED.name(), toStatus, reviewer, reason, now);
+				}
+				for (CleaningReviewTask task : tasks) {
+					task.setStatus(toStatus);
+					task.setReviewReason(reason);
+					task.setUpdatedTime(now);
+					feedbacks.add(buildFeedbackRecord(task, reviewer, reason, snapshot(task.getJobRunId())));
+					job.record(task.getId(), toStatus,
+							CleaningReviewStatus.WRITTEN.name().equals(toStatus) ? null : reason);
+				}
+			}
+			if (!records.isEmpty()) {
+				recordMapper.insert(records);
+			}
+			if (!feedbacks.isEmpty()) {
+				reviewFeedbackRecordMapper.insert(feedbacks);
+			}
+			statusGroups.clear();
+			records.clear();
+		}
+
+		private String snapshot(Long jobRunId) {
+			if (jobRunId == null) {
+				return null;
+			}
+			if (!snapshotCache.containsKey(jobRunId)) {
+				snapshotCache.put(jobRunId, resolvePolicySnapshot(jobRunId));
+			}
+			return snapshotCache.get(jobRunId);
+		}
+
+	}
+
+	private static final class BulkJob {
+
+		private final String jobId;
+
+		private final LocalDateTime createdTime = LocalDateTime.now();
+
+		private final AtomicInteger total = new AtomicInteger();
+
+		private final AtomicInteger processed = new AtomicInteger();
+
+		private final AtomicInteger success = new AtomicInteger();
+
+		private final AtomicInteger failed = new AtomicInteger();
+
+		private final AtomicInteger conflict = new AtomicInteger();
+
+		private final AtomicInteger stale = new AtomicInteger();
+
+		private final List<CleaningReviewTaskOutcome> outcomes = Collections.synchronizedList(new ArrayList<>());
+
+		private volatile String status = "RUNNING";
+
+		private volatile String message;
+
+		private volatile LocalDateTime finishedTime;
+
+		private BulkJob(String jobId) {
+			this.jobId = jobId;
+		}
+
+		private void record(Long taskId, String outcomeStatus, String outcomeMessage) {
+			if (CleaningReviewStatus.WRITTEN.name().equals(outcomeStatus)
+					|| CleaningReviewStatus.REJECTED.name().equals(outcomeStatus)) {
+				success.incrementAndGet();
+			}
+			else if (CleaningReviewStatus.CONFLICT.name().equals(outcomeStatus)) {
+				conflict.incrementAndGet();
+			}
+			else if ("STALE".equals(outcomeStatus)) {
+				stale.incrementAndGet();
+			}
+			else {
+				failed.incrementAndGet();
+			}
+			processed.incrementAndGet();
+			if (jobId != null) {
+				outcomes.add(CleaningReviewTaskOutcome.builder()
+					.taskId(taskId)
+					.status(outcomeStatus)
+					.message(outcomeMessage)
+					.build());
+			}
+		}
+
+		private void finish(String finalStatus, String finalMessage) {
+			this.message = finalMessage;
+			this.finishedTime = LocalDateTime.now();
+			this.status = finalStatus;
+		}
+
+		private CleaningReviewBatchResult toResult() {
+			return CleaningReviewBatchResult.builder()
+				.total(total.get())
+				.success(success.get())
+				.failed(failed.get())
+				.conflict(conflict.get())
+				.stale(stale.get())
+				.build();
+		}
+
+		private CleaningReviewBulkJobView toView(boolean includeOutcomes) {
+			List<CleaningReviewTaskOutcome> outcomeSnapshot = null;
+			if (includeOutcomes) {
+				synchronized (outcomes) {
+					outcomeSnapshot = new ArrayList<>(outcomes);
+				}
+			}
+			return CleaningReviewBulkJobView.builder()
+				.jobId(jobId)
+				.status(status)
+				.total(total.get())
+				.processed(processed.get())
+				.success(success.get())
+				.failed(failed.get())
+				.conflict(conflict.get())
+				.stale(stale.get())
+				.message(message)
+				.createdTime(createdTime)
+				.finishedTime(finishedTime)
+				.outcomes(outcomeSnapshot)
+				.build();
+		}
+
+	}
+
 }
@@ -21,6 +21,7 @@ import com.touhouqing.datasentry.cleaning.model.CleaningRollbackRun;
 import com.touhouqing.datasentry.cleaning.model.CleaningRollbackVerifyRecord;
 import com.touhouqing.datasentry.connector.pool.DBConnectionPool;
 import com.touhouqing.datasentry.connector.pool.DBConnectionPoolFactory;
+import com.touhouqing.datasentry.connector.pool.DataSourcePoolRegistry;
 import com.touhouqing.datasentry.entity.Datasource;
 import com.touhouqing.datasentry.exception.InvalidInputException;
 import com.touhouqing.datasentry.properties.DataSentryProperties;
@@ -82,6 +83,8 @@ public class CleaningRollbackService {
 
 	private final DataSentryProperties dataSentryProperties;
 
+	private final CleaningBackupPayloadService backupPayloadService;
+
 	public CleaningRollbackRun createRollbackRun(Long runId) {
 		return createRollbackRun(runId, null);
 	}
@@ -202,7 +205,8 @@ public class CleaningRollbackService {
 		int mediumConflicts = 0;
 		int lowConflicts = 0;
 		Selector selector = resolveSelector(run.getSelectorJson());
-		try (Connection connection = pool.getConnection(datasourceService.getDbConfig(datasource))) {
+		try (Connection connection = pool
+			.getConnection(datasourceService.getDbConfig(datasource, DataSourcePoolRegistry.WORKLOAD_CLEANING))) {
 			while (true) {
 				List<CleaningBackupRecord> records = fetchBackupRecords(run.getJobRunId(), checkpointId, selector);
 				if (records.isEmpty()) {
@@ -378,14 +382,7 @@ public class CleaningRollbackService {
 	}
 
 	private Map<String, Object> loadBeforeRow(CleaningBackupRecord record) {
-		String json = record.getBeforeRowJson();
-		if (json == null || json.isBlank()) {
-			if (record.getBeforeRowCiphertext() == null || record.getBeforeRowCiphertext().isBlank()) {
-				return new LinkedHashMap<>();
-			}
-			json = encryptionService.decrypt(record.getBeforeRowCiphertext());
-		}
-		return parseJsonMap(json);
+		return backupPayloadService.decode(record);
 	}
 
 	private void executeUpdate(Connection connection, String tableName, Map<String, Object> updateValues, PkRef pkRef)
@@ -512,7 +509,8 @@ public class CleaningRollbackService {
 		}
 		try {
 			DBConnectionPool pool = connectionPoolFactory.getPoolByDbType(context.datasource().getType());
-			try (Connection connection = pool.getConnection(datasourceService.getDbConfig(context.datasource()))) {
+			try (Connection connection = pool.getConnection(
+					datasourceService.getDbConfig(context.datasource(), DataSourcePoolRegistry.WORKLOAD_CLEANING))) {
 				RestoreResult restoreResult = restoreRecord(connection, context.backupRecord());
 				if (!restoreResult.success()) {
 					return false;
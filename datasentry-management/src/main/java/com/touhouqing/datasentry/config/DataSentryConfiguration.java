@@ -26,7 +26,13 @@ import com.touhouqing.datasentry.properties.CodeExecutorProperties;
 import com.touhouqing.datasentry.properties.DataSentryProperties;
 import com.touhouqing.datasentry.properties.FileStorageProperties;
 import com.touhouqing.datasentry.service.aimodelconfig.AiModelRegistry;
+import com.touhouqing.datasentry.service.aimodelconfig.CachingEmbeddingModel;
+import com.touhouqing.datasentry.service.aimodelconfig.ConcurrentBatchEmbeddingModel;
+import com.touhouqing.datasentry.service.aimodelconfig.EmbeddingBatchDispatcher;
+import com.touhouqing.datasentry.service.aimodelconfig.EmbeddingCache;
 import com.touhouqing.datasentry.service.vectorstore.SimpleVectorStoreInitialization;
+import com.touhouqing.datasentry.service.vectorstore.VectorDocumentMetadataIndex;
+import com.touhouqing.datasentry.service.vectorstore.file.FileVectorStore;
 import com.touhouqing.datasentry.splitter.ParagraphTextSplitter;
 import com.touhouqing.datasentry.splitter.SemanticTextSplitter;
 import com.touhouqing.datasentry.splitter.SentenceSplitter;
@@ -361,8 +367,20 @@ public class DataSentryConfiguration implements DisposableBean {
 	@Bean
 	@ConditionalOnBean(SimpleVectorStore.class)
 	public SimpleVectorStoreInitialization simpleVectorStoreInitialization(SimpleVectorStore vectorStore,
+			DataSentryProperties properties, VectorDocumentMetadataIndex metadataIndex) {
+		return new SimpleVectorStoreInitialization(vectorStore, properties, metadataIndex);
+	}
+
+	/**
+	 * 本地文件持久化向量存储，spring.ai.vectorstore.type=file 时启用，重启后无需重新向量化
+	 */
+	@Primary
+	@Bean
+	@ConditionalOnMissingBean(VectorStore.class)
+	@ConditionalOnProperty(name = "spring.ai.vectorstore.type", havingValue = "file")
+	public FileVectorStore fileVectorStore(EmbeddingModel embeddingModel, BatchingStrategy batchingStrategy,
 			DataSentryProperties properties) {
-		return new SimpleVectorStoreInitialization(vectorStore, properties);
+		return new FileVectorStore(embeddingModel, batchingStrategy, properties.getVectorStore().getFile());
 	}
 
 	@Bean
@@ -410,7 +428,8 @@ public class DataSentryConfiguration implements DisposableBean {
 	 */
 	@Bean
 	@Primary
-	public EmbeddingModel embeddingModel(AiModelRegistry registry) {
+	public EmbeddingModel embeddingModel(AiModelRegistry registry, EmbeddingCache embeddingCache,
+			EmbeddingBatchDispatcher embeddingBatchDispatcher, DataSentryProperties properties) {
 
 		// 1. 定义目标源 (TargetSource)
 		TargetSource targetSource = new TargetSource() {
@@ -443,8 +462,16 @@ public class DataSentryConfiguration implements DisposableBean {
 		// 代理接口
 		proxyFactory.addInterface(EmbeddingModel.class);
 
-		// 3. 返回动态生成的代理对象
-		return (EmbeddingModel) proxyFactory.getProxy();
+		EmbeddingModel proxy = (EmbeddingModel) proxyFactory.getProxy();
+
+		// 3. 外层包装向量化缓存，知识入库、语义切分与 Schema 刷新共享同一份缓存
+		EmbeddingModel model = proxy;
+		if (properties.getEmbeddingCache().isEnabled()) {
+			model = new CachingEmbeddingModel(model, embeddingCache, registry::getEmbeddingModelId);
+		}
+
+		// 4. 最外层让向量库入库时的多个批次并发向量化
+		return new ConcurrentBatchEmbeddingModel(model, embeddingBatchDispatcher);
 	}
 
 	@Bean(name = "dbOperationExecutor")
@@ -565,11 +592,13 @@ public class DataSentryConfiguration implements DisposableBean {
 	 * @return SemanticTextSplitter实例
 	 */
 	@Bean(name = "semantic")
-	public TextSplitter semanticSplitter(DataSentryProperties properties, EmbeddingModel embeddingModel) {
+	public TextSplitter semanticSplitter(DataSentryProperties properties, EmbeddingModel embeddingModel,
+			EmbeddingBatchDispatcher embeddingBatchDispatcher) {
 		DataSentryProperties.TextSplitter textSplitterProps = properties.getTextSplitter();
 		DataSentryProperties.TextSplitter.SemanticTextSplitterConfig config = textSplitterProps.getSemantic();
 		return SemanticTextSplitter.builder()
 			.embeddingModel(embeddingModel)
+			.batchDispatcher(embeddingBatchDispatcher)
 			.minChunkSize(config.getMinChunkSize())
 			.maxChunkSize(config.getMaxChunkSize())
 			.similarityThreshold(config.getSimilarityThreshold())
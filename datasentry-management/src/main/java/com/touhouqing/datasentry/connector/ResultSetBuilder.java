@@ -16,65 +16,67 @@
 package com.touhouqing.datasentry.connector;
 
 import com.touhouqing.datasentry.bo.schema.ResultSetBO;
-import org.apache.commons.compress.utils.Lists;
 import org.apache.commons.lang3.StringUtils;
 
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class ResultSetBuilder {
 
 	public static ResultSetBO buildFrom(ResultSet rs, String schema) throws SQLException {
+		return buildFrom(rs, SqlExecutor.RESULT_SET_LIMIT, null);
+	}
+
+	/**
+	 * 逐行读取结果集，每凑满 pageSize 行（以及最后不足一页的剩余行）交给 pageConsumer，返回包含全部行的结果
+	 */
+	public static ResultSetBO buildFrom(ResultSet rs, int pageSize, Consumer<ResultSetBO> pageConsumer)
+			throws SQLException {
 		ResultSetMetaData data = rs.getMetaData();
 		int columnsCount = data.getColumnCount();
-		ResultSetBO resultSetBO = new ResultSetBO();
 		String[] rowHead = new String[columnsCount];
 
 		for (int i = 1; i <= columnsCount; i++) {
 			rowHead[i - 1] = data.getColumnLabel(i);
 		}
 
-		List<Map<String, String>> resultSetData = Lists.newArrayList();
-		int count = 0;
+		// Clean column names
+		List<String> cleanedHead = cleanColumnNames(Arrays.asList(rowHead));
+		List<Map<String, String>> resultSetData = new ArrayList<>();
+		int pageStart = 0;
 
-		while (rs.next() && count < SqlExecutor.RESULT_SET_LIMIT) {
+		while (resultSetData.size() < SqlExecutor.RESULT_SET_LIMIT && rs.next()) {
 			Map<String, String> kv = new HashMap<>();
-			for (String h : rowHead) {
-				kv.put(h, rs.getString(h) == null ? "" : rs.getString(h));
+			for (int i = 0; i < columnsCount; i++) {
+				String value = rs.getString(rowHead[i]);
+				kv.put(cleanedHead.get(i), value == null ? "" : value);
 			}
 			resultSetData.add(kv);
-			count++;
+			if (pageConsumer != null && resultSetData.size() - pageStart >= pageSize) {
+				pageConsumer.accept(page(cleanedHead, resultSetData, pageStart));
+				pageStart = resultSetData.size();
+			}
+		}
+		if (pageConsumer != null && resultSetData.size() > pageStart) {
+			pageConsumer.accept(page(cleanedHead, resultSetData, pageStart));
 		}
 
-		// Clean column names
-		List<String> cleanedHead = cleanColumnNames(Arrays.asList(rowHead));
-		List<Map<String, String>> cleanedData = cleanResultSet(resultSetData);
-
-		resultSetBO.setColumn(cleanedHead);
-		resultSetBO.setData(cleanedData);
+		return ResultSetBO.builder().column(cleanedHead).data(resultSetData).build();
+	}
 
-		return resultSetBO;
+	private static ResultSetBO page(List<String> column, List<Map<String, String>> rows, int fromIndex) {
+		return ResultSetBO.builder().column(column).data(new ArrayList<>(rows.subList(fromIndex, rows.size()))).build();
 	}
 
 	private static List<String> cleanColumnNames(List<String> columnNames) {
 		return columnNames.stream().map(name -> StringUtils.remove(StringUtils.remove(name, "`"), "\"")).toList();
 	}
 
-	private static List<Map<String, String>> cleanResultSet(List<Map<String, String>> data) {
-		return data.stream().map(row -> {
-			Map<String, String> cleanedRow = new HashMap<>();
-			row.forEach((k, v) -> {
-				String cleanedKey = StringUtils.remove(k, "`");
-				cleanedKey = StringUtils.remove(cleanedKey, "\"");
-				cleanedRow.put(cleanedKey, v);
-			});
-			return cleanedRow;
-		}).toList();
-	}
-
 }
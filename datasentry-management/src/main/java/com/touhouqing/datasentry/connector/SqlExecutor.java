@@ -26,6 +26,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Responsible for executing SQL and returning structured results.
@@ -48,30 +49,63 @@ public class SqlExecutor {
 		try (Statement statement = connection.createStatement()) {
 			statement.setMaxRows(RESULT_SET_LIMIT);
 			statement.setQueryTimeout(STATEMENT_TIMEOUT);
+			switchSchema(connection, statement, schema);
 
-			DatabaseMetaData metaData = connection.getMetaData();
-			String dialect = metaData.getDatabaseProductName();
-
-			if (dialect.equals(DatabaseDialectEnum.POSTGRESQL.code)) {
-				if (StringUtils.isNotEmpty(schema)) {
-					statement.execute("set search_path = '" + schema + "';");
-				}
-			}
-			else if (dialect.equals(DatabaseDialectEnum.H2.code)) {
-				if (StringUtils.isNotEmpty(schema)) {
-					statement.execute("use " + schema + ";");
-				}
-			}
-			else if (dialect.equals(DatabaseDialectEnum.ORACLE.code)) {
-				if (StringUtils.isNotEmpty(schema)) {
-					statement.execute("ALTER SESSION SET CURRENT_SCHEMA = " + schema);
-				}
+			try (ResultSet rs = statement.executeQuery(sql)) {
+				return ResultSetBuilder.buildFrom(rs, schema);
 			}
+		}
+	}
+
+	/**
+	 * Execute SQL query and hand rows to the consumer page by page while the cursor is
+	 * still being read, so callers can stream results before the query is exhausted. The
+	 * fetch size comes from {@link StreamingCursorSupport#streamingFetchSize} so that MySQL
+	 * streams rows on the pooled connection; PostgreSQL reads inside a read-only transaction
+	 * @param connection database connection
+	 * @param sql SQL statement
+	 * @param pageSize rows per page, also used as the JDBC fetch size except on MySQL
+	 * @param pageConsumer receives each non-empty page (column + rows of that page)
+	 * @return ResultSetBO structured result containing all rows
+	 * @throws SQLException SQL execution exception
+	 */
+	public static ResultSetBO executeSqlAndStreamPages(Connection connection, String schema, String sql,
+			int pageSize, Consumer<ResultSetBO> pageConsumer) throws SQLException {
+		DatabaseDialectEnum dialect = DatabaseDialectEnum.getByCode(connection.getMetaData().getDatabaseProductName())
+			.orElse(null);
+		boolean autoCommitChanged = StreamingCursorSupport.beginCursorRead(connection, dialect);
+		try (Statement statement = connection.createStatement()) {
+			statement.setMaxRows(RESULT_SET_LIMIT);
+			statement.setQueryTimeout(STATEMENT_TIMEOUT);
+			statement.setFetchSize(StreamingCursorSupport.streamingFetchSize(dialect, pageSize));
+			switchSchema(connection, statement, schema);
 
 			try (ResultSet rs = statement.executeQuery(sql)) {
-				return ResultSetBuilder.buildFrom(rs, schema);
+				return ResultSetBuilder.buildFrom(rs, pageSize, pageConsumer);
 			}
 		}
+		finally {
+			StreamingCursorSupport.endCursorRead(connection, autoCommitChanged);
+		}
+	}
+
+	private static void switchSchema(Connection connection, Statement statement, String schema)
+			throws SQLException {
+		if (StringUtils.isEmpty(schema)) {
+			return;
+		}
+		DatabaseMetaData metaData = connection.getMetaData();
+		String dialect = metaData.getDatabaseProductName();
+
+		if (dialect.equals(DatabaseDialectEnum.POSTGRESQL.code)) {
+			statement.execute("set search_path = '" + schema + "';");
+		}
+		else if (dialect.equals(DatabaseDialectEnum.H2.code)) {
+			statement.execute("use " + schema + ";");
+		}
+		else if (dialect.equals(DatabaseDialectEnum.ORACLE.code)) {
+			statement.execute("ALTER SESSION SET CURRENT_SCHEMA = " + schema);
+		}
 	}
 
 	/**
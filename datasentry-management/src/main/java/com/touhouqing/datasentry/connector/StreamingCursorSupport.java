@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.connector;
+
+import com.touhouqing.datasentry.enums.DatabaseDialectEnum;
+import lombok.experimental.UtilityClass;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 按方言准备流式读取，只设置 fetchSize 时 MySQL 与 PostgreSQL 的驱动仍会把整个结果集读入内存。
+ * NL2SQL 查询结果分页推送与清理任务的 STREAM 读取共用。
+ */
+@UtilityClass
+public class StreamingCursorSupport {
+
+	/**
+	 * MySQL 驱动默认把结果集整体读入内存；在只进只读语句上设置 Integer.MIN_VALUE
+	 * 才会逐行流式读取，无需改写连接 URL，沿用同一连接池的连接。流式读取期间该连接不能执行其他语句，
+	 * 结果集须读完或关闭后再归还。其他方言按给定的 fetchSize 分批拉取
+	 */
+	public int streamingFetchSize(DatabaseDialectEnum dialect, int fetchSize) {
+		if (dialect == DatabaseDialectEnum.MYSQL) {
+			return Integer.MIN_VALUE;
+		}
+		return Math.max(fetchSize, 1);
+	}
+
+	/**
+	 * PostgreSQL 仅在事务内按 fetchSize 分批拉取，自动提交模式下会一次取回全部结果。
+	 * 游标放在只读事务中，须在事务开始前设置只读
+	 * @return 是否关闭了自动提交，为 true 时读取结束后需调用 {@link #endCursorRead}
+	 */
+	public boolean beginCursorRead(Connection connection, DatabaseDialectEnum dialect) throws SQLException {
+		if (dialect == DatabaseDialectEnum.POSTGRESQL && connection.getAutoCommit()) {
+			connection.setReadOnly(true);
+			connection.setAutoCommit(false);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * 结束只读游标事务并恢复自动提交与读写状态，连接归还连接池前调用
+	 */
+	public void endCursorRead(Connection connection, boolean autoCommitChanged) throws SQLException {
+		if (autoCommitChanged) {
+			connection.rollback();
+			connection.setAutoCommit(true);
+			connection.setReadOnly(false);
+		}
+	}
+
+}
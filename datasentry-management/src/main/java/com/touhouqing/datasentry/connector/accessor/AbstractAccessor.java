@@ -32,6 +32,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Connection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author yuluo
@@ -118,6 +119,18 @@ public abstract class AbstractAccessor implements Accessor {
 		return accessDb(dbConfig, "executeSqlAndReturnObject", param);
 	}
 
+	public ResultSetBO executeSqlAndStreamPages(DbConfigBO dbConfig, DbQueryParameter param, int pageSize,
+			Consumer<ResultSetBO> pageConsumer) throws Exception {
+		try (Connection connection = getConnection(dbConfig)) {
+			return SqlExecutor.executeSqlAndStreamPages(connection, param.getSchema(), param.getSql(), pageSize,
+					pageConsumer);
+		}
+		catch (Exception e) {
+			log.error("Error accessing database with method: executeSqlAndStreamPages, reason: {}", e.getMessage());
+			throw e;
+		}
+	}
+
 	public Connection getConnection(DbConfigBO config) {
 		return this.dbConnectionPool.getConnection(config);
 	}
@@ -26,6 +26,7 @@ import com.touhouqing.datasentry.bo.DbConfigBO;
 import com.touhouqing.datasentry.enums.BizDataSourceTypeEnum;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Data access interface definition.
@@ -73,4 +74,16 @@ public interface Accessor {
 
 	ResultSetBO executeSqlAndReturnObject(DbConfigBO dbConfig, DbQueryParameter param) throws Exception;
 
+	/**
+	 * Execute the query and hand rows to the consumer page by page while reading the
+	 * cursor.
+	 * @param pageSize rows per page
+	 * @param pageConsumer receives each non-empty page
+	 * @return the complete result, identical to
+	 * {@link #executeSqlAndReturnObject(DbConfigBO, DbQueryParameter)}
+	 * @throws Exception if an error occurs during database access
+	 */
+	ResultSetBO executeSqlAndStreamPages(DbConfigBO dbConfig, DbQueryParameter param, int pageSize,
+			Consumer<ResultSetBO> pageConsumer) throws Exception;
+
 }
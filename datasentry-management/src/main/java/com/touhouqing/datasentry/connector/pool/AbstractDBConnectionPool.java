@@ -20,26 +20,35 @@ import com.alibaba.druid.pool.DruidDataSource;
 import com.alibaba.druid.pool.DruidDataSourceFactory;
 import com.touhouqing.datasentry.enums.BizDataSourceTypeEnum;
 import com.touhouqing.datasentry.enums.ErrorCodeEnum;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 public abstract class AbstractDBConnectionPool implements DBConnectionPool {
 
 	/**
-	 * DataSource cache to ensure that each configuration creates DataSource only once.
+	 * Shared registry used when the pool is created outside the Spring context.
 	 */
-	private static final ConcurrentHashMap<String, DataSource> DATA_SOURCE_CACHE = new ConcurrentHashMap<>();
+	private static volatile DataSourcePoolRegistry fallbackRegistry;
+
+	private DataSourcePoolRegistry poolRegistry;
+
+	private DataSentryProperties dataSentryProperties;
+
+	@Autowired
+	public void setPoolRegistry(DataSourcePoolRegistry poolRegistry, DataSentryProperties dataSentryProperties) {
+		this.poolRegistry = poolRegistry;
+		this.dataSentryProperties = dataSentryProperties;
+	}
 
 	/**
 	 * Driver
@@ -55,115 +64,69 @@ public abstract class AbstractDBConnectionPool implements DBConnectionPool {
 		return String.format("SELECT count(*) FROM information_schema.schemata WHERE schema_name = '%s'", schema);
 	}
 
+	/**
+	 * 通过连接池校验连通性：借出连接后用 isValid 检查，失败的池会被注册表移除，不会残留错误配置的池。
+	 */
 	public ErrorCodeEnum ping(DbConfigBO config) {
 		String jdbcUrl = config.getUrl();
-		try (Connection connection = DriverManager.getConnection(jdbcUrl, config.getUsername(), config.getPassword());
-				Statement stmt = connection.createStatement();) {
+		try (Connection connection = registry().borrow(getConnectionPoolType(), config, this::createdDataSource)) {
+			if (!connection.isValid(Math.max(properties().getConnectionPool().getValidationTimeoutSeconds(), 1))) {
+				log.info("test db connection invalid, url:{}", jdbcUrl);
+				return ErrorCodeEnum.DATASOURCE_CONNECTION_FAILURE_08S01;
+			}
 			if (BizDataSourceTypeEnum.isPgDialect(config.getConnectionType())) {
-				ResultSet rs = stmt.executeQuery(getSelectSchemaSQL(config.getSchema()));
-				if (rs.next()) {
-					int count = rs.getInt(1);
-					rs.close();
-					if (count == 0) {
+				try (Statement stmt = connection.createStatement();
+						ResultSet rs = stmt.executeQuery(getSelectSchemaSQL(config.getSchema()))) {
+					if (rs.next() && rs.getInt(1) == 0) {
 						log.info("the specified schema '{}' does not exist.", config.getSchema());
 						return ErrorCodeEnum.SCHEMA_NOT_EXIST_3D070;
 					}
 				}
-				rs.close();
 			}
 			return ErrorCodeEnum.SUCCESS;
 		}
 		catch (SQLException e) {
-			log.error("test db connection error, url:{}, state:{}, message:{}", jdbcUrl, e.getSQLState(),
-					e.getMessage());
-			return errorMapping(e.getSQLState());
+			String sqlState = resolveSqlState(e);
+			log.error("test db connection error, url:{}, state:{}, message:{}", jdbcUrl, sqlState, e.getMessage());
+			return sqlState != null ? errorMapping(sqlState) : ErrorCodeEnum.OTHERS;
 		}
-	}
-
-	public Connection getConnection(DbConfigBO config) {
-
-		String jdbcUrl = config.getUrl();
-		int maxRetries = 3;
-		int retryDelay = 1000; // 1 second
-
-		for (int attempt = 1; attempt <= maxRetries; attempt++) {
-			try {
-				// Generate cache key based on connection parameters
-				String cacheKey = generateCacheKey(jdbcUrl, config.getUsername(), config.getPassword());
-
-				// Use computeIfAbsent to ensure thread safety and avoid duplicate
-				// DataSource
-				// creation
-				DataSource dataSource = DATA_SOURCE_CACHE.computeIfAbsent(cacheKey, key -> {
-					try {
-						log.debug("Creating new DataSource for key: {}", key);
-						return createdDataSource(jdbcUrl, config.getUsername(), config.getPassword());
-					}
-					catch (Exception e) {
-						log.error("Failed to create DataSource for key: {}", key, e);
-						throw new RuntimeException("Failed to create DataSource", e);
-					}
-				});
-
-				// 记录连接池状态
-				if (dataSource instanceof DruidDataSource druidDataSource) {
-					log.debug("Connection pool status - Active: {}, Idle: {}, Total: {}, WaitCount: {}",
-							druidDataSource.getActiveCount(), druidDataSource.getPoolingCount(),
-							druidDataSource.getActiveCount() + druidDataSource.getPoolingCount(),
-							druidDataSource.getWaitThreadCount());
-				}
-
-				return dataSource.getConnection();
-			}
-			catch (Exception e) {
-				log.warn("Attempt {} to get database connection failed: {}", attempt, e.getMessage());
-
-				if (attempt == maxRetries) {
-					log.error("Failed to get database connection after {} attempts, URL: {}", maxRetries, jdbcUrl, e);
-					throw new RuntimeException("Failed to get database connection after " + maxRetries + " attempts",
-							e);
-				}
-
-				// Wait before retry with exponential backoff
-				try {
-					Thread.sleep((long) retryDelay * attempt);
-				}
-				catch (InterruptedException ignore) {
-
-				}
-			}
+		catch (RuntimeException e) {
+			log.error("test db connection error, url:{}, message:{}", jdbcUrl, e.getMessage());
+			SQLException cause = findSqlException(e);
+			String sqlState = cause != null ? resolveSqlState(cause) : null;
+			return sqlState != null ? errorMapping(sqlState) : ErrorCodeEnum.OTHERS;
+		}
+		finally {
+			// 未保存的配置只做一次连通性校验，不保留连接池
+			registry().releaseAdhoc(config);
 		}
-		return null;
 	}
 
 	/**
-	 * Generate cache key based on connection parameters.
-	 * @param url the database URL
-	 * @param username the database username
-	 * @param password the database password
-	 * @return the cache key
+	 * 从池中获取连接。等待时长由池的 maxWait 控制，获取失败直接抛出，不在调用线程上重试休眠。
 	 */
-	private String generateCacheKey(String url, String username, String password) {
-		return url + "|" + username + "|" + Objects.hashCode(password);
+	public Connection getConnection(DbConfigBO config) {
+		try {
+			return registry().borrow(getConnectionPoolType(), config, this::createdDataSource);
+		}
+		catch (SQLException e) {
+			log.error("Failed to get database connection, URL: {}, state: {}", config.getUrl(), resolveSqlState(e), e);
+			throw new RuntimeException("Failed to get database connection", e);
+		}
 	}
 
 	@Override
 	public void close() {
-		DATA_SOURCE_CACHE.values().forEach(dataSource -> {
-			if (dataSource instanceof DruidDataSource) {
-				((DruidDataSource) dataSource).close();
-			}
-		});
-		DATA_SOURCE_CACHE.clear();
-		log.info("DataSource cache cleared");
+		registry().closePools(getConnectionPoolType());
+		log.info("DataSource pools closed for type: {}", getConnectionPoolType());
 	}
 
-	/**
-	 * Clear DataSource cache and close all cached DataSource instances. This method is
-	 * useful for resource cleanup in special scenarios.
-	 */
-
 	public DataSource createdDataSource(String url, String username, String password) throws Exception {
+		return createdDataSource(url, username, password, properties().getConnectionPool().resolve(null));
+	}
+
+	public DataSource createdDataSource(String url, String username, String password,
+			DataSentryProperties.ConnectionPool.PoolSettings settings) throws Exception {
 
 		String driver = getDriver();
 
@@ -177,11 +140,14 @@ public abstract class AbstractDBConnectionPool implements DBConnectionPool {
 		props.put(DruidDataSourceFactory.PROP_URL, url);
 		props.put(DruidDataSourceFactory.PROP_USERNAME, username);
 		props.put(DruidDataSourceFactory.PROP_PASSWORD, password);
-		props.put(DruidDataSourceFactory.PROP_INITIALSIZE, "5");
-		props.put(DruidDataSourceFactory.PROP_MINIDLE, "5");
-		props.put(DruidDataSourceFactory.PROP_MAXACTIVE, "20");
-		props.put(DruidDataSourceFactory.PROP_MAXWAIT, "10000");
-		props.put(DruidDataSourceFactory.PROP_TIMEBETWEENEVICTIONRUNSMILLIS, "60000");
+		props.put(DruidDataSourceFactory.PROP_INITIALSIZE, String.valueOf(settings.getInitialSize()));
+		props.put(DruidDataSourceFactory.PROP_MINIDLE, String.valueOf(settings.getMinIdle()));
+		props.put(DruidDataSourceFactory.PROP_MAXACTIVE, String.valueOf(settings.getMaxActive()));
+		props.put(DruidDataSourceFactory.PROP_MAXWAIT, String.valueOf(settings.getMaxWaitMillis()));
+		props.put(DruidDataSourceFactory.PROP_TIMEBETWEENEVICTIONRUNSMILLIS,
+				String.valueOf(settings.getTimeBetweenEvictionRunsMillis()));
+		props.put(DruidDataSourceFactory.PROP_MINEVICTABLEIDLETIMEMILLIS,
+				String.valueOf(settings.getMinEvictableIdleTimeMillis()));
 		props.put(DruidDataSourceFactory.PROP_FILTERS, filters);
 
 		DruidDataSource dataSource = (DruidDataSource) DruidDataSourceFactory.createDataSource(props);
@@ -189,10 +155,56 @@ public abstract class AbstractDBConnectionPool implements DBConnectionPool {
 		dataSource.setConnectionErrorRetryAttempts(2);
 
 		// 记录数据源创建信息
-		log.info(
-				"Created new DataSource with optimized parameters - InitialSize: 5, MinIdle: 5, MaxActive: 20, MaxWait: 10000ms");
+		log.info("Created new DataSource - InitialSize: {}, MinIdle: {}, MaxActive: {}, MaxWait: {}ms",
+				settings.getInitialSize(), settings.getMinIdle(), settings.getMaxActive(), settings.getMaxWaitMillis());
 
 		return dataSource;
 	}
 
+	private DataSourcePoolRegistry registry() {
+		if (poolRegistry != null) {
+			return poolRegistry;
+		}
+		if (fallbackRegistry == null) {
+			synchronized (AbstractDBConnectionPool.class) {
+				if (fallbackRegistry == null) {
+					fallbackRegistry = new DataSourcePoolRegistry(properties());
+				}
+			}
+		}
+		return fallbackRegistry;
+	}
+
+	private DataSentryProperties properties() {
+		if (dataSentryProperties == null) {
+			dataSentryProperties = new DataSentryProperties();
+		}
+		return dataSentryProperties;
+	}
+
+	private static SQLException findSqlException(Throwable throwable) {
+		Throwable current = throwable;
+		while (current != null) {
+			if (current instanceof SQLException sqlException) {
+				return sqlException;
+			}
+			current = current.getCause() == current ? null : current.getCause();
+		}
+		return null;
+	}
+
+	/**
+	 * 池包装后的异常常常没有 SQLState，沿 cause 链找到驱动抛出的原始状态码。
+	 */
+	private static String resolveSqlState(SQLException e) {
+		Throwable current = e;
+		while (current != null) {
+			if (current instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+				return sqlException.getSQLState();
+			}
+			current = current.getCause() == current ? null : current.getCause();
+		}
+		return null;
+	}
+
 }
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.connector.pool;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.touhouqing.datasentry.bo.DbConfigBO;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.vo.ConnectionPoolMetricsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 业务数据源连接池注册表：按数据源隔离建池、记录借出等待分布，并回收长时间未使用的池。
+ * <p>
+ * 同一数据源 ID 的不同用途（{@link DbConfigBO#getPoolWorkload()}）使用独立的池，池参数依次由
+ * {@code connection-pool.workloads.<workload>} 和 {@code connection-pool.datasources.<id>} 覆盖默认值，
+ * 避免批量清理与 NL2SQL 查询在同一个池上互相抢占。未保存的临时配置（datasourceId 为空）只用于连通性校验，校验结束即关闭。
+ * <p>
+ * 被移出注册表的池若仍有借出的连接，先保留到 retired 中，等连接全部归还后由空闲回收关闭，不中断进行中的查询。
+ */
+@Slf4j
+@Component
+public class DataSourcePoolRegistry {
+
+	public static final String WORKLOAD_QUERY = "query";
+
+	public static final String WORKLOAD_CLEANING = "cleaning";
+
+	private final DataSentryProperties dataSentryProperties;
+
+	private final ConcurrentHashMap<String, PoolEntry> pools = new ConcurrentHashMap<>();
+
+	private final Set<PoolEntry> retired = ConcurrentHashMap.newKeySet();
+
+	public DataSourcePoolRegistry(DataSentryProperties dataSentryProperties) {
+		this.dataSentryProperties = dataSentryProperties;
+	}
+
+	/**
+	 * 从对应的池借出连接，池不存在时按数据源配置创建。获取失败且池内没有任何连接时移除该池，
+	 * 下次调用会重新建池，避免缓存一个凭据或地址错误的池。取到的池恰好被并发回收关闭时重新建池再试一次。
+	 */
+	public Connection borrow(String poolType, DbConfigBO config, PoolFactory factory) throws SQLException {
+		String key = cacheKey(config);
+		for (int attempt = 1;; attempt++) {
+			PoolEntry entry = pools.computeIfAbsent(key, k -> createEntry(k, poolType, config, factory));
+			entry.touch();
+			long startNanos = System.nanoTime();
+			try {
+				Connection connection = entry.dataSource.getConnection();
+				entry.recordBorrow(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+				return connection;
+			}
+			catch (SQLException e) {
+				if (entry.isClosed() && attempt == 1) {
+					pools.remove(key, entry);
+					log.debug("Connection pool closed concurrently, retrying, datasourceId: {}, workload: {}",
+							entry.datasourceId, entry.workload);
+					continue;
+				}
+				entry.borrowFailureCount.incrementAndGet();
+				if (entry.activeCount() == 0 && entry.idleCount() == 0) {
+					evict(key, entry, "acquire failure");
+				}
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * 移除某个数据源的全部连接池，数据源配置变更或删除时调用。之后的借出会按新配置建池，
+	 * 旧池在借出的连接全部归还后关闭。
+	 */
+	public int invalidate(Long datasourceId) {
+		if (datasourceId == null) {
+			return 0;
+		}
+		int closed = 0;
+		for (Map.Entry<String, PoolEntry> item : pools.entrySet()) {
+			if (datasourceId.equals(item.getValue().datasourceId) && evict(item.getKey(), item.getValue(), "invalidated")) {
+				closed++;
+			}
+		}
+		return closed;
+	}
+
+	/**
+	 * 关闭临时配置（datasourceId 为空）对应的池，池内仍有借出的连接时保留，由空闲回收处理。
+	 */
+	public void releaseAdhoc(DbConfigBO config) {
+		if (config.getDatasourceId() != null) {
+			return;
+		}
+		String key = cacheKey(config);
+		PoolEntry entry = pools.get(key);
+		if (entry != null && entry.activeCount() == 0) {
+			evict(key, entry, "adhoc released");
+		}
+	}
+
+	/**
+	 * 立即关闭指定类型的全部连接池（包括等待关闭的池），poolType 为空时关闭全部，应用停止时调用。
+	 */
+	public void closePools(String poolType) {
+		pools.forEach((key, entry) -> {
+			if ((poolType == null || poolType.equals(entry.poolType)) && pools.remove(key, entry)) {
+				close(entry, "closed");
+			}
+		});
+		retired.removeIf(entry -> {
+			if (poolType == null || poolType.equals(entry.poolType)) {
+				close(entry, "closed");
+				return true;
+			}
+			return false;
+		});
+	}
+
+	@Scheduled(fixedDelayString = "${spring.ai.alibaba.datasentry.connection-pool.evict-check-interval-ms:60000}")
+	public void evictIdlePools() {
+		long idleEvictSeconds = dataSentryProperties.getConnectionPool().getIdleEvictSeconds();
+		if (idleEvictSeconds <= 0) {
+			return;
+		}
+		long cutoff = System.currentTimeMillis() - idleEvictSeconds * 1000L;
+		pools.forEach((key, entry) -> {
+			if (entry.lastAccessMs < cutoff && entry.activeCount() == 0) {
+				evict(key, entry, "idle");
+			}
+		});
+		closeDrainedRetired();
+	}
+
+	public List<ConnectionPoolMetricsVO> snapshot() {
+		List<ConnectionPoolMetricsVO> result = new ArrayList<>();
+		for (PoolEntry entry : pools.values()) {
+			result.add(entry.toMetrics());
+		}
+		result.sort(Comparator
+			.comparing(ConnectionPoolMetricsVO::getDatasourceId, Comparator.nullsLast(Comparator.naturalOrder()))
+			.thenComparing(ConnectionPoolMetricsVO::getWorkload));
+		return result;
+	}
+
+	int size() {
+		return pools.size();
+	}
+
+	/**
+	 * 关闭借出连接已全部归还的待关闭池，不受 idleEvictSeconds 开关影响
+	 * @return 本次关闭的池数量
+	 */
+	public int closeDrainedRetired() {
+		int closed = 0;
+		for (PoolEntry entry : retired) {
+			if (entry.activeCount() == 0 && retired.remove(entry)) {
+				close(entry, "drained");
+				closed++;
+			}
+		}
+		return closed;
+	}
+
+	private PoolEntry createEntry(String key, String poolType, DbConfigBO config, PoolFactory factory) {
+		DataSentryProperties.ConnectionPool poolProperties = dataSentryProperties.getConnectionPool();
+		DataSentryProperties.ConnectionPool.PoolSettings settings = poolProperties.resolve(config.getDatasourceId(),
+				workload(config));
+		try {
+			log.debug("Creating new DataSource for key: {}", key);
+			DataSource dataSource = factory.create(config.getUrl(), config.getUsername(), config.getPassword(),
+					settings);
+			return new PoolEntry(config.getDatasourceId(), poolType, workload(config), dataSource,
+					poolProperties.getWaitHistogramBucketsMs());
+		}
+		catch (Exception e) {
+			log.error("Failed to create DataSource for key: {}", key, e);
+			throw new IllegalStateException("Failed to create DataSource", e);
+		}
+	}
+
+	/**
+	 * 从注册表移除；仍有借出的连接时转入 retired，等归还后再关闭
+	 */
+	private boolean evict(String key, PoolEntry entry, String reason) {
+		if (!pools.remove(key, entry)) {
+			return false;
+		}
+		if (entry.activeCount() == 0) {
+			close(entry, reason);
+		}
+		else {
+			retired.add(entry);
+			log.info("Connection pool retired with {} active connections, datasourceId: {}, workload: {}, reason: {}",
+					entry.activeCount(), entry.datasourceId, entry.workload, reason);
+		}
+		return true;
+	}
+
+	private void close(PoolEntry entry, String reason) {
+		if (entry.dataSource instanceof DruidDataSource druidDataSource) {
+			druidDataSource.close();
+		}
+		log.info("Connection pool evicted, datasourceId: {}, workload: {}, reason: {}", entry.datasourceId,
+				entry.workload, reason);
+	}
+
+	private static String cacheKey(DbConfigBO config) {
+		String owner = config.getDatasourceId() != null ? String.valueOf(config.getDatasourceId()) : "adhoc";
+		return owner + "|" + workload(config) + "|" + config.getUrl() + "|" + config.getUsername() + "|"
+				+ Objects.hashCode(config.getPassword());
+	}
+
+	private static String workload(DbConfigBO config) {
+		return config.getPoolWorkload() != null ? config.getPoolWorkload() : WORKLOAD_QUERY;
+	}
+
+	@FunctionalInterface
+	public interface PoolFactory {
+
+		DataSource create(String url, String username, String password,
+				DataSentryProperties.ConnectionPool.PoolSettings settings) throws Exception;
+
+	}
+
+	private static final class PoolEntry {
+
+		private final Long datasourceId;
+
+		private final String poolType;
+
+		private final String workload;
+
+		private final DataSource dataSource;
+
+		private final long[] bucketBounds;
+
+		private final AtomicLongArray bucketCounts;
+
+		private final AtomicLong borrowCount = new AtomicLong();
+
+		private final AtomicLong borrowFailureCount = new AtomicLong();
+
+		private final AtomicLong borrowWaitTotalMillis = new AtomicLong();
+
+		private final AtomicLong borrowWaitMaxMillis = new AtomicLong();
+
+		private final long createdMs = System.currentTimeMillis();
+
+		private volatile long lastAccessMs = createdMs;
+
+		private PoolEntry(Long datasourceId, String poolType, String workload, DataSource dataSource,
+				List<Long> bucketBoundsMs) {
+			this.datasourceId = datasourceId;
+			this.poolType = poolType;
+			this.workload = workload;
+			this.dataSource = dataSource;
+			this.bucketBounds = bucketBoundsMs == null ? new long[0]
+					: bucketBoundsMs.stream().filter(Objects::nonNull).mapToLong(Long::longValue).sorted().toArray();
+			this.bucketCounts = new AtomicLongArray(bucketBounds.length + 1);
+		}
+
+		private void touch() {
+			lastAccessMs = System.currentTimeMillis();
+		}
+
+		private void recordBorrow(long waitMillis) {
+			borrowCount.incrementAndGet();
+			borrowWaitTotalMillis.addAndGet(waitMillis);
+			borrowWaitMaxMillis.accumulateAndGet(waitMillis, Math::max);
+			int bucket = bucketBounds.length;
+			for (int i = 0; i < bucketBounds.length; i++) {
+				if (waitMillis <= bucketBounds[i]) {
+					bucket = i;
+					break;
+				}
+			}
+			bucketCounts.incrementAndGet(bucket);
+		}
+
+		private boolean isClosed() {
+			return dataSource instanceof DruidDataSource druid && druid.isClosed();
+		}
+
+		private int activeCount() {
+			return dataSource instanceof DruidDataSource druid ? druid.getActiveCount() : 0;
+		}
+
+		private int idleCount() {
+			return dataSource instanceof DruidDataSource druid ? druid.getPoolingCount() : 0;
+		}
+
+		private ConnectionPoolMetricsVO toMetrics() {
+			Map<String, Long> histogram = new LinkedHashMap<>();
+			for (int i = 0; i < bucketBounds.length; i++) {
+				histogram.put("le_" + bucketBounds[i] + "ms", bucketCounts.get(i));
+			}
+			histogram.put("le_inf", bucketCounts.get(bucketBounds.length));
+			long borrows = borrowCount.get();
+			ConnectionPoolMetricsVO.ConnectionPoolMetricsVOBuilder builder = ConnectionPoolMetricsVO.builder()
+				.datasourceId(datasourceId)
+				.poolType(poolType)
+				.workload(workload)
+				.activeCount(activeCount())
+				.idleCount(idleCount())
+				.borrowCount(borrows)
+				.borrowFailureCount(borrowFailureCount.get())
+				.borrowWaitAvgMillis(borrows == 0 ? 0D : (double) borrowWaitTotalMillis.get() / borrows)
+				.borrowWaitMaxMillis(borrowWaitMaxMillis.get())
+				.borrowWaitHistogram(histogram)
+				.createdTime(toLocalDateTime(createdMs))
+				.lastAccessTime(toLocalDateTime(lastAccessMs));
+			if (dataSource instanceof DruidDataSource druid) {
+				builder.maxActive(druid.getMaxActive())
+					.waitThreadCount(druid.getWaitThreadCount())
+					.notEmptyWaitCount(druid.getNotEmptyWaitCount());
+			}
+			return builder.build();
+		}
+
+		private static LocalDateTime toLocalDateTime(long epochMs) {
+			return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+		}
+
+	}
+
+}
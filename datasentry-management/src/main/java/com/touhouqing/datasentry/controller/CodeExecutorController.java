@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.controller;
+
+import com.touhouqing.datasentry.service.code.CodePoolExecutorService;
+import com.touhouqing.datasentry.vo.ApiResponse;
+import com.touhouqing.datasentry.vo.CodePoolExecutorMetricsVO;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Python代码执行容器池运维接口
+ */
+@RestController
+@RequestMapping("/api/datasentry/code-executor")
+@CrossOrigin(origins = "*")
+@AllArgsConstructor
+public class CodeExecutorController {
+
+	private final CodePoolExecutorService codePoolExecutorService;
+
+	/**
+	 * 获取容器池实时指标：容量、排队深度、排队等待/执行/容器创建耗时与失败次数
+	 */
+	@GetMapping("/pool/metrics")
+	public ApiResponse<CodePoolExecutorMetricsVO> getPoolMetrics() {
+		return ApiResponse.success("success", codePoolExecutorService.getMetrics());
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package com.touhouqing.datasentry.controller;
 
+import com.touhouqing.datasentry.connector.pool.DataSourcePoolRegistry;
 import com.touhouqing.datasentry.dto.schema.CreateLogicalRelationDTO;
 import com.touhouqing.datasentry.dto.schema.UpdateLogicalRelationDTO;
 import com.touhouqing.datasentry.entity.Datasource;
@@ -23,6 +24,7 @@ import com.touhouqing.datasentry.exception.InternalServerException;
 import com.touhouqing.datasentry.exception.InvalidInputException;
 import com.touhouqing.datasentry.service.datasource.DatasourceService;
 import com.touhouqing.datasentry.vo.ApiResponse;
+import com.touhouqing.datasentry.vo.ConnectionPoolMetricsVO;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.AllArgsConstructor;
@@ -51,6 +53,8 @@ public class DatasourceController {
 
 	private final DatasourceService datasourceService;
 
+	private final DataSourcePoolRegistry poolRegistry;
+
 	/**
 	 * Get all data source list
 	 */
@@ -151,6 +155,14 @@ public class DatasourceController {
 		}
 	}
 
+	/**
+	 * 获取业务数据源连接池的实时指标：活跃/空闲/等待数与借出等待耗时分布
+	 */
+	@GetMapping("/pools/metrics")
+	public ApiResponse<List<ConnectionPoolMetricsVO>> getPoolMetrics() {
+		return ApiResponse.success("success", poolRegistry.snapshot());
+	}
+
 	/**
 	 * 获取数据源表的字段列表
 	 */
@@ -45,7 +45,8 @@ public class GraphController {
 
 	@GetMapping(value = "/stream/search", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
 	public Flux<ServerSentEvent<GraphNodeResponse>> streamSearch(@RequestParam("agentId") String agentId,
-			@RequestParam(value = "threadId", required = false) String threadId, @RequestParam("query") String query,
+			@RequestParam(value = "threadId", required = false) String threadId,
+			@RequestParam(value = "sessionId", required = false) String sessionId, @RequestParam("query") String query,
 			@RequestParam(value = "humanFeedback", required = false) boolean humanFeedback,
 			@RequestParam(value = "humanFeedbackContent", required = false) String humanFeedbackContent,
 			@RequestParam(value = "rejectedPlan", required = false) boolean rejectedPlan,
@@ -63,6 +64,7 @@ public class GraphController {
 		GraphRequest request = GraphRequest.builder()
 			.agentId(agentId)
 			.threadId(threadId)
+			.sessionId(sessionId)
 			.query(query)
 			.humanFeedback(humanFeedback)
 			.humanFeedbackContent(humanFeedbackContent)
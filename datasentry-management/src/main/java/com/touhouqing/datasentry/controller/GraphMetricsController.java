@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.controller;
+
+import com.touhouqing.datasentry.entity.GraphNodeMetric;
+import com.touhouqing.datasentry.service.graph.GraphExecutionMetricsService;
+import com.touhouqing.datasentry.service.llm.LlmResponseCache;
+import com.touhouqing.datasentry.util.JsonParseUtil;
+import com.touhouqing.datasentry.vo.ApiResponse;
+import com.touhouqing.datasentry.vo.GraphNodeMetricsVO;
+import com.touhouqing.datasentry.vo.LlmResponseCacheMetricsVO;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NL2SQL 图执行节点级耗时与 token 指标接口
+ */
+@RestController
+@RequestMapping("/api/datasentry/graph-metrics")
+@CrossOrigin(origins = "*")
+@AllArgsConstructor
+public class GraphMetricsController {
+
+	private final GraphExecutionMetricsService graphExecutionMetricsService;
+
+	private final LlmResponseCache llmResponseCache;
+
+	private final JsonParseUtil jsonParseUtil;
+
+	/**
+	 * 按节点统计耗时分位数（p50/p90/p99）、平均大模型调用次数与 token 用量，__graph__ 为整次执行
+	 */
+	@GetMapping("/nodes")
+	public ApiResponse<List<GraphNodeMetricsVO>> getNodePercentiles(
+			@RequestParam(value = "agentId", required = false) Long agentId,
+			@RequestParam(value = "windowHours", required = false) Integer windowHours) {
+		return ApiResponse.success("success", graphExecutionMetricsService.getNodePercentiles(agentId, windowHours));
+	}
+
+	/**
+	 * 获取聊天会话下每次图执行的节点明细
+	 */
+	@GetMapping("/sessions/{sessionId}")
+	public ApiResponse<List<GraphNodeMetric>> getSessionMetrics(@PathVariable("sessionId") String sessionId) {
+		return ApiResponse.success("success", graphExecutionMetricsService.getSessionMetrics(sessionId));
+	}
+
+	/**
+	 * 意图识别与问题增强的响应缓存指标：命中率、相似度命中次数与失效条目数
+	 */
+	@GetMapping("/response-cache")
+	public ApiResponse<LlmResponseCacheMetricsVO> responseCacheMetrics() {
+		return ApiResponse.success("success", llmResponseCache.snapshot());
+	}
+
+	/**
+	 * 节点输出 JSON 的修复统计：各本地修复项的成功次数与回退大模型修复的次数（LLM_FIX）
+	 */
+	@GetMapping("/json-repair")
+	public ApiResponse<Map<String, Long>> jsonRepairStatistics() {
+		return ApiResponse.success("success", jsonParseUtil.getRepairStatistics());
+	}
+
+	/**
+	 * 清空意图识别与问题增强的响应缓存
+	 */
+	@DeleteMapping("/response-cache")
+	public ApiResponse<String> clearResponseCache() {
+		llmResponseCache.clear();
+		return ApiResponse.success("响应缓存已清空");
+	}
+
+}
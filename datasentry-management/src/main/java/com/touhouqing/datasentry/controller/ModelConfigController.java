@@ -17,9 +17,11 @@ package com.touhouqing.datasentry.controller;
 
 import com.touhouqing.datasentry.enums.ModelType;
 import com.touhouqing.datasentry.dto.ModelConfigDTO;
+import com.touhouqing.datasentry.service.aimodelconfig.EmbeddingCache;
 import com.touhouqing.datasentry.service.aimodelconfig.ModelConfigDataService;
 import com.touhouqing.datasentry.service.aimodelconfig.ModelConfigOpsService;
 import com.touhouqing.datasentry.vo.ApiResponse;
+import com.touhouqing.datasentry.vo.EmbeddingCacheMetricsVO;
 import com.touhouqing.datasentry.vo.ModelCheckVo;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
@@ -36,6 +38,8 @@ public class ModelConfigController {
 
 	private final ModelConfigOpsService modelConfigOpsService;
 
+	private final EmbeddingCache embeddingCache;
+
 	// 1. 获取列表
 	@GetMapping("/list")
 	public ApiResponse<List<ModelConfigDTO>> list() {
@@ -132,4 +136,21 @@ public class ModelConfigController {
 					.build());
 	}
 
+	/**
+	 * 8. 向量化缓存指标：命中率、条目数与持久化文件大小
+	 */
+	@GetMapping("/embedding-cache/metrics")
+	public ApiResponse<EmbeddingCacheMetricsVO> embeddingCacheMetrics() {
+		return ApiResponse.success("success", embeddingCache.snapshot());
+	}
+
+	/**
+	 * 9. 清空向量化缓存（包括本地持久化文件）
+	 */
+	@DeleteMapping("/embedding-cache")
+	public ApiResponse<String> clearEmbeddingCache() {
+		embeddingCache.clear();
+		return ApiResponse.success("向量化缓存已清空");
+	}
+
 }
@@ -30,6 +30,11 @@ public class GraphRequest {
 
 	private String threadId;
 
+	/**
+	 * 聊天会话ID，用于持久化和恢复多轮对话上下文，可为空
+	 */
+	private String sessionId;
+
 	private String query;
 
 	private boolean humanFeedback;
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * NL2SQL 图执行的节点级耗时与 token 记录，每次图执行每个节点一行，另有一行汇总整次执行
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GraphNodeMetric {
+
+	private Long id;
+
+	/**
+	 * 一次图执行（一次流式请求）的唯一标识
+	 */
+	private String executionId;
+
+	private String threadId;
+
+	private String sessionId;
+
+	private Long agentId;
+
+	/**
+	 * 节点名，整次执行的汇总行为 __graph__
+	 */
+	private String nodeName;
+
+	/**
+	 * 节点在本次执行中的完成顺序，从 1 开始，汇总行为 0
+	 */
+	private Integer nodeOrder;
+
+	private Long durationMs;
+
+	/**
+	 * 节点开始到第一个流式输出块的耗时，无流式输出时为空
+	 */
+	private Long firstChunkMs;
+
+	private Integer llmCallCount;
+
+	private Long promptTokens;
+
+	private Long completionTokens;
+
+	/**
+	 * SUCCESS / ERROR / CANCELLED
+	 */
+	private String status;
+
+	private LocalDateTime createdTime;
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 数据源表结构指纹，记录上次向量化时的列定义与外键哈希，用于判断表是否需要重新补全和向量化
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchemaTableFingerprint {
+
+	private Long id;
+
+	private Long datasourceId;
+
+	private String tableName;
+
+	/**
+	 * 表描述与列定义（名称、类型、主键、非空、注释）的 SHA-256
+	 */
+	private String columnHash;
+
+	/**
+	 * 与该表相关的外键关系的 SHA-256
+	 */
+	private String foreignKeyHash;
+
+	private Integer columnCount;
+
+	private LocalDateTime createdTime;
+
+	private LocalDateTime updatedTime;
+
+}
@@ -23,6 +23,6 @@ package com.touhouqing.datasentry.enums;
  */
 public enum CodePoolExecutorEnum {
 
-	DOCKER, CONTAINERD, KATA, AI_SIMULATION, LOCAL;
+	DOCKER, CONTAINERD, KATA, AI_SIMULATION, LOCAL, LOCAL_WORKER;
 
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.Clock;
+
+/**
+ * 智能体的知识、业务术语或智能体本身发生变更，依赖这些数据的缓存在事务提交后统一失效
+ */
+@Getter
+public class AgentKnowledgeChangedEvent extends ApplicationEvent {
+
+	private final Long agentId;
+
+	public AgentKnowledgeChangedEvent(Object source, Long agentId) {
+		super(source, Clock.systemDefaultZone());
+		this.agentId = agentId;
+	}
+
+}
@@ -57,6 +57,14 @@ public interface AgentDatasourceMapper {
 			""")
 	Long selectActiveDatasourceIdByAgentId(@Param("agentId") Long agentId);
 
+	/** Query all enabled agent-datasource associations. */
+	@Select("""
+			SELECT * FROM datasentry_agent_datasource
+			WHERE is_active = 1
+			ORDER BY datasource_id
+			""")
+	List<AgentDatasource> selectAllActive();
+
 	/** Query association by datasentry_agent ID and data source ID. */
 	@Select("""
 			SELECT * FROM datasentry_agent_datasource
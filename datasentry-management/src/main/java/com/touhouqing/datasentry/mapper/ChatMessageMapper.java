@@ -24,11 +24,12 @@ import java.util.List;
 public interface ChatMessageMapper {
 
 	/**
-	 * Query message list by session ID
+	 * Query message list by session ID, excluding internal multi-turn context records
 	 */
 	@Select("""
 			SELECT * FROM datasentry_chat_message
 			WHERE session_id = #{sessionId}
+			AND (message_type IS NULL OR message_type <> 'context-turn')
 			ORDER BY create_time ASC
 			""")
 	List<ChatMessage> selectBySessionId(@Param("sessionId") String sessionId);
@@ -62,6 +63,19 @@ public interface ChatMessageMapper {
 			""")
 	List<ChatMessage> selectBySessionIdAndRole(@Param("sessionId") String sessionId, @Param("role") String role);
 
+	/**
+	 * Query the latest messages of the given type, newest first
+	 */
+	@Select("""
+			SELECT * FROM datasentry_chat_message
+			WHERE session_id = #{sessionId}
+			AND message_type = #{messageType}
+			ORDER BY create_time DESC, id DESC
+			LIMIT #{limit}
+			""")
+	List<ChatMessage> selectRecentBySessionIdAndType(@Param("sessionId") String sessionId,
+			@Param("messageType") String messageType, @Param("limit") int limit);
+
 	@Insert("""
 			INSERT INTO datasentry_chat_message (session_id, role, content, message_type, metadata, create_time)
 			VALUES (#{sessionId}, #{role}, #{content}, #{messageType}, #{metadata}, NOW())
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.mapper;
+
+import com.touhouqing.datasentry.entity.GraphNodeMetric;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 图执行节点指标 Mapper 接口
+ */
+@Mapper
+public interface GraphNodeMetricMapper {
+
+	@Insert("""
+			<script>
+			INSERT INTO datasentry_graph_node_metric
+			    (execution_id, thread_id, session_id, agent_id, node_name, node_order, duration_ms, first_chunk_ms,
+			     llm_call_count, prompt_tokens, completion_tokens, status, created_time)
+			VALUES
+			<foreach collection='metrics' item='m' separator=','>
+			    (#{m.executionId}, #{m.threadId}, #{m.sessionId}, #{m.agentId}, #{m.nodeName}, #{m.nodeOrder},
+			     #{m.durationMs}, #{m.firstChunkMs}, #{m.llmCallCount}, #{m.promptTokens}, #{m.completionTokens},
+			     #{m.status}, NOW())
+			</foreach>
+			</script>
+			""")
+	int insertBatch(@Param("metrics") List<GraphNodeMetric> metrics);
+
+	/**
+	 * 查询时间窗口内最近的指标记录，agentId 为空时查询全部智能体
+	 */
+	@Select("""
+			<script>
+			SELECT * FROM datasentry_graph_node_metric
+			WHERE created_time &gt;= #{since}
+			<if test='agentId != null'>AND agent_id = #{agentId}</if>
+			ORDER BY created_time DESC
+			LIMIT #{limit}
+			</script>
+			""")
+	List<GraphNodeMetric> selectSince(@Param("agentId") Long agentId, @Param("since") LocalDateTime since,
+			@Param("limit") int limit);
+
+	@Select("""
+			SELECT * FROM datasentry_graph_node_metric
+			WHERE session_id = #{sessionId}
+			ORDER BY created_time ASC, execution_id ASC, node_order ASC
+			""")
+	List<GraphNodeMetric> selectBySessionId(@Param("sessionId") String sessionId);
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.mapper;
+
+import com.touhouqing.datasentry.entity.SchemaTableFingerprint;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 数据源表结构指纹 Mapper 接口
+ */
+@Mapper
+public interface SchemaTableFingerprintMapper {
+
+	@Select("SELECT * FROM datasentry_schema_table_fingerprint WHERE datasource_id = #{datasourceId}")
+	List<SchemaTableFingerprint> selectByDatasourceId(@Param("datasourceId") Long datasourceId);
+
+	/**
+	 * 按 (datasource_id, table_name) 唯一键写入指纹，已存在时覆盖，并发刷新同一数据源时不会因唯一键冲突失败
+	 */
+	@Insert("""
+			INSERT INTO datasentry_schema_table_fingerprint
+			    (datasource_id, table_name, column_hash, foreign_key_hash, column_count, created_time, updated_time)
+			VALUES (#{datasourceId}, #{tableName}, #{columnHash}, #{foreignKeyHash}, #{columnCount}, NOW(), NOW())
+			ON DUPLICATE KEY UPDATE column_hash = VALUES(column_hash), foreign_key_hash = VALUES(foreign_key_hash),
+			    column_count = VALUES(column_count), updated_time = NOW()
+			""")
+	int upsert(SchemaTableFingerprint fingerprint);
+
+	@Delete("""
+			<script>
+			DELETE FROM datasentry_schema_table_fingerprint
+			WHERE datasource_id = #{datasourceId}
+			  AND table_name IN (
+			    <foreach collection='tableNames' item='tableName' separator=','>#{tableName}</foreach>
+			  )
+			</script>
+			""")
+	int deleteByTableNames(@Param("datasourceId") Long datasourceId, @Param("tableNames") List<String> tableNames);
+
+	@Delete("DELETE FROM datasentry_schema_table_fingerprint WHERE datasource_id = #{datasourceId}")
+	int deleteByDatasourceId(@Param("datasourceId") Long datasourceId);
+
+}
@@ -20,6 +20,8 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.List;
+
 import static com.touhouqing.datasentry.constant.Constant.PROJECT_PROPERTIES_PREFIX;
 
 /**
@@ -69,6 +71,36 @@ public class CodeExecutorProperties {
 	 */
 	Integer tempContainerNum = 2;
 
+	/**
+	 * 是否根据排队深度和任务耗时自适应调整容器容量，coreContainerNum/tempContainerNum 作为容量下限
+	 */
+	Boolean adaptiveSizingEnabled = true;
+
+	/**
+	 * 自适应调整时核心容器容量上限
+	 */
+	Integer maxCoreContainerNum = 4;
+
+	/**
+	 * 自适应调整时临时容器容量上限
+	 */
+	Integer maxTempContainerNum = 4;
+
+	/**
+	 * 自适应调整的统计窗口与执行间隔，单位秒
+	 */
+	Long resizeIntervalSeconds = 30L;
+
+	/**
+	 * 统计窗口内平均排队等待超过该值（毫秒）时扩容
+	 */
+	Long scaleUpQueueWaitMillis = 1000L;
+
+	/**
+	 * 启动时是否预先创建核心容器
+	 */
+	Boolean prewarmEnabled = true;
+
 	/**
 	 * Core thread count of thread pool
 	 */
@@ -124,4 +156,24 @@ public class CodeExecutorProperties {
 	 */
 	Integer pythonMaxTriesCount = 5;
 
+	/**
+	 * 常驻Python工作进程执行多少个任务后重启，用于回收解释器中累积的内存
+	 */
+	Integer workerMaxTasks = 50;
+
+	/**
+	 * 常驻Python工作进程启动时预先导入的模块，导入失败的模块会被跳过
+	 */
+	List<String> workerPreloadModules = List.of("json", "math", "datetime", "collections", "numpy", "pandas");
+
+	/**
+	 * 常驻Python工作进程启动（完成预导入）的超时时间，单位秒
+	 */
+	Long workerStartupTimeout = 60L;
+
+	/**
+	 * 传给Python的SQL结果超过该字节数时写入临时文件并以文件路径传递，否则以字符串内联传递
+	 */
+	Long inputFileThresholdBytes = 262144L;
+
 }
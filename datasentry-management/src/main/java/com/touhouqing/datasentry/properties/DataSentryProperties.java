@@ -23,7 +23,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -40,12 +42,37 @@ public class DataSentryProperties {
 	 */
 	private EmbeddingBatch embeddingBatch = new EmbeddingBatch();
 
+	/**
+	 * 向量化结果缓存配置，按（模型标识, 规范化文本哈希）复用已计算的向量
+	 */
+	private EmbeddingCache embeddingCache = new EmbeddingCache();
+
+	/**
+	 * 向量化批次并发调度配置：并发上限、按供应商限速与失败批次重试
+	 */
+	private EmbeddingConcurrency embeddingConcurrency = new EmbeddingConcurrency();
+
+	/**
+	 * NL2SQL 图中证据召回与 Schema 召回的并发配置
+	 */
+	private GraphRecall graphRecall = new GraphRecall();
+
 	private VectorStoreProperties vectorStore = new VectorStoreProperties();
 
 	private ReportTemplate reportTemplate = new ReportTemplate();
 
 	private Cleaning cleaning = new Cleaning();
 
+	/**
+	 * 业务数据源连接池配置，可按数据源 ID 覆盖
+	 */
+	private ConnectionPool connectionPool = new ConnectionPool();
+
+	/**
+	 * 数据源 Schema 指纹与增量刷新配置
+	 */
+	private SchemaRefresh schemaRefresh = new SchemaRefresh();
+
 	/**
 	 * sql执行失败重试次数
 	 */
@@ -73,6 +100,21 @@ public class DataSentryProperties {
 	 */
 	private int maxplanlength = 2000;
 
+	/**
+	 * 多轮对话上下文的内存缓存、持久化与token预算配置
+	 */
+	private MultiTurn multiTurn = new MultiTurn();
+
+	/**
+	 * NL2SQL 图执行的节点级耗时与 token 统计配置
+	 */
+	private GraphMetrics graphMetrics = new GraphMetrics();
+
+	/**
+	 * 意图识别与问题增强节点的大模型响应缓存配置
+	 */
+	private ResponseCache responseCache = new ResponseCache();
+
 	// 每张表的最大预估列数
 	private int maxColumnsPerTable = 50;
 
@@ -86,6 +128,11 @@ public class DataSentryProperties {
 	 */
 	private Long enrichSqlResultTimeout = 3000L;
 
+	/**
+	 * SQL 执行结果按页流式输出给前端的每页行数，同时作为 JDBC fetch size
+	 */
+	private int sqlResultPageSize = 100;
+
 	@Getter
 	@Setter
 	public static class ReportTemplate {
@@ -98,6 +145,152 @@ public class DataSentryProperties {
 
 	}
 
+	@Getter
+	@Setter
+	public static class ConnectionPool {
+
+		/**
+		 * 默认池参数，未单独配置的数据源使用
+		 */
+		private PoolSettings defaults = PoolSettings.withDefaults();
+
+		/**
+		 * 按用途（query、cleaning）覆盖的池参数，未设置的字段回退到 defaults。清理默认使用较小的池，
+		 * 避免每个数据源的连接数随用途翻倍
+		 */
+		private Map<String, PoolSettings> workloads = new LinkedHashMap<>(Map.of("cleaning", PoolSettings.sized(1, 5)));
+
+		/**
+		 * 按数据源 ID 覆盖的池参数，作用于该数据源的所有用途，未设置的字段回退到用途参数和 defaults
+		 */
+		private Map<String, PoolSettings> datasources = new LinkedHashMap<>();
+
+		/**
+		 * 连接池空闲超过该时长（秒）且无活跃连接时关闭并移出缓存，0 表示不回收
+		 */
+		private long idleEvictSeconds = 1800;
+
+		/**
+		 * 空闲连接池回收检查间隔（毫秒）
+		 */
+		private long evictCheckIntervalMs = 60000;
+
+		/**
+		 * 连通性检查 Connection.isValid 超时（秒）
+		 */
+		private int validationTimeoutSeconds = 5;
+
+		/**
+		 * 借出连接等待耗时直方图的桶上界（毫秒），最后追加 +Inf 桶
+		 */
+		private List<Long> waitHistogramBucketsMs = new ArrayList<>(List.of(1L, 5L, 20L, 100L, 500L, 2000L, 10000L));
+
+		public PoolSettings resolve(Long datasourceId) {
+			return resolve(datasourceId, null);
+		}
+
+		/**
+		 * 按 defaults、用途参数、数据源参数的顺序合并，后者优先
+		 */
+		public PoolSettings resolve(Long datasourceId, String workload) {
+			PoolSettings workloadOverride = workload != null ? workloads.get(workload) : null;
+			PoolSettings base = workloadOverride != null ? workloadOverride.mergeOnto(defaults) : defaults;
+			PoolSettings override = datasourceId != null ? datasources.get(String.valueOf(datasourceId)) : null;
+			return override != null ? override.mergeOnto(base) : base;
+		}
+
+		/**
+		 * 池参数；defaults 中全部有值，按数据源覆盖时只需配置需要调整的字段
+		 */
+		@Getter
+		@Setter
+		public static class PoolSettings {
+
+			private Integer initialSize;
+
+			private Integer minIdle;
+
+			private Integer maxActive;
+
+			/**
+			 * 获取连接最大等待时间（毫秒）
+			 */
+			private Long maxWaitMillis;
+
+			private Long timeBetweenEvictionRunsMillis;
+
+			/**
+			 * 连接在池中最小空闲时间（毫秒），超过后可被驱逐
+			 */
+			private Long minEvictableIdleTimeMillis;
+
+			static PoolSettings withDefaults() {
+				PoolSettings settings = new PoolSettings();
+				settings.setInitialSize(5);
+				settings.setMinIdle(5);
+				settings.setMaxActive(20);
+				settings.setMaxWaitMillis(10000L);
+				settings.setTimeBetweenEvictionRunsMillis(60000L);
+				settings.setMinEvictableIdleTimeMillis(300000L);
+				return settings;
+			}
+
+			static PoolSettings sized(int minIdle, int maxActive) {
+				PoolSettings settings = new PoolSettings();
+				settings.setInitialSize(minIdle);
+				settings.setMinIdle(minIdle);
+				settings.setMaxActive(maxActive);
+				return settings;
+			}
+
+			/**
+			 * 以当前实例中显式配置的字段覆盖 base，返回新实例。只调小 maxActive 时，从 base 继承的 initialSize、
+			 * minIdle 不超过 maxActive，否则 Druid 会拒绝启动
+			 */
+			PoolSettings mergeOnto(PoolSettings base) {
+				PoolSettings merged = new PoolSettings();
+				merged.setMaxActive(maxActive != null ? maxActive : base.getMaxActive());
+				merged.setInitialSize(
+						initialSize != null ? initialSize : Math.min(base.getInitialSize(), merged.getMaxActive()));
+				merged.setMinIdle(minIdle != null ? minIdle : Math.min(base.getMinIdle(), merged.getMaxActive()));
+				merged.setMaxWaitMillis(maxWaitMillis != null ? maxWaitMillis : base.getMaxWaitMillis());
+				merged.setTimeBetweenEvictionRunsMillis(timeBetweenEvictionRunsMillis != null
+						? timeBetweenEvictionRunsMillis : base.getTimeBetweenEvictionRunsMillis());
+				merged.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMillis != null ? minEvictableIdleTimeMillis
+						: base.getMinEvictableIdleTimeMillis());
+				return merged;
+			}
+
+		}
+
+	}
+
+	@Getter
+	@Setter
+	public static class SchemaRefresh {
+
+		/**
+		 * 是否启用后台周期性 Schema 比对，仅对指纹变化的表重新补全元数据并重新向量化
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * 后台比对间隔（毫秒）
+		 */
+		private long intervalMs = 3600000;
+
+		/**
+		 * 应用启动后首次比对的延迟（毫秒）
+		 */
+		private long initialDelayMs = 300000;
+
+		/**
+		 * 指纹未变化的表是否校验向量库中仍存在表文档，缺失时按变更表重建
+		 */
+		private boolean verifyVectorDocuments = true;
+
+	}
+
 	@Getter
 	@Setter
 	public static class Cleaning {
@@ -129,6 +322,10 @@ public class DataSentryProperties {
 
 		private Lifecycle lifecycle = new Lifecycle();
 
+		private Dlq dlq = new Dlq();
+
+		private DryRun dryRun = new DryRun();
+
 		/**
 		 * 策略发布治理开关
 		 */
@@ -173,6 +370,23 @@ public class DataSentryProperties {
 			 */
 			private int defaultBatchSize = 200;
 
+			/**
+			 * 源表读取方式：KEYSET 每批按主键重新查询；STREAM 使用只进服务端游标一次扫描全表，
+			 * 检查点仍按主键记录，中断恢复时从检查点主键处重新打开游标
+			 */
+			private String readMode = "KEYSET";
+
+			/**
+			 * STREAM 模式下游标每次向服务端拉取的行数
+			 */
+			private int streamFetchSize = 500;
+
+			/**
+			 * 时间类水位的安全滞后秒数，本次上界不超过当前时间减去该值，给运行开始时尚未提交的事务留出窗口；
+			 * 应覆盖源库最长写事务时长与两端时钟偏差，0 表示直接以 MAX 为上界
+			 */
+			private long watermarkSafetyLagSeconds = 60;
+
 		}
 
 		@Getter
@@ -199,6 +413,36 @@ public class DataSentryProperties {
 			 */
 			private String provider = "LOCAL_AES_GCM";
 
+			/**
+			 * 是否在加密前压缩旧值快照
+			 */
+			private boolean compress = true;
+
+			/**
+			 * 触发压缩的最小快照字节数，过小的快照压缩收益低于 CPU 开销
+			 */
+			private int compressMinBytes = 256;
+
+			/**
+			 * Deflate 压缩级别：1-9，数值越大压缩率越高、CPU 开销越大
+			 */
+			private int compressLevel = 6;
+
+			/**
+			 * 同一运行内相同旧值快照只存一份，后续记录引用首条记录
+			 */
+			private boolean dedupEnabled = false;
+
+			/**
+			 * 去重窗口（秒），仅引用窗口内写入的记录，避免被引用记录先于引用方过期
+			 */
+			private int dedupWindowSeconds = 600;
+
+			/**
+			 * 去重索引最大条目数
+			 */
+			private int dedupMaxEntries = 10000;
+
 		}
 
 		@Getter
@@ -413,6 +657,83 @@ public class DataSentryProperties {
 
 			private String reviewer = "sla-bot";
 
+			/**
+			 * 批量审批时单次多行比对/批量写回的任务数
+			 */
+			private int bulkChunkSize = 200;
+
+			/**
+			 * 内存中保留的异步批量审批任务数
+			 */
+			private int bulkJobRetention = 50;
+
+		}
+
+		@Getter
+		@Setter
+		public static class Dlq {
+
+			/**
+			 * 单轮重放拉取的死信条数
+			 */
+			private int replayBatchSize = 50;
+
+			/**
+			 * 最大重试次数，超过后标记为 DEAD
+			 */
+			private int maxRetry = 3;
+
+			/**
+			 * 指数退避基础间隔（秒），第 n 次重试等待 base * 2^(n-1)
+			 */
+			private int backoffBaseSeconds = 300;
+
+			/**
+			 * 退避间隔上限（秒）
+			 */
+			private int backoffMaxSeconds = 3600;
+
+			/**
+			 * 退避抖动比例：0-1，实际等待在 [delay * (1 - ratio), delay] 之间随机
+			 */
+			private double backoffJitterRatio = 0.5;
+
+			/**
+			 * 重放领取租约（秒），实例中断后租约到期可被重新领取
+			 */
+			private int claimLeaseSeconds = 300;
+
+		}
+
+		@Getter
+		@Setter
+		public static class DryRun {
+
+			/**
+			 * 默认抽样行数，约对应 95% 置信度下 ±5% 的命中率误差
+			 */
+			private int defaultSampleSize = 400;
+
+			/**
+			 * 单次抽样行数上限
+			 */
+			private int maxSampleSize = 5000;
+
+			/**
+			 * 随机抽样的过采样系数，按比例抽样再截断到目标行数，避免样本不足
+			 */
+			private double oversampleFactor = 1.5;
+
+			/**
+			 * L3 单次调用的预估耗时（毫秒），L3 被替身时用于推算墙钟时间
+			 */
+			private long l3LatencyMsPerCall = 1500;
+
+			/**
+			 * 置信区间对应的正态分位数，1.96 对应 95%
+			 */
+			private double confidenceZ = 1.96;
+
 		}
 
 		@Getter
@@ -439,6 +760,37 @@ public class DataSentryProperties {
 
 			private int dlqRetentionDays = 30;
 
+			private Partition partition = new Partition();
+
+			/**
+			 * 审计类高写入表的分区存储模式，仅 MySQL 元数据库生效，其余方言回退到分批 DELETE
+			 */
+			@Getter
+			@Setter
+			public static class Partition {
+
+				/**
+				 * 分区模式开关，开启后已按 RANGE(UNIX_TIMESTAMP(created_time)) 分区的表按整分区过期
+				 */
+				private boolean enabled = false;
+
+				/**
+				 * 分区粒度：DAILY / MONTHLY
+				 */
+				private String granularity = "DAILY";
+
+				/**
+				 * 预创建的未来分区数
+				 */
+				private int precreatePeriods = 7;
+
+				/**
+				 * 过期分区处理方式：DROP / TRUNCATE
+				 */
+				private String retentionAction = "DROP";
+
+			}
+
 		}
 
 	}
@@ -605,6 +957,182 @@ public class DataSentryProperties {
 
 	}
 
+	@Getter
+	@Setter
+	public static class EmbeddingCache {
+
+		/**
+		 * 是否启用向量化缓存
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * 内存中最多缓存的向量条数，超出后按最近最少使用淘汰；1536 维向量每条约 6KB
+		 */
+		private int maxEntries = 20000;
+
+		/**
+		 * 是否持久化到本地文件，重启后仍可命中
+		 */
+		private boolean persistent = true;
+
+		/**
+		 * 持久化目录
+		 */
+		private String directory = "./vectorstore/embedding-cache";
+
+		/**
+		 * 持久化文件中的记录数超过 maxEntries 的该倍数时重写文件，回收被淘汰和重复的记录
+		 */
+		private double compactFactor = 2.0;
+
+	}
+
+	@Getter
+	@Setter
+	public static class EmbeddingConcurrency {
+
+		/**
+		 * 全局同时在途的向量化请求数上限，1 表示按批次串行
+		 */
+		private int maxInFlight = 4;
+
+		/**
+		 * 默认每秒最多发起的向量化请求数，0 表示不限速
+		 */
+		private double requestsPerSecond = 0;
+
+		/**
+		 * 按供应商覆盖的每秒请求数，key 为模型配置中的 provider（如 dashscope、openai）
+		 */
+		private Map<String, Double> providerRequestsPerSecond = new LinkedHashMap<>();
+
+		/**
+		 * 单个批次的最大尝试次数（含首次）
+		 */
+		private int maxAttempts = 3;
+
+		/**
+		 * 重试的初始退避时间，之后每次翻倍
+		 */
+		private long initialBackoffMs = 500;
+
+		/**
+		 * 收到限流响应（429/Throttling）后，同一供应商所有批次暂停发起的时间
+		 */
+		private long rateLimitCooldownMs = 2000;
+
+	}
+
+	@Getter
+	@Setter
+	public static class GraphRecall {
+
+		/**
+		 * 是否并发执行相互独立的召回步骤，关闭后按原顺序串行执行
+		 */
+		private boolean parallelEnabled = true;
+
+		/**
+		 * 召回线程池大小
+		 */
+		private int poolSize = 8;
+
+		/**
+		 * 单个召回步骤的超时时间，超时后以空结果继续，不阻塞整轮对话
+		 */
+		private long stepTimeoutMs = 15000;
+
+		/**
+		 * 是否在证据召回开始时预取 Schema 召回结果（表召回只依赖数据源元数据过滤，与改写后的问题无关）
+		 */
+		private boolean schemaPrefetchEnabled = true;
+
+		/**
+		 * 预取结果的最长复用时间，超过后 Schema 召回节点重新检索
+		 */
+		private long schemaPrefetchMaxAgeMs = 30000;
+
+	}
+
+	@Getter
+	@Setter
+	public static class MultiTurn {
+
+		/**
+		 * 内存中最多保留的会话上下文数量，超出后淘汰最近最少使用的会话
+		 */
+		private int maxCachedSessions = 1000;
+
+		/**
+		 * 会话上下文在内存中的空闲过期时间，过期后下次访问从聊天消息表重新加载
+		 */
+		private long sessionTtlSeconds = 1800;
+
+		/**
+		 * 注入提示词的历史上下文token预算，超出时优先丢弃较早的轮次
+		 */
+		private int contextTokenBudget = 2000;
+
+		/**
+		 * 是否将对话轮次写入聊天消息表，关闭后上下文仅保存在内存中
+		 */
+		private boolean persistEnabled = true;
+
+	}
+
+	@Getter
+	@Setter
+	public static class GraphMetrics {
+
+		/**
+		 * 是否记录并持久化每次图执行的节点耗时、大模型调用次数与 token 用量
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * 节点分位数统计默认的时间窗口，单位小时
+		 */
+		private int percentileWindowHours = 24;
+
+		/**
+		 * 节点分位数统计最多读取的最近记录数
+		 */
+		private int percentileMaxRows = 20000;
+
+	}
+
+	@Getter
+	@Setter
+	public static class ResponseCache {
+
+		/**
+		 * 是否缓存意图识别与问题增强的大模型响应
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * 内存中最多缓存的响应条数，超出后按最近最少使用淘汰
+		 */
+		private int maxEntries = 2000;
+
+		/**
+		 * 缓存条目的存活时间，单位秒
+		 */
+		private long ttlSeconds = 3600;
+
+		/**
+		 * 精确匹配未命中时，是否按问题的向量相似度在同一智能体、同一提示词版本与上下文内查找
+		 */
+		private boolean similarityEnabled = false;
+
+		/**
+		 * 相似度命中的余弦相似度下限，应足够严格以免把不同问题视为同一个
+		 */
+		private double similarityThreshold = 0.95;
+
+	}
+
 	@Getter
 	@Setter
 	public static class VectorStoreProperties {
@@ -646,6 +1174,93 @@ public class DataSentryProperties {
 		 */
 		private String filePath = "./vectorstore/vectorstore.json";
 
+		/**
+		 * 本地文件向量库配置，spring.ai.vectorstore.type=file 时生效
+		 */
+		private FileStore file = new FileStore();
+
+		/**
+		 * 本地 BM25 关键词索引配置，混合检索且向量库不是 Elasticsearch 时作为关键词召回通道
+		 */
+		private KeywordIndex keywordIndex = new KeywordIndex();
+
+		/**
+		 * 按智能体缓存动态检索过滤条件的有效期（秒），知识变更时主动失效，TTL 兜底其他实例或直接改库的场景；0 表示不缓存
+		 */
+		private long dynamicFilterCacheTtlSeconds = 300;
+
+		@Getter
+		@Setter
+		public static class FileStore {
+
+			/**
+			 * 数据目录，包含 store.json 和按代（generation）划分的日志、向量与索引文件
+			 */
+			private String directory = "./vectorstore/file";
+
+			/**
+			 * HNSW 每层最大邻居数，第 0 层为其两倍
+			 */
+			private int hnswM = 16;
+
+			/**
+			 * HNSW 构建时的候选集大小
+			 */
+			private int hnswEfConstruction = 128;
+
+			/**
+			 * HNSW 查询时的候选集大小，实际取值不小于 topK
+			 */
+			private int hnswEfSearch = 64;
+
+			/**
+			 * 带过滤条件查询时候选集相对 topK 的放大倍数，结果不足 topK 时退化为精确扫描
+			 */
+			private int filterEfMultiplier = 8;
+
+			/**
+			 * 每次写入后是否强制刷盘
+			 */
+			private boolean fsyncOnWrite = true;
+
+			/**
+			 * 启动时已删除文档占比超过该值则压缩日志和向量文件
+			 */
+			private double compactDeletedRatio = 0.3;
+
+			/**
+			 * 向量文件单个内存映射分段大小（MB）
+			 */
+			private int mmapChunkMb = 64;
+
+		}
+
+		@Getter
+		@Setter
+		public static class KeywordIndex {
+
+			/**
+			 * 是否启用本地关键词索引（仍需 enableHybridSearch=true 才会参与检索）
+			 */
+			private boolean enabled = true;
+
+			/**
+			 * 索引快照文件，关闭时写入、启动时加载；不存在时尝试从 SimpleVectorStore 序列化文件初始化
+			 */
+			private String filePath = "./vectorstore/keyword-index.json";
+
+			/**
+			 * BM25 词频饱和参数
+			 */
+			private double k1 = 1.2;
+
+			/**
+			 * BM25 文档长度归一化参数
+			 */
+			private double b = 0.75;
+
+		}
+
 	}
 
 }
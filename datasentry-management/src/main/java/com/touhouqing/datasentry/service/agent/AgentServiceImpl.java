@@ -16,12 +16,14 @@
 package com.touhouqing.datasentry.service.agent;
 
 import com.touhouqing.datasentry.entity.Agent;
+import com.touhouqing.datasentry.event.AgentKnowledgeChangedEvent;
 import com.touhouqing.datasentry.mapper.AgentMapper;
 import com.touhouqing.datasentry.service.file.FileStorageService;
 import com.touhouqing.datasentry.service.vectorstore.AgentVectorStoreService;
 import com.touhouqing.datasentry.util.ApiKeyUtil;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -42,6 +44,8 @@ public class AgentServiceImpl implements AgentService {
 
 	private final FileStorageService fileStorageService;
 
+	private final ApplicationEventPublisher eventPublisher;
+
 	@Override
 	public List<Agent> findAll() {
 		return agentMapper.findAll();
@@ -97,6 +101,7 @@ public class AgentServiceImpl implements AgentService {
 
 			// Delete agent record from database
 			agentMapper.deleteById(id);
+			eventPublisher.publishEvent(new AgentKnowledgeChangedEvent(this, id));
 
 			// Also clean up the agent's vector data
 			if (agentVectorStoreService != null) {
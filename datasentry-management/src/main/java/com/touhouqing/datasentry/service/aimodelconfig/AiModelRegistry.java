@@ -54,6 +54,10 @@ public class AiModelRegistry {
 
 	private volatile EmbeddingModel currentEmbeddingModel;
 
+	private volatile String currentEmbeddingModelId;
+
+	private volatile String currentEmbeddingProvider;
+
 	// =========================================================
 	// 1. 获取 ChatClient (懒加载 + 缓存)
 	// =========================================================
@@ -124,6 +128,9 @@ public class AiModelRegistry {
 							EmbeddingModel baseModel = modelFactory.createEmbeddingModel(config);
 							// 核心：包装 EmbeddingModel 以实现成本追踪
 							currentEmbeddingModel = new CostTrackingEmbeddingModel(baseModel, costTrackingService);
+							currentEmbeddingProvider = config.getProvider();
+							currentEmbeddingModelId = config.getProvider() + ":" + config.getModelName() + "@"
+									+ config.getBaseUrl();
 						}
 					}
 					catch (Exception e) {
@@ -142,6 +149,22 @@ public class AiModelRegistry {
 		return currentEmbeddingModel;
 	}
 
+	/**
+	 * 当前向量模型的标识（供应商、模型名与服务地址），用作向量化缓存键的一部分；未配置模型时返回 null
+	 */
+	public String getEmbeddingModelId() {
+		getEmbeddingModel();
+		return currentEmbeddingModelId;
+	}
+
+	/**
+	 * 当前向量模型的供应商，用于向量化请求的按供应商限速；未配置模型时返回 null
+	 */
+	public String getEmbeddingProvider() {
+		getEmbeddingModel();
+		return currentEmbeddingProvider;
+	}
+
 	// =========================================================
 	// 3. 刷新/重置缓存 (用于热切换)
 	// =========================================================
@@ -155,6 +178,8 @@ public class AiModelRegistry {
 
 	public void refreshEmbedding() {
 		this.currentEmbeddingModel = null;
+		this.currentEmbeddingModelId = null;
+		this.currentEmbeddingProvider = null;
 		log.info("Embedding cache cleared.");
 	}
 
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.aimodelconfig;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.EmbeddingResponseMetadata;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 带缓存的 EmbeddingModel 包装器，包在动态代理外层，所有调用方共享同一份缓存。
+ * 只把未命中的文本（同一请求内去重后）交给下游模型，命中部分不产生调用和计费；
+ * 当前没有可用的向量模型标识时（未配置模型）直接透传。
+ */
+@RequiredArgsConstructor
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+	private final EmbeddingModel delegate;
+
+	private final EmbeddingCache cache;
+
+	private final Supplier<String> modelIdSupplier;
+
+	@Override
+	public EmbeddingResponse call(EmbeddingRequest request) {
+		EmbeddingResponseMetadata[] metadata = new EmbeddingResponseMetadata[1];
+		List<float[]> vectors = resolve(request.getInstructions(), misses -> {
+			EmbeddingResponse response = delegate.call(new EmbeddingRequest(misses, request.getOptions()));
+			metadata[0] = response.getMetadata();
+			return response.getResults().stream().map(Embedding::getOutput).toList();
+		});
+		if (vectors == null) {
+			return delegate.call(request);
+		}
+		List<Embedding> embeddings = new ArrayList<>(vectors.size());
+		for (int i = 0; i < vectors.size(); i++) {
+			embeddings.add(new Embedding(vectors.get(i), i));
+		}
+		return metadata[0] != null ? new EmbeddingResponse(embeddings, metadata[0]) : new EmbeddingResponse(embeddings);
+	}
+
+	@Override
+	public float[] embed(Document document) {
+		return embed(document.getText());
+	}
+
+	@Override
+	public float[] embed(String text) {
+		List<float[]> result = embed(List.of(text));
+		return result.isEmpty() ? new float[0] : result.get(0);
+	}
+
+	@Override
+	public List<float[]> embed(List<String> texts) {
+		List<float[]> vectors = resolve(texts, delegate::embed);
+		return vectors != null ? vectors : delegate.embed(texts);
+	}
+
+	@Override
+	public EmbeddingResponse embedForResponse(List<String> texts) {
+		EmbeddingResponseMetadata[] metadata = new EmbeddingResponseMetadata[1];
+		List<float[]> vectors = resolve(texts, misses -> {
+			EmbeddingResponse response = delegate.embedForResponse(misses);
+			metadata[0] = response.getMetadata();
+			return response.getResults().stream().map(Embedding::getOutput).toList();
+		});
+		if (vectors == null) {
+			return delegate.embedForResponse(texts);
+		}
+		List<Embedding> embeddings = new ArrayList<>(vectors.size());
+		for (int i = 0; i < vectors.size(); i++) {
+			embeddings.add(new Embedding(vectors.get(i), i));
+		}
+		return metadata[0] != null ? new EmbeddingResponse(embeddings, metadata[0]) : new EmbeddingResponse(embeddings);
+	}
+
+	@Override
+	public int dimensions() {
+		return delegate.dimensions();
+	}
+
+	/**
+	 * 按输入顺序返回向量，未命中的文本去重后一次性交给 loader；无法使用缓存时返回 null，由调用方透传
+	 */
+	private List<float[]> resolve(List<String> texts, Function<List<String>, List<float[]>> loader) {
+		String modelId = modelIdSupplier.get();
+		if (modelId == null || texts == null || texts.isEmpty()) {
+			return null;
+		}
+		float[][] vectors = new float[texts.size()][];
+		Map<String, List<Integer>> missPositions = new LinkedHashMap<>();
+		List<String> missTexts = new ArrayList<>();
+		for (int i = 0; i < texts.size(); i++) {
+			String key = EmbeddingCache.key(modelId, texts.get(i));
+			List<Integer> positions = missPositions.get(key);
+			if (positions != null) {
+				positions.add(i);
+				continue;
+			}
+			float[] cached = cache.get(key);
+			if (cached != null) {
+				vectors[i] = cached.clone();
+				continue;
+			}
+			positions = new ArrayList<>();
+			positions.add(i);
+			missPositions.put(key, positions);
+			missTexts.add(texts.get(i));
+		}
+		if (!missTexts.isEmpty()) {
+			List<float[]> loaded = loader.apply(missTexts);
+			if (loaded.size() != missTexts.size()) {
+				throw new IllegalStateException(
+						"Embedding model returned " + loaded.size() + " vectors for " + missTexts.size() + " texts");
+			}
+			int index = 0;
+			for (Map.Entry<String, List<Integer>> miss : missPositions.entrySet()) {
+				float[] vector = loaded.get(index++);
+				cache.put(miss.getKey(), vector.clone());
+				for (int position : miss.getValue()) {
+					vectors[position] = vector;
+				}
+			}
+		}
+		return List.of(vectors);
+	}
+
+}
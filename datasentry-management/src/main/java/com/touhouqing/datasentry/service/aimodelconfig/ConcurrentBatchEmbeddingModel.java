@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.aimodelconfig;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.List;
+
+/**
+ * 让向量库入库时的多批次向量化并发执行的 EmbeddingModel 包装器。向量库 add 时调用的
+ * {@link #embed(List, EmbeddingOptions, BatchingStrategy)} 默认逐批串行，这里改为交给
+ * {@link EmbeddingBatchDispatcher} 并发调度，其余方法直接透传。
+ */
+@RequiredArgsConstructor
+public class ConcurrentBatchEmbeddingModel implements EmbeddingModel {
+
+	private final EmbeddingModel delegate;
+
+	private final EmbeddingBatchDispatcher dispatcher;
+
+	@Override
+	public List<float[]> embed(List<Document> documents, EmbeddingOptions options,
+			BatchingStrategy batchingStrategy) {
+		List<List<String>> batches = batchingStrategy.batch(documents)
+			.stream()
+			.map(batch -> batch.stream().map(Document::getText).toList())
+			.toList();
+		List<float[]> embeddings = dispatcher.dispatch(batches, texts -> delegate
+			.call(new EmbeddingRequest(texts, options))
+			.getResults()
+			.stream()
+			.map(Embedding::getOutput)
+			.toList(), null);
+		if (embeddings.size() != documents.size()) {
+			throw new IllegalStateException(
+					"Embedding count " + embeddings.size() + " does not match document count " + documents.size());
+		}
+		return embeddings;
+	}
+
+	@Override
+	public EmbeddingResponse call(EmbeddingRequest request) {
+		return delegate.call(request);
+	}
+
+	@Override
+	public float[] embed(Document document) {
+		return delegate.embed(document);
+	}
+
+	@Override
+	public float[] embed(String text) {
+		return delegate.embed(text);
+	}
+
+	@Override
+	public List<float[]> embed(List<String> texts) {
+		return delegate.embed(texts);
+	}
+
+	@Override
+	public EmbeddingResponse embedForResponse(List<String> texts) {
+		return delegate.embedForResponse(texts);
+	}
+
+	@Override
+	public int dimensions() {
+		return delegate.dimensions();
+	}
+
+}
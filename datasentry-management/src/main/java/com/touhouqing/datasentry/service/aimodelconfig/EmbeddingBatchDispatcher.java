@@ -0,0 +1,222 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.aimodelconfig;
+
+import com.touhouqing.datasentry.cleaning.context.AiCostContextPropagatingExecutor;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 向量化批次调度器：把同一份输入的多个批次并发发起，按当前向量模型的供应商限速。
+ * 所有请求（包括单批次时在调用方线程上执行的请求）都要先取得全局信号量，进程内同时在途的请求数不超过 maxInFlight。
+ * 结果按批次原顺序组装；单个批次失败时只重试该批次（指数退避），遇到限流响应时同一供应商的后续请求统一暂停一段时间。
+ */
+@Slf4j
+@Component
+public class EmbeddingBatchDispatcher {
+
+	private static final String DEFAULT_PROVIDER = "default";
+
+	private final DataSentryProperties.EmbeddingConcurrency properties;
+
+	private final AiModelRegistry registry;
+
+	private final AiCostContextPropagatingExecutor executor;
+
+	private final Semaphore inFlight;
+
+	private final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+
+	public EmbeddingBatchDispatcher(DataSentryProperties properties, AiModelRegistry registry) {
+		this.properties = properties.getEmbeddingConcurrency();
+		this.registry = registry;
+		int threads = Math.max(1, this.properties.getMaxInFlight());
+		this.inFlight = new Semaphore(threads, true);
+		// 线程池线程不会继承调用方的计费上下文，由执行器在提交时捕获并传递
+		this.executor = AiCostContextPropagatingExecutor.fixedDaemonPool("embedding-dispatch", threads);
+	}
+
+	/**
+	 * 并发执行各批次并按顺序拼接结果。fallback 为 null 时，任一批次重试耗尽即抛出异常并取消其余批次；
+	 * 否则用 fallback 的结果代替该批次
+	 */
+	public <T> List<T> dispatch(List<List<String>> batches, Function<List<String>, List<T>> call,
+			Function<List<String>, List<T>> fallback) {
+		if (batches == null || batches.isEmpty()) {
+			return List.of();
+		}
+		RateLimiter limiter = limiter();
+		List<T> results = new ArrayList<>();
+		if (batches.size() == 1 || properties.getMaxInFlight() <= 1) {
+			for (List<String> batch : batches) {
+				results.addAll(runWithRetry(batch, call, fallback, limiter));
+			}
+			return results;
+		}
+		List<CompletableFuture<List<T>>> futures = new ArrayList<>(batches.size());
+		for (List<String> batch : batches) {
+			futures.add(CompletableFuture.supplyAsync(() -> runWithRetry(batch, call, fallback, limiter), executor));
+		}
+		try {
+			for (CompletableFuture<List<T>> future : futures) {
+				results.addAll(future.join());
+			}
+			return results;
+		}
+		catch (CompletionException e) {
+			futures.forEach(future -> future.cancel(true));
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw e;
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private <T> List<T> runWithRetry(List<String> batch, Function<List<String>, List<T>> call,
+			Function<List<String>, List<T>> fallback, RateLimiter limiter) {
+		int maxAttempts = Math.max(1, properties.getMaxAttempts());
+		long backoffMs = Math.max(0L, properties.getInitialBackoffMs());
+		for (int attempt = 1;; attempt++) {
+			limiter.acquire();
+			RuntimeException failure;
+			// 只在请求期间占用许可，退避等待与兜底不占用
+			acquirePermit();
+			try {
+				return call.apply(batch);
+			}
+			catch (RuntimeException e) {
+				failure = e;
+			}
+			finally {
+				inFlight.release();
+			}
+			boolean rateLimited = isRateLimited(failure);
+			if (rateLimited) {
+				limiter.cooldown(properties.getRateLimitCooldownMs());
+			}
+			if (attempt >= maxAttempts) {
+				if (fallback == null) {
+					throw failure;
+				}
+				log.error("Embedding batch of {} texts failed after {} attempts, using fallback", batch.size(), attempt,
+						failure);
+				return fallback.apply(batch);
+			}
+			log.warn("Embedding batch of {} texts failed (attempt {}/{}, rateLimited={}): {}", batch.size(), attempt,
+					maxAttempts, rateLimited, failure.getMessage());
+			sleep(backoffMs << (attempt - 1));
+		}
+	}
+
+	private void acquirePermit() {
+		try {
+			inFlight.acquire();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for an embedding request slot", e);
+		}
+	}
+
+	private RateLimiter limiter() {
+		String provider = registry.getEmbeddingProvider();
+		String key = provider != null ? provider.toLowerCase(Locale.ROOT) : DEFAULT_PROVIDER;
+		double requestsPerSecond = properties.getProviderRequestsPerSecond()
+			.getOrDefault(key, properties.getRequestsPerSecond());
+		RateLimiter limiter = limiters.computeIfAbsent(key, k -> new RateLimiter());
+		limiter.setRequestsPerSecond(requestsPerSecond);
+		return limiter;
+	}
+
+	static boolean isRateLimited(Throwable error) {
+		for (Throwable current = error; current != null; current = current.getCause()) {
+			String message = current.getMessage();
+			if (message == null) {
+				continue;
+			}
+			String lower = message.toLowerCase(Locale.ROOT);
+			if (lower.contains("429") || lower.contains("too many requests") || lower.contains("throttling")
+					|| lower.contains("rate limit")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void sleep(long millis) {
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting to dispatch embedding batch", e);
+		}
+	}
+
+	/**
+	 * 按固定间隔发放请求许可的限速器，冷却期内所有请求顺延到冷却结束
+	 */
+	private static final class RateLimiter {
+
+		private long intervalNanos;
+
+		private long nextPermitNanos = System.nanoTime();
+
+		private synchronized void setRequestsPerSecond(double requestsPerSecond) {
+			this.intervalNanos = requestsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond) : 0L;
+		}
+
+		private void acquire() {
+			long waitNanos;
+			synchronized (this) {
+				long now = System.nanoTime();
+				long permit = Math.max(now, nextPermitNanos);
+				nextPermitNanos = permit + intervalNanos;
+				waitNanos = permit - now;
+			}
+			if (waitNanos > 0) {
+				sleep(TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+			}
+		}
+
+		private synchronized void cooldown(long millis) {
+			nextPermitNanos = Math.max(nextPermitNanos, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+		}
+
+	}
+
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.aimodelconfig;
+
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.vo.EmbeddingCacheMetricsVO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 内容寻址的向量化结果缓存。键为（模型标识, 规范化文本）的 SHA-256，内存中按最近最少使用淘汰，
+ * 新写入的向量追加到本地文件，启动时回放恢复；文件记录数超过上限的 compactFactor 倍时按内存内容重写。
+ */
+@Slf4j
+@Component
+public class EmbeddingCache {
+
+	private static final String CACHE_FILE = "embeddings.bin";
+
+	private static final int KEY_BYTES = 32;
+
+	private static final int MAX_DIMENSION = 65536;
+
+	private final DataSentryProperties.EmbeddingCache properties;
+
+	private final LinkedHashMap<String, float[]> entries;
+
+	private FileChannel channel;
+
+	private long persistedRecords;
+
+	private long hitCount;
+
+	private long missCount;
+
+	private long evictionCount;
+
+	public EmbeddingCache(DataSentryProperties properties) {
+		this.properties = properties.getEmbeddingCache();
+		int maxEntries = Math.max(1, this.properties.getMaxEntries());
+		this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+				if (size() > maxEntries) {
+					evictionCount++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * 计算缓存键：Unicode NFC 规范化、去除首尾空白并折叠连续空白后，与模型标识一起做 SHA-256
+	 */
+	public static String key(String modelId, String text) {
+		String normalized = text == null ? ""
+				: Normalizer.normalize(text, Normalizer.Form.NFC).strip().replaceAll("\\s+", " ");
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(modelId.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(normalized.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest.digest());
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	public synchronized float[] get(String key) {
+		float[] vector = entries.get(key);
+		if (vector != null) {
+			hitCount++;
+		}
+		else {
+			missCount++;
+		}
+		return vector;
+	}
+
+	public synchronized void put(String key, float[] vector) {
+		if (vector == null || vector.length == 0 || vector.length > MAX_DIMENSION) {
+			return;
+		}
+		if (entries.put(key, vector) != null || channel == null) {
+			return;
+		}
+		try {
+			append(channel, key, vector);
+			persistedRecords++;
+			if (persistedRecords > (long) (properties.getMaxEntries() * Math.max(1D, properties.getCompactFactor()))) {
+				compact();
+			}
+		}
+		catch (IOException e) {
+			log.warn("Failed to persist embedding cache entry, disabling persistence: {}", e.getMessage());
+			closeChannel();
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		if (channel != null) {
+			try {
+				channel.truncate(0L);
+				persistedRecords = 0L;
+			}
+			catch (IOException e) {
+				log.warn("Failed to truncate embedding cache file: {}", e.getMessage());
+			}
+		}
+		log.info("Embedding cache cleared");
+	}
+
+	public synchronized EmbeddingCacheMetricsVO snapshot() {
+		long lookups = hitCount + missCount;
+		long persistedBytes = 0L;
+		if (channel != null) {
+			try {
+				persistedBytes = channel.size();
+			}
+			catch (IOException e) {
+				log.debug("Failed to read embedding cache file size: {}", e.getMessage());
+			}
+		}
+		return EmbeddingCacheMetricsVO.builder()
+			.enabled(properties.isEnabled())
+			.persistent(channel != null)
+			.entries(entries.size())
+			.maxEntries(properties.getMaxEntries())
+			.hitCount(hitCount)
+			.missCount(missCount)
+			.hitRate(lookups == 0 ? 0D : (double) hitCount / lookups)
+			.evictionCount(evictionCount)
+			.persistedRecords(persistedRecords)
+			.persistedBytes(persistedBytes)
+			.build();
+	}
+
+	@PostConstruct
+	public synchronized void load() {
+		if (!properties.isEnabled() || !properties.isPersistent()) {
+			return;
+		}
+		Path file = cacheFile();
+		try {
+			Files.createDirectories(file.getParent());
+			channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+			long validBytes = replay();
+			if (validBytes < channel.size()) {
+				log.warn("Truncating {} bytes of incomplete embedding cache tail", channel.size() - validBytes);
+				channel.truncate(validBytes);
+			}
+			channel.position(validBytes);
+			evictionCount = 0L;
+			log.info("Embedding cache loaded {} entries from {}", entries.size(), file);
+		}
+		catch (IOException e) {
+			log.warn("Failed to open embedding cache file {}, running in memory only: {}", file, e.getMessage());
+			closeChannel();
+		}
+	}
+
+	@PreDestroy
+	public synchronized void close() {
+		if (channel != null) {
+			try {
+				channel.force(false);
+			}
+			catch (IOException e) {
+				log.debug("Failed to flush embedding cache file: {}", e.getMessage());
+			}
+		}
+		closeChannel();
+	}
+
+	private long replay() throws IOException {
+		long offset = 0L;
+		long fileSize = channel.size();
+		DataInputStream input = new DataInputStream(
+				new BufferedInputStream(Channels.newInputStream(channel.position(0L)), 1 << 16));
+		byte[] keyBytes = new byte[KEY_BYTES];
+		while (offset < fileSize) {
+			try {
+				input.readFully(keyBytes);
+				int dimension = input.readInt();
+				if (dimension <= 0 || dimension > MAX_DIMENSION
+						|| offset + recordBytes(dimension) > fileSize) {
+					break;
+				}
+				float[] vector = new float[dimension];
+				for (int i = 0; i < dimension; i++) {
+					vector[i] = input.readFloat();
+				}
+				if (input.readInt() != checksum(keyBytes, vector)) {
+					break;
+				}
+				entries.put(HexFormat.of().formatHex(keyBytes), vector);
+				offset += recordBytes(dimension);
+				persistedRecords++;
+			}
+			catch (EOFException e) {
+				break;
+			}
+		}
+		return offset;
+	}
+
+	/**
+	 * 按内存中的当前内容重写持久化文件，先写临时文件再原子替换
+	 */
+	private void compact() throws IOException {
+		Path file = cacheFile();
+		Path temp = file.resolveSibling(CACHE_FILE + ".tmp");
+		List<Map.Entry<String, float[]>> snapshot = new ArrayList<>(entries.entrySet());
+		try (FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			for (Map.Entry<String, float[]> entry : snapshot) {
+				append(target, entry.getKey(), entry.getValue());
+			}
+			target.force(false);
+		}
+		closeChannel();
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		channel.position(channel.size());
+		persistedRecords = snapshot.size();
+		log.info("Compacted embedding cache file to {} entries", snapshot.size());
+	}
+
+	private static void append(FileChannel target, String key, float[] vector) throws IOException {
+		byte[] keyBytes = HexFormat.of().parseHex(key);
+		ByteBuffer record = ByteBuffer.allocate((int) recordBytes(vector.length));
+		record.put(keyBytes).putInt(vector.length);
+		for (float value : vector) {
+			record.putFloat(value);
+		}
+		record.putInt(checksum(keyBytes, vector)).flip();
+		while (record.hasRemaining()) {
+			target.write(record);
+		}
+	}
+
+	private static long recordBytes(int dimension) {
+		return KEY_BYTES + Integer.BYTES + (long) dimension * Float.BYTES + Integer.BYTES;
+	}
+
+	private static int checksum(byte[] keyBytes, float[] vector) {
+		CRC32 crc = new CRC32();
+		crc.update(keyBytes);
+		ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES);
+		for (float value : vector) {
+			buffer.putFloat(value);
+		}
+		crc.update(buffer.array());
+		return (int) crc.getValue();
+	}
+
+	private Path cacheFile() {
+		return Paths.get(properties.getDirectory()).toAbsolutePath().normalize().resolve(CACHE_FILE);
+	}
+
+	private void closeChannel() {
+		if (channel == null) {
+			return;
+		}
+		try {
+			channel.close();
+		}
+		catch (IOException e) {
+			log.debug("Failed to close embedding cache file: {}", e.getMessage());
+		}
+		channel = null;
+	}
+
+}
@@ -23,12 +23,14 @@ import com.touhouqing.datasentry.converter.BusinessKnowledgeConverter;
 import com.touhouqing.datasentry.dto.knowledge.businessknowledge.CreateBusinessKnowledgeDTO;
 import com.touhouqing.datasentry.dto.knowledge.businessknowledge.UpdateBusinessKnowledgeDTO;
 import com.touhouqing.datasentry.entity.BusinessKnowledge;
+import com.touhouqing.datasentry.event.AgentKnowledgeChangedEvent;
 import com.touhouqing.datasentry.mapper.BusinessKnowledgeMapper;
 import com.touhouqing.datasentry.service.vectorstore.AgentVectorStoreService;
 import com.touhouqing.datasentry.vo.BusinessKnowledgeVO;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
@@ -50,6 +52,8 @@ public class BusinessKnowledgeServiceImpl implements BusinessKnowledgeService {
 
 	private final BusinessKnowledgeConverter businessKnowledgeConverter;
 
+	private final ApplicationEventPublisher eventPublisher;
+
 	@Override
 	public List<BusinessKnowledgeVO> getKnowledge(Long agentId) {
 		List<BusinessKnowledge> businessKnowledges = businessKnowledgeMapper.selectByAgentId(agentId);
@@ -95,6 +99,7 @@ public class BusinessKnowledgeServiceImpl implements BusinessKnowledgeService {
 		if (businessKnowledgeMapper.insert(entity) <= 0) {
 			throw new RuntimeException("Failed to add knowledge to database");
 		}
+		eventPublisher.publishEvent(new AgentKnowledgeChangedEvent(this, entity.getAgentId()));
 
 		try {
 			Document document = DocumentConverterUtil.convertBusinessKnowledgeToDocument(entity);
@@ -134,6 +139,7 @@ public class BusinessKnowledgeServiceImpl implements BusinessKnowledgeService {
 		if (businessKnowledgeMapper.updateById(knowledge) <= 0) {
 			throw new RuntimeException("Failed to update knowledge in database");
 		}
+		eventPublisher.publishEvent(new AgentKnowledgeChangedEvent(this, knowledge.getAgentId()));
 
 		// 尝试更新向量库
 		try {
@@ -185,6 +191,7 @@ public class BusinessKnowledgeServiceImpl implements BusinessKnowledgeService {
 					List.of(DocumentConverterUtil.convertBusinessKnowledgeToDocument(knowledge)));
 			throw new RuntimeException("Failed to logically delete knowledge from database");
 		}
+		eventPublisher.publishEvent(new AgentKnowledgeChangedEvent(this, knowledge.getAgentId()));
 	}
 
 	private void doDelVector(BusinessKnowledge knowledge) {
@@ -207,7 +214,7 @@ public class BusinessKnowledgeServiceImpl implements BusinessKnowledgeService {
 		// 更新数据库即可，不需要更新向量库，混合检索的的时候DynamicFilterService会根据 isRecall 字段过滤了
 		knowledge.setIsRecall(isRecall ? 1 : 0);
 		businessKnowledgeMapper.updateById(knowledge);
-
+		eventPublisher.publishEvent(new AgentKnowledgeChangedEvent(this, knowledge.getAgentId()));
 	}
 
 	@Override
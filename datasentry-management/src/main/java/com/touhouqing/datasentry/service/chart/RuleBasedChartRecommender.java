@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.chart;
+
+import com.touhouqing.datasentry.bo.schema.DisplayStyleBO;
+import com.touhouqing.datasentry.bo.schema.ResultSetBO;
+import com.touhouqing.datasentry.util.SqlUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * 基于规则的图表推荐：对时间序列、分类统计等常见结果形态直接给出图表配置，无需调用大模型；
+ * 同时负责把在查询返回前推测出的图表配置与实际结果列对齐。
+ */
+@Component
+public class RuleBasedChartRecommender {
+
+	/**
+	 * 参与列类型判断的最大采样行数
+	 */
+	private static final int SAMPLE_ROWS = 50;
+
+	/**
+	 * 分类统计超过该行数时不再推荐柱状图，交由大模型判断
+	 */
+	private static final int MAX_CATEGORY_ROWS = 30;
+
+	/**
+	 * 饼图最多展示的分类数
+	 */
+	private static final int MAX_PIE_ROWS = 8;
+
+	private static final int MAX_TITLE_LENGTH = 30;
+
+	private static final Pattern NUMBER_PATTERN = Pattern.compile("^-?\\d+(\\.\\d+)?([eE][-+]?\\d+)?$");
+
+	private static final Pattern DATE_PATTERN = Pattern
+		.compile("^\\d{4}([-/.]\\d{1,2}){1,2}([ T]\\d{1,2}:\\d{2}(:\\d{2}(\\.\\d+)?)?)?$|^\\d{4}-?[Qq][1-4]$");
+
+	private static final Pattern COMPACT_DATE_PATTERN = Pattern.compile("^\\d{4}(\\d{2}){0,2}$");
+
+	private static final List<String> TIME_NAME_HINTS = List.of("date", "time", "day", "week", "month", "year",
+			"quarter", "period", "日期", "时间", "年", "月", "日", "周", "季度");
+
+	private static final List<String> SHARE_NAME_HINTS = List.of("ratio", "percent", "pct", "share", "proportion",
+			"rate", "占比", "比例", "百分比", "比率");
+
+	private enum ColumnKind {
+
+		TEMPORAL, NUMERIC, CATEGORY
+
+	}
+
+	/**
+	 * 根据 SQL 投影判断结果是否大概率能由规则直接推荐：单列结果，或最多一个维度列加若干聚合列
+	 * @param projectedColumns SQL 投影列
+	 * @return true 表示无需提前向大模型请求图表配置
+	 */
+	public boolean isLikelyRuleResolvable(List<SqlUtil.ProjectedColumn> projectedColumns) {
+		if (projectedColumns == null || projectedColumns.isEmpty()) {
+			return false;
+		}
+		if (projectedColumns.size() == 1) {
+			return true;
+		}
+		long aggregates = projectedColumns.stream().filter(SqlUtil.ProjectedColumn::aggregate).count();
+		return aggregates >= 1 && projectedColumns.size() - aggregates <= 1;
+	}
+
+	/**
+	 * 按实际结果推荐图表配置
+	 * @param resultSet SQL 执行结果
+	 * @param userQuery 用户问题，用作图表标题
+	 * @return 无法按规则确定时返回空
+	 */
+	public Optional<DisplayStyleBO> recommend(ResultSetBO resultSet, String userQuery) {
+		if (resultSet == null || resultSet.getColumn() == null || resultSet.getColumn().isEmpty()) {
+			return Optional.empty();
+		}
+		List<String> columns = resultSet.getColumn();
+		List<Map<String, String>> rows = resultSet.getData() == null ? List.of() : resultSet.getData();
+		String title = StringUtils.abbreviate(StringUtils.defaultIfBlank(userQuery, "数据可视化"), MAX_TITLE_LENGTH);
+		if (columns.size() == 1 || rows.size() <= 1) {
+			return Optional.of(DisplayStyleBO.builder().type("table").title(title).build());
+		}
+
+		List<String> dimensions = new ArrayList<>();
+		List<String> measures = new ArrayList<>();
+		ColumnKind dimensionKind = null;
+		for (String column : columns) {
+			ColumnKind kind = classify(column, rows);
+			if (kind == null) {
+				return Optional.empty();
+			}
+			if (kind == ColumnKind.NUMERIC) {
+				measures.add(column);
+			}
+			else {
+				dimensions.add(column);
+				dimensionKind = kind;
+			}
+		}
+		if (dimensions.size() != 1 || measures.isEmpty()) {
+			return Optional.empty();
+		}
+
+		String x = dimensions.get(0);
+		if (dimensionKind == ColumnKind.TEMPORAL) {
+			return Optional.of(DisplayStyleBO.builder().type("line").title(title).x(x).y(measures).build());
+		}
+		if (rows.size() > MAX_CATEGORY_ROWS) {
+			return Optional.empty();
+		}
+		if (measures.size() == 1 && rows.size() <= MAX_PIE_ROWS && hasHint(measures.get(0), SHARE_NAME_HINTS)) {
+			return Optional.of(DisplayStyleBO.builder().type("pie").title(title).x(x).y(measures).build());
+		}
+		return Optional.of(DisplayStyleBO.builder().type("column").title(title).x(x).y(measures).build());
+	}
+
+	/**
+	 * 将提前推测的图表配置与实际结果列对齐，列名按忽略大小写匹配并改写为实际列名
+	 * @param speculative 根据投影列推测的图表配置
+	 * @param actualColumns 实际结果列
+	 * @return 推测配置引用了不存在的列时返回空
+	 */
+	public Optional<DisplayStyleBO> reconcile(DisplayStyleBO speculative, List<String> actualColumns) {
+		if (speculative == null || StringUtils.isBlank(speculative.getType()) || actualColumns == null) {
+			return Optional.empty();
+		}
+		if ("table".equalsIgnoreCase(speculative.getType())) {
+			return Optional.of(speculative);
+		}
+		Optional<String> x = matchColumn(speculative.getX(), actualColumns);
+		List<String> y = speculative.getY() == null ? List.of()
+				: speculative.getY()
+					.stream()
+					.map(column -> matchColumn(column, actualColumns).orElse(null))
+					.filter(Objects::nonNull)
+					.toList();
+		if (x.isEmpty() || y.isEmpty()) {
+			return Optional.empty();
+		}
+		return Optional.of(DisplayStyleBO.builder()
+			.type(speculative.getType())
+			.title(speculative.getTitle())
+			.x(x.get())
+			.y(y)
+			.build());
+	}
+
+	private Optional<String> matchColumn(String name, List<String> actualColumns) {
+		if (StringUtils.isBlank(name)) {
+			return Optional.empty();
+		}
+		String normalized = StringUtils.strip(name.trim(), "`\"[]");
+		return actualColumns.stream().filter(column -> column.equalsIgnoreCase(normalized)).findFirst();
+	}
+
+	private ColumnKind classify(String column, List<Map<String, String>> rows) {
+		boolean numeric = true;
+		boolean temporal = true;
+		boolean compactDate = true;
+		int sampled = 0;
+		for (Map<String, String> row : rows) {
+			if (sampled >= SAMPLE_ROWS) {
+				break;
+			}
+			String value = row.get(column);
+			if (StringUtils.isBlank(value)) {
+				continue;
+			}
+			value = value.trim();
+			sampled++;
+			numeric &= NUMBER_PATTERN.matcher(value).matches();
+			temporal &= DATE_PATTERN.matcher(value).matches();
+			compactDate &= COMPACT_DATE_PATTERN.matcher(value).matches();
+		}
+		if (sampled == 0) {
+			return null;
+		}
+		// 2024、202401 这类值既像数字也像日期，只有列名带时间语义时才视为时间维度
+		if (temporal || (compactDate && hasHint(column, TIME_NAME_HINTS))) {
+			return ColumnKind.TEMPORAL;
+		}
+		return numeric ? ColumnKind.NUMERIC : ColumnKind.CATEGORY;
+	}
+
+	private boolean hasHint(String column, List<String> hints) {
+		String lower = column.toLowerCase(Locale.ROOT);
+		return hints.stream().anyMatch(lower::contains);
+	}
+
+}
@@ -31,4 +31,14 @@ public interface ChatMessageService {
 	 */
 	ChatMessage saveMessage(ChatMessage message);
 
+	/**
+	 * Get the latest messages of the given type in chronological order
+	 */
+	List<ChatMessage> findRecentBySessionIdAndType(String sessionId, String messageType, int limit);
+
+	/**
+	 * Delete message
+	 */
+	void deleteMessage(Long id);
+
 }
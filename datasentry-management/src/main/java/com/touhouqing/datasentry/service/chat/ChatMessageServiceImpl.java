@@ -21,6 +21,8 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -45,4 +47,17 @@ public class ChatMessageServiceImpl implements ChatMessageService {
 		return message;
 	}
 
+	@Override
+	public List<ChatMessage> findRecentBySessionIdAndType(String sessionId, String messageType, int limit) {
+		List<ChatMessage> messages = new ArrayList<>(
+				chatMessageMapper.selectRecentBySessionIdAndType(sessionId, messageType, limit));
+		Collections.reverse(messages);
+		return messages;
+	}
+
+	@Override
+	public void deleteMessage(Long id) {
+		chatMessageMapper.deleteById(id);
+	}
+
 }
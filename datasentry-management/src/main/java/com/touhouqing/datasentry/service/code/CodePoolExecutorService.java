@@ -15,6 +15,14 @@
  */
 package com.touhouqing.datasentry.service.code;
 
+import com.touhouqing.datasentry.vo.CodePoolExecutorMetricsVO;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
 /**
  * 运行Python任务的容器池接口
  *
@@ -25,7 +33,37 @@ public interface CodePoolExecutorService {
 
 	TaskResponse runTask(TaskRequest request);
 
-	record TaskRequest(String code, String input, String requirement) {
+	/**
+	 * 预先创建容器，非容器池实现无需处理
+	 */
+	default void prewarm() {
+	}
+
+	/**
+	 * 获取容器池运行指标
+	 */
+	default CodePoolExecutorMetricsVO getMetrics() {
+		return CodePoolExecutorMetricsVO.builder().executorType(getClass().getSimpleName()).pooled(false).build();
+	}
+
+	/**
+	 * 运行任务的请求，inputFile 不为空时标准输入从该文件读取（用于较大的输入），此时忽略 input
+	 */
+	record TaskRequest(String code, String input, String requirement, Path inputFile) {
+
+		public TaskRequest(String code, String input, String requirement) {
+			this(code, input, requirement, null);
+		}
+
+		// 将标准输入写入目标文件
+		public void writeInputTo(Path target) throws IOException {
+			if (inputFile != null) {
+				Files.copy(inputFile, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+			else {
+				Files.writeString(target, input == null ? "" : input, StandardCharsets.UTF_8);
+			}
+		}
 
 	}
 
@@ -19,6 +19,7 @@ import com.touhouqing.datasentry.properties.CodeExecutorProperties;
 import com.touhouqing.datasentry.service.code.impls.AiSimulationCodeExecutorService;
 import com.touhouqing.datasentry.service.code.impls.DockerCodePoolExecutorService;
 import com.touhouqing.datasentry.service.code.impls.LocalCodePoolExecutorService;
+import com.touhouqing.datasentry.service.code.impls.PythonWorkerPoolExecutorService;
 import com.touhouqing.datasentry.service.llm.LlmService;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.FactoryBean;
@@ -40,13 +41,16 @@ public class CodePoolExecutorServiceFactory implements FactoryBean<CodePoolExecu
 
 	@Override
 	public CodePoolExecutorService getObject() {
-		return switch (properties.getCodePoolExecutor()) {
+		CodePoolExecutorService service = switch (properties.getCodePoolExecutor()) {
 			case DOCKER -> new DockerCodePoolExecutorService(properties);
 			case LOCAL -> new LocalCodePoolExecutorService(properties);
+			case LOCAL_WORKER -> new PythonWorkerPoolExecutorService(properties);
 			case AI_SIMULATION -> new AiSimulationCodeExecutorService(llmService);
 			default ->
 				throw new IllegalStateException("This option does not have a corresponding implementation class yet.");
 		};
+		service.prewarm();
+		return service;
 	}
 
 	@Override
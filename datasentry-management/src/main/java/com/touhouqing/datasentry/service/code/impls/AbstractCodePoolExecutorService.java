@@ -17,26 +17,37 @@ package com.touhouqing.datasentry.service.code.impls;
 
 import com.touhouqing.datasentry.properties.CodeExecutorProperties;
 import com.touhouqing.datasentry.service.code.CodePoolExecutorService;
+import com.touhouqing.datasentry.vo.CodePoolExecutorMetricsVO;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.springframework.util.StringUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * 运行Python任务的容器池
@@ -77,19 +88,71 @@ public abstract class AbstractCodePoolExecutorService implements CodePoolExecuto
 	// Configuration properties
 	protected final CodeExecutorProperties properties;
 
+	// Current capacity of core containers, adjusted between configured bounds
+	protected volatile int coreCapacity;
+
+	// Current capacity of temporary containers, adjusted between configured bounds
+	protected volatile int tempCapacity;
+
+	// Periodically resize the pool, null if adaptive sizing is disabled
+	private final ScheduledExecutorService resizeScheduler;
+
+	private final LatencyStats queueWaitStats = new LatencyStats();
+
+	private final LatencyStats executionStats = new LatencyStats();
+
+	private final LatencyStats containerCreateStats = new LatencyStats();
+
+	private final AtomicLong taskExceptionCount = new AtomicLong();
+
+	private final AtomicLong codeFailureCount = new AtomicLong();
+
+	private final AtomicLong containerCreateFailureCount = new AtomicLong();
+
+	private final AtomicLong resizeCount = new AtomicLong();
+
+	private volatile long lastResizeMs;
+
+	// Statistics at the end of last resize window
+	private long windowExecutionCount;
+
+	private long windowExecutionMillis;
+
+	private long windowQueuedCount;
+
+	private long windowQueueWaitMillis;
+
+	protected static final String[] pythonNames = new String[] { "python3", "pypy3", "py3", "python", "pypy", "py" };
+
+	protected static final String[] pipNames = new String[] { "pip3", "pip" };
+
 	public AbstractCodePoolExecutorService(CodeExecutorProperties properties) {
 		this.properties = properties;
 		this.coreContainerState = new ConcurrentHashMap<>();
 		this.tempContainerState = new ConcurrentHashMap<>();
 		this.tempContainerRemoveFuture = new ConcurrentHashMap<>();
 		this.taskQueue = new ArrayBlockingQueue<>(properties.getTaskQueueSize());
-		this.readyCoreContainer = new ArrayBlockingQueue<>(properties.getCoreContainerNum());
-		this.readyTempContainer = new ArrayBlockingQueue<>(properties.getTempContainerNum());
+		this.coreCapacity = properties.getCoreContainerNum();
+		this.tempCapacity = properties.getTempContainerNum();
+		this.readyCoreContainer = new ArrayBlockingQueue<>(this.maxCoreCapacity());
+		this.readyTempContainer = new ArrayBlockingQueue<>(this.maxTempCapacity());
 		this.consumerThreadPool = new ThreadPoolExecutor(properties.getCoreThreadSize(), properties.getMaxThreadSize(),
 				properties.getKeepThreadAliveTime(), TimeUnit.SECONDS,
 				new ArrayBlockingQueue<>(properties.getThreadQueueSize()));
 		this.currentCoreContainerSize = new AtomicInteger(0);
 		this.currentTempContainerSize = new AtomicInteger(0);
+		if (Boolean.TRUE.equals(properties.getAdaptiveSizingEnabled())) {
+			long interval = Math.max(1L, properties.getResizeIntervalSeconds());
+			this.resizeScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "code-pool-resize");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.resizeScheduler.scheduleWithFixedDelay(this::adjustCapacity, interval, interval, TimeUnit.SECONDS);
+		}
+		else {
+			this.resizeScheduler = null;
+		}
 		// Register shutdown hook
 		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
 			log.info("Shutting down container pool executor...");
@@ -129,6 +192,9 @@ public abstract class AbstractCodePoolExecutorService implements CodePoolExecuto
 
 	protected void shutdownPool() throws Exception {
 		// Shutdown thread pool
+		if (this.resizeScheduler != null) {
+			this.resizeScheduler.shutdownNow();
+		}
 		this.consumerThreadPool.shutdownNow();
 		// Stop and delete all containers
 		this.tempContainerState.keySet().forEach(id -> this.removeContainerAndState(id, false, true));
@@ -206,7 +272,7 @@ public abstract class AbstractCodePoolExecutorService implements CodePoolExecuto
 		try {
 			// Execute task
 			this.coreContainerState.replace(containerId, State.RUNNING);
-			TaskResponse resp = this.execTaskInContainer(request, containerId);
+			TaskResponse resp = this.execTaskAndRecord(request, containerId);
 			// 如果运行代码任务时出现了异常，认为容器损坏，执行容器清除，并将当前任务放进队列里重新执行
 			if (!resp.isSuccess() && !resp.executionSuccessButResultFailed()) {
 				log.error("use core container failed, {}", resp.exceptionMsg());
@@ -215,8 +281,14 @@ public abstract class AbstractCodePoolExecutorService implements CodePoolExecuto
 				return this.pushTaskQueue(request);
 			}
 			this.coreContainerState.replace(containerId, State.READY);
-			// Put back into blocking queue
-			this.readyCoreContainer.add(containerId);
+			if (this.currentCoreContainerSize.get() > this.coreCapacity) {
+				// Pool has been shrunk, remove the surplus container instead of returning it
+				this.removeContainerAndState(containerId, true, false);
+			}
+			else {
+				// Put back into blocking queue
+				this.readyCoreContainer.add(containerId);
+			}
 			// Run tasks in task queue if any
 			this.popTaskQueue();
 			return resp;
@@ -242,7 +314,7 @@ public abstract class AbstractCodePoolExecutorService implements CodePoolExecuto
 			}
 			// Execute task
 			this.tempContainerState.replace(containerId, State.RUNNING);
-			TaskResponse resp = this.execTaskInContainer(request, containerId);
+			TaskResponse resp = this.execTaskAndRecord(request, containerId);
 			// 如果运行代码任务时出现了异常，认为容器损坏，执行容器清除，并将当前任务放进队列里重新执行
 			if (!resp.isSuccess() && !resp.executionSuccessButResultFailed()) {
 				log.error("use temp container failed, {}", resp.exceptionMsg());
@@ -269,10 +341,11 @@ public abstract class AbstractCodePoolExecutorService implements CodePoolExecuto
 	private TaskResponse createAndUseCoreContainer(TaskRequest request) {
 		String containerId;
 		try {
-			containerId = this.createNewContainer();
+			containerId = this.createContainerAndRecord();
 		}
 		catch (Exception e) {
 			log.error("create new container failed, {}", e.getMessage(), e);
+			this.currentCoreContainerSize.decrementAndGet();
 			return TaskResponse.exception(e.getMessage());
 		}
 		// Record newly added container
@@ -285,10 +358,11 @@ public abstract class AbstractCodePoolExecutorService implements CodePoolExecuto
 	private TaskResponse createAndUseTempContainer(TaskRequest request) {
 		String containerId;
 		try {
-			containerId = this.createNewContainer();
+			containerId = this.createContainerAndRecord();
 		}
 		catch (Exception e) {
 			log.error("create new container failed, {}", e.getMessage(), e);
+			this.currentTempContainerSize.decrementAndGet();
 			return TaskResponse.exception(e.getMessage());
 		}
 		// Record newly added container
@@ -298,7 +372,9 @@ public abstract class AbstractCodePoolExecutorService implements CodePoolExecuto
 	}
 
 	private TaskResponse pushTaskQueue(TaskRequest request) throws ExecutionException, InterruptedException {
+		long enqueuedAt = System.currentTimeMillis();
 		FutureTask<CodePoolExecutorService.TaskResponse> ft = new FutureTask<>(() -> {
+			this.queueWaitStats.record(System.currentTimeMillis() - enqueuedAt);
 			log.info("Execute tasks in the BlockingQueue {} ...", request.toString());
 			return this.runTask(request);
 		});
@@ -337,7 +413,7 @@ public abstract class AbstractCodePoolExecutorService implements CodePoolExecuto
 		boolean useCoreContainer = true;
 		do {
 			currentCore = this.currentCoreContainerSize.get();
-			if (currentCore >= properties.getCoreContainerNum()) {
+			if (currentCore >= this.coreCapacity) {
 				useCoreContainer = false;
 				break;
 			}
@@ -353,7 +429,7 @@ public abstract class AbstractCodePoolExecutorService implements CodePoolExecuto
 		boolean useTempContainer = true;
 		do {
 			currentTemp = this.currentTempContainerSize.get();
-			if (currentTemp >= properties.getTempContainerNum()) {
+			if (currentTemp >= this.tempCapacity) {
 				useTempContainer = false;
 				break;
 			}
@@ -375,6 +451,219 @@ public abstract class AbstractCodePoolExecutorService implements CodePoolExecuto
 		}
 	}
 
+	private TaskResponse execTaskAndRecord(TaskRequest request, String containerId) {
+		long start = System.currentTimeMillis();
+		TaskResponse resp = this.execTaskInContainer(request, containerId);
+		this.executionStats.record(System.currentTimeMillis() - start);
+		if (!resp.isSuccess()) {
+			(resp.executionSuccessButResultFailed() ? this.codeFailureCount : this.taskExceptionCount).incrementAndGet();
+		}
+		return resp;
+	}
+
+	private String createContainerAndRecord() throws Exception {
+		long start = System.currentTimeMillis();
+		try {
+			String containerId = this.createNewContainer();
+			this.containerCreateStats.record(System.currentTimeMillis() - start);
+			return containerId;
+		}
+		catch (Exception e) {
+			this.containerCreateFailureCount.incrementAndGet();
+			throw e;
+		}
+	}
+
+	/**
+	 * 启动时在线程池中预先创建核心容器，避免首批任务承担容器创建耗时
+	 */
+	@Override
+	public void prewarm() {
+		if (!Boolean.TRUE.equals(this.properties.getPrewarmEnabled())) {
+			return;
+		}
+		for (int i = 0; i < this.coreCapacity; i++) {
+			this.consumerThreadPool.submit(this::prewarmCoreContainer);
+		}
+	}
+
+	private void prewarmCoreContainer() {
+		int currentCore;
+		do {
+			currentCore = this.currentCoreContainerSize.get();
+			if (currentCore >= this.coreCapacity) {
+				return;
+			}
+		}
+		while (!this.currentCoreContainerSize.compareAndSet(currentCore, currentCore + 1));
+		try {
+			String containerId = this.createContainerAndRecord();
+			this.coreContainerState.put(containerId, State.READY);
+			this.readyCoreContainer.add(containerId);
+			log.info("Core container {} has been prewarmed", containerId);
+			// Tasks may have been queued while the container was being created
+			this.popTaskQueue();
+		}
+		catch (Exception e) {
+			this.currentCoreContainerSize.decrementAndGet();
+			log.warn("Prewarm core container failed: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * 按统计窗口内的排队情况和任务耗时调整容器容量：有任务排队或平均排队等待超过阈值时扩容，
+	 * 目标容量按窗口内容器平均繁忙数（总执行耗时/窗口时长）加排队深度估算；窗口内无排队且至少有一个容器空闲时逐个缩容
+	 */
+	private void adjustCapacity() {
+		try {
+			long executionCount = this.executionStats.count();
+			long executionMillis = this.executionStats.totalMillis();
+			long queuedCount = this.queueWaitStats.count();
+			long queueWaitMillis = this.queueWaitStats.totalMillis();
+			long windowExecMillis = executionMillis - this.windowExecutionMillis;
+			long windowQueued = queuedCount - this.windowQueuedCount;
+			long windowWaitMillis = queueWaitMillis - this.windowQueueWaitMillis;
+			long windowTasks = executionCount - this.windowExecutionCount;
+			this.windowExecutionCount = executionCount;
+			this.windowExecutionMillis = executionMillis;
+			this.windowQueuedCount = queuedCount;
+			this.windowQueueWaitMillis = queueWaitMillis;
+
+			int queueDepth = this.taskQueue.size();
+			double avgQueueWait = windowQueued == 0 ? 0D : (double) windowWaitMillis / windowQueued;
+			double busyContainers = (double) windowExecMillis
+					/ TimeUnit.SECONDS.toMillis(Math.max(1L, this.properties.getResizeIntervalSeconds()));
+			int current = this.coreCapacity + this.tempCapacity;
+			int target = current;
+			if (queueDepth > 0 || avgQueueWait > this.properties.getScaleUpQueueWaitMillis()) {
+				target = Math.max(current + 1, (int) Math.ceil(busyContainers) + queueDepth);
+			}
+			else if (windowQueued == 0 && busyContainers < current - 1) {
+				target = current - 1;
+			}
+			if (target != current) {
+				log.debug("Resize code pool: tasks={}, queued={}, avgQueueWait={}ms, busy={}, depth={}", windowTasks,
+						windowQueued, avgQueueWait, busyContainers, queueDepth);
+				this.resize(target);
+			}
+		}
+		catch (Exception e) {
+			log.warn("Adjust code pool capacity failed: {}", e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * 将总容量调整为 target，优先分配给核心容器
+	 */
+	protected synchronized void resize(int target) {
+		int minCore = this.properties.getCoreContainerNum();
+		int minTemp = this.properties.getTempContainerNum();
+		int total = Math.max(minCore + minTemp, Math.min(target, this.maxCoreCapacity() + this.maxTempCapacity()));
+		int newCore = Math.max(minCore, Math.min(this.maxCoreCapacity(), total - minTemp));
+		int newTemp = Math.max(minTemp, Math.min(this.maxTempCapacity(), total - newCore));
+		int grown = newCore + newTemp - this.coreCapacity - this.tempCapacity;
+		if (newCore == this.coreCapacity && newTemp == this.tempCapacity) {
+			return;
+		}
+		log.info("Resize code pool capacity: core {} -> {}, temp {} -> {}", this.coreCapacity, newCore,
+				this.tempCapacity, newTemp);
+		this.coreCapacity = newCore;
+		this.tempCapacity = newTemp;
+		this.resizeCount.incrementAndGet();
+		this.lastResizeMs = System.currentTimeMillis();
+
+		// Queued tasks only get resumed when a container is released, start them on the new capacity
+		for (int i = 0; i < grown && !this.taskQueue.isEmpty(); i++) {
+			this.popTaskQueue();
+		}
+		// Remove idle surplus core containers, busy ones are removed when released
+		String idleCoreId;
+		while (this.currentCoreContainerSize.get() > this.coreCapacity
+				&& (idleCoreId = this.readyCoreContainer.poll()) != null) {
+			this.removeContainerAndState(idleCoreId, true, false);
+		}
+	}
+
+	private int maxCoreCapacity() {
+		if (!Boolean.TRUE.equals(this.properties.getAdaptiveSizingEnabled())) {
+			return this.properties.getCoreContainerNum();
+		}
+		return Math.max(this.properties.getCoreContainerNum(), this.properties.getMaxCoreContainerNum());
+	}
+
+	private int maxTempCapacity() {
+		if (!Boolean.TRUE.equals(this.properties.getAdaptiveSizingEnabled())) {
+			return this.properties.getTempContainerNum();
+		}
+		return Math.max(this.properties.getTempContainerNum(), this.properties.getMaxTempContainerNum());
+	}
+
+	@Override
+	public CodePoolExecutorMetricsVO getMetrics() {
+		return CodePoolExecutorMetricsVO.builder()
+			.executorType(getClass().getSimpleName())
+			.pooled(true)
+			.coreCapacity(this.coreCapacity)
+			.tempCapacity(this.tempCapacity)
+			.coreContainerCount(this.currentCoreContainerSize.get())
+			.tempContainerCount(this.currentTempContainerSize.get())
+			.readyCoreContainerCount(this.readyCoreContainer.size())
+			.readyTempContainerCount(this.readyTempContainer.size())
+			.queueDepth(this.taskQueue.size())
+			.taskCount(this.executionStats.count())
+			.taskExceptionCount(this.taskExceptionCount.get())
+			.codeFailureCount(this.codeFailureCount.get())
+			.queuedTaskCount(this.queueWaitStats.count())
+			.queueWaitAvgMillis(this.queueWaitStats.avgMillis())
+			.queueWaitMaxMillis(this.queueWaitStats.maxMillis())
+			.executionAvgMillis(this.executionStats.avgMillis())
+			.executionMaxMillis(this.executionStats.maxMillis())
+			.containerCreateCount(this.containerCreateStats.count())
+			.containerCreateFailureCount(this.containerCreateFailureCount.get())
+			.containerCreateAvgMillis(this.containerCreateStats.avgMillis())
+			.containerCreateMaxMillis(this.containerCreateStats.maxMillis())
+			.resizeCount(this.resizeCount.get())
+			.lastResizeTime(this.lastResizeMs == 0 ? null
+					: LocalDateTime.ofInstant(Instant.ofEpochMilli(this.lastResizeMs), ZoneId.systemDefault()))
+			.build();
+	}
+
+	/**
+	 * 耗时统计：次数、总耗时与最大耗时
+	 */
+	private static final class LatencyStats {
+
+		private final AtomicLong count = new AtomicLong();
+
+		private final AtomicLong totalMillis = new AtomicLong();
+
+		private final AtomicLong maxMillis = new AtomicLong();
+
+		private void record(long millis) {
+			this.count.incrementAndGet();
+			this.totalMillis.addAndGet(millis);
+			this.maxMillis.accumulateAndGet(millis, Math::max);
+		}
+
+		private long count() {
+			return this.count.get();
+		}
+
+		private long totalMillis() {
+			return this.totalMillis.get();
+		}
+
+		private long maxMillis() {
+			return this.maxMillis.get();
+		}
+
+		private double avgMillis() {
+			long current = this.count.get();
+			return current == 0 ? 0D : (double) this.totalMillis.get() / current;
+		}
+
+	}
+
 	/**
 	 * Delete temporary directory
 	 */
@@ -436,4 +725,101 @@ public abstract class AbstractCodePoolExecutorService implements CodePoolExecuto
 				+ Thread.currentThread().getName();
 	}
 
+	/**
+	 * 使用本地pip安装依赖，安装失败时仅记录日志
+	 * @param requirement requirements内容
+	 * @param requirementFile 已写入requirements内容的文件
+	 */
+	protected void installRequirements(String requirement, Path requirementFile) {
+		if (this.checkProgramExists(pipNames) != null && StringUtils.hasText(requirement)) {
+			ProcessBuilder pip = new ProcessBuilder(this.checkProgramExists(pipNames), "install", "--no-cache-dir",
+					"-r", requirementFile.toAbsolutePath().toString(), ">", "/dev/null");
+			Process process = null;
+
+			try {
+				process = pip.start();
+				boolean completed = process.waitFor(this.properties.getContainerTimeout(), TimeUnit.MINUTES);
+				if (!completed) {
+					process.destroy();
+					if (process.isAlive()) {
+						process.destroyForcibly();
+					}
+					throw new RuntimeException("Pip command timed out.");
+				}
+			}
+			catch (Exception e) {
+				// 即使PIP安装失败，仍然尝试运行Python代码
+				log.warn("Pip install failed: {}", e.getMessage(), e);
+			}
+			finally {
+				if (process != null && process.isAlive()) {
+					process.destroyForcibly();
+				}
+			}
+		}
+	}
+
+	/**
+	 * 按顺序检查多个程序是否存在
+	 * @param programNames 程序名称，按优先级顺序
+	 * @return 第一个找到的程序名称，如果都没找到返回null
+	 */
+	protected String checkProgramExists(String... programNames) {
+		if (programNames == null)
+			return null;
+
+		String pathEnv = System.getenv("PATH");
+		if (pathEnv == null)
+			return null;
+
+		String[] pathDirs = pathEnv.split(File.pathSeparator);
+		boolean isWindows = System.getProperty("os.name").toLowerCase().contains("win");
+
+		for (String program : programNames) {
+			for (String dir : pathDirs) {
+				if (dir == null || dir.trim().isEmpty())
+					continue;
+
+				// 检查原始程序名
+				Path path = Paths.get(dir, program);
+				if (Files.exists(path) && Files.isExecutable(path)) {
+					return program;
+				}
+
+				// 在Windows上检查.exe后缀
+				if (isWindows) {
+					Path exePath = Paths.get(dir, program + ".exe");
+					if (Files.exists(exePath) && Files.isExecutable(exePath)) {
+						return program;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	protected long parseToMilliseconds(String timeString) {
+		Pattern pattern = Pattern.compile("(\\d+)(ms|[smhd])");
+		Matcher matcher = pattern.matcher(timeString.toLowerCase());
+
+		if (matcher.find()) {
+			long value = Long.parseLong(matcher.group(1));
+			String unit = matcher.group(2);
+			return switch (unit) {
+				case "ms" -> value;
+				case "s" -> value * 1000;
+				case "m" -> value * 60 * 1000;
+				case "h" -> value * 60 * 60 * 1000;
+				case "d" -> value * 24 * 60 * 60 * 1000;
+				default -> {
+					log.warn("Unknown time unit: {}", unit);
+					// 返回默认值60s
+					yield 60 * 1000;
+				}
+			};
+		}
+		log.warn("Invalid time format: {}", timeString);
+		return 60 * 1000;
+	}
+
 }
@@ -19,6 +19,10 @@ import com.touhouqing.datasentry.service.code.CodePoolExecutorService;
 import com.touhouqing.datasentry.service.llm.LlmService;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
 /**
  * 使用AI模拟运行Python代码（便于在无Docker环境测试）
  *
@@ -50,10 +54,10 @@ public class AiSimulationCodeExecutorService implements CodePoolExecutorService
 				%s
 				```
 				【标准输入】
-				```json
+				```
 				%s
 				```
-				""", request.code(), request.input());
+				""", request.code(), this.readInput(request));
 		String output = llmService.toStringFlux(llmService.call(SYSTEM_PROMPT, userPrompt))
 			.collect(StringBuilder::new, StringBuilder::append)
 			.map(StringBuilder::toString)
@@ -61,4 +65,17 @@ public class AiSimulationCodeExecutorService implements CodePoolExecutorService
 		return TaskResponse.success(output);
 	}
 
+	private String readInput(TaskRequest request) {
+		if (request.inputFile() == null) {
+			return request.input();
+		}
+		try {
+			return Files.readString(request.inputFile(), StandardCharsets.UTF_8);
+		}
+		catch (IOException e) {
+			log.warn("Read input file {} failed: {}", request.inputFile(), e.getMessage());
+			return "";
+		}
+	}
+
 }
@@ -363,8 +363,7 @@ public class DockerCodePoolExecutorService extends AbstractCodePoolExecutorServi
 				StringUtils.hasText(request.code()) ? request.code().getBytes() : "".getBytes());
 		Files.write(tempDir.resolve("requirements.txt"),
 				StringUtils.hasText(request.requirement()) ? request.requirement().getBytes() : "".getBytes());
-		Files.write(tempDir.resolve("input_data.txt"),
-				StringUtils.hasText(request.input()) ? request.input().getBytes() : "".getBytes());
+		request.writeInputTo(tempDir.resolve("input_data.txt"));
 	}
 
 	private void uploadFilesIfRemote(String containerId, Path tempDir) {
@@ -18,22 +18,17 @@ package com.touhouqing.datasentry.service.code.impls;
 import com.touhouqing.datasentry.properties.CodeExecutorProperties;
 import com.touhouqing.datasentry.service.code.CodePoolExecutorService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.util.StringUtils;
 
 import java.io.BufferedReader;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * 使用本地Python3环境运行代码的实现类，要求本地的Python3需要有pandas等数据分析库。
@@ -46,10 +41,6 @@ public class LocalCodePoolExecutorService extends AbstractCodePoolExecutorServic
 
 	private final ConcurrentHashMap<String, Path> containers;
 
-	private static final String[] pythonNames = new String[] { "python3", "pypy3", "py3", "python", "pypy", "py" };
-
-	private static final String[] pipNames = new String[] { "pip3", "pip" };
-
 	// 对于本地运行这个实现类，“容器”为临时文件夹
 	public LocalCodePoolExecutorService(CodeExecutorProperties properties) {
 		super(properties);
@@ -78,7 +69,9 @@ public class LocalCodePoolExecutorService extends AbstractCodePoolExecutorServic
 		Path requirementFile = container.resolve("requirements.txt");
 		try {
 			Files.write(scriptFile, Optional.ofNullable(request.code()).orElse("").getBytes());
-			Files.write(stdinFile, Optional.ofNullable(request.input()).orElse("").getBytes());
+			if (request.inputFile() == null) {
+				Files.write(stdinFile, Optional.ofNullable(request.input()).orElse("").getBytes());
+			}
 			Files.write(requirementFile, Optional.ofNullable(request.requirement()).orElse("").getBytes());
 		}
 		catch (Exception e) {
@@ -87,32 +80,7 @@ public class LocalCodePoolExecutorService extends AbstractCodePoolExecutorServic
 		}
 
 		// 如果有requirements，则先安装依赖
-		if (this.checkProgramExists(pipNames) != null && StringUtils.hasText(request.requirement())) {
-			ProcessBuilder pip = new ProcessBuilder(this.checkProgramExists(pipNames), "install", "--no-cache-dir",
-					"-r", requirementFile.toAbsolutePath().toString(), ">", "/dev/null");
-			Process process = null;
-
-			try {
-				process = pip.start();
-				boolean completed = process.waitFor(this.properties.getContainerTimeout(), TimeUnit.MINUTES);
-				if (!completed) {
-					process.destroy();
-					if (process.isAlive()) {
-						process.destroyForcibly();
-					}
-					throw new RuntimeException("Pip command timed out.");
-				}
-			}
-			catch (Exception e) {
-				// 即使PIP安装失败，仍然尝试运行Python代码
-				log.warn("Pip install failed: {}", e.getMessage(), e);
-			}
-			finally {
-				if (process != null && process.isAlive()) {
-					process.destroyForcibly();
-				}
-			}
-		}
+		this.installRequirements(request.requirement(), requirementFile);
 
 		// 运行Python代码
 		Process process = null;
@@ -120,7 +88,8 @@ public class LocalCodePoolExecutorService extends AbstractCodePoolExecutorServic
 			ProcessBuilder pb = new ProcessBuilder(this.checkProgramExists(pythonNames),
 					scriptFile.toAbsolutePath().toString());
 			pb.directory(container.toFile());
-			pb.redirectInput(stdinFile.toFile());
+			// 较大的输入直接从调用方提供的文件重定向，避免复制
+			pb.redirectInput(Optional.ofNullable(request.inputFile()).orElse(stdinFile).toFile());
 			process = pb.start();
 
 			// 读取stdout和stderr
@@ -194,67 +163,4 @@ public class LocalCodePoolExecutorService extends AbstractCodePoolExecutorServic
 		this.clearTempDir(container);
 	}
 
-	/**
-	 * 按顺序检查多个程序是否存在
-	 * @param programNames 程序名称，按优先级顺序
-	 * @return 第一个找到的程序名称，如果都没找到返回null
-	 */
-	private String checkProgramExists(String... programNames) {
-		if (programNames == null)
-			return null;
-
-		String pathEnv = System.getenv("PATH");
-		if (pathEnv == null)
-			return null;
-
-		String[] pathDirs = pathEnv.split(File.pathSeparator);
-		boolean isWindows = System.getProperty("os.name").toLowerCase().contains("win");
-
-		for (String program : programNames) {
-			for (String dir : pathDirs) {
-				if (dir == null || dir.trim().isEmpty())
-					continue;
-
-				// 检查原始程序名
-				Path path = Paths.get(dir, program);
-				if (Files.exists(path) && Files.isExecutable(path)) {
-					return program;
-				}
-
-				// 在Windows上检查.exe后缀
-				if (isWindows) {
-					Path exePath = Paths.get(dir, program + ".exe");
-					if (Files.exists(exePath) && Files.isExecutable(exePath)) {
-						return program;
-					}
-				}
-			}
-		}
-		return null;
-	}
-
-	private long parseToMilliseconds(String timeString) {
-		Pattern pattern = Pattern.compile("(\\d+)(ms|[smhd])");
-		Matcher matcher = pattern.matcher(timeString.toLowerCase());
-
-		if (matcher.find()) {
-			long value = Long.parseLong(matcher.group(1));
-			String unit = matcher.group(2);
-			return switch (unit) {
-				case "ms" -> value;
-				case "s" -> value * 1000;
-				case "m" -> value * 60 * 1000;
-				case "h" -> value * 60 * 60 * 1000;
-				case "d" -> value * 24 * 60 * 60 * 1000;
-				default -> {
-					log.warn("Unknown time unit: {}", unit);
-					// 返回默认值60s
-					yield 60 * 1000;
-				}
-			};
-		}
-		log.warn("Invalid time format: {}", timeString);
-		return 60 * 1000;
-	}
-
 }
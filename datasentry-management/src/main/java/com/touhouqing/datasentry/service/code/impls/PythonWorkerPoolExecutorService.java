@@ -0,0 +1,305 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.code.impls;
+
+import com.touhouqing.datasentry.properties.CodeExecutorProperties;
+import com.touhouqing.datasentry.service.code.CodePoolExecutorService;
+import com.touhouqing.datasentry.util.JsonUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 使用常驻Python工作进程运行代码的实现类。每个“容器”是临时目录中的一个长驻解释器，启动时预先导入pandas、numpy等常用库；
+ * 任务通过stdin以一行JSON下发，在全新命名空间中执行，结果同样以一行JSON从stdout返回。
+ * 工作进程执行指定数量的任务、内存峰值超过上限、超时或意外退出后会在原目录中重启。
+ */
+@Slf4j
+public class PythonWorkerPoolExecutorService extends AbstractCodePoolExecutorService
+		implements CodePoolExecutorService {
+
+	private static final String WORKER_SCRIPT_RESOURCE = "python/code_worker.py";
+
+	private static final String WORKER_SCRIPT_NAME = "code_worker.py";
+
+	private static final String WORKER_LOG_NAME = "worker.log";
+
+	private final ConcurrentHashMap<String, PythonWorker> workers;
+
+	private final String pythonProgram;
+
+	public PythonWorkerPoolExecutorService(CodeExecutorProperties properties) {
+		super(properties);
+		this.workers = new ConcurrentHashMap<>();
+		this.pythonProgram = this.checkProgramExists(pythonNames);
+		if (this.pythonProgram == null) {
+			throw new IllegalStateException(
+					"No valid Python interpreter was found for the current system environment variables. Please install Python3 into the system environment variables first.");
+		}
+	}
+
+	@Override
+	protected String createNewContainer() throws Exception {
+		Path workDir = Files.createTempDirectory(this.properties.getContainerNamePrefix());
+		try (InputStream script = new ClassPathResource(WORKER_SCRIPT_RESOURCE).getInputStream()) {
+			Files.copy(script, workDir.resolve(WORKER_SCRIPT_NAME), StandardCopyOption.REPLACE_EXISTING);
+		}
+		String containerId = workDir.toString();
+		this.workers.put(containerId, this.startWorker(workDir));
+		return containerId;
+	}
+
+	@Override
+	protected TaskResponse execTaskInContainer(TaskRequest request, String containerId) {
+		PythonWorker worker = this.workers.get(containerId);
+		if (worker == null) {
+			return TaskResponse.exception("Python worker " + containerId + " is not available");
+		}
+
+		// 如果有requirements，则先安装依赖，工作进程在下次导入时即可使用
+		if (StringUtils.hasText(request.requirement())) {
+			Path requirementFile = worker.workDir.resolve("requirements.txt");
+			try {
+				Files.writeString(requirementFile, request.requirement(), StandardCharsets.UTF_8);
+				this.installRequirements(request.requirement(), requirementFile);
+			}
+			catch (IOException e) {
+				log.warn("Write requirements failed: {}", e.getMessage(), e);
+			}
+		}
+
+		try {
+			worker.awaitReady(TimeUnit.SECONDS.toMillis(this.properties.getWorkerStartupTimeout()));
+		}
+		catch (Exception e) {
+			// 启动失败或超时的进程不会再变为就绪，重启后下次使用重新等待
+			log.error("Python worker {} is not ready: {}", containerId, e.getMessage(), e);
+			this.restartWorker(containerId, worker, "startup failed");
+			return TaskResponse.exception(e.getMessage());
+		}
+
+		JsonNode reply;
+		try {
+			reply = worker.execute(request, this.parseToMilliseconds(this.properties.getCodeTimeout()));
+		}
+		catch (TimeoutException e) {
+			this.restartWorker(containerId, worker, "task timeout");
+			return TaskResponse.failure("", "python code timeout, Killed.");
+		}
+		catch (Exception e) {
+			log.error("Python worker execution failed: {}", e.getMessage(), e);
+			this.restartWorker(containerId, worker, "execution error");
+			return TaskResponse.exception(e.getMessage());
+		}
+
+		if (reply == null) {
+			// 任务代码导致进程退出（如os._exit、被系统杀死），按代码执行失败处理并重启进程
+			String exitInfo = worker.process.isAlive() ? "unknown" : String.valueOf(worker.process.exitValue());
+			this.restartWorker(containerId, worker, "process exited");
+			return TaskResponse.failure("", "Python worker exited unexpectedly, exit code: " + exitInfo);
+		}
+
+		worker.taskCount++;
+		long maxRssMb = reply.path("maxRssKb").asLong(0L) / 1024L;
+		if (worker.taskCount >= this.properties.getWorkerMaxTasks()) {
+			this.restartWorker(containerId, worker, "reached " + worker.taskCount + " tasks");
+		}
+		else if (maxRssMb >= this.properties.getLimitMemory()) {
+			this.restartWorker(containerId, worker, "peak memory " + maxRssMb + "MB");
+		}
+
+		String stdout = reply.path("stdout").asText("");
+		if (reply.path("exitCode").asInt(1) != 0) {
+			return TaskResponse.failure(stdout, reply.path("stderr").asText(""));
+		}
+		return TaskResponse.success(stdout);
+	}
+
+	@Override
+	protected void stopContainer(String containerId) throws Exception {
+		PythonWorker worker = this.workers.get(containerId);
+		if (worker != null) {
+			worker.destroy();
+		}
+	}
+
+	@Override
+	protected void removeContainer(String containerId) throws Exception {
+		PythonWorker worker = this.workers.remove(containerId);
+		if (worker != null) {
+			worker.destroy();
+			this.clearTempDir(worker.workDir);
+		}
+	}
+
+	private PythonWorker startWorker(Path workDir) throws IOException {
+		ProcessBuilder pb = new ProcessBuilder(this.pythonProgram, "-u", WORKER_SCRIPT_NAME,
+				String.join(",", this.properties.getWorkerPreloadModules()));
+		pb.directory(workDir.toFile());
+		pb.redirectError(ProcessBuilder.Redirect.appendTo(workDir.resolve(WORKER_LOG_NAME).toFile()));
+		pb.environment().put("PYTHONIOENCODING", "utf-8");
+		return new PythonWorker(workDir, pb.start());
+	}
+
+	/**
+	 * 在原工作目录中重启工作进程，新进程的预导入在后台进行，下次使用时再等待就绪
+	 */
+	private void restartWorker(String containerId, PythonWorker worker, String reason) {
+		log.info("Recycling python worker {}: {}", containerId, reason);
+		worker.destroy();
+		try {
+			this.workers.put(containerId, this.startWorker(worker.workDir));
+		}
+		catch (IOException e) {
+			// 移除后下次使用该容器会返回异常，由容器池负责清理并重新创建
+			log.error("Restart python worker {} failed: {}", containerId, e.getMessage(), e);
+			this.workers.remove(containerId);
+		}
+	}
+
+	/**
+	 * 常驻Python工作进程及其通信通道。stdout由每个进程独占的守护线程逐行读入队列，
+	 * 读取超时不会占用公共线程池，也不会留下仍在阻塞读取的任务抢走下一行输出
+	 */
+	private static final class PythonWorker {
+
+		private final Path workDir;
+
+		private final Process process;
+
+		private final BufferedWriter writer;
+
+		private final BlockingQueue<Optional<String>> lines = new LinkedBlockingQueue<>();
+
+		private boolean ready;
+
+		private int taskCount;
+
+		private PythonWorker(Path workDir, Process process) {
+			this.workDir = workDir;
+			this.process = process;
+			this.writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+			BufferedReader reader = new BufferedReader(
+					new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+			Thread readerThread = new Thread(() -> this.pumpLines(reader),
+					"python-worker-reader-" + workDir.getFileName());
+			readerThread.setDaemon(true);
+			readerThread.start();
+		}
+
+		/**
+		 * 进程退出或输出关闭时放入空值，读取方据此返回null
+		 */
+		private void pumpLines(BufferedReader reader) {
+			try (reader) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					this.lines.add(Optional.of(line));
+				}
+			}
+			catch (IOException e) {
+				log.debug("Python worker output in {} closed: {}", this.workDir, e.getMessage());
+			}
+			finally {
+				this.lines.add(Optional.empty());
+			}
+		}
+
+		private void awaitReady(long timeoutMillis) throws Exception {
+			if (this.ready) {
+				return;
+			}
+			String line;
+			try {
+				line = this.readLine(timeoutMillis);
+			}
+			catch (TimeoutException e) {
+				throw new IllegalStateException("Python worker did not become ready in " + timeoutMillis + "ms", e);
+			}
+			if (line == null || !JsonUtil.getObjectMapper().readTree(line).path("ready").asBoolean(false)) {
+				throw new IllegalStateException(
+						"Python worker failed to start, see " + this.workDir.resolve(WORKER_LOG_NAME));
+			}
+			log.debug("Python worker in {} is ready: {}", this.workDir, line);
+			this.ready = true;
+		}
+
+		private JsonNode execute(TaskRequest request, long timeoutMillis) throws Exception {
+			Map<String, String> task = new LinkedHashMap<>();
+			task.put("code", Optional.ofNullable(request.code()).orElse(""));
+			if (request.inputFile() != null) {
+				task.put("inputFile", request.inputFile().toAbsolutePath().toString());
+			}
+			else {
+				task.put("input", Optional.ofNullable(request.input()).orElse(""));
+			}
+			this.writer.write(JsonUtil.getObjectMapper().writeValueAsString(task));
+			this.writer.newLine();
+			this.writer.flush();
+
+			String line = this.readLine(timeoutMillis);
+			return line == null ? null : JsonUtil.getObjectMapper().readTree(line);
+		}
+
+		private String readLine(long timeoutMillis) throws Exception {
+			Optional<String> line = this.lines.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+			if (line == null) {
+				throw new TimeoutException("No output from python worker in " + timeoutMillis + "ms");
+			}
+			if (line.isEmpty()) {
+				// 保留结束标记，后续读取同样返回null
+				this.lines.add(line);
+				return null;
+			}
+			return line.get();
+		}
+
+		private void destroy() {
+			this.process.destroy();
+			try {
+				if (!this.process.waitFor(2, TimeUnit.SECONDS)) {
+					this.process.destroyForcibly();
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				this.process.destroyForcibly();
+			}
+		}
+
+	}
+
+}
@@ -84,6 +84,17 @@ public interface DatasourceService {
 
 	DbConfigBO getDbConfig(Datasource datasource);
 
+	/**
+	 * 获取指定连接池用途的数据库配置，如清理任务使用独立的池，不与 NL2SQL 查询抢占连接
+	 */
+	default DbConfigBO getDbConfig(Datasource datasource, String poolWorkload) {
+		DbConfigBO dbConfig = getDbConfig(datasource);
+		if (dbConfig != null) {
+			dbConfig.setPoolWorkload(poolWorkload);
+		}
+		return dbConfig;
+	}
+
 	/**
 	 * 获取数据源的逻辑外键列表
 	 */
@@ -23,6 +23,7 @@ import com.touhouqing.datasentry.connector.accessor.Accessor;
 import com.touhouqing.datasentry.connector.accessor.AccessorFactory;
 import com.touhouqing.datasentry.connector.pool.DBConnectionPool;
 import com.touhouqing.datasentry.connector.pool.DBConnectionPoolFactory;
+import com.touhouqing.datasentry.connector.pool.DataSourcePoolRegistry;
 import com.touhouqing.datasentry.entity.AgentDatasource;
 import com.touhouqing.datasentry.entity.Datasource;
 import com.touhouqing.datasentry.entity.LogicalRelation;
@@ -60,6 +61,8 @@ public class DatasourceServiceImpl implements DatasourceService {
 
 	private final DBConnectionPoolFactory poolFactory;
 
+	private final DataSourcePoolRegistry poolRegistry;
+
 	private final AccessorFactory accessorFactory;
 
 	private final DatasourceTypeHandlerRegistry datasourceTypeHandlerRegistry;
@@ -116,6 +119,7 @@ public class DatasourceServiceImpl implements DatasourceService {
 		datasource.setId(id);
 
 		datasourceMapper.updateById(datasource);
+		poolRegistry.invalidate(id);
 		return datasource;
 	}
 
@@ -127,6 +131,7 @@ public class DatasourceServiceImpl implements DatasourceService {
 
 		// Then, delete the data source
 		datasourceMapper.deleteById(id);
+		poolRegistry.invalidate(id);
 	}
 
 	@Override
@@ -171,6 +176,7 @@ public class DatasourceServiceImpl implements DatasourceService {
 		config.setUrl(originalUrl);
 		config.setUsername(datasource.getUsername());
 		config.setPassword(datasource.getPassword());
+		config.setDatasourceId(datasource.getId());
 
 		DBConnectionPool pool = poolFactory.getPoolByType(datasource.getType());
 		if (pool == null) {
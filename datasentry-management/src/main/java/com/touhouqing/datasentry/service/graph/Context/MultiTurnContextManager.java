@@ -15,35 +15,83 @@
  */
 package com.touhouqing.datasentry.service.graph.Context;
 
+import com.touhouqing.datasentry.entity.ChatMessage;
 import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.service.chat.ChatMessageService;
+import com.touhouqing.datasentry.util.JsonUtil;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 /**
  * Manages multi-turn dialogue context for each thread. The context keeps a lightweight
  * history of user questions and the corresponding planner outputs so downstream prompts
  * can reference prior turns.
+ * <p>
+ * Hot threads live in a bounded LRU with an idle TTL. When a thread is bound to a chat
+ * session, finished turns are written through to the chat message table, so an evicted
+ * or expired thread (or one seen after a restart) is reloaded from there on next use.
  */
 @Slf4j
 @Component
 @AllArgsConstructor
 public class MultiTurnContextManager {
 
+	/**
+	 * Message type of persisted turns, hidden from the chat history list
+	 */
+	public static final String CONTEXT_MESSAGE_TYPE = "context-turn";
+
+	private static final String CONTEXT_MESSAGE_ROLE = "system";
+
+	private static final String EMPTY_CONTEXT = "(无)";
+
 	private final DataSentryProperties properties;
 
-	// todo：考虑持久化存储
-	private final Map<String, Deque<ConversationTurn>> history = new ConcurrentHashMap<>();
+	private final ChatMessageService chatMessageService;
+
+	// Access ordered, guarded by itself; the eldest entry is the least recently used
+	private final Map<String, SessionContext> hotSessions = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, SessionContext> eldest) {
+			return size() > properties.getMultiTurn().getMaxCachedSessions();
+		}
+	};
 
 	private final Map<String, PendingTurn> pendingTurns = new ConcurrentHashMap<>();
 
+	/**
+	 * Bind a thread to a chat session, loading persisted turns if the thread is not hot.
+	 * @param threadId conversation thread id
+	 * @param sessionId chat session id
+	 */
+	public void bindSession(String threadId, String sessionId) {
+		if (StringUtils.isAnyBlank(threadId, sessionId)) {
+			return;
+		}
+		synchronized (hotSessions) {
+			SessionContext context = getFresh(threadId);
+			if (context != null && (context.sessionId == null || context.sessionId.equals(sessionId))) {
+				context.sessionId = sessionId;
+				return;
+			}
+			if (context != null) {
+				hotSessions.remove(threadId);
+			}
+		}
+		resolve(threadId, sessionId);
+	}
+
 	/**
 	 * Start tracking a new turn for the given thread.
 	 * @param threadId conversation thread id
@@ -53,7 +101,7 @@ public class MultiTurnContextManager {
 		if (StringUtils.isAnyBlank(threadId, userQuestion)) {
 			return;
 		}
-		pendingTurns.put(threadId, new PendingTurn(userQuestion.trim()));
+		pendingTurns.put(threadId, new PendingTurn(userQuestion.trim(), boundSessionId(threadId)));
 	}
 
 	/**
@@ -87,13 +135,11 @@ public class MultiTurnContextManager {
 		}
 
 		String trimmedPlan = StringUtils.abbreviate(plan, properties.getMaxplanlength());
-		Deque<ConversationTurn> deque = history.computeIfAbsent(threadId, k -> new ArrayDeque<>());
-		synchronized (deque) {
-			while (deque.size() >= properties.getMaxturnhistory()) {
-				deque.pollFirst();
-			}
-			deque.addLast(new ConversationTurn(pending.userQuestion, trimmedPlan));
-		}
+		// Resolve before persisting so a reload cannot pick up the new turn twice
+		SessionContext context = resolve(threadId, pending.sessionId);
+		Long messageId = persistTurn(threadId, context.sessionId, pending.userQuestion, trimmedPlan);
+		context.append(new ConversationTurn(messageId, pending.userQuestion, trimmedPlan),
+				properties.getMaxturnhistory());
 	}
 
 	/**
@@ -111,45 +157,227 @@ public class MultiTurnContextManager {
 	 * @param threadId conversation thread id
 	 */
 	public void restartLastTurn(String threadId) {
-		Deque<ConversationTurn> deque = history.get(threadId);
-		if (deque == null || deque.isEmpty()) {
+		SessionContext context;
+		synchronized (hotSessions) {
+			context = getFresh(threadId);
+		}
+		if (context == null) {
 			return;
 		}
-		ConversationTurn lastTurn;
-		synchronized (deque) {
-			lastTurn = deque.pollLast();
+		ConversationTurn lastTurn = context.pollLast();
+		if (lastTurn == null) {
+			return;
 		}
-		if (lastTurn != null) {
-			pendingTurns.put(threadId, new PendingTurn(lastTurn.userQuestion()));
+		if (lastTurn.messageId() != null) {
+			try {
+				chatMessageService.deleteMessage(lastTurn.messageId());
+			}
+			catch (Exception e) {
+				log.warn("Failed to delete persisted turn {} of thread {}: {}", lastTurn.messageId(), threadId,
+						e.getMessage());
+			}
 		}
+		pendingTurns.put(threadId, new PendingTurn(lastTurn.userQuestion(), context.sessionId));
 	}
 
 	/**
-	 * Build multi-turn context string for prompt injection.
+	 * Build multi-turn context string for prompt injection. Turns are taken from the
+	 * newest backwards until the token budget is used up; the newest turn is always kept.
 	 * @param threadId conversation thread id
 	 * @return formatted history string
 	 */
 	public String buildContext(String threadId) {
-		Deque<ConversationTurn> deque = history.get(threadId);
-		if (deque == null || deque.isEmpty()) {
-			return "(无)";
+		SessionContext context;
+		synchronized (hotSessions) {
+			context = getFresh(threadId);
+		}
+		if (context == null) {
+			return EMPTY_CONTEXT;
+		}
+		List<ConversationTurn> turns = context.snapshot();
+		int budget = properties.getMultiTurn().getContextTokenBudget();
+		Deque<String> selected = new ArrayDeque<>();
+		long usedTokens = 0;
+		for (int i = turns.size() - 1; i >= 0; i--) {
+			ConversationTurn turn = turns.get(i);
+			String formatted = "用户: " + turn.userQuestion() + "\nAI计划: " + turn.plan();
+			long tokens = estimateTokens(formatted);
+			if (!selected.isEmpty() && usedTokens + tokens > budget) {
+				break;
+			}
+			selected.addFirst(formatted);
+			usedTokens += tokens;
+		}
+		return selected.isEmpty() ? EMPTY_CONTEXT : String.join("\n", selected);
+	}
+
+	/**
+	 * Number of threads currently held in memory.
+	 */
+	public int getCachedSessionCount() {
+		synchronized (hotSessions) {
+			return hotSessions.size();
 		}
-		return deque.stream()
-			.map(turn -> "用户: " + turn.userQuestion() + "\nAI计划: " + turn.plan())
-			.collect(Collectors.joining("\n"));
 	}
 
-	private record ConversationTurn(String userQuestion, String plan) {
+	/**
+	 * Rough token estimate: one token per CJK character, four characters per token
+	 * otherwise.
+	 */
+	private static long estimateTokens(String text) {
+		long han = text.codePoints()
+			.filter(cp -> Character.UnicodeScript.of(cp) == Character.UnicodeScript.HAN)
+			.count();
+		long others = text.codePointCount(0, text.length()) - han;
+		return han + (long) Math.ceil(others / 4.0d);
+	}
+
+	private String boundSessionId(String threadId) {
+		synchronized (hotSessions) {
+			SessionContext context = getFresh(threadId);
+			return context == null ? null : context.sessionId;
+		}
+	}
+
+	private SessionContext resolve(String threadId, String sessionId) {
+		synchronized (hotSessions) {
+			SessionContext context = getFresh(threadId);
+			if (context != null) {
+				return context;
+			}
+		}
+		// Load outside the lock so a slow query does not block other threads
+		SessionContext loaded = new SessionContext(sessionId, loadTurns(sessionId));
+		synchronized (hotSessions) {
+			SessionContext context = getFresh(threadId);
+			if (context != null) {
+				return context;
+			}
+			evictExpired();
+			hotSessions.put(threadId, loaded);
+			return loaded;
+		}
+	}
+
+	// Caller must hold the hotSessions lock
+	private SessionContext getFresh(String threadId) {
+		SessionContext context = hotSessions.get(threadId);
+		if (context == null) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		if (isExpired(context.lastAccessMillis, now)) {
+			hotSessions.remove(threadId);
+			return null;
+		}
+		context.lastAccessMillis = now;
+		return context;
+	}
+
+	// Caller must hold the hotSessions lock; entries are in access order so stop at
+	// the first live one
+	private void evictExpired() {
+		long now = System.currentTimeMillis();
+		Iterator<SessionContext> iterator = hotSessions.values().iterator();
+		while (iterator.hasNext() && isExpired(iterator.next().lastAccessMillis, now)) {
+			iterator.remove();
+		}
+		pendingTurns.values().removeIf(pending -> isExpired(pending.createdMillis, now));
+	}
+
+	private boolean isExpired(long lastAccessMillis, long now) {
+		return now - lastAccessMillis > properties.getMultiTurn().getSessionTtlSeconds() * 1000L;
+	}
+
+	private Deque<ConversationTurn> loadTurns(String sessionId) {
+		Deque<ConversationTurn> turns = new ArrayDeque<>();
+		if (StringUtils.isBlank(sessionId) || !properties.getMultiTurn().isPersistEnabled()) {
+			return turns;
+		}
+		try {
+			for (ChatMessage message : chatMessageService.findRecentBySessionIdAndType(sessionId,
+					CONTEXT_MESSAGE_TYPE, properties.getMaxturnhistory())) {
+				String userQuestion = JsonUtil.getObjectMapper()
+					.readTree(StringUtils.defaultIfBlank(message.getMetadata(), "{}"))
+					.path("userQuestion")
+					.asText("");
+				turns.addLast(new ConversationTurn(message.getId(), userQuestion, message.getContent()));
+			}
+			log.debug("Loaded {} persisted turns for session {}", turns.size(), sessionId);
+		}
+		catch (Exception e) {
+			log.warn("Failed to load persisted turns for session {}: {}", sessionId, e.getMessage());
+		}
+		return turns;
+	}
+
+	private Long persistTurn(String threadId, String sessionId, String userQuestion, String plan) {
+		if (StringUtils.isBlank(sessionId) || !properties.getMultiTurn().isPersistEnabled()) {
+			return null;
+		}
+		try {
+			ChatMessage message = ChatMessage.builder()
+				.sessionId(sessionId)
+				.role(CONTEXT_MESSAGE_ROLE)
+				.content(plan)
+				.messageType(CONTEXT_MESSAGE_TYPE)
+				.metadata(JsonUtil.getObjectMapper()
+					.writeValueAsString(Map.of("threadId", threadId, "userQuestion", userQuestion)))
+				.build();
+			return chatMessageService.saveMessage(message).getId();
+		}
+		catch (Exception e) {
+			log.warn("Failed to persist turn of thread {} to session {}: {}", threadId, sessionId, e.getMessage());
+			return null;
+		}
+	}
+
+	private record ConversationTurn(Long messageId, String userQuestion, String plan) {
+	}
+
+	private static class SessionContext {
+
+		private volatile String sessionId;
+
+		private final Deque<ConversationTurn> turns;
+
+		private volatile long lastAccessMillis = System.currentTimeMillis();
+
+		private SessionContext(String sessionId, Deque<ConversationTurn> turns) {
+			this.sessionId = sessionId;
+			this.turns = turns;
+		}
+
+		private synchronized void append(ConversationTurn turn, int maxTurns) {
+			while (!turns.isEmpty() && turns.size() >= maxTurns) {
+				turns.pollFirst();
+			}
+			turns.addLast(turn);
+		}
+
+		private synchronized ConversationTurn pollLast() {
+			return turns.pollLast();
+		}
+
+		private synchronized List<ConversationTurn> snapshot() {
+			return new ArrayList<>(turns);
+		}
+
 	}
 
 	private static class PendingTurn {
 
 		private final String userQuestion;
 
+		private final String sessionId;
+
+		private final long createdMillis = System.currentTimeMillis();
+
 		private final StringBuilder planBuilder = new StringBuilder();
 
-		private PendingTurn(String userQuestion) {
+		private PendingTurn(String userQuestion, String sessionId) {
 			this.userQuestion = userQuestion;
+			this.sessionId = sessionId;
 		}
 
 	}
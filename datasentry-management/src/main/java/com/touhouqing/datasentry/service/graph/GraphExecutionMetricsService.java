@@ -0,0 +1,312 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.graph;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.touhouqing.datasentry.entity.GraphNodeMetric;
+import com.touhouqing.datasentry.mapper.GraphNodeMetricMapper;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.vo.GraphNodeMetricsVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * NL2SQL 图执行的节点级耗时与 token 统计。
+ * 图按顺序执行节点，因此以节点完成输出为边界切分时间：上一个节点完成到本节点完成之间的耗时、大模型调用次数与 token
+ * 用量都记在本节点上。每次执行结束时为每个节点写入一行，并额外写入一行 __graph__ 汇总整次执行。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GraphExecutionMetricsService {
+
+	public static final String GRAPH_NODE_NAME = "__graph__";
+
+	public static final String STATUS_SUCCESS = "SUCCESS";
+
+	public static final String STATUS_ERROR = "ERROR";
+
+	public static final String STATUS_CANCELLED = "CANCELLED";
+
+	// 执行未完成时仍在进行中、且没有任何流式输出的节点
+	private static final String UNKNOWN_NODE_NAME = "__unfinished__";
+
+	private final GraphNodeMetricMapper graphNodeMetricMapper;
+
+	private final DataSentryProperties properties;
+
+	private final Map<String, ExecutionRecorder> activeExecutions = new ConcurrentHashMap<>();
+
+	/**
+	 * 开始记录一次图执行，同一 threadId 上未结束的记录会被覆盖
+	 */
+	public void start(String threadId, String sessionId, String agentId) {
+		if (threadId == null || !properties.getGraphMetrics().isEnabled()) {
+			return;
+		}
+		activeExecutions.put(threadId, new ExecutionRecorder(threadId, sessionId, parseAgentId(agentId)));
+	}
+
+	/**
+	 * 处理图输出：流式输出块标记节点的首个输出时间，非流式输出表示节点完成
+	 */
+	public void onNodeOutput(String threadId, NodeOutput output) {
+		ExecutionRecorder recorder = threadId == null ? null : activeExecutions.get(threadId);
+		if (recorder == null || output == null) {
+			return;
+		}
+		String node = output.node();
+		if (node == null || StateGraph.START.equals(node) || StateGraph.END.equals(node)) {
+			return;
+		}
+		if (output instanceof StreamingOutput) {
+			recorder.onChunk(node);
+		}
+		else {
+			recorder.onNodeFinished(node);
+		}
+	}
+
+	/**
+	 * 记录一次大模型调用的 token 用量，归属到该线程当前正在执行的节点
+	 */
+	public void recordLlmUsage(String threadId, long promptTokens, long completionTokens) {
+		ExecutionRecorder recorder = threadId == null ? null : activeExecutions.get(threadId);
+		if (recorder != null) {
+			recorder.onLlmCall(promptTokens, completionTokens);
+		}
+	}
+
+	/**
+	 * 结束记录并持久化，持久化失败只记录日志
+	 */
+	public void finish(String threadId, String status) {
+		ExecutionRecorder recorder = threadId == null ? null : activeExecutions.remove(threadId);
+		if (recorder == null) {
+			return;
+		}
+		List<GraphNodeMetric> metrics = recorder.complete(status);
+		try {
+			graphNodeMetricMapper.insertBatch(metrics);
+		}
+		catch (Exception e) {
+			log.warn("Failed to persist graph node metrics for thread {}: {}", threadId, e.getMessage());
+		}
+	}
+
+	/**
+	 * 按节点统计时间窗口内的耗时分位数与平均 token 用量，按 p90 从高到低排列
+	 * @param agentId 智能体ID，为空时统计全部
+	 * @param windowHours 时间窗口（小时），为空时使用配置的默认值
+	 */
+	public List<GraphNodeMetricsVO> getNodePercentiles(Long agentId, Integer windowHours) {
+		DataSentryProperties.GraphMetrics config = properties.getGraphMetrics();
+		int hours = windowHours != null && windowHours > 0 ? windowHours : config.getPercentileWindowHours();
+		List<GraphNodeMetric> rows = graphNodeMetricMapper.selectSince(agentId, LocalDateTime.now().minusHours(hours),
+				config.getPercentileMaxRows());
+		Map<String, List<GraphNodeMetric>> byNode = new LinkedHashMap<>();
+		for (GraphNodeMetric row : rows) {
+			byNode.computeIfAbsent(row.getNodeName(), k -> new ArrayList<>()).add(row);
+		}
+		List<GraphNodeMetricsVO> result = new ArrayList<>(byNode.size());
+		byNode.forEach((node, samples) -> result.add(summarize(node, samples)));
+		result.sort(Comparator.comparingLong(GraphNodeMetricsVO::getP90Ms).reversed());
+		return result;
+	}
+
+	/**
+	 * 查询某个聊天会话下所有图执行的节点指标
+	 */
+	public List<GraphNodeMetric> getSessionMetrics(String sessionId) {
+		return graphNodeMetricMapper.selectBySessionId(sessionId);
+	}
+
+	private GraphNodeMetricsVO summarize(String node, List<GraphNodeMetric> samples) {
+		List<Long> durations = samples.stream()
+			.map(sample -> Objects.requireNonNullElse(sample.getDurationMs(), 0L))
+			.sorted()
+			.toList();
+		List<Long> firstChunks = samples.stream()
+			.map(GraphNodeMetric::getFirstChunkMs)
+			.filter(Objects::nonNull)
+			.toList();
+		int n = samples.size();
+		return GraphNodeMetricsVO.builder()
+			.nodeName(node)
+			.sampleCount(n)
+			.failedCount(samples.stream().filter(sample -> !STATUS_SUCCESS.equals(sample.getStatus())).count())
+			.p50Ms(percentile(durations, 50))
+			.p90Ms(percentile(durations, 90))
+			.p99Ms(percentile(durations, 99))
+			.maxMs(durations.get(n - 1))
+			.avgMs(durations.stream().mapToLong(Long::longValue).average().orElse(0))
+			.avgFirstChunkMs(firstChunks.isEmpty() ? null
+					: firstChunks.stream().mapToLong(Long::longValue).average().orElse(0))
+			.avgLlmCalls(samples.stream()
+				.mapToInt(sample -> Objects.requireNonNullElse(sample.getLlmCallCount(), 0))
+				.average()
+				.orElse(0))
+			.avgPromptTokens(samples.stream()
+				.mapToLong(sample -> Objects.requireNonNullElse(sample.getPromptTokens(), 0L))
+				.average()
+				.orElse(0))
+			.avgCompletionTokens(samples.stream()
+				.mapToLong(sample -> Objects.requireNonNullElse(sample.getCompletionTokens(), 0L))
+				.average()
+				.orElse(0))
+			.build();
+	}
+
+	/**
+	 * 最近秩法计算分位数，sorted 需已升序且非空
+	 */
+	static long percentile(List<Long> sorted, double percentile) {
+		int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+		return sorted.get(Math.min(Math.max(rank, 1), sorted.size()) - 1);
+	}
+
+	private static Long parseAgentId(String agentId) {
+		try {
+			return agentId == null ? null : Long.parseLong(agentId);
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 单次图执行的计时器，图输出与大模型回调可能来自不同线程，方法均加锁
+	 */
+	private static class ExecutionRecorder {
+
+		private final String executionId = UUID.randomUUID().toString();
+
+		private final String threadId;
+
+		private final String sessionId;
+
+		private final Long agentId;
+
+		private final long startMillis = System.currentTimeMillis();
+
+		private final List<GraphNodeMetric> nodes = new ArrayList<>();
+
+		private Long firstChunkMillis;
+
+		private long spanStartMillis = startMillis;
+
+		private Long spanFirstChunkMillis;
+
+		private String spanChunkNode;
+
+		private int spanLlmCalls;
+
+		private long spanPromptTokens;
+
+		private long spanCompletionTokens;
+
+		private ExecutionRecorder(String threadId, String sessionId, Long agentId) {
+			this.threadId = threadId;
+			this.sessionId = sessionId;
+			this.agentId = agentId;
+		}
+
+		private synchronized void onChunk(String node) {
+			long now = System.currentTimeMillis();
+			if (spanFirstChunkMillis == null) {
+				spanFirstChunkMillis = now;
+			}
+			if (firstChunkMillis == null) {
+				firstChunkMillis = now;
+			}
+			spanChunkNode = node;
+		}
+
+		private synchronized void onLlmCall(long promptTokens, long completionTokens) {
+			spanLlmCalls++;
+			spanPromptTokens += promptTokens;
+			spanCompletionTokens += completionTokens;
+		}
+
+		private synchronized void onNodeFinished(String node) {
+			closeSpan(node, STATUS_SUCCESS, System.currentTimeMillis());
+		}
+
+		private synchronized List<GraphNodeMetric> complete(String status) {
+			long now = System.currentTimeMillis();
+			// 未完成的节点（报错或取消时）也记录下来，成功结束时只在仍有活动时记录
+			boolean spanActive = spanFirstChunkMillis != null || spanLlmCalls > 0;
+			if (spanActive || !STATUS_SUCCESS.equals(status)) {
+				closeSpan(spanChunkNode != null ? spanChunkNode : UNKNOWN_NODE_NAME, status, now);
+			}
+			List<GraphNodeMetric> metrics = new ArrayList<>(nodes.size() + 1);
+			metrics.add(GraphNodeMetric.builder()
+				.executionId(executionId)
+				.threadId(threadId)
+				.sessionId(sessionId)
+				.agentId(agentId)
+				.nodeName(GRAPH_NODE_NAME)
+				.nodeOrder(0)
+				.durationMs(now - startMillis)
+				.firstChunkMs(firstChunkMillis == null ? null : firstChunkMillis - startMillis)
+				.llmCallCount(nodes.stream().mapToInt(GraphNodeMetric::getLlmCallCount).sum())
+				.promptTokens(nodes.stream().mapToLong(GraphNodeMetric::getPromptTokens).sum())
+				.completionTokens(nodes.stream().mapToLong(GraphNodeMetric::getCompletionTokens).sum())
+				.status(status)
+				.build());
+			metrics.addAll(nodes);
+			return metrics;
+		}
+
+		private void closeSpan(String node, String status, long now) {
+			nodes.add(GraphNodeMetric.builder()
+				.executionId(executionId)
+				.threadId(threadId)
+				.sessionId(sessionId)
+				.agentId(agentId)
+				.nodeName(node)
+				.nodeOrder(nodes.size() + 1)
+				.durationMs(now - spanStartMillis)
+				.firstChunkMs(spanFirstChunkMillis == null ? null : spanFirstChunkMillis - spanStartMillis)
+				.llmCallCount(spanLlmCalls)
+				.promptTokens(spanPromptTokens)
+				.completionTokens(spanCompletionTokens)
+				.status(status)
+				.build());
+			spanStartMillis = now;
+			spanFirstChunkMillis = null;
+			spanChunkNode = null;
+			spanLlmCalls = 0;
+			spanPromptTokens = 0;
+			spanCompletionTokens = 0;
+		}
+
+	}
+
+}
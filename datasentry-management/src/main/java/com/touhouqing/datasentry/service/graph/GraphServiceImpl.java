@@ -58,14 +58,17 @@ public class GraphServiceImpl implements GraphService {
 
 	private final com.touhouqing.datasentry.cleaning.service.AiCostTrackingService aiCostTrackingService;
 
+	private final GraphExecutionMetricsService graphExecutionMetricsService;
+
 	public GraphServiceImpl(StateGraph stateGraph, ExecutorService executorService,
 			MultiTurnContextManager multiTurnContextManager,
-			com.touhouqing.datasentry.cleaning.service.AiCostTrackingService aiCostTrackingService)
-			throws GraphStateException {
+			com.touhouqing.datasentry.cleaning.service.AiCostTrackingService aiCostTrackingService,
+			GraphExecutionMetricsService graphExecutionMetricsService) throws GraphStateException {
 		this.compiledGraph = stateGraph.compile(CompileConfig.builder().interruptBefore(HUMAN_FEEDBACK_NODE).build());
 		this.executor = executorService;
 		this.multiTurnContextManager = multiTurnContextManager;
 		this.aiCostTrackingService = aiCostTrackingService;
+		this.graphExecutionMetricsService = graphExecutionMetricsService;
 	}
 
 	@Override
@@ -124,6 +127,7 @@ public class GraphServiceImpl implements GraphService {
 		}
 		log.info("Stopping stream processing for threadId: {}", threadId);
 		multiTurnContextManager.discardPending(threadId);
+		graphExecutionMetricsService.finish(threadId, GraphExecutionMetricsService.STATUS_CANCELLED);
 		StreamContext context = streamContextMap.remove(threadId);
 		if (context != null) {
 			context.cleanup();
@@ -167,8 +171,10 @@ public class GraphServiceImpl implements GraphService {
 			log.warn("Invalid agentId format: {}", agentId);
 		}
 
+		multiTurnContextManager.bindSession(threadId, graphRequest.getSessionId());
 		String multiTurnContext = multiTurnContextManager.buildContext(threadId);
 		multiTurnContextManager.beginTurn(threadId, query);
+		graphExecutionMetricsService.start(threadId, graphRequest.getSessionId(), agentId);
 		Flux<NodeOutput> nodeOutputFlux = compiledGraph.stream(
 				Map.of(IS_ONLY_NL2SQL, nl2sqlOnly, INPUT_KEY, query, AGENT_ID, agentId, HUMAN_REVIEW_ENABLED,
 						humanReviewEnabled, MULTI_TURN_CONTEXT, multiTurnContext),
@@ -193,6 +199,7 @@ public class GraphServiceImpl implements GraphService {
 		}
 		Map<String, Object> feedbackData = Map.of("feedback", !graphRequest.isRejectedPlan(), "feedback_content",
 				feedbackContent);
+		multiTurnContextManager.bindSession(threadId, graphRequest.getSessionId());
 		if (graphRequest.isRejectedPlan()) {
 			multiTurnContextManager.restartLastTurn(threadId);
 		}
@@ -212,6 +219,7 @@ public class GraphServiceImpl implements GraphService {
 			.addMetadata(RunnableConfig.HUMAN_FEEDBACK_METADATA_KEY, feedbackData)
 			.build();
 
+		graphExecutionMetricsService.start(threadId, graphRequest.getSessionId(), agentId);
 		Flux<NodeOutput> nodeOutputFlux = compiledGraph.stream(null, resumeConfig);
 		subscribeToFlux(context, nodeOutputFlux, graphRequest, agentId, threadId);
 	}
@@ -294,6 +302,7 @@ public class GraphServiceImpl implements GraphService {
 	 */
 	private void handleStreamError(String agentId, String threadId, Throwable error) {
 		log.error("Error in stream processing for threadId: {}: ", threadId, error);
+		graphExecutionMetricsService.finish(threadId, GraphExecutionMetricsService.STATUS_ERROR);
 
 		// ✅ 清理成本追踪上下文
 		AiCostTrackingAspect.clearContext();
@@ -321,6 +330,7 @@ public class GraphServiceImpl implements GraphService {
 	private void handleStreamComplete(String agentId, String threadId) {
 		log.info("Stream processing completed successfully for threadId: {}", threadId);
 		multiTurnContextManager.finishTurn(threadId);
+		graphExecutionMetricsService.finish(threadId, GraphExecutionMetricsService.STATUS_SUCCESS);
 
 		// ✅ 清理成本追踪上下文
 		AiCostTrackingAspect.clearContext();
@@ -343,6 +353,7 @@ public class GraphServiceImpl implements GraphService {
 	 */
 	private void handleNodeOutput(GraphRequest request, NodeOutput output) {
 		log.debug("Received output: {}", output.getClass().getSimpleName());
+		graphExecutionMetricsService.onNodeOutput(request.getThreadId(), output);
 		if (output instanceof StreamingOutput streamingOutput) {
 			handleStreamNodeOutput(request, streamingOutput);
 		}
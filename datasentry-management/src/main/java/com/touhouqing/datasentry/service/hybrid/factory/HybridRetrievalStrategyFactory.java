@@ -17,6 +17,7 @@ package com.touhouqing.datasentry.service.hybrid.factory;
 
 import com.touhouqing.datasentry.properties.DataSentryProperties;
 import com.touhouqing.datasentry.service.hybrid.fusion.FusionStrategy;
+import com.touhouqing.datasentry.service.hybrid.keyword.LocalKeywordIndex;
 import com.touhouqing.datasentry.service.hybrid.retrieval.HybridRetrievalStrategy;
 import com.touhouqing.datasentry.service.hybrid.retrieval.impl.DefaultHybridRetrievalStrategy;
 import com.touhouqing.datasentry.service.hybrid.retrieval.impl.ElasticsearchHybridRetrievalStrategy;
@@ -56,6 +57,9 @@ public class HybridRetrievalStrategyFactory implements FactoryBean<HybridRetriev
 	@Autowired
 	private DataSentryProperties dataAgentProperties;
 
+	@Autowired
+	private LocalKeywordIndex localKeywordIndex;
+
 	@Override
 	public HybridRetrievalStrategy getObject() throws Exception {
 
@@ -73,6 +77,11 @@ public class HybridRetrievalStrategyFactory implements FactoryBean<HybridRetriev
 			strategy.setMinScore(dataAgentProperties.getVectorStore().getElasticsearchMinScore());
 			return strategy;
 		}
+		else if (localKeywordIndex.isActive()) {
+			log.info("Creating DefaultHybridRetrievalStrategy with local BM25 keyword index for vector store type: {}",
+					vectorStoreType);
+			return new DefaultHybridRetrievalStrategy(executorService, vectorStore, fusionStrategy, localKeywordIndex);
+		}
 		else {
 			log.warn(
 					"Creating DefaultHybridRetrievalStrategy (default) without keyword-search ability,maybe you should implement interface -> HybridRetrievalStrategy ");
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.hybrid.keyword;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 关键词检索切词器：拉丁字母与数字按连续字符切成单词并转小写，中日韩文字按相邻二元组切分
+ * （单字片段保留单字），其余字符作为分隔符。无需词典，对新词和专有名词的召回稳定。
+ */
+public final class KeywordTokenizer {
+
+	private KeywordTokenizer() {
+	}
+
+	public static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null || text.isEmpty()) {
+			return tokens;
+		}
+		StringBuilder word = new StringBuilder();
+		StringBuilder cjk = new StringBuilder();
+		int i = 0;
+		while (i < text.length()) {
+			int codePoint = text.codePointAt(i);
+			if (isCjk(codePoint)) {
+				flushWord(word, tokens);
+				cjk.appendCodePoint(codePoint);
+			}
+			else if (Character.isLetterOrDigit(codePoint)) {
+				flushCjk(cjk, tokens);
+				word.appendCodePoint(codePoint);
+			}
+			else {
+				flushWord(word, tokens);
+				flushCjk(cjk, tokens);
+			}
+			i += Character.charCount(codePoint);
+		}
+		flushWord(word, tokens);
+		flushCjk(cjk, tokens);
+		return tokens;
+	}
+
+	private static void flushWord(StringBuilder word, List<String> tokens) {
+		if (!word.isEmpty()) {
+			tokens.add(word.toString().toLowerCase(Locale.ROOT));
+			word.setLength(0);
+		}
+	}
+
+	private static void flushCjk(StringBuilder cjk, List<String> tokens) {
+		if (cjk.isEmpty()) {
+			return;
+		}
+		int[] codePoints = cjk.codePoints().toArray();
+		if (codePoints.length == 1) {
+			tokens.add(new String(codePoints, 0, 1));
+		}
+		else {
+			for (int i = 0; i + 1 < codePoints.length; i++) {
+				tokens.add(new String(codePoints, i, 2));
+			}
+		}
+		cjk.setLength(0);
+	}
+
+	private static boolean isCjk(int codePoint) {
+		Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+		return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+				|| script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL;
+	}
+
+}
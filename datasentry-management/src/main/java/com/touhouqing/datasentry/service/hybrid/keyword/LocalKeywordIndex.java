@@ -0,0 +1,352 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.hybrid.keyword;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.service.vectorstore.SimpleVectorStoreFileReader;
+import com.touhouqing.datasentry.service.vectorstore.file.FileVectorStore;
+import com.touhouqing.datasentry.service.vectorstore.file.MetadataFilterEvaluator;
+import com.touhouqing.datasentry.util.JsonUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内嵌的 BM25 倒排索引，为非 Elasticsearch 向量库提供混合检索的关键词召回通道。
+ * 文档写入和删除向量库时由 AgentVectorStoreServiceImpl 同步增量更新。使用本地文件向量库（type=file）时，
+ * 启动时直接从向量库的文档日志重建，与向量库保持一致，不再读写快照；其余向量库关闭时把文档快照写入本地文件，
+ * 启动时从快照重建（首次启用时尝试从 SimpleVectorStore 的序列化文件初始化）。
+ */
+@Slf4j
+@Component
+public class LocalKeywordIndex {
+
+	private static final TypeReference<List<SnapshotEntry>> SNAPSHOT_TYPE = new TypeReference<>() {
+	};
+
+	private final DataSentryProperties.VectorStoreProperties vectorStoreProperties;
+
+	private final String vectorStoreType;
+
+	private final ObjectProvider<FileVectorStore> fileVectorStoreProvider;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, Integer> docNumbers = new HashMap<>();
+
+	private final Map<Integer, IndexedDocument> documents = new HashMap<>();
+
+	private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+
+	private int nextDocNumber;
+
+	private long totalLength;
+
+	public LocalKeywordIndex(DataSentryProperties properties,
+			@Value("${spring.ai.vectorstore.type:simple}") String vectorStoreType,
+			ObjectProvider<FileVectorStore> fileVectorStoreProvider) {
+		this.vectorStoreProperties = properties.getVectorStore();
+		this.vectorStoreType = vectorStoreType;
+		this.fileVectorStoreProvider = fileVectorStoreProvider;
+	}
+
+	/**
+	 * 是否参与检索与增量维护：需开启混合检索与本地索引，且向量库自身不提供关键词检索
+	 */
+	public boolean isActive() {
+		return vectorStoreProperties.isEnableHybridSearch() && vectorStoreProperties.getKeywordIndex().isEnabled()
+				&& !"elasticsearch".equalsIgnoreCase(vectorStoreType);
+	}
+
+	public void add(List<Document> newDocuments) {
+		if (newDocuments == null || newDocuments.isEmpty()) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			for (Document document : newDocuments) {
+				index(document.getId(), document.getText(), document.getMetadata());
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void delete(Collection<String> ids) {
+		lock.writeLock().lock();
+		try {
+			ids.forEach(this::remove);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void delete(Filter.Expression filterExpression) {
+		lock.writeLock().lock();
+		try {
+			List<String> ids = documents.values()
+				.stream()
+				.filter(document -> MetadataFilterEvaluator.matches(filterExpression, document.metadata()))
+				.map(IndexedDocument::id)
+				.toList();
+			ids.forEach(this::remove);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void delete(String filterExpression) {
+		delete(new FilterExpressionTextParser().parse(filterExpression));
+	}
+
+	/**
+	 * BM25 检索，返回满足元数据过滤条件的前 topK 个文档，score 为 BM25 得分
+	 */
+	public List<Document> search(String query, int topK, Filter.Expression filterExpression) {
+		if (!StringUtils.hasText(query) || topK <= 0) {
+			return List.of();
+		}
+		List<String> terms = new ArrayList<>(new LinkedHashSet<>(KeywordTokenizer.tokenize(query)));
+		double k1 = vectorStoreProperties.getKeywordIndex().getK1();
+		double b = vectorStoreProperties.getKeywordIndex().getB();
+		lock.readLock().lock();
+		try {
+			if (documents.isEmpty() || terms.isEmpty()) {
+				return List.of();
+			}
+			int documentCount = documents.size();
+			double averageLength = (double) totalLength / documentCount;
+			Map<Integer, Double> scores = new HashMap<>();
+			Map<Integer, Boolean> accepted = new HashMap<>();
+			for (String term : terms) {
+				Map<Integer, Integer> posting = postings.get(term);
+				if (posting == null) {
+					continue;
+				}
+				double idf = Math.log(1D + (documentCount - posting.size() + 0.5D) / (posting.size() + 0.5D));
+				for (Map.Entry<Integer, Integer> entry : posting.entrySet()) {
+					IndexedDocument document = documents.get(entry.getKey());
+					boolean match = filterExpression == null || accepted.computeIfAbsent(entry.getKey(),
+							docNumber -> MetadataFilterEvaluator.matches(filterExpression, document.metadata()));
+					if (!match) {
+						continue;
+					}
+					int tf = entry.getValue();
+					double norm = tf + k1 * (1D - b + b * document.length() / averageLength);
+					scores.merge(entry.getKey(), idf * tf * (k1 + 1D) / norm, Double::sum);
+				}
+			}
+			PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+			for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+				heap.add(entry);
+				if (heap.size() > topK) {
+					heap.poll();
+				}
+			}
+			List<Map.Entry<Integer, Double>> top = new ArrayList<>(heap);
+			top.sort(Map.Entry.<Integer, Double>comparingByValue(Comparator.reverseOrder()));
+			List<Document> results = new ArrayList<>(top.size());
+			for (Map.Entry<Integer, Double> entry : top) {
+				IndexedDocument document = documents.get(entry.getKey());
+				results.add(Document.builder()
+					.id(document.id())
+					.text(document.text())
+					.metadata(new HashMap<>(document.metadata()))
+					.score(entry.getValue())
+					.build());
+			}
+			return results;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return documents.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@PostConstruct
+	public void load() {
+		if (!isActive()) {
+			return;
+		}
+		if (isFileVectorStore()) {
+			// 快照只在正常关闭时写入，崩溃后会缺少新增文档或保留已删除文档；以向量库的日志为准重建
+			seedFromFileVectorStore();
+			return;
+		}
+		Path snapshot = Paths.get(vectorStoreProperties.getKeywordIndex().getFilePath());
+		try {
+			if (Files.exists(snapshot)) {
+				List<SnapshotEntry> entries = JsonUtil.getObjectMapper().readValue(snapshot.toFile(), SNAPSHOT_TYPE);
+				lock.writeLock().lock();
+				try {
+					entries.forEach(entry -> index(entry.id(), entry.text(), entry.metadata()));
+				}
+				finally {
+					lock.writeLock().unlock();
+				}
+				log.info("Loaded {} documents into local keyword index from {}", entries.size(), snapshot);
+			}
+			else if ("simple".equalsIgnoreCase(vectorStoreType)) {
+				seedFromSimpleVectorStore(Paths.get(vectorStoreProperties.getFilePath()));
+			}
+		}
+		catch (IOException e) {
+			log.error("Failed to load local keyword index, keyword recall starts empty", e);
+		}
+	}
+
+	@PreDestroy
+	public void save() {
+		if (!isActive() || isFileVectorStore()) {
+			return;
+		}
+		Path snapshot = Paths.get(vectorStoreProperties.getKeywordIndex().getFilePath());
+		lock.readLock().lock();
+		try {
+			List<SnapshotEntry> entries = documents.values()
+				.stream()
+				.map(document -> new SnapshotEntry(document.id(), document.text(), document.metadata()))
+				.toList();
+			Path parent = snapshot.toAbsolutePath().getParent();
+			Files.createDirectories(parent);
+			Path temp = parent.resolve(snapshot.getFileName() + ".tmp");
+			JsonUtil.getObjectMapper().writeValue(temp.toFile(), entries);
+			Files.move(temp, snapshot.toAbsolutePath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			log.info("Saved {} documents of local keyword index to {}", entries.size(), snapshot);
+		}
+		catch (IOException e) {
+			log.error("Failed to save local keyword index snapshot", e);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private boolean isFileVectorStore() {
+		return "file".equalsIgnoreCase(vectorStoreType);
+	}
+
+	private void seedFromFileVectorStore() {
+		FileVectorStore store = fileVectorStoreProvider.getIfAvailable();
+		if (store == null) {
+			log.warn("File vector store is not available, local keyword index starts empty");
+			return;
+		}
+		int seeded;
+		lock.writeLock().lock();
+		try {
+			seeded = store
+				.forEachDocument(document -> index(document.getId(), document.getText(), document.getMetadata()));
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+		log.info("Rebuilt local keyword index with {} documents from file vector store", seeded);
+	}
+
+	private void seedFromSimpleVectorStore(Path file) throws IOException {
+		int seeded;
+		lock.writeLock().lock();
+		try {
+			seeded = SimpleVectorStoreFileReader.read(file,
+					document -> index(document.id(), document.text(), document.metadata()));
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+		if (seeded > 0) {
+			log.info("Seeded local keyword index with {} documents from {}", seeded, file);
+		}
+	}
+
+	private void index(String id, String text, Map<String, Object> metadata) {
+		remove(id);
+		Map<String, Integer> termFrequencies = new HashMap<>();
+		List<String> tokens = KeywordTokenizer.tokenize(text);
+		for (String token : tokens) {
+			termFrequencies.merge(token, 1, Integer::sum);
+		}
+		int docNumber = nextDocNumber++;
+		docNumbers.put(id, docNumber);
+		documents.put(docNumber, new IndexedDocument(id, text, metadata != null ? new HashMap<>(metadata) : Map.of(),
+				tokens.size(), termFrequencies));
+		termFrequencies
+			.forEach((term, tf) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(docNumber, tf));
+		totalLength += tokens.size();
+	}
+
+	private void remove(String id) {
+		Integer docNumber = docNumbers.remove(id);
+		if (docNumber == null) {
+			return;
+		}
+		IndexedDocument document = documents.remove(docNumber);
+		for (String term : document.termFrequencies().keySet()) {
+			Map<Integer, Integer> posting = postings.get(term);
+			if (posting != null) {
+				posting.remove(docNumber);
+				if (posting.isEmpty()) {
+					postings.remove(term);
+				}
+			}
+		}
+		totalLength -= document.length();
+	}
+
+	private record IndexedDocument(String id, String text, Map<String, Object> metadata, int length,
+			Map<String, Integer> termFrequencies) {
+	}
+
+	private record SnapshotEntry(String id, String text, Map<String, Object> metadata) {
+	}
+
+}
@@ -17,6 +17,7 @@ package com.touhouqing.datasentry.service.hybrid.retrieval.impl;
 
 import com.touhouqing.datasentry.dto.search.HybridSearchRequest;
 import com.touhouqing.datasentry.service.hybrid.fusion.FusionStrategy;
+import com.touhouqing.datasentry.service.hybrid.keyword.LocalKeywordIndex;
 import com.touhouqing.datasentry.service.hybrid.retrieval.AbstractHybridRetrievalStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
@@ -27,20 +28,33 @@ import java.util.List;
 import java.util.concurrent.ExecutorService;
 
 /**
- * 适合测试以及没有继承实现AbstractHybridRetrievalStrategy的向量库（如Pg,milvus）使用，无关键词搜索能力
+ * 适用于没有继承实现AbstractHybridRetrievalStrategy的向量库（如simple、file、Pg、milvus），关键词召回走内嵌的 BM25 索引；
+ * 未提供索引或索引未启用时无关键词搜索能力
  */
 @Slf4j
 public class DefaultHybridRetrievalStrategy extends AbstractHybridRetrievalStrategy {
 
+	private final LocalKeywordIndex keywordIndex;
+
 	public DefaultHybridRetrievalStrategy(ExecutorService executorService, VectorStore vectorStore,
 			FusionStrategy fusionStrategy) {
+		this(executorService, vectorStore, fusionStrategy, null);
+	}
+
+	public DefaultHybridRetrievalStrategy(ExecutorService executorService, VectorStore vectorStore,
+			FusionStrategy fusionStrategy, LocalKeywordIndex keywordIndex) {
 		super(executorService, vectorStore, fusionStrategy);
+		this.keywordIndex = keywordIndex;
 	}
 
 	@Override
 	public List<Document> getDocumentsByKeywords(HybridSearchRequest agentSearchRequest) {
-		// keyword默认不操作
-		return Collections.emptyList();
+		if (keywordIndex == null || !keywordIndex.isActive()) {
+			return Collections.emptyList();
+		}
+		// 与 Elasticsearch 实现保持一致，多取一倍候选交给融合策略
+		return keywordIndex.search(agentSearchRequest.getQuery(), agentSearchRequest.getTopK() * 2,
+				agentSearchRequest.getFilterExpression());
 	}
 
 }
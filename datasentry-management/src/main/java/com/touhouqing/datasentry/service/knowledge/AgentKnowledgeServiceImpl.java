@@ -23,6 +23,7 @@ import com.touhouqing.datasentry.dto.knowledge.agentknowledge.AgentKnowledgeQuer
 import com.touhouqing.datasentry.dto.knowledge.agentknowledge.CreateKnowledgeDTO;
 import com.touhouqing.datasentry.dto.knowledge.agentknowledge.UpdateKnowledgeDTO;
 import com.touhouqing.datasentry.entity.AgentKnowledge;
+import com.touhouqing.datasentry.event.AgentKnowledgeChangedEvent;
 import com.touhouqing.datasentry.event.AgentKnowledgeDeletionEvent;
 import com.touhouqing.datasentry.event.AgentKnowledgeEmbeddingEvent;
 import com.touhouqing.datasentry.mapper.AgentKnowledgeMapper;
@@ -85,6 +86,7 @@ public class AgentKnowledgeServiceImpl implements AgentKnowledgeService {
 			throw new RuntimeException("Failed to create knowledge in database.");
 		}
 
+		eventPublisher.publishEvent(new AgentKnowledgeChangedEvent(this, knowledge.getAgentId()));
 		eventPublisher
 			.publishEvent(new AgentKnowledgeEmbeddingEvent(this, knowledge.getId(), knowledge.getSplitterType()));
 		log.info("Knowledge created and event published. Id: {}, splitterType: {}", knowledge.getId(),
@@ -134,6 +136,7 @@ public class AgentKnowledgeServiceImpl implements AgentKnowledgeService {
 			log.error("Failed to update knowledge with id: {}", existingKnowledge.getId());
 			throw new RuntimeException("Failed to update knowledge in database.");
 		}
+		eventPublisher.publishEvent(new AgentKnowledgeChangedEvent(this, existingKnowledge.getAgentId()));
 		return agentKnowledgeConverter.toVo(existingKnowledge);
 	}
 
@@ -153,6 +156,7 @@ public class AgentKnowledgeServiceImpl implements AgentKnowledgeService {
 		knowledge.setUpdatedTime(LocalDateTime.now());
 
 		if (agentKnowledgeMapper.update(knowledge) > 0) {
+			eventPublisher.publishEvent(new AgentKnowledgeChangedEvent(this, knowledge.getAgentId()));
 			eventPublisher.publishEvent(new AgentKnowledgeDeletionEvent(this, id));
 			return true;
 		}
@@ -195,6 +199,7 @@ public class AgentKnowledgeServiceImpl implements AgentKnowledgeService {
 			log.error("Failed to update knowledge with id: {}", knowledge.getId());
 			throw new RuntimeException("Failed to update knowledge in database.");
 		}
+		eventPublisher.publishEvent(new AgentKnowledgeChangedEvent(this, knowledge.getAgentId()));
 		return agentKnowledgeConverter.toVo(knowledge);
 	}
 
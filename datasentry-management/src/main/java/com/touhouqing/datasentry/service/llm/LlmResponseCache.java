@@ -0,0 +1,338 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.llm;
+
+import com.touhouqing.datasentry.event.AgentKnowledgeChangedEvent;
+import com.touhouqing.datasentry.prompt.PromptLoader;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.service.aimodelconfig.AiModelRegistry;
+import com.touhouqing.datasentry.vo.LlmResponseCacheMetricsVO;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 意图识别、问题增强等节点的大模型响应缓存。键为（智能体, 提示词版本, 上下文, 规范化问题）的 SHA-256，
+ * 提示词版本取模板内容的摘要，模板变更后旧条目自然不再命中；智能体的知识变更时按智能体整体失效。
+ * 精确匹配未命中时，可选地在同一作用域内按问题向量的余弦相似度查找。
+ */
+@Slf4j
+@Component
+public class LlmResponseCache {
+
+	private final DataSentryProperties.ResponseCache properties;
+
+	private final AiModelRegistry aiModelRegistry;
+
+	private final LinkedHashMap<String, Entry> entries;
+
+	/**
+	 * agentId -> 失效代数，知识变更时递增，旧代数下生成的键与条目不再命中
+	 */
+	private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+	private long hitCount;
+
+	private long similarHitCount;
+
+	private long missCount;
+
+	private long evictionCount;
+
+	private long invalidationCount;
+
+	public LlmResponseCache(DataSentryProperties properties, AiModelRegistry aiModelRegistry) {
+		this.properties = properties.getResponseCache();
+		this.aiModelRegistry = aiModelRegistry;
+		int maxEntries = Math.max(1, this.properties.getMaxEntries());
+		this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > maxEntries) {
+					evictionCount++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * 构建缓存键。context 为提示词中除问题外的其他可变输入（多轮上下文、evidence 等），任一变化都视为不同作用域
+	 * @param agentId 智能体ID
+	 * @param promptName 提示词模板名，模板内容的摘要作为提示词版本
+	 * @param question 用户问题
+	 * @param context 提示词的其他输入
+	 */
+	public Key key(String agentId, String promptName, String question, String... context) {
+		String agent = agentId == null ? "" : agentId;
+		String[] scopeParts = new String[context.length + 3];
+		scopeParts[0] = agent;
+		scopeParts[1] = promptName;
+		scopeParts[2] = sha256(PromptLoader.loadPrompt(promptName));
+		System.arraycopy(context, 0, scopeParts, 3, context.length);
+		String scope = sha256(scopeParts);
+		String normalizedQuestion = normalizeQuestion(question);
+		return new Key(agent, scope, sha256(scope, normalizedQuestion), normalizedQuestion, generation(agent));
+	}
+
+	/**
+	 * 查找缓存的响应，未命中返回 null
+	 */
+	public String get(Key key) {
+		if (!properties.isEnabled() || key.getNormalizedQuestion().isEmpty()) {
+			return null;
+		}
+		synchronized (this) {
+			Entry entry = entries.get(key.getCacheKey());
+			if (entry != null) {
+				if (isLive(entry, key)) {
+					hitCount++;
+					return entry.response();
+				}
+				entries.remove(key.getCacheKey());
+			}
+		}
+		if (properties.isSimilarityEnabled()) {
+			String similar = findSimilar(key);
+			if (similar != null) {
+				return similar;
+			}
+		}
+		synchronized (this) {
+			missCount++;
+		}
+		return null;
+	}
+
+	/**
+	 * 写入响应。调用期间智能体知识已变更时不写入，避免基于旧知识的结果在失效后继续命中
+	 */
+	public void put(Key key, String response) {
+		if (!properties.isEnabled() || !StringUtils.hasText(response) || key.getNormalizedQuestion().isEmpty()) {
+			return;
+		}
+		if (properties.isSimilarityEnabled()) {
+			embed(key);
+		}
+		synchronized (this) {
+			if (key.getGeneration() != generation(key.getAgentId())) {
+				return;
+			}
+			entries.put(key.getCacheKey(), new Entry(key.getAgentId(), key.getScope(), key.getGeneration(), response,
+					key.embeddingModelId, key.embedding, System.currentTimeMillis()));
+		}
+	}
+
+	/**
+	 * 变更事务提交后再失效，避免并发请求在提交前读到旧数据并写回缓存；不在事务中发布时立即失效
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onAgentKnowledgeChanged(AgentKnowledgeChangedEvent event) {
+		invalidateAgent(event.getAgentId());
+	}
+
+	public void invalidateAgent(Long agentId) {
+		if (agentId != null) {
+			invalidate(agentId.toString());
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		log.info("LLM response cache cleared");
+	}
+
+	public synchronized LlmResponseCacheMetricsVO snapshot() {
+		long lookups = hitCount + missCount;
+		return LlmResponseCacheMetricsVO.builder()
+			.enabled(properties.isEnabled())
+			.similarityEnabled(properties.isSimilarityEnabled())
+			.entries(entries.size())
+			.maxEntries(properties.getMaxEntries())
+			.hitCount(hitCount)
+			.similarHitCount(similarHitCount)
+			.missCount(missCount)
+			.hitRate(lookups == 0 ? 0D : (double) hitCount / lookups)
+			.evictionCount(evictionCount)
+			.invalidationCount(invalidationCount)
+			.build();
+	}
+
+	/**
+	 * 问题规范化：Unicode NFKC（全角转半角）、折叠空白、转小写并去掉句末标点
+	 */
+	public static String normalizeQuestion(String question) {
+		if (question == null) {
+			return "";
+		}
+		return Normalizer.normalize(question, Normalizer.Form.NFKC)
+			.strip()
+			.replaceAll("\\s+", " ")
+			.toLowerCase(Locale.ROOT)
+			.replaceAll("[?!.,;:~。、\\s]+$", "");
+	}
+
+	private String findSimilar(Key key) {
+		float[] embedding = embed(key);
+		if (embedding == null) {
+			return null;
+		}
+		double threshold = properties.getSimilarityThreshold();
+		synchronized (this) {
+			String bestKey = null;
+			double bestScore = threshold;
+			for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+				Entry entry = candidate.getValue();
+				if (entry.embedding() == null || !entry.scope().equals(key.getScope())
+						|| !Objects.equals(entry.embeddingModelId(), key.embeddingModelId)
+						|| entry.embedding().length != embedding.length || !isLive(entry, key)) {
+					continue;
+				}
+				double score = cosine(embedding, entry.embedding());
+				if (score >= bestScore) {
+					bestScore = score;
+					bestKey = candidate.getKey();
+				}
+			}
+			if (bestKey == null) {
+				return null;
+			}
+			hitCount++;
+			similarHitCount++;
+			log.debug("LLM response cache similar hit, score: {}", bestScore);
+			return entries.get(bestKey).response();
+		}
+	}
+
+	private float[] embed(Key key) {
+		if (key.embedding != null) {
+			return key.embedding;
+		}
+		String modelId = aiModelRegistry.getEmbeddingModelId();
+		if (modelId == null) {
+			// 未配置向量模型时为兜底的哑模型，相似度没有意义
+			return null;
+		}
+		try {
+			key.embedding = aiModelRegistry.getEmbeddingModel().embed(key.getNormalizedQuestion());
+			key.embeddingModelId = modelId;
+		}
+		catch (Exception e) {
+			log.debug("Failed to embed question for LLM response cache: {}", e.getMessage());
+		}
+		return key.embedding;
+	}
+
+	private boolean isLive(Entry entry, Key key) {
+		return entry.generation() == key.getGeneration() && key.getGeneration() == generation(key.getAgentId())
+				&& System.currentTimeMillis() - entry.createdAt() < properties.getTtlSeconds() * 1000L;
+	}
+
+	private long generation(String agentId) {
+		return generations.getOrDefault(agentId, 0L);
+	}
+
+	private synchronized void invalidate(String agentId) {
+		generations.merge(agentId, 1L, Long::sum);
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().agentId().equals(agentId)) {
+				iterator.remove();
+				invalidationCount++;
+			}
+		}
+	}
+
+	private static double cosine(float[] a, float[] b) {
+		double dot = 0D;
+		double normA = 0D;
+		double normB = 0D;
+		for (int i = 0; i < a.length; i++) {
+			dot += a[i] * b[i];
+			normA += a[i] * a[i];
+			normB += b[i] * b[i];
+		}
+		if (normA == 0D || normB == 0D) {
+			return 0D;
+		}
+		return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+	}
+
+	private static String sha256(String... parts) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String part : parts) {
+				digest.update((part == null ? "" : part).getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	/**
+	 * 一次查找对应的缓存键，开启相似度查找时同时携带问题向量，供未命中后写入复用
+	 */
+	@Getter
+	public static final class Key {
+
+		private final String agentId;
+
+		private final String scope;
+
+		private final String cacheKey;
+
+		private final String normalizedQuestion;
+
+		private final long generation;
+
+		private float[] embedding;
+
+		private String embeddingModelId;
+
+		private Key(String agentId, String scope, String cacheKey, String normalizedQuestion, long generation) {
+			this.agentId = agentId;
+			this.scope = scope;
+			this.cacheKey = cacheKey;
+			this.normalizedQuestion = normalizedQuestion;
+			this.generation = generation;
+		}
+
+	}
+
+	private record Entry(String agentId, String scope, long generation, String response, String embeddingModelId,
+			float[] embedding, long createdAt) {
+	}
+
+}
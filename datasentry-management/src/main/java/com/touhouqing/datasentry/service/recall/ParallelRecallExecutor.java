@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.recall;
+
+import com.touhouqing.datasentry.cleaning.context.AiCostContextPropagatingExecutor;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 召回步骤执行器：相互独立的检索步骤提交到专用线程池并发执行，每个步骤单独超时。
+ * 步骤失败或超时时以调用方给定的兜底值完成并标记为部分结果，一个慢的向量库不会拖住整轮对话。
+ */
+@Slf4j
+@Component
+public class ParallelRecallExecutor {
+
+	private final DataSentryProperties.GraphRecall properties;
+
+	private final AiCostContextPropagatingExecutor executor;
+
+	public ParallelRecallExecutor(DataSentryProperties properties) {
+		this.properties = properties.getGraphRecall();
+		// 线程池线程不会继承调用方的计费上下文，由执行器在提交时捕获并传递
+		this.executor = AiCostContextPropagatingExecutor.fixedDaemonPool("graph-recall",
+				Math.max(1, this.properties.getPoolSize()));
+	}
+
+	/**
+	 * 提交一个召回步骤。未开启并发时在当前线程执行，返回已完成的 future；返回的 future 不会异常完成
+	 */
+	public <T> CompletableFuture<StepResult<T>> submit(String step, Supplier<T> supplier, T fallback) {
+		if (!properties.isParallelEnabled()) {
+			try {
+				return CompletableFuture.completedFuture(StepResult.complete(supplier.get()));
+			}
+			catch (RuntimeException e) {
+				log.warn("Recall step {} failed, continue with partial result", step, e);
+				return CompletableFuture.completedFuture(StepResult.partial(fallback, failureReason(e)));
+			}
+		}
+		long startNanos = System.nanoTime();
+		return CompletableFuture.supplyAsync(supplier, executor)
+			.orTimeout(properties.getStepTimeoutMs(), TimeUnit.MILLISECONDS)
+			.handle((value, error) -> {
+				long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+				if (error == null) {
+					log.debug("Recall step {} finished in {} ms", step, elapsedMs);
+					return StepResult.complete(value);
+				}
+				Throwable cause = error instanceof CompletionException && error.getCause() != null
+						? error.getCause() : error;
+				if (cause instanceof TimeoutException) {
+					log.warn("Recall step {} timed out after {} ms, continue with partial result", step, elapsedMs);
+					return StepResult.partial(fallback, "timeout");
+				}
+				log.warn("Recall step {} failed after {} ms, continue with partial result", step, elapsedMs, cause);
+				return StepResult.partial(fallback, failureReason(cause));
+			});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private static String failureReason(Throwable error) {
+		return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+	}
+
+	/**
+	 * @param partial 步骤是否因失败或超时使用了兜底值
+	 */
+	public record StepResult<T>(T value, boolean partial, String reason) {
+
+		static <T> StepResult<T> complete(T value) {
+			return new StepResult<>(value, false, null);
+		}
+
+		static <T> StepResult<T> partial(T fallback, String reason) {
+			return new StepResult<>(fallback, true, reason);
+		}
+
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.recall;
+
+import com.touhouqing.datasentry.constant.DocumentMetadataConstant;
+import com.touhouqing.datasentry.mapper.AgentDatasourceMapper;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.service.schema.SchemaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Schema 召回：先按数据源召回表文档，再按表名召回列文档。
+ * 表召回只依赖数据源的元数据过滤、与改写后的问题无关，因此证据召回开始时即可按智能体预取，
+ * Schema 召回节点取用预取结果，省去证据召回与问题增强之后的串行检索耗时。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaRecallPrefetcher {
+
+	private final SchemaService schemaService;
+
+	private final AgentDatasourceMapper agentDatasourceMapper;
+
+	private final ParallelRecallExecutor recallExecutor;
+
+	private final DataSentryProperties properties;
+
+	private final Map<String, Prefetch> prefetches = new ConcurrentHashMap<>();
+
+	/**
+	 * 为智能体的激活数据源异步预取 Schema 召回结果，已有未过期的预取时不重复发起
+	 */
+	public void prefetch(String agentId, String query) {
+		DataSentryProperties.GraphRecall recall = properties.getGraphRecall();
+		if (!recall.isParallelEnabled() || !recall.isSchemaPrefetchEnabled()) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		prefetches.compute(agentId, (key, existing) -> {
+			if (existing != null && now - existing.startedAt() < recall.getSchemaPrefetchMaxAgeMs()) {
+				return existing;
+			}
+			CompletableFuture<ParallelRecallExecutor.StepResult<SchemaRecallResult>> future = recallExecutor
+				.submit("schema-prefetch", () -> {
+					Long datasourceId = agentDatasourceMapper.selectActiveDatasourceIdByAgentId(Long.valueOf(agentId));
+					return datasourceId == null ? null : recall(datasourceId, query);
+				}, null);
+			return new Prefetch(now, future);
+		});
+	}
+
+	/**
+	 * 取出与数据源匹配、未过期且完整的预取结果；没有可用结果时返回空，由调用方同步召回
+	 */
+	public Optional<SchemaRecallResult> take(String agentId, Long datasourceId) {
+		Prefetch prefetch = prefetches.remove(agentId);
+		if (prefetch == null
+				|| System.currentTimeMillis() - prefetch.startedAt() >= properties.getGraphRecall()
+					.getSchemaPrefetchMaxAgeMs()) {
+			return Optional.empty();
+		}
+		ParallelRecallExecutor.StepResult<SchemaRecallResult> result = prefetch.future().join();
+		if (result.partial() || result.value() == null
+				|| !Objects.equals(result.value().datasourceId(), datasourceId)) {
+			return Optional.empty();
+		}
+		log.debug("Using prefetched schema recall for agent {}, datasource {}", agentId, datasourceId);
+		return Optional.of(result.value());
+	}
+
+	public SchemaRecallResult recall(Long datasourceId, String query) {
+		List<Document> tableDocuments = new ArrayList<>(schemaService.getTableDocumentsByDatasource(datasourceId, query));
+		List<String> tableNames = extractTableNames(tableDocuments);
+		List<Document> columnDocuments = schemaService.getColumnDocumentsByTableName(datasourceId, tableNames);
+		return new SchemaRecallResult(datasourceId, tableDocuments, tableNames, columnDocuments);
+	}
+
+	private static List<String> extractTableNames(List<Document> tableDocuments) {
+		List<String> tableNames = new ArrayList<>();
+		// metadata中的name字段
+		for (Document document : tableDocuments) {
+			String name = (String) document.getMetadata().get(DocumentMetadataConstant.NAME);
+			if (name != null && !name.isEmpty()) {
+				tableNames.add(name);
+			}
+		}
+		log.info("Recall tables are: {}", tableNames);
+		return tableNames;
+	}
+
+	public record SchemaRecallResult(Long datasourceId, List<Document> tableDocuments, List<String> tableNames,
+			List<Document> columnDocuments) {
+	}
+
+	private record Prefetch(long startedAt,
+			CompletableFuture<ParallelRecallExecutor.StepResult<SchemaRecallResult>> future) {
+	}
+
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.schema;
+
+import com.touhouqing.datasentry.bo.schema.ColumnInfoBO;
+import com.touhouqing.datasentry.bo.schema.TableInfoBO;
+import com.touhouqing.datasentry.entity.SchemaTableFingerprint;
+import com.touhouqing.datasentry.mapper.SchemaTableFingerprintMapper;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * 表结构指纹服务。指纹只覆盖影响向量文档内容的部分：表描述、列定义和相关外键，不包含样本数据，
+ * 据此比对出新增、删除、变更和未变更的表，供 Schema 增量刷新使用。
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class SchemaFingerprintService {
+
+	private final SchemaTableFingerprintMapper fingerprintMapper;
+
+	/**
+	 * 计算当前表结构的指纹并与已持久化的指纹比对
+	 * @param datasourceId 数据源ID
+	 * @param tables 当前表列表
+	 * @param tableColumnsMap 表名到列信息的映射
+	 * @param foreignKeyMap 表名到外键关系的映射
+	 * @return 比对结果
+	 */
+	public SchemaDiff diff(Long datasourceId, List<TableInfoBO> tables, Map<String, List<ColumnInfoBO>> tableColumnsMap,
+			Map<String, List<String>> foreignKeyMap) {
+		Map<String, SchemaTableFingerprint> stored = new HashMap<>();
+		for (SchemaTableFingerprint fingerprint : fingerprintMapper.selectByDatasourceId(datasourceId)) {
+			stored.put(fingerprint.getTableName(), fingerprint);
+		}
+
+		List<String> added = new ArrayList<>();
+		List<String> changed = new ArrayList<>();
+		List<String> unchanged = new ArrayList<>();
+		Map<String, SchemaTableFingerprint> current = new LinkedHashMap<>();
+		for (TableInfoBO table : tables) {
+			SchemaTableFingerprint fingerprint = fingerprint(datasourceId, table,
+					tableColumnsMap.getOrDefault(table.getName(), List.of()),
+					foreignKeyMap.getOrDefault(table.getName(), List.of()));
+			current.put(table.getName(), fingerprint);
+			SchemaTableFingerprint previous = stored.get(table.getName());
+			if (previous == null) {
+				added.add(table.getName());
+			}
+			else if (Objects.equals(previous.getColumnHash(), fingerprint.getColumnHash())
+					&& Objects.equals(previous.getForeignKeyHash(), fingerprint.getForeignKeyHash())) {
+				unchanged.add(table.getName());
+			}
+			else {
+				changed.add(table.getName());
+			}
+		}
+		List<String> dropped = stored.keySet().stream().filter(name -> !current.containsKey(name)).sorted().toList();
+		return new SchemaDiff(stored.isEmpty(), added, changed, dropped, unchanged, current);
+	}
+
+	/**
+	 * 在重建向量文档之前调用，先移除待刷新和已删除表的指纹，刷新中途失败时下次会按新增表重建
+	 */
+	public void invalidate(Long datasourceId, SchemaDiff diff) {
+		if (diff.initial()) {
+			fingerprintMapper.deleteByDatasourceId(datasourceId);
+			return;
+		}
+		List<String> tableNames = new ArrayList<>(diff.refreshTables());
+		tableNames.addAll(diff.dropped());
+		if (!tableNames.isEmpty()) {
+			fingerprintMapper.deleteByTableNames(datasourceId, tableNames);
+		}
+	}
+
+	/**
+	 * 向量文档写入成功后保存刷新表的指纹。invalidate 与 commit 之间同一数据源可能有另一次刷新先写入指纹，
+	 * 因此按唯一键覆盖写入，以最后一次完成的刷新为准
+	 */
+	public void commit(Long datasourceId, SchemaDiff diff) {
+		for (String tableName : diff.refreshTables()) {
+			SchemaTableFingerprint fingerprint = diff.fingerprints().get(tableName);
+			if (fingerprint != null) {
+				fingerprintMapper.upsert(fingerprint);
+			}
+		}
+		log.debug("Committed {} schema fingerprints for datasource: {}", diff.refreshTables().size(), datasourceId);
+	}
+
+	public void clear(Long datasourceId) {
+		fingerprintMapper.deleteByDatasourceId(datasourceId);
+	}
+
+	static SchemaTableFingerprint fingerprint(Long datasourceId, TableInfoBO table, List<ColumnInfoBO> columns,
+			List<String> foreignKeys) {
+		StringBuilder columnSource = new StringBuilder();
+		columnSource.append(Objects.toString(table.getSchema(), ""))
+			.append('\u0001')
+			.append(Objects.toString(table.getDescription(), ""))
+			.append('\u0002');
+		columns.stream()
+			.sorted(Comparator.comparing(column -> Objects.toString(column.getName(), "")))
+			.forEach(column -> columnSource.append(Objects.toString(column.getName(), ""))
+				.append('\u0001')
+				.append(Objects.toString(column.getType(), ""))
+				.append('\u0001')
+				.append(column.isPrimary())
+				.append('\u0001')
+				.append(column.isNotnull())
+				.append('\u0001')
+				.append(Objects.toString(column.getDescription(), ""))
+				.append('\u0002'));
+		String foreignKeySource = String.join("\u0002", new TreeSet<>(foreignKeys));
+		return SchemaTableFingerprint.builder()
+			.datasourceId(datasourceId)
+			.tableName(table.getName())
+			.columnHash(sha256(columnSource.toString()))
+			.foreignKeyHash(sha256(foreignKeySource))
+			.columnCount(columns.size())
+			.build();
+	}
+
+	private static String sha256(String source) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	/**
+	 * 表结构比对结果
+	 * @param initial 该数据源此前没有任何指纹，需要全量重建
+	 * @param added 新增的表
+	 * @param changed 列定义或外键发生变化的表
+	 * @param dropped 已不存在的表
+	 * @param unchanged 未变化的表
+	 * @param fingerprints 当前所有表的指纹
+	 */
+	public record SchemaDiff(boolean initial, List<String> added, List<String> changed, List<String> dropped,
+			List<String> unchanged, Map<String, SchemaTableFingerprint> fingerprints) {
+
+		public List<String> refreshTables() {
+			List<String> tables = new ArrayList<>(added);
+			tables.addAll(changed);
+			return tables;
+		}
+
+		public boolean hasChanges() {
+			return initial || !added.isEmpty() || !changed.isEmpty() || !dropped.isEmpty();
+		}
+
+		/**
+		 * 将未变更表中的指定表改为变更表，例如向量库中已丢失其文档
+		 */
+		public SchemaDiff promoteToChanged(Collection<String> tableNames) {
+			if (tableNames.isEmpty()) {
+				return this;
+			}
+			List<String> promotedChanged = new ArrayList<>(changed);
+			List<String> remaining = new ArrayList<>();
+			for (String table : unchanged) {
+				if (tableNames.contains(table)) {
+					promotedChanged.add(table);
+				}
+				else {
+					remaining.add(table);
+				}
+			}
+			return new SchemaDiff(initial, added, promotedChanged, dropped, remaining, fingerprints);
+		}
+
+	}
+
+}
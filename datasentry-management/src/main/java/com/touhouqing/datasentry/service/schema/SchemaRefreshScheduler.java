@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.schema;
+
+import com.touhouqing.datasentry.bo.DbConfigBO;
+import com.touhouqing.datasentry.cleaning.context.AiCostContextHolder;
+import com.touhouqing.datasentry.dto.datasource.SchemaInitRequest;
+import com.touhouqing.datasentry.entity.AgentDatasource;
+import com.touhouqing.datasentry.entity.Datasource;
+import com.touhouqing.datasentry.mapper.AgentDatasourceMapper;
+import com.touhouqing.datasentry.mapper.AgentDatasourceTablesMapper;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.service.datasource.DatasourceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 后台周期性比对已启用数据源的表结构，只对新增、删除或变更的表重新补全元数据并重新向量化
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SchemaRefreshScheduler {
+
+	private final DataSentryProperties dataSentryProperties;
+
+	private final AgentDatasourceMapper agentDatasourceMapper;
+
+	private final AgentDatasourceTablesMapper tablesMapper;
+
+	private final DatasourceService datasourceService;
+
+	private final SchemaService schemaService;
+
+	@Scheduled(fixedDelayString = "${spring.ai.alibaba.datasentry.schema-refresh.interval-ms:3600000}",
+			initialDelayString = "${spring.ai.alibaba.datasentry.schema-refresh.initial-delay-ms:300000}")
+	public void refreshSchemas() {
+		if (!dataSentryProperties.getSchemaRefresh().isEnabled()) {
+			return;
+		}
+		// 同一数据源可能被多个智能体选用，向量文档按数据源存储，因此合并各智能体选中的表后统一比对
+		Map<Long, Set<String>> tablesByDatasource = new LinkedHashMap<>();
+		Map<Long, Long> agentByDatasource = new HashMap<>();
+		for (AgentDatasource agentDatasource : agentDatasourceMapper.selectAllActive()) {
+			List<String> tables = tablesMapper.getAgentDatasourceTables(agentDatasource.getId());
+			if (tables == null || tables.isEmpty()) {
+				continue;
+			}
+			tablesByDatasource.computeIfAbsent(agentDatasource.getDatasourceId(), k -> new LinkedHashSet<>())
+				.addAll(tables);
+			agentByDatasource.putIfAbsent(agentDatasource.getDatasourceId(), agentDatasource.getAgentId());
+		}
+		if (tablesByDatasource.isEmpty()) {
+			return;
+		}
+		log.info("Starting periodic schema diff for {} datasources", tablesByDatasource.size());
+		for (Map.Entry<Long, Set<String>> entry : tablesByDatasource.entrySet()) {
+			try {
+				refreshDatasource(entry.getKey(), new ArrayList<>(entry.getValue()),
+						agentByDatasource.get(entry.getKey()));
+			}
+			catch (Exception e) {
+				// 单个数据源失败不影响其他数据源，等下个周期再试
+				log.error("Periodic schema diff failed for datasource: {}", entry.getKey(), e);
+			}
+		}
+	}
+
+	private void refreshDatasource(Long datasourceId, List<String> tables, Long agentId) throws Exception {
+		Datasource datasource = datasourceService.getDatasourceById(datasourceId);
+		if (datasource == null) {
+			log.warn("Skip periodic schema diff, datasource not found: {}", datasourceId);
+			return;
+		}
+		DbConfigBO dbConfig = datasourceService.getDbConfig(datasource);
+		SchemaInitRequest schemaInitRequest = new SchemaInitRequest();
+		schemaInitRequest.setDbConfig(dbConfig);
+		schemaInitRequest.setTables(tables);
+		try {
+			// 记录向量化产生的 Embedding 成本
+			AiCostContextHolder.setContext(UUID.randomUUID().toString(), agentId);
+			schemaService.schema(datasourceId, schemaInitRequest);
+		}
+		finally {
+			AiCostContextHolder.clearContext();
+		}
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package com.touhouqing.datasentry.service.schema;
 
+import com.touhouqing.datasentry.bo.schema.ColumnInfoBO;
 import com.touhouqing.datasentry.connector.DbQueryParameter;
 import com.touhouqing.datasentry.bo.schema.ForeignKeyInfoBO;
 import com.touhouqing.datasentry.bo.schema.TableInfoBO;
@@ -76,6 +77,8 @@ public class SchemaServiceImpl implements SchemaService {
 
 	private final DataSentryProperties dataAgentProperties;
 
+	private final SchemaFingerprintService schemaFingerprintService;
+
 	/**
 	 * Vector storage service
 	 */
@@ -138,11 +141,6 @@ public class SchemaServiceImpl implements SchemaService {
 			// 根据当前DbConfig获取Accessor
 			Accessor dbAccessor = accessorFactory.getAccessorByDbConfig(config);
 
-			// 清理旧数据
-			log.info("Clearing existing schema data for datasource: {}", datasourceId);
-			clearSchemaDataForDatasource(datasourceId);
-			log.debug("Successfully cleared existing schema data for datasource: {}", datasourceId);
-
 			// 处理外键
 			log.debug("Fetching foreign keys for datasource: {}", datasourceId);
 			List<ForeignKeyInfoBO> foreignKeys = dbAccessor.showForeignKeys(config, dqp);
@@ -154,29 +152,62 @@ public class SchemaServiceImpl implements SchemaService {
 			// 处理表和列
 			log.debug("Fetching tables for datasource: {}", datasourceId);
 			List<TableInfoBO> tables = dbAccessor.fetchTables(config, dqp);
-			log.info("Found  tables for datasource: {}", tables.size(), datasourceId);
+			log.info("Found {} tables for datasource: {}", tables.size(), datasourceId);
+
+			// 先只取列定义计算指纹，样本数据和向量化只针对新增或变更的表
+			Map<String, List<ColumnInfoBO>> tableColumnsMap = tableMetadataService.fetchTableColumns(tables, config);
+			SchemaFingerprintService.SchemaDiff diff = schemaFingerprintService.diff(datasourceId, tables,
+					tableColumnsMap, foreignKeyMap);
+			diff = promoteTablesMissingDocuments(datasourceId, diff);
+			log.info("Schema diff for datasource: {}, initial: {}, added: {}, changed: {}, dropped: {}, unchanged: {}",
+					datasourceId, diff.initial(), diff.added().size(), diff.changed().size(), diff.dropped().size(),
+					diff.unchanged().size());
+			if (!diff.hasChanges()) {
+				log.info("Schema unchanged for datasource: {}, skip enrichment and embedding", datasourceId);
+				return true;
+			}
 
-			if (tables.size() > 5) {
-				// 对于大量表，使用并行处理
-				log.info("Processing {} tables in parallel mode for datasource: {}", tables.size(), datasourceId);
-				processTablesInParallel(tables, config, foreignKeyMap);
+			// 清理旧数据
+			schemaFingerprintService.invalidate(datasourceId, diff);
+			if (diff.initial()) {
+				log.info("Clearing existing schema data for datasource: {}", datasourceId);
+				clearSchemaDataForDatasource(datasourceId);
 			}
 			else {
+				List<String> staleTables = new ArrayList<>(diff.refreshTables());
+				staleTables.addAll(diff.dropped());
+				log.info("Clearing schema data of {} tables for datasource: {}", staleTables.size(), datasourceId);
+				clearSchemaDataForTables(datasourceId, staleTables);
+			}
+			log.debug("Successfully cleared stale schema data for datasource: {}", datasourceId);
+
+			Set<String> refreshTableNames = new HashSet<>(diff.refreshTables());
+			List<TableInfoBO> refreshTables = tables.stream()
+				.filter(table -> refreshTableNames.contains(table.getName()))
+				.toList();
+			if (refreshTables.size() > 5) {
+				// 对于大量表，使用并行处理
+				log.info("Processing {} tables in parallel mode for datasource: {}", refreshTables.size(),
+						datasourceId);
+				processTablesInParallel(refreshTables, config, foreignKeyMap, tableColumnsMap);
+			}
+			else if (!refreshTables.isEmpty()) {
 				// 对于少量表，使用批量处理
-				log.info("Processing {} tables in batch mode for datasource: {}", tables.size(), datasourceId);
-				tableMetadataService.batchEnrichTableMetadata(tables, config, foreignKeyMap);
+				log.info("Processing {} tables in batch mode for datasource: {}", refreshTables.size(), datasourceId);
+				tableMetadataService.batchEnrichTableMetadata(refreshTables, config, foreignKeyMap, tableColumnsMap);
 			}
 
 			log.info("Successfully processed all tables for datasource: {}", datasourceId);
 
 			// 转换为文档
-			List<Document> columnDocs = convertColumnsToDocuments(datasourceId, tables);
-			List<Document> tableDocs = convertTablesToDocuments(datasourceId, tables);
+			List<Document> columnDocs = convertColumnsToDocuments(datasourceId, refreshTables);
+			List<Document> tableDocs = convertTablesToDocuments(datasourceId, refreshTables);
 
 			// 存储文档
-			log.info("Storing  columns and {} tables for datasource: {}", columnDocs.size(), tableDocs.size(),
+			log.info("Storing {} columns and {} tables for datasource: {}", columnDocs.size(), tableDocs.size(),
 					datasourceId);
 			storeSchemaDocuments(datasourceId, columnDocs, tableDocs);
+			schemaFingerprintService.commit(datasourceId, diff);
 			log.info("Successfully stored all documents for datasource: {}", datasourceId);
 			return true;
 		}
@@ -191,10 +222,12 @@ public class SchemaServiceImpl implements SchemaService {
 	 * @param tables 表列表
 	 * @param config 数据库配置
 	 * @param foreignKeyMap 外键映射
+	 * @param tableColumnsMap 已获取的表列信息
 	 * @throws Exception 处理失败时抛出异常
 	 */
 	private void processTablesInParallel(List<TableInfoBO> tables, DbConfigBO config,
-			Map<String, List<String>> foreignKeyMap) throws Exception {
+			Map<String, List<String>> foreignKeyMap, Map<String, List<ColumnInfoBO>> tableColumnsMap)
+			throws Exception {
 
 		// 根据CPU核心数确定并行度，但不超过表的数量
 		int parallelism = Math.min(Runtime.getRuntime().availableProcessors() * 2, tables.size());
@@ -211,7 +244,7 @@ public class SchemaServiceImpl implements SchemaService {
 				log.debug("Processing batch of {} tables", batch.size());
 
 				// 批量处理当前批次的表
-				tableMetadataService.batchEnrichTableMetadata(batch, config, foreignKeyMap);
+				tableMetadataService.batchEnrichTableMetadata(batch, config, foreignKeyMap, tableColumnsMap);
 				log.debug("Successfully processed batch of {} tables", batch.size());
 			}
 			catch (Exception e) {
@@ -283,6 +316,45 @@ public class SchemaServiceImpl implements SchemaService {
 		agentVectorStoreService.deleteDocumentsByMetadata(metadata);
 	}
 
+	/**
+	 * 删除指定表的表文档和列文档
+	 */
+	protected void clearSchemaDataForTables(Long datasourceId, List<String> tableNames) {
+		for (String tableName : tableNames) {
+			Map<String, Object> tableMetadata = new HashMap<>();
+			tableMetadata.put(Constant.DATASOURCE_ID, datasourceId.toString());
+			tableMetadata.put(DocumentMetadataConstant.VECTOR_TYPE, DocumentMetadataConstant.TABLE);
+			tableMetadata.put(DocumentMetadataConstant.NAME, tableName);
+			agentVectorStoreService.deleteDocumentsByMetadata(tableMetadata);
+
+			Map<String, Object> columnMetadata = new HashMap<>();
+			columnMetadata.put(Constant.DATASOURCE_ID, datasourceId.toString());
+			columnMetadata.put(DocumentMetadataConstant.VECTOR_TYPE, DocumentMetadataConstant.COLUMN);
+			columnMetadata.put(DocumentMetadataConstant.TABLE_NAME, tableName);
+			agentVectorStoreService.deleteDocumentsByMetadata(columnMetadata);
+		}
+	}
+
+	/**
+	 * 指纹未变化但向量库中已没有表文档的表（例如本地向量库文件丢失），改为按变更表重建
+	 */
+	private SchemaFingerprintService.SchemaDiff promoteTablesMissingDocuments(Long datasourceId,
+			SchemaFingerprintService.SchemaDiff diff) {
+		if (!dataAgentProperties.getSchemaRefresh().isVerifyVectorDocuments() || diff.unchanged().isEmpty()) {
+			return diff;
+		}
+		Set<String> storedTables = getTableDocuments(datasourceId, diff.unchanged()).stream()
+			.map(doc -> (String) doc.getMetadata().get(DocumentMetadataConstant.NAME))
+			.filter(Objects::nonNull)
+			.collect(Collectors.toSet());
+		List<String> missing = diff.unchanged().stream().filter(name -> !storedTables.contains(name)).toList();
+		if (!missing.isEmpty()) {
+			log.info("{} unchanged tables have no vector documents for datasource: {}, rebuilding them",
+					missing.size(), datasourceId);
+		}
+		return diff.promoteToChanged(missing);
+	}
+
 	@Override
 	public List<Document> getTableDocumentsByDatasource(Long datasourceId, String query) {
 		Assert.notNull(datasourceId, "datasourceId cannot be null");
@@ -57,13 +57,29 @@ public class TableMetadataService {
 
 		// 1. 批量获取所有表的列信息
 		Map<String, List<ColumnInfoBO>> tableColumnsMap = fetchTableColumns(tables, dbConfig);
+		batchEnrichTableMetadata(tables, dbConfig, foreignKeyMap, tableColumnsMap);
+	}
+
+	/**
+	 * 使用已获取的列信息批量处理表的元数据，避免增量刷新时重复查询列定义
+	 * @param tables 表列表
+	 * @param dbConfig 数据库配置
+	 * @param foreignKeyMap 外键映射
+	 * @param tableColumnsMap 表名到列信息的映射，需包含 tables 中的所有表
+	 */
+	public void batchEnrichTableMetadata(List<TableInfoBO> tables, DbConfigBO dbConfig,
+			Map<String, List<String>> foreignKeyMap, Map<String, List<ColumnInfoBO>> tableColumnsMap) {
+		Map<String, List<ColumnInfoBO>> scopedColumnsMap = new HashMap<>();
+		for (TableInfoBO table : tables) {
+			scopedColumnsMap.put(table.getName(), tableColumnsMap.getOrDefault(table.getName(), new ArrayList<>()));
+		}
 
 		// 2. 批量获取所有表的列样本数据
 		Map<String, Map<String, List<String>>> allTablesSampleData = batchGetSampleDataForTables(dbConfig,
-				tableColumnsMap);
+				scopedColumnsMap);
 
 		// 3. 处理每个表的元数据
-		enrichTablesWithMetadata(tables, tableColumnsMap, allTablesSampleData, foreignKeyMap);
+		enrichTablesWithMetadata(tables, scopedColumnsMap, allTablesSampleData, foreignKeyMap);
 	}
 
 	/**
@@ -73,7 +89,7 @@ public class TableMetadataService {
 	 * @return 表名到列信息的映射
 	 * @throws Exception 获取列信息失败时抛出异常
 	 */
-	private Map<String, List<ColumnInfoBO>> fetchTableColumns(List<TableInfoBO> tables, DbConfigBO dbConfig)
+	public Map<String, List<ColumnInfoBO>> fetchTableColumns(List<TableInfoBO> tables, DbConfigBO dbConfig)
 			throws Exception {
 		Map<String, List<ColumnInfoBO>> tableColumnsMap = new HashMap<>();
 		Accessor accessor = accessorFactory.getAccessorByDbConfig(dbConfig);
@@ -20,6 +20,7 @@ import com.touhouqing.datasentry.constant.DocumentMetadataConstant;
 import com.touhouqing.datasentry.properties.DataSentryProperties;
 import com.touhouqing.datasentry.dto.search.AgentSearchRequest;
 import com.touhouqing.datasentry.dto.search.HybridSearchRequest;
+import com.touhouqing.datasentry.service.hybrid.keyword.LocalKeywordIndex;
 import com.touhouqing.datasentry.service.hybrid.retrieval.HybridRetrievalStrategy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
@@ -48,13 +49,20 @@ public class AgentVectorStoreServiceImpl implements AgentVectorStoreService {
 
 	private final DynamicFilterService dynamicFilterService;
 
+	private final LocalKeywordIndex keywordIndex;
+
+	private final VectorDocumentMetadataIndex metadataIndex;
+
 	public AgentVectorStoreServiceImpl(VectorStore vectorStore,
 			Optional<HybridRetrievalStrategy> hybridRetrievalStrategy, DataSentryProperties dataAgentProperties,
-			DynamicFilterService dynamicFilterService) {
+			DynamicFilterService dynamicFilterService, LocalKeywordIndex keywordIndex,
+			VectorDocumentMetadataIndex metadataIndex) {
 		this.vectorStore = vectorStore;
 		this.hybridRetrievalStrategy = hybridRetrievalStrategy;
 		this.dataAgentProperties = dataAgentProperties;
 		this.dynamicFilterService = dynamicFilterService;
+		this.keywordIndex = keywordIndex;
+		this.metadataIndex = metadataIndex;
 		log.info("VectorStore type: {}", vectorStore.getClass().getSimpleName());
 	}
 
@@ -129,6 +137,13 @@ public class AgentVectorStoreServiceImpl implements AgentVectorStoreService {
 			}
 		}
 		vectorStore.add(documents);
+		if (vectorStore instanceof SimpleVectorStore) {
+			metadataIndex.add(documents);
+		}
+		// 向量库写入成功后同步更新本地关键词索引
+		if (keywordIndex.isActive()) {
+			keywordIndex.add(documents);
+		}
 	}
 
 	@Override
@@ -137,11 +152,12 @@ public class AgentVectorStoreServiceImpl implements AgentVectorStoreService {
 		String filterExpression = buildFilterExpressionString(metadata);
 
 		if (vectorStore instanceof SimpleVectorStore) {
-			batchDelDocumentsWithFilter(filterExpression);
+			deleteFromSimpleVectorStore(metadata, filterExpression);
 		}
 		else {
 			vectorStore.delete(filterExpression);
 		}
+		deleteFromKeywordIndex(filterExpression);
 
 		return true;
 	}
@@ -157,15 +173,38 @@ public class AgentVectorStoreServiceImpl implements AgentVectorStoreService {
 		// es的可以直接元数据删除
 		if (vectorStore instanceof SimpleVectorStore) {
 			// 目前SimpleVectorStore不支持通过元数据删除，使用会抛出UnsupportedOperationException,现在是通过id删除
-			batchDelDocumentsWithFilter(filterExpression);
+			deleteFromSimpleVectorStore(metadata, filterExpression);
 		}
 		else {
 			vectorStore.delete(filterExpression);
 		}
+		deleteFromKeywordIndex(filterExpression);
 
 		return true;
 	}
 
+	private void deleteFromKeywordIndex(String filterExpression) {
+		if (keywordIndex.isActive()) {
+			keywordIndex.delete(filterExpression);
+		}
+	}
+
+	/**
+	 * 条件全部落在元数据索引字段上时直接按索引命中的 ID 精确删除，否则退回分批检索删除
+	 */
+	private void deleteFromSimpleVectorStore(Map<String, Object> metadata, String filterExpression) {
+		if (!metadataIndex.supports(metadata)) {
+			batchDelDocumentsWithFilter(filterExpression);
+			return;
+		}
+		List<String> ids = metadataIndex.find(metadata);
+		if (!ids.isEmpty()) {
+			vectorStore.delete(ids);
+			metadataIndex.remove(ids);
+		}
+		log.info("Deleted {} documents by metadata index with filter expression: {}", ids.size(), filterExpression);
+	}
+
 	private void batchDelDocumentsWithFilter(String filterExpression) {
 		Set<String> seenDocumentIds = new HashSet<>();
 		// 分批获取，因为Milvus等向量数据库的topK有限制
@@ -196,6 +235,7 @@ public class AgentVectorStoreServiceImpl implements AgentVectorStoreService {
 			// 删除这批新文档
 			if (!idsToDelete.isEmpty()) {
 				vectorStore.delete(idsToDelete);
+				metadataIndex.remove(idsToDelete);
 				totalDeleted += idsToDelete.size();
 			}
 
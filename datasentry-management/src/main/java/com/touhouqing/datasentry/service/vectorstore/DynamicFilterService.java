@@ -17,29 +17,93 @@ package com.touhouqing.datasentry.service.vectorstore;
 
 import com.touhouqing.datasentry.constant.Constant;
 import com.touhouqing.datasentry.constant.DocumentMetadataConstant;
+import com.touhouqing.datasentry.event.AgentKnowledgeChangedEvent;
 import com.touhouqing.datasentry.mapper.AgentKnowledgeMapper;
 import com.touhouqing.datasentry.mapper.BusinessKnowledgeMapper;
-import lombok.AllArgsConstructor;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.vectorstore.filter.Filter;
 import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Component
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class DynamicFilterService {
 
 	private final AgentKnowledgeMapper agentKnowledgeMapper;
 
 	private final BusinessKnowledgeMapper businessKnowledgeMapper;
 
+	private final DataSentryProperties dataSentryProperties;
+
+	/**
+	 * agentId -> vectorType -> 过滤条件，整个智能体的条目随知识变更一起失效
+	 */
+	private final Map<String, Map<String, CachedFilter>> filterCache = new ConcurrentHashMap<>();
+
+	/**
+	 * agentId -> 失效代数，知识变更时递增，旧代数下查出的过滤条件不再写回缓存
+	 */
+	private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+	/**
+	 * 构建智能体检索的动态过滤条件，返回 null 表示该类型下没有需要召回的文档。
+	 * 结果按智能体缓存，同一轮对话的多次检索不再重复查询数据库
+	 */
 	public Filter.Expression buildDynamicFilter(String agentId, String vectorType) {
+		long ttlMillis = dataSentryProperties.getVectorStore().getDynamicFilterCacheTtlSeconds() * 1000L;
+		if (ttlMillis <= 0) {
+			return loadDynamicFilter(agentId, vectorType);
+		}
+		long now = System.currentTimeMillis();
+		Map<String, CachedFilter> agentFilters = filterCache.get(agentId);
+		CachedFilter cached = agentFilters == null ? null : agentFilters.get(vectorType);
+		if (cached != null && now - cached.loadedAt() < ttlMillis) {
+			return cached.expression();
+		}
+		long generation = generations.computeIfAbsent(agentId, key -> 0L);
+		Filter.Expression expression = loadDynamicFilter(agentId, vectorType);
+		synchronized (this) {
+			// 查询期间知识已变更时，查出的可能是旧数据，本次照常返回但不写回缓存
+			if (generation == generations.get(agentId)) {
+				filterCache.computeIfAbsent(agentId, key -> new ConcurrentHashMap<>())
+					.put(vectorType, new CachedFilter(expression, now));
+			}
+		}
+		return expression;
+	}
+
+	/**
+	 * 变更事务提交后再失效，避免并发检索在提交前读到旧数据并重新写回缓存；不在事务中发布时立即失效
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onAgentKnowledgeChanged(AgentKnowledgeChangedEvent event) {
+		evict(event.getAgentId());
+	}
+
+	public synchronized void evict(Long agentId) {
+		if (agentId != null) {
+			generations.merge(agentId.toString(), 1L, Long::sum);
+			filterCache.remove(agentId.toString());
+		}
+	}
+
+	public synchronized void evictAll() {
+		generations.replaceAll((agentId, generation) -> generation + 1);
+		filterCache.clear();
+	}
+
+	private Filter.Expression loadDynamicFilter(String agentId, String vectorType) {
 		FilterExpressionBuilder b = new FilterExpressionBuilder();
 		List<Filter.Expression> conditions = new ArrayList<>();
 
@@ -239,4 +303,7 @@ public class DynamicFilterService {
 		return combineWithAnd(conditions);
 	}
 
+	private record CachedFilter(Filter.Expression expression, long loadedAt) {
+	}
+
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.vectorstore;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.touhouqing.datasentry.util.JsonUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 流式读取 SimpleVectorStore 的序列化文件，只取 id、文本和元数据，跳过向量，供本地辅助索引初始化使用
+ */
+public final class SimpleVectorStoreFileReader {
+
+	private static final TypeReference<LinkedHashMap<String, Object>> METADATA_TYPE = new TypeReference<>() {
+	};
+
+	private SimpleVectorStoreFileReader() {
+	}
+
+	/**
+	 * @return 读取到的文档数，文件不存在时返回 0
+	 */
+	public static int read(Path file, Consumer<StoredDocument> consumer) throws IOException {
+		if (!Files.exists(file)) {
+			return 0;
+		}
+		int count = 0;
+		try (JsonParser parser = JsonUtil.getObjectMapper().getFactory().createParser(file.toFile())) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				return 0;
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String id = parser.currentName();
+				if (parser.nextToken() != JsonToken.START_OBJECT) {
+					parser.skipChildren();
+					continue;
+				}
+				String text = null;
+				Map<String, Object> metadata = Map.of();
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String field = parser.currentName();
+					parser.nextToken();
+					switch (field) {
+						case "id" -> id = parser.getValueAsString(id);
+						case "text", "content" -> text = parser.getValueAsString();
+						case "metadata" -> metadata = parser.readValueAs(METADATA_TYPE);
+						default -> parser.skipChildren();
+					}
+				}
+				consumer.accept(new StoredDocument(id, text, metadata));
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public record StoredDocument(String id, String text, Map<String, Object> metadata) {
+	}
+
+}
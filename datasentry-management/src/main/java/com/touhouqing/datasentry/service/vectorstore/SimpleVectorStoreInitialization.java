@@ -39,16 +39,20 @@ public class SimpleVectorStoreInitialization implements ApplicationRunner, Dispo
 
 	private final DataSentryProperties properties;
 
+	private final VectorDocumentMetadataIndex metadataIndex;
+
 	public void load() {
 		File file = new File(properties.getVectorStore().getFilePath());
 
 		if (!file.exists()) {
 			log.info("No locally serialized vector database file was found.");
+			metadataIndex.markReady();
 			return;
 		}
 
 		try {
 			vectorStore.load(file);
+			metadataIndex.rebuild(file.toPath());
 		}
 		catch (Throwable throwable) {
 			log.error("Failed to load the locally serialized vector database file.", throwable);
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.vectorstore;
+
+import com.touhouqing.datasentry.constant.Constant;
+import com.touhouqing.datasentry.constant.DocumentMetadataConstant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * SimpleVectorStore 的元数据二级索引：维护常用过滤字段（agentId、datasourceId、知识 ID、表名等）到文档 ID
+ * 的倒排表，使按元数据删除只需对命中文档做精确删除，不再反复执行全库相似度检索。
+ * 由 SimpleVectorStoreInitialization 在加载向量库后重建，之后由 AgentVectorStoreServiceImpl 增量维护。
+ */
+@Slf4j
+@Component
+public class VectorDocumentMetadataIndex {
+
+	/**
+	 * 参与索引的元数据字段，覆盖业务代码中所有按元数据删除的条件
+	 */
+	static final Set<String> INDEXED_KEYS = Set.of(Constant.AGENT_ID, Constant.DATASOURCE_ID,
+			DocumentMetadataConstant.VECTOR_TYPE, DocumentMetadataConstant.NAME, DocumentMetadataConstant.TABLE_NAME,
+			DocumentMetadataConstant.DB_AGENT_KNOWLEDGE_ID, DocumentMetadataConstant.DB_BUSINESS_TERM_ID);
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, Map<String, String>> documentKeys = new HashMap<>();
+
+	private final Map<String, Map<String, Set<String>>> postings = new HashMap<>();
+
+	private volatile boolean ready;
+
+	/**
+	 * 索引是否与向量库内容一致；向量库加载完成前为 false，此时调用方应退回全量扫描
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * 用 SimpleVectorStore 的序列化文件重建索引，文件不存在视为空库
+	 */
+	public void rebuild(Path file) {
+		lock.writeLock().lock();
+		try {
+			documentKeys.clear();
+			postings.clear();
+			int count = SimpleVectorStoreFileReader.read(file, document -> put(document.id(), document.metadata()));
+			ready = true;
+			log.info("Rebuilt vector document metadata index with {} documents", count);
+		}
+		catch (IOException e) {
+			ready = false;
+			log.error("Failed to rebuild vector document metadata index, metadata deletes fall back to scanning", e);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 向量库为空启动时直接标记可用
+	 */
+	public void markReady() {
+		ready = true;
+	}
+
+	public void add(List<Document> documents) {
+		lock.writeLock().lock();
+		try {
+			for (Document document : documents) {
+				put(document.getId(), document.getMetadata());
+			}
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Collection<String> ids) {
+		lock.writeLock().lock();
+		try {
+			ids.forEach(this::removeId);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 条件是否全部落在索引字段上且取值非空，只有这种情况下 {@link #find(Map)} 的结果才是精确的
+	 */
+	public boolean supports(Map<String, Object> metadata) {
+		return ready && metadata != null && !metadata.isEmpty()
+				&& metadata.entrySet()
+					.stream()
+					.allMatch(entry -> INDEXED_KEYS.contains(entry.getKey()) && entry.getValue() != null);
+	}
+
+	/**
+	 * 返回元数据全部等值匹配的文档 ID，从命中文档最少的条件开始求交集
+	 */
+	public List<String> find(Map<String, Object> metadata) {
+		lock.readLock().lock();
+		try {
+			List<Set<String>> candidates = new ArrayList<>(metadata.size());
+			for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+				Set<String> ids = postings.getOrDefault(entry.getKey(), Map.of())
+					.get(String.valueOf(entry.getValue()));
+				if (ids == null) {
+					return List.of();
+				}
+				candidates.add(ids);
+			}
+			candidates.sort(Comparator.comparingInt(Set::size));
+			List<String> result = new ArrayList<>();
+			for (String id : candidates.get(0)) {
+				boolean matched = true;
+				for (int i = 1; i < candidates.size() && matched; i++) {
+					matched = candidates.get(i).contains(id);
+				}
+				if (matched) {
+					result.add(id);
+				}
+			}
+			return result;
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return documentKeys.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void put(String id, Map<String, Object> metadata) {
+		removeId(id);
+		Map<String, String> keys = new HashMap<>();
+		if (metadata != null) {
+			for (String key : INDEXED_KEYS) {
+				Object value = metadata.get(key);
+				if (value != null) {
+					String normalized = String.valueOf(value);
+					keys.put(key, normalized);
+					postings.computeIfAbsent(key, k -> new HashMap<>())
+						.computeIfAbsent(normalized, v -> new HashSet<>())
+						.add(id);
+				}
+			}
+		}
+		documentKeys.put(id, keys);
+	}
+
+	private void removeId(String id) {
+		Map<String, String> keys = documentKeys.remove(id);
+		if (keys == null) {
+			return;
+		}
+		keys.forEach((key, value) -> {
+			Map<String, Set<String>> byValue = postings.get(key);
+			Set<String> ids = byValue.get(value);
+			ids.remove(id);
+			if (ids.isEmpty()) {
+				byValue.remove(value);
+			}
+		});
+	}
+
+}
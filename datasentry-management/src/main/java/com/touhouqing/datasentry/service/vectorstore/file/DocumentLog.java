@@ -0,0 +1,206 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.vectorstore.file;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.touhouqing.datasentry.util.JsonUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 只追加的文档日志，是文件向量库的提交点。每条记录为 [body 长度][body][CRC32]，body 以类型字节开头：
+ * ADD 包含序号、ID、元数据 JSON 和文本，DELETE 只包含 ID。回放时跳过文本解码，文本在返回结果时按偏移读取；
+ * 遇到截断或校验失败的尾部记录（写入中途崩溃）会截掉并从该位置继续追加。调用方负责并发控制。
+ */
+@Slf4j
+final class DocumentLog implements Closeable {
+
+	static final byte ADD = 1;
+
+	static final byte DELETE = 2;
+
+	private static final int MAX_RECORD_BYTES = 256 * 1024 * 1024;
+
+	private static final TypeReference<LinkedHashMap<String, Object>> METADATA_TYPE = new TypeReference<>() {
+	};
+
+	private final FileChannel channel;
+
+	private long size;
+
+	DocumentLog(Path path) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		this.size = channel.size();
+	}
+
+	/**
+	 * 顺序回放全部记录，返回有效记录数
+	 */
+	long replay(Consumer<Entry> consumer) throws IOException {
+		long offset = 0L;
+		long records = 0L;
+		long fileSize = channel.size();
+		DataInputStream input = new DataInputStream(
+				new BufferedInputStream(Channels.newInputStream(channel.position(0L)), 1 << 16));
+		while (offset < fileSize) {
+			byte[] body;
+			try {
+				int length = input.readInt();
+				if (length <= 0 || length > MAX_RECORD_BYTES || offset + 8L + length > fileSize) {
+					break;
+				}
+				body = new byte[length];
+				input.readFully(body);
+				int crc = input.readInt();
+				if (crc != crc32(body)) {
+					break;
+				}
+			}
+			catch (EOFException e) {
+				break;
+			}
+			consumer.accept(decode(offset, body, false));
+			offset += 8L + body.length;
+			records++;
+		}
+		if (offset < fileSize) {
+			log.warn("Truncating {} bytes of incomplete document log tail at offset {}", fileSize - offset, offset);
+			channel.truncate(offset);
+		}
+		size = offset;
+		return records;
+	}
+
+	long appendAdd(int ordinal, String id, String text, Map<String, Object> metadata) throws IOException {
+		byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+		byte[] metadataBytes = JsonUtil.getObjectMapper().writeValueAsBytes(metadata);
+		byte[] textBytes = text != null ? text.getBytes(StandardCharsets.UTF_8) : new byte[0];
+		ByteBuffer body = ByteBuffer
+			.allocate(1 + Integer.BYTES * 4 + idBytes.length + metadataBytes.length + textBytes.length);
+		body.put(ADD)
+			.putInt(ordinal)
+			.putInt(idBytes.length)
+			.put(idBytes)
+			.putInt(metadataBytes.length)
+			.put(metadataBytes)
+			.putInt(textBytes.length)
+			.put(textBytes);
+		return append(body.array());
+	}
+
+	void appendDelete(String id) throws IOException {
+		byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer body = ByteBuffer.allocate(1 + Integer.BYTES + idBytes.length);
+		body.put(DELETE).putInt(idBytes.length).put(idBytes);
+		append(body.array());
+	}
+
+	/**
+	 * 按 ADD 记录偏移读取文档文本
+	 */
+	String readText(long offset) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+		readFully(header, offset);
+		ByteBuffer body = ByteBuffer.allocate(header.flip().getInt());
+		readFully(body, offset + Integer.BYTES);
+		return decode(offset, body.array(), true).text();
+	}
+
+	void force() throws IOException {
+		channel.force(false);
+	}
+
+	long size() {
+		return size;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private long append(byte[] body) throws IOException {
+		ByteBuffer record = ByteBuffer.allocate(body.length + 8);
+		record.putInt(body.length).put(body).putInt(crc32(body)).flip();
+		long offset = size;
+		long position = offset;
+		while (record.hasRemaining()) {
+			position += channel.write(record, position);
+		}
+		size = position;
+		return offset;
+	}
+
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new EOFException("Unexpected end of document log at " + position);
+			}
+			position += read;
+		}
+	}
+
+	private Entry decode(long offset, byte[] body, boolean withText) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(body);
+		byte type = buffer.get();
+		if (type == DELETE) {
+			return new Entry(DELETE, offset, -1, readString(buffer), null, null);
+		}
+		if (type != ADD) {
+			throw new IOException("Unknown document log record type " + type + " at offset " + offset);
+		}
+		int ordinal = buffer.getInt();
+		String id = readString(buffer);
+		byte[] metadataBytes = new byte[buffer.getInt()];
+		buffer.get(metadataBytes);
+		Map<String, Object> metadata = JsonUtil.getObjectMapper().readValue(metadataBytes, METADATA_TYPE);
+		String text = withText ? readString(buffer) : null;
+		return new Entry(ADD, offset, ordinal, id, metadata, text);
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static int crc32(byte[] body) {
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		return (int) crc.getValue();
+	}
+
+	record Entry(byte type, long offset, int ordinal, String id, Map<String, Object> metadata, String text) {
+	}
+
+}
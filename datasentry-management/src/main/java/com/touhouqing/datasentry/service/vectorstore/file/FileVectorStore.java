@@ -0,0 +1,531 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.vectorstore.file;
+
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.util.JsonUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+/**
+ * 本地文件持久化的向量存储，通过 spring.ai.vectorstore.type=file 启用。
+ * <ul>
+ * <li>documents.log：追加写的文档日志（ADD/DELETE 记录带 CRC），重启时回放，损坏的尾部会被截断</li>
+ * <li>vectors.f32：按序号定长存放归一化向量，内存映射读取，检索时不反序列化整个存储</li>
+ * <li>hnsw.graph：HNSW 图快照，关闭时保存，启动时加载后只需补插快照之后的向量</li>
+ * </ul>
+ * 删除只写日志，向量槽位与图节点保留为墓碑；启动时墓碑占比超过 compactDeletedRatio 会整理出新一代目录，
+ * 再原子切换 store.json 中的代号。带元数据过滤的检索在 HNSW 结果不足 topK 时退化为精确扫描，保证结果完整。
+ */
+@Slf4j
+public class FileVectorStore implements VectorStore, AutoCloseable {
+
+	private static final String MANIFEST_FILE = "store.json";
+
+	private static final String LOG_FILE = "documents.log";
+
+	private static final String VECTOR_FILE = "vectors.f32";
+
+	private static final String GRAPH_FILE = "hnsw.graph";
+
+	private static final long HNSW_SEED = 42L;
+
+	private static final String DISTANCE_METADATA = "distance";
+
+	private final EmbeddingModel embeddingModel;
+
+	private final BatchingStrategy batchingStrategy;
+
+	private final DataSentryProperties.VectorStoreProperties.FileStore properties;
+
+	private final Path root;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, DocEntry> docsById = new HashMap<>();
+
+	private final List<DocEntry> byOrdinal = new ArrayList<>();
+
+	private final HnswIndex.Vectors vectorView = new HnswIndex.Vectors() {
+		@Override
+		public float[] vector(int node) {
+			return vectors.read(node);
+		}
+
+		@Override
+		public float similarity(float[] query, int node) {
+			return vectors.dot(query, node);
+		}
+	};
+
+	private int dimension;
+
+	private long generation;
+
+	private DocumentLog documentLog;
+
+	private MappedVectorFile vectors;
+
+	private HnswIndex index;
+
+	private int nextOrdinal;
+
+	public FileVectorStore(EmbeddingModel embeddingModel, BatchingStrategy batchingStrategy,
+			DataSentryProperties.VectorStoreProperties.FileStore properties) {
+		this.embeddingModel = embeddingModel;
+		this.batchingStrategy = batchingStrategy;
+		this.properties = properties;
+		this.root = Paths.get(properties.getDirectory()).toAbsolutePath().normalize();
+		try {
+			Files.createDirectories(root);
+			Manifest manifest = readManifest();
+			this.dimension = manifest.dimension();
+			this.generation = manifest.generation();
+			openGeneration();
+			if (shouldCompact()) {
+				compact();
+			}
+			buildIndex();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to open file vector store at " + root, e);
+		}
+		log.info("File vector store opened at {}, generation {}, {} live documents, {} vector slots", root,
+				generation, docsById.size(), nextOrdinal);
+	}
+
+	@Override
+	public void add(List<Document> documents) {
+		if (documents == null || documents.isEmpty()) {
+			return;
+		}
+		// 向量化在锁外完成，避免远程调用期间阻塞检索；经由带批次参数的接口，入库时多批次可由包装模型并发执行
+		List<Document> ordered = List.copyOf(documents);
+		List<float[]> embeddings = embeddingModel.embed(ordered, EmbeddingOptions.builder().build(),
+				batchingStrategy);
+		if (embeddings.size() != ordered.size()) {
+			throw new IllegalStateException(
+					"Embedding count " + embeddings.size() + " does not match document count " + ordered.size());
+		}
+		lock.writeLock().lock();
+		try {
+			ensureDimension(embeddings.get(0).length);
+			int firstOrdinal = nextOrdinal;
+			for (int i = 0; i < ordered.size(); i++) {
+				float[] embedding = embeddings.get(i);
+				if (embedding.length != dimension) {
+					throw new IllegalArgumentException(
+							"Embedding dimension " + embedding.length + " does not match store dimension " + dimension);
+				}
+				vectors.write(firstOrdinal + i, normalize(embedding));
+			}
+			if (properties.isFsyncOnWrite()) {
+				vectors.force();
+			}
+			// 向量先落盘再写日志：日志记录是文档生效的唯一依据，崩溃时未提交的槽位会被复用
+			for (Document document : ordered) {
+				Map<String, Object> metadata = new LinkedHashMap<>(document.getMetadata());
+				long offset = documentLog.appendAdd(nextOrdinal, document.getId(), document.getText(), metadata);
+				applyAdd(new DocEntry(document.getId(), nextOrdinal, offset, metadata));
+				index.add(nextOrdinal - 1, vectorView);
+			}
+			if (properties.isFsyncOnWrite()) {
+				documentLog.force();
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to add documents to file vector store", e);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void delete(List<String> idList) {
+		if (idList == null || idList.isEmpty()) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			deleteIds(idList);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void delete(Filter.Expression filterExpression) {
+		lock.writeLock().lock();
+		try {
+			List<String> ids = docsById.values()
+				.stream()
+				.filter(entry -> MetadataFilterEvaluator.matches(filterExpression, entry.metadata()))
+				.map(DocEntry::id)
+				.toList();
+			deleteIds(ids);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public List<Document> similaritySearch(SearchRequest request) {
+		float[] query = normalize(embeddingModel.embed(request.getQuery()));
+		int topK = request.getTopK();
+		Filter.Expression filter = request.getFilterExpression();
+		lock.readLock().lock();
+		try {
+			if (vectors == null || docsById.isEmpty() || topK <= 0) {
+				return List.of();
+			}
+			if (query.length != dimension) {
+				throw new IllegalArgumentException(
+						"Query dimension " + query.length + " does not match store dimension " + dimension);
+			}
+			IntPredicate accept = ordinal -> {
+				DocEntry entry = ordinal < byOrdinal.size() ? byOrdinal.get(ordinal) : null;
+				return entry != null && (filter == null || MetadataFilterEvaluator.matches(filter, entry.metadata()));
+			};
+			List<HnswIndex.ScoredNode> hits;
+			if ((long) topK * 4 >= docsById.size()) {
+				hits = exactSearch(query, topK, accept);
+			}
+			else {
+				int ef = filter == null ? Math.max(properties.getHnswEfSearch(), topK)
+						: Math.max(properties.getHnswEfSearch(), topK * properties.getFilterEfMultiplier());
+				hits = index.search(query, topK, ef, accept, vectorView);
+				if (filter != null && hits.size() < topK) {
+					hits = exactSearch(query, topK, accept);
+				}
+			}
+			return toDocuments(hits, request.getSimilarityThreshold());
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to read documents from file vector store", e);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 当前有效文档数
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return docsById.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 按写入顺序遍历当前有效文档（不含向量），供关键词索引等派生结构在启动时与存储对齐
+	 * @return 遍历的文档数
+	 */
+	public int forEachDocument(Consumer<Document> consumer) {
+		lock.readLock().lock();
+		try {
+			int visited = 0;
+			for (DocEntry entry : byOrdinal) {
+				if (entry == null) {
+					continue;
+				}
+				consumer.accept(Document.builder()
+					.id(entry.id())
+					.text(documentLog.readText(entry.offset()))
+					.metadata(new HashMap<>(entry.metadata()))
+					.build());
+				visited++;
+			}
+			return visited;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to read documents from file vector store", e);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void close() {
+		lock.writeLock().lock();
+		try {
+			if (vectors != null) {
+				index.save(generationDir().resolve(GRAPH_FILE), nextOrdinal);
+				vectors.close();
+				vectors = null;
+			}
+			if (documentLog != null) {
+				documentLog.force();
+				documentLog.close();
+				documentLog = null;
+			}
+		}
+		catch (IOException e) {
+			log.warn("Failed to close file vector store cleanly, the index will be rebuilt on next start", e);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void deleteIds(List<String> ids) {
+		try {
+			int deleted = 0;
+			for (String id : ids) {
+				DocEntry entry = docsById.remove(id);
+				if (entry == null) {
+					continue;
+				}
+				byOrdinal.set(entry.ordinal(), null);
+				documentLog.appendDelete(id);
+				deleted++;
+			}
+			if (deleted > 0 && properties.isFsyncOnWrite()) {
+				documentLog.force();
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to delete documents from file vector store", e);
+		}
+	}
+
+	private List<HnswIndex.ScoredNode> exactSearch(float[] query, int topK, IntPredicate accept) {
+		PriorityQueue<HnswIndex.ScoredNode> heap = new PriorityQueue<>(
+				Comparator.comparingDouble(HnswIndex.ScoredNode::score));
+		for (DocEntry entry : docsById.values()) {
+			if (!accept.test(entry.ordinal())) {
+				continue;
+			}
+			float score = vectors.dot(query, entry.ordinal());
+			if (heap.size() < topK) {
+				heap.add(new HnswIndex.ScoredNode(entry.ordinal(), score));
+			}
+			else if (score > heap.peek().score()) {
+				heap.poll();
+				heap.add(new HnswIndex.ScoredNode(entry.ordinal(), score));
+			}
+		}
+		List<HnswIndex.ScoredNode> results = new ArrayList<>(heap);
+		results.sort(Comparator.comparingDouble(HnswIndex.ScoredNode::score).reversed());
+		return results;
+	}
+
+	private List<Document> toDocuments(List<HnswIndex.ScoredNode> hits, double threshold) throws IOException {
+		List<Document> documents = new ArrayList<>(hits.size());
+		for (HnswIndex.ScoredNode hit : hits) {
+			if (threshold > 0 && hit.score() < threshold) {
+				continue;
+			}
+			DocEntry entry = byOrdinal.get(hit.node());
+			Map<String, Object> metadata = new HashMap<>(entry.metadata());
+			metadata.put(DISTANCE_METADATA, 1F - hit.score());
+			documents.add(Document.builder()
+				.id(entry.id())
+				.text(documentLog.readText(entry.offset()))
+				.metadata(metadata)
+				.score((double) hit.score())
+				.build());
+		}
+		return documents;
+	}
+
+	private void applyAdd(DocEntry entry) {
+		DocEntry previous = docsById.put(entry.id(), entry);
+		if (previous != null) {
+			byOrdinal.set(previous.ordinal(), null);
+		}
+		while (byOrdinal.size() <= entry.ordinal()) {
+			byOrdinal.add(null);
+		}
+		byOrdinal.set(entry.ordinal(), entry);
+		nextOrdinal = Math.max(nextOrdinal, entry.ordinal() + 1);
+	}
+
+	private void ensureDimension(int embeddingDimension) throws IOException {
+		if (dimension > 0) {
+			return;
+		}
+		dimension = embeddingDimension;
+		writeManifest(new Manifest(dimension, generation));
+		vectors = openVectors(generationDir());
+	}
+
+	private void openGeneration() throws IOException {
+		Path directory = generationDir();
+		Files.createDirectories(directory);
+		docsById.clear();
+		byOrdinal.clear();
+		nextOrdinal = 0;
+		documentLog = new DocumentLog(directory.resolve(LOG_FILE));
+		documentLog.replay(entry -> {
+			if (entry.type() == DocumentLog.ADD) {
+				applyAdd(new DocEntry(entry.id(), entry.ordinal(), entry.offset(), entry.metadata()));
+			}
+			else {
+				DocEntry removed = docsById.remove(entry.id());
+				if (removed != null) {
+					byOrdinal.set(removed.ordinal(), null);
+				}
+			}
+		});
+		if (dimension > 0) {
+			vectors = openVectors(directory);
+			vectors.mapSlots(nextOrdinal);
+		}
+	}
+
+	private boolean shouldCompact() {
+		return nextOrdinal > 0 && vectors != null
+				&& (double) (nextOrdinal - docsById.size()) / nextOrdinal > properties.getCompactDeletedRatio();
+	}
+
+	/**
+	 * 把有效文档按序号顺序复制到新一代目录，写完后切换清单并删除旧目录；切换前崩溃时旧目录保持不变
+	 */
+	private void compact() throws IOException {
+		long nextGeneration = generation + 1;
+		Path target = root.resolve(String.valueOf(nextGeneration));
+		deleteRecursively(target);
+		Files.createDirectories(target);
+		List<DocEntry> live = byOrdinal.stream().filter(entry -> entry != null).toList();
+		try (DocumentLog targetLog = new DocumentLog(target.resolve(LOG_FILE));
+				MappedVectorFile targetVectors = openVectors(target)) {
+			int ordinal = 0;
+			for (DocEntry entry : live) {
+				targetVectors.write(ordinal, vectors.read(entry.ordinal()));
+				targetLog.appendAdd(ordinal, entry.id(), documentLog.readText(entry.offset()), entry.metadata());
+				ordinal++;
+			}
+			targetVectors.force();
+			targetLog.force();
+		}
+		log.info("Compacted file vector store from {} to {} vector slots", nextOrdinal, live.size());
+		Path previous = generationDir();
+		documentLog.close();
+		vectors.close();
+		writeManifest(new Manifest(dimension, nextGeneration));
+		generation = nextGeneration;
+		deleteRecursively(previous);
+		openGeneration();
+	}
+
+	private void buildIndex() throws IOException {
+		Path graphFile = generationDir().resolve(GRAPH_FILE);
+		index = vectors != null ? HnswIndex.load(graphFile, properties.getHnswM(), properties.getHnswEfConstruction(),
+				HNSW_SEED, nextOrdinal) : null;
+		if (index == null) {
+			index = new HnswIndex(properties.getHnswM(), properties.getHnswEfConstruction(), HNSW_SEED);
+		}
+		int restored = index.size();
+		for (int ordinal = restored; ordinal < nextOrdinal; ordinal++) {
+			index.add(ordinal, vectorView);
+		}
+		if (nextOrdinal > restored) {
+			log.info("Inserted {} vectors into HNSW index after restoring {} from snapshot", nextOrdinal - restored,
+					restored);
+		}
+	}
+
+	private MappedVectorFile openVectors(Path directory) throws IOException {
+		return new MappedVectorFile(directory.resolve(VECTOR_FILE), dimension,
+				Math.max(1, properties.getMmapChunkMb()) * 1024 * 1024);
+	}
+
+	private Path generationDir() {
+		return root.resolve(String.valueOf(generation));
+	}
+
+	private Manifest readManifest() throws IOException {
+		Path manifestFile = root.resolve(MANIFEST_FILE);
+		if (!Files.exists(manifestFile)) {
+			return new Manifest(0, 0L);
+		}
+		return JsonUtil.getObjectMapper().readValue(manifestFile.toFile(), Manifest.class);
+	}
+
+	private void writeManifest(Manifest manifest) throws IOException {
+		Path manifestFile = root.resolve(MANIFEST_FILE);
+		Path temp = root.resolve(MANIFEST_FILE + ".tmp");
+		Files.write(temp, JsonUtil.getObjectMapper().writeValueAsBytes(manifest));
+		Files.move(temp, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static void deleteRecursively(Path directory) throws IOException {
+		if (!Files.exists(directory)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.deleteIfExists(path);
+			}
+		}
+	}
+
+	private static float[] normalize(float[] vector) {
+		double norm = 0D;
+		for (float value : vector) {
+			norm += value * value;
+		}
+		if (norm == 0D) {
+			return vector.clone();
+		}
+		float scale = (float) (1D / Math.sqrt(norm));
+		float[] normalized = new float[vector.length];
+		for (int i = 0; i < vector.length; i++) {
+			normalized[i] = vector[i] * scale;
+		}
+		return normalized;
+	}
+
+	private record DocEntry(String id, int ordinal, long offset, Map<String, Object> metadata) {
+	}
+
+	private record Manifest(int dimension, long generation) {
+	}
+
+}
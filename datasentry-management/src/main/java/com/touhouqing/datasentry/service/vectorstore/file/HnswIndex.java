@@ -0,0 +1,366 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.vectorstore.file;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+/**
+ * 基于内积（归一化向量上的余弦相似度）的 HNSW 近似最近邻索引。节点编号即向量序号，删除的文档保留为图中的
+ * 墓碑节点，仅在结果收集阶段通过 accept 过滤。邻居选择采用启发式裁剪以保持图的连通性。调用方负责并发控制：
+ * 写入需独占，查询可并发。
+ */
+final class HnswIndex {
+
+	private static final int SNAPSHOT_MAGIC = 0x484E5357;
+
+	private static final Comparator<ScoredNode> BY_SCORE = Comparator.comparingDouble(ScoredNode::score);
+
+	private final int m;
+
+	private final int maxConnectionsLevel0;
+
+	private final int efConstruction;
+
+	private final double levelMultiplier;
+
+	private final Random random;
+
+	private final List<Node> nodes = new ArrayList<>();
+
+	private int entryPoint = -1;
+
+	private int maxLevel = -1;
+
+	HnswIndex(int m, int efConstruction, long seed) {
+		this.m = Math.max(2, m);
+		this.maxConnectionsLevel0 = this.m * 2;
+		this.efConstruction = Math.max(efConstruction, this.m);
+		this.levelMultiplier = 1D / Math.log(this.m);
+		this.random = new Random(seed);
+	}
+
+	int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * 插入节点，节点编号须等于当前 size()
+	 */
+	void add(int node, Vectors vectors) {
+		if (node != nodes.size()) {
+			throw new IllegalArgumentException("HNSW nodes must be added in order, expected " + nodes.size());
+		}
+		int level = randomLevel();
+		nodes.add(new Node(level, m, maxConnectionsLevel0));
+		if (entryPoint < 0) {
+			entryPoint = node;
+			maxLevel = level;
+			return;
+		}
+		float[] vector = vectors.vector(node);
+		ScoredNode current = new ScoredNode(entryPoint, vectors.similarity(vector, entryPoint));
+		for (int l = maxLevel; l > level; l--) {
+			current = greedySearch(vector, current, l, vectors);
+		}
+		for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+			List<ScoredNode> candidates = searchLayer(vector, current, efConstruction, l, vectors, null);
+			int maxConnections = l == 0 ? maxConnectionsLevel0 : m;
+			List<ScoredNode> selected = selectNeighbors(candidates, m, vectors);
+			Node inserted = nodes.get(node);
+			for (ScoredNode neighbor : selected) {
+				inserted.link(l, neighbor.node());
+			}
+			for (ScoredNode neighbor : selected) {
+				connect(neighbor.node(), node, neighbor.score(), l, maxConnections, vectors);
+			}
+			current = candidates.get(0);
+		}
+		if (level > maxLevel) {
+			maxLevel = level;
+			entryPoint = node;
+		}
+	}
+
+	/**
+	 * 查询相似度最高的 k 个被 accept 接受的节点，按相似度降序返回
+	 */
+	List<ScoredNode> search(float[] query, int k, int ef, IntPredicate accept, Vectors vectors) {
+		if (entryPoint < 0 || k <= 0) {
+			return List.of();
+		}
+		ScoredNode current = new ScoredNode(entryPoint, vectors.similarity(query, entryPoint));
+		for (int l = maxLevel; l > 0; l--) {
+			current = greedySearch(query, current, l, vectors);
+		}
+		List<ScoredNode> results = searchLayer(query, current, Math.max(ef, k), 0, vectors, accept);
+		return results.size() > k ? new ArrayList<>(results.subList(0, k)) : results;
+	}
+
+	void save(Path path, int coveredNodes) throws IOException {
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+			int count = Math.min(coveredNodes, nodes.size());
+			output.writeInt(SNAPSHOT_MAGIC);
+			output.writeInt(m);
+			output.writeInt(count);
+			int savedEntry = entryPoint < count ? entryPoint : -1;
+			output.writeInt(savedEntry);
+			output.writeInt(savedEntry >= 0 ? maxLevel : -1);
+			for (int i = 0; i < count; i++) {
+				Node node = nodes.get(i);
+				output.writeByte(node.neighbors.length - 1);
+				for (int l = 0; l < node.neighbors.length; l++) {
+					output.writeShort(node.counts[l]);
+					for (int j = 0; j < node.counts[l]; j++) {
+						output.writeInt(node.neighbors[l][j]);
+					}
+				}
+			}
+		}
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * 从快照恢复图结构；快照参数不匹配或覆盖的节点多于 maxNodes 时返回 null，由调用方重建
+	 */
+	static HnswIndex load(Path path, int m, int efConstruction, long seed, int maxNodes) throws IOException {
+		if (!Files.exists(path)) {
+			return null;
+		}
+		try (DataInputStream input = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+			if (input.readInt() != SNAPSHOT_MAGIC) {
+				return null;
+			}
+			HnswIndex index = new HnswIndex(m, efConstruction, seed);
+			if (input.readInt() != index.m) {
+				return null;
+			}
+			int count = input.readInt();
+			if (count > maxNodes) {
+				return null;
+			}
+			int savedEntry = input.readInt();
+			int savedMaxLevel = input.readInt();
+			for (int i = 0; i < count; i++) {
+				int level = input.readUnsignedByte();
+				Node node = new Node(level, index.m, index.maxConnectionsLevel0);
+				for (int l = 0; l <= level; l++) {
+					int links = input.readUnsignedShort();
+					for (int j = 0; j < links; j++) {
+						node.link(l, input.readInt());
+					}
+				}
+				index.nodes.add(node);
+			}
+			index.entryPoint = savedEntry;
+			index.maxLevel = savedMaxLevel;
+			return index;
+		}
+	}
+
+	private void connect(int target, int newNeighbor, float score, int level, int maxConnections, Vectors vectors) {
+		Node node = nodes.get(target);
+		if (node.counts[level] < maxConnections) {
+			node.link(level, newNeighbor);
+			return;
+		}
+		// 邻居已满：在原邻居和新节点中重新做启发式选择
+		float[] targetVector = vectors.vector(target);
+		List<ScoredNode> candidates = new ArrayList<>(node.counts[level] + 1);
+		candidates.add(new ScoredNode(newNeighbor, score));
+		for (int i = 0; i < node.counts[level]; i++) {
+			int neighbor = node.neighbors[level][i];
+			candidates.add(new ScoredNode(neighbor, vectors.similarity(targetVector, neighbor)));
+		}
+		candidates.sort(BY_SCORE.reversed());
+		List<ScoredNode> selected = selectNeighbors(candidates, maxConnections, vectors);
+		node.counts[level] = 0;
+		for (ScoredNode neighbor : selected) {
+			node.link(level, neighbor.node());
+		}
+	}
+
+	/**
+	 * 启发式邻居选择：候选按相似度降序，只有当候选与查询点的相似度高于它与所有已选邻居的相似度时才保留，
+	 * 不足 limit 时用被裁掉的候选补齐
+	 */
+	private List<ScoredNode> selectNeighbors(List<ScoredNode> candidates, int limit, Vectors vectors) {
+		if (candidates.size() <= limit) {
+			return candidates;
+		}
+		List<ScoredNode> selected = new ArrayList<>(limit);
+		List<float[]> selectedVectors = new ArrayList<>(limit);
+		List<ScoredNode> pruned = new ArrayList<>();
+		for (ScoredNode candidate : candidates) {
+			if (selected.size() >= limit) {
+				break;
+			}
+			float[] candidateVector = vectors.vector(candidate.node());
+			boolean diverse = true;
+			for (float[] chosen : selectedVectors) {
+				if (dot(candidateVector, chosen) > candidate.score()) {
+					diverse = false;
+					break;
+				}
+			}
+			if (diverse) {
+				selected.add(candidate);
+				selectedVectors.add(candidateVector);
+			}
+			else {
+				pruned.add(candidate);
+			}
+		}
+		for (int i = 0; i < pruned.size() && selected.size() < limit; i++) {
+			selected.add(pruned.get(i));
+		}
+		return selected;
+	}
+
+	private ScoredNode greedySearch(float[] query, ScoredNode start, int level, Vectors vectors) {
+		ScoredNode best = start;
+		boolean improved = true;
+		while (improved) {
+			improved = false;
+			Node node = nodes.get(best.node());
+			if (level >= node.neighbors.length) {
+				break;
+			}
+			for (int i = 0; i < node.counts[level]; i++) {
+				int neighbor = node.neighbors[level][i];
+				float score = vectors.similarity(query, neighbor);
+				if (score > best.score()) {
+					best = new ScoredNode(neighbor, score);
+					improved = true;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * 单层束搜索。accept 为 null 时返回访问到的前 ef 个节点；否则遍历不受 accept 影响，只在结果中收集被接受的节点
+	 */
+	private List<ScoredNode> searchLayer(float[] query, ScoredNode start, int ef, int level, Vectors vectors,
+			IntPredicate accept) {
+		BitSet visited = new BitSet(nodes.size());
+		visited.set(start.node());
+		PriorityQueue<ScoredNode> candidates = new PriorityQueue<>(BY_SCORE.reversed());
+		PriorityQueue<ScoredNode> nearest = new PriorityQueue<>(BY_SCORE);
+		PriorityQueue<ScoredNode> accepted = accept != null ? new PriorityQueue<>(BY_SCORE) : nearest;
+		candidates.add(start);
+		nearest.add(start);
+		if (accept != null && accept.test(start.node())) {
+			accepted.add(start);
+		}
+		while (!candidates.isEmpty()) {
+			ScoredNode candidate = candidates.poll();
+			if (nearest.size() >= ef && candidate.score() < nearest.peek().score()) {
+				break;
+			}
+			Node node = nodes.get(candidate.node());
+			if (level >= node.neighbors.length) {
+				continue;
+			}
+			for (int i = 0; i < node.counts[level]; i++) {
+				int neighbor = node.neighbors[level][i];
+				if (visited.get(neighbor)) {
+					continue;
+				}
+				visited.set(neighbor);
+				float score = vectors.similarity(query, neighbor);
+				if (nearest.size() < ef || score > nearest.peek().score()) {
+					ScoredNode scored = new ScoredNode(neighbor, score);
+					candidates.add(scored);
+					nearest.add(scored);
+					if (nearest.size() > ef) {
+						nearest.poll();
+					}
+					if (accept != null && accept.test(neighbor)) {
+						accepted.add(scored);
+						if (accepted.size() > ef) {
+							accepted.poll();
+						}
+					}
+				}
+			}
+		}
+		List<ScoredNode> results = new ArrayList<>(accepted);
+		results.sort(BY_SCORE.reversed());
+		return results;
+	}
+
+	private int randomLevel() {
+		double value = 1D - random.nextDouble();
+		return Math.min((int) (-Math.log(value) * levelMultiplier), 31);
+	}
+
+	static float dot(float[] left, float[] right) {
+		float sum = 0F;
+		for (int i = 0; i < left.length; i++) {
+			sum += left[i] * right[i];
+		}
+		return sum;
+	}
+
+	interface Vectors {
+
+		float[] vector(int node);
+
+		float similarity(float[] query, int node);
+
+	}
+
+	record ScoredNode(int node, float score) {
+	}
+
+	private static final class Node {
+
+		private final int[][] neighbors;
+
+		private final int[] counts;
+
+		private Node(int level, int m, int maxConnectionsLevel0) {
+			this.neighbors = new int[level + 1][];
+			this.counts = new int[level + 1];
+			for (int l = 0; l <= level; l++) {
+				neighbors[l] = new int[l == 0 ? maxConnectionsLevel0 : m];
+			}
+		}
+
+		private void link(int level, int neighbor) {
+			neighbors[level][counts[level]++] = neighbor;
+		}
+
+	}
+
+}
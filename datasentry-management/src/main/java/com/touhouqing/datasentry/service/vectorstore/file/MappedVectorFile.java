@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.vectorstore.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 定长向量文件：第 n 个槽位存放序号为 n 的归一化向量，按固定大小分段做内存映射，读取时不复制到堆上。
+ * 槽位是否有效由文档日志决定，日志未提交的槽位会在下次写入时被覆盖。调用方负责并发控制。
+ */
+final class MappedVectorFile implements Closeable {
+
+	private final FileChannel channel;
+
+	private final int dimension;
+
+	private final int slotBytes;
+
+	private final int slotsPerChunk;
+
+	private final List<MappedByteBuffer> chunks = new ArrayList<>();
+
+	MappedVectorFile(Path path, int dimension, int chunkBytes) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		this.dimension = dimension;
+		this.slotBytes = dimension * Float.BYTES;
+		this.slotsPerChunk = Math.max(1, chunkBytes / slotBytes);
+	}
+
+	int dimension() {
+		return dimension;
+	}
+
+	void write(int ordinal, float[] vector) throws IOException {
+		MappedByteBuffer chunk = chunk(ordinal / slotsPerChunk);
+		int base = (ordinal % slotsPerChunk) * slotBytes;
+		for (int i = 0; i < dimension; i++) {
+			chunk.putFloat(base + i * Float.BYTES, vector[i]);
+		}
+	}
+
+	float[] read(int ordinal) {
+		MappedByteBuffer chunk = mappedChunk(ordinal);
+		int base = (ordinal % slotsPerChunk) * slotBytes;
+		float[] vector = new float[dimension];
+		for (int i = 0; i < dimension; i++) {
+			vector[i] = chunk.getFloat(base + i * Float.BYTES);
+		}
+		return vector;
+	}
+
+	/**
+	 * 查询向量与指定槽位向量的点积，两者均已归一化时即余弦相似度
+	 */
+	float dot(float[] query, int ordinal) {
+		MappedByteBuffer chunk = mappedChunk(ordinal);
+		int base = (ordinal % slotsPerChunk) * slotBytes;
+		float sum = 0F;
+		for (int i = 0; i < dimension; i++) {
+			sum += query[i] * chunk.getFloat(base + i * Float.BYTES);
+		}
+		return sum;
+	}
+
+	/**
+	 * 预先映射覆盖前 slotCount 个槽位的分段，打开已有文件时调用
+	 */
+	void mapSlots(int slotCount) throws IOException {
+		if (slotCount > 0) {
+			chunk((slotCount - 1) / slotsPerChunk);
+		}
+	}
+
+	void force() {
+		for (MappedByteBuffer chunk : chunks) {
+			chunk.force();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		force();
+		chunks.clear();
+		channel.close();
+	}
+
+	private MappedByteBuffer mappedChunk(int ordinal) {
+		int index = ordinal / slotsPerChunk;
+		if (index >= chunks.size()) {
+			throw new IllegalStateException("Vector slot is not mapped: " + ordinal);
+		}
+		return chunks.get(index);
+	}
+
+	private MappedByteBuffer chunk(int index) throws IOException {
+		long chunkBytes = (long) slotsPerChunk * slotBytes;
+		while (chunks.size() <= index) {
+			chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, chunks.size() * chunkBytes, chunkBytes));
+		}
+		return chunks.get(index);
+	}
+
+}
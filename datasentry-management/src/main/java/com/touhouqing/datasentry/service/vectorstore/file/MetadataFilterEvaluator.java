@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.vectorstore.file;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * 在文档元数据上求值 Spring AI 的过滤表达式，覆盖 DynamicFilterService 和 FilterExpressionTextParser 产生的
+ * AND/OR/NOT、比较、IN/NIN 表达式。数值按数值比较，其他类型按字符串比较，兼容元数据经 JSON 往返后 Long 变为 Integer 的情况。
+ */
+public final class MetadataFilterEvaluator {
+
+	private MetadataFilterEvaluator() {
+	}
+
+	public static boolean matches(Filter.Expression expression, Map<String, Object> metadata) {
+		if (expression == null) {
+			return true;
+		}
+		switch (expression.type()) {
+			case AND:
+				return evaluate(expression.left(), metadata) && evaluate(expression.right(), metadata);
+			case OR:
+				return evaluate(expression.left(), metadata) || evaluate(expression.right(), metadata);
+			case NOT:
+				return !evaluate(expression.left(), metadata);
+			case EQ:
+				return valueEquals(lookup(expression, metadata), value(expression));
+			case NE:
+				return !valueEquals(lookup(expression, metadata), value(expression));
+			case GT:
+				return compare(lookup(expression, metadata), value(expression), result -> result > 0);
+			case GTE:
+				return compare(lookup(expression, metadata), value(expression), result -> result >= 0);
+			case LT:
+				return compare(lookup(expression, metadata), value(expression), result -> result < 0);
+			case LTE:
+				return compare(lookup(expression, metadata), value(expression), result -> result <= 0);
+			case IN:
+				return containsValue(value(expression), lookup(expression, metadata));
+			case NIN:
+				return !containsValue(value(expression), lookup(expression, metadata));
+			default:
+				// ISNULL / ISNOTNULL 仅在较新的 Spring AI 版本中存在，按名称处理以兼容不同版本
+				String type = expression.type().name();
+				if ("ISNULL".equals(type)) {
+					return lookup(expression, metadata) == null;
+				}
+				if ("ISNOTNULL".equals(type)) {
+					return lookup(expression, metadata) != null;
+				}
+				throw new IllegalArgumentException("Unsupported filter expression type: " + type);
+		}
+	}
+
+	private static boolean evaluate(Filter.Operand operand, Map<String, Object> metadata) {
+		if (operand instanceof Filter.Expression expression) {
+			return matches(expression, metadata);
+		}
+		if (operand instanceof Filter.Group group) {
+			return matches(group.content(), metadata);
+		}
+		throw new IllegalArgumentException("Unsupported filter operand: " + operand);
+	}
+
+	private static Object lookup(Filter.Expression expression, Map<String, Object> metadata) {
+		if (!(expression.left() instanceof Filter.Key key)) {
+			throw new IllegalArgumentException("Filter comparison must have a key on the left: " + expression);
+		}
+		return metadata.get(unquote(key.key()));
+	}
+
+	private static Object value(Filter.Expression expression) {
+		if (expression.right() == null) {
+			return null;
+		}
+		if (!(expression.right() instanceof Filter.Value value)) {
+			throw new IllegalArgumentException("Filter comparison must have a value on the right: " + expression);
+		}
+		return value.value();
+	}
+
+	private static String unquote(String key) {
+		if (key.length() >= 2) {
+			char first = key.charAt(0);
+			char last = key.charAt(key.length() - 1);
+			if ((first == '\'' || first == '"' || first == '`') && first == last) {
+				return key.substring(1, key.length() - 1);
+			}
+		}
+		return key;
+	}
+
+	private static boolean containsValue(Object candidates, Object actual) {
+		Collection<?> values = candidates instanceof Collection<?> collection ? collection
+				: candidates instanceof Object[] array ? List.of(array) : List.of(candidates);
+		for (Object candidate : values) {
+			if (valueEquals(actual, candidate)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static boolean valueEquals(Object actual, Object expected) {
+		if (actual == null || expected == null) {
+			return actual == expected;
+		}
+		if (actual instanceof Number left && expected instanceof Number right) {
+			return toDecimal(left).compareTo(toDecimal(right)) == 0;
+		}
+		return String.valueOf(actual).equals(String.valueOf(expected));
+	}
+
+	private static boolean compare(Object actual, Object expected, IntPredicate condition) {
+		if (actual == null || expected == null) {
+			// 缺失字段不满足任何大小比较
+			return false;
+		}
+		if (actual instanceof Number left && expected instanceof Number right) {
+			return condition.test(toDecimal(left).compareTo(toDecimal(right)));
+		}
+		return condition.test(String.valueOf(actual).compareTo(String.valueOf(expected)));
+	}
+
+	private static BigDecimal toDecimal(Number number) {
+		return number instanceof BigDecimal decimal ? decimal : new BigDecimal(number.toString());
+	}
+
+}
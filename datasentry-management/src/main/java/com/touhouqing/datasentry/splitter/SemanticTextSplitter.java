@@ -15,6 +15,7 @@
  */
 package com.touhouqing.datasentry.splitter;
 
+import com.touhouqing.datasentry.service.aimodelconfig.EmbeddingBatchDispatcher;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.embedding.EmbeddingModel;
@@ -51,6 +52,11 @@ public class SemanticTextSplitter extends TextSplitter {
 	@Builder.Default
 	private int embeddingBatchSize = 10;
 
+	/**
+	 * 批次调度器，配置后各批次并发向量化并按顺序组装；为空时逐批串行
+	 */
+	private final EmbeddingBatchDispatcher batchDispatcher;
+
 	/**
 	 * 句子正则：匹配标点或换行
 	 */
@@ -210,6 +216,26 @@ public class SemanticTextSplitter extends TextSplitter {
 		List<float[]> allEmbeddings = new ArrayList<>();
 		// 这里为了安全，建议 catch 异常时填入 new float[0]，计算相似度时做空检查
 
+		if (batchDispatcher != null) {
+			List<List<String>> batches = new ArrayList<>();
+			for (int i = 0; i < texts.size(); i += embeddingBatchSize) {
+				batches.add(texts.subList(i, Math.min(i + embeddingBatchSize, texts.size())));
+			}
+			// 重试耗尽的批次同样填充零向量，不影响其他批次
+			return batchDispatcher.dispatch(batches,
+					batch -> embeddingModel.embedForResponse(batch)
+						.getResults()
+						.stream()
+						.map(result -> result.getOutput())
+						.toList(),
+					batch -> {
+						List<float[]> zeros = new ArrayList<>(batch.size());
+						for (int k = 0; k < batch.size(); k++)
+							zeros.add(new float[dimensions]);
+						return zeros;
+					});
+		}
+
 		for (int i = 0; i < texts.size(); i += embeddingBatchSize) {
 			int endIdx = Math.min(i + embeddingBatchSize, texts.size());
 			List<String> batch = texts.subList(i, endIdx);
@@ -27,7 +27,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * JSON解析工具类，支持自动修复格式错误的JSON
@@ -43,6 +46,16 @@ public class JsonParseUtil {
 
 	private static final String THINK_END_TAG = "</think>";
 
+	/**
+	 * 本地修复成功的次数，按修复项统计
+	 */
+	private final Map<JsonRepairUtil.Repair, LongAdder> localRepairCounts = new ConcurrentHashMap<>();
+
+	/**
+	 * 本地修复后仍需调用大模型修复的次数
+	 */
+	private final LongAdder llmFixCount = new LongAdder();
+
 	public <T> T tryConvertToObject(String json, Class<T> clazz) {
 		Assert.hasText(json, "Input JSON string cannot be null or empty");
 		Assert.notNull(clazz, "Target class cannot be null");
@@ -76,18 +89,22 @@ public class JsonParseUtil {
 		ObjectMapper objectMapper = JsonUtil.getObjectMapper();
 
 		try {
-			return parser.parse(objectMapper, currentJson);
+			return parseWithLocalRepair(objectMapper, parser, currentJson);
 		}
 		catch (JsonProcessingException e) {
-			log.warn("Initial parsing failed, preparing to call LLM: {}", e.getMessage());
+			lastException = e;
+			log.warn("Initial parsing and local repair failed, preparing to call LLM: {}", e.getMessage());
 		}
 
+		// 本地修复后更接近合法 JSON，交给大模型的也是修复后的文本
+		currentJson = JsonRepairUtil.repair(currentJson).json();
 		for (int i = 0; i < MAX_RETRY_COUNT; i++) {
 			try {
+				llmFixCount.increment();
 				currentJson = callLlmToFix(currentJson,
 						lastException != null ? lastException.getMessage() : "Unknown error");
 
-				return parser.parse(objectMapper, currentJson);
+				return parseWithLocalRepair(objectMapper, parser, currentJson);
 			}
 			catch (JsonProcessingException e) {
 				lastException = e;
@@ -104,6 +121,48 @@ public class JsonParseUtil {
 				String.format("Failed to parse JSON after %d LLM fix attempts", MAX_RETRY_COUNT), lastException);
 	}
 
+	/**
+	 * 先直接解析，失败后使用本地规则修复再解析一次，两次都失败时抛出原始解析异常
+	 */
+	private <T> T parseWithLocalRepair(ObjectMapper objectMapper, JsonParserFunction<T> parser, String json)
+			throws JsonProcessingException {
+		try {
+			return parser.parse(objectMapper, json);
+		}
+		catch (JsonProcessingException e) {
+			JsonRepairUtil.RepairResult repaired = JsonRepairUtil.repair(json);
+			if (repaired.repairs().isEmpty()) {
+				throw e;
+			}
+			try {
+				T result = parser.parse(objectMapper, repaired.json());
+				repaired.repairs()
+					.forEach(repair -> localRepairCounts.computeIfAbsent(repair, key -> new LongAdder()).increment());
+				log.info("JSON parsed after local repair {}", repaired.repairs());
+				return result;
+			}
+			catch (JsonProcessingException repairFailed) {
+				log.debug("Local repair {} did not produce valid JSON: {}", repaired.repairs(),
+						repairFailed.getMessage());
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * 获取JSON修复统计：各本地修复项的成功次数以及调用大模型修复的次数
+	 * @return 统计项名称到次数的映射
+	 */
+	public Map<String, Long> getRepairStatistics() {
+		Map<String, Long> statistics = new LinkedHashMap<>();
+		for (JsonRepairUtil.Repair repair : JsonRepairUtil.Repair.values()) {
+			LongAdder count = localRepairCounts.get(repair);
+			statistics.put(repair.name(), count == null ? 0L : count.sum());
+		}
+		statistics.put("LLM_FIX", llmFixCount.sum());
+		return statistics;
+	}
+
 	/**
 	 * 函数式接口，用于JSON解析
 	 */
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 本地 JSON 修复工具，用确定性的规则修复大模型输出中常见的格式问题，避免为一个多余的逗号就请求大模型修复。
+ * 只做结构层面的修复，无法确定语义的问题（如字符串内未转义的双引号）保持原样交给后续流程处理。
+ */
+@UtilityClass
+public class JsonRepairUtil {
+
+	private static final String THINK_END_TAG = "</think>";
+
+	private static final String CODE_FENCE = "```";
+
+	/**
+	 * 本地修复项
+	 */
+	public enum Repair {
+
+		/**
+		 * 去除 &lt;/think&gt; 及之前的推理内容
+		 */
+		THINK_TAGS,
+
+		/**
+		 * 提取 Markdown 代码块中的内容
+		 */
+		CODE_FENCE,
+
+		/**
+		 * 去除 JSON 前后的说明文字
+		 */
+		SURROUNDING_TEXT,
+
+		/**
+		 * 单引号字符串改为双引号
+		 */
+		SINGLE_QUOTES,
+
+		/**
+		 * 为未加引号的键补充引号
+		 */
+		UNQUOTED_KEYS,
+
+		/**
+		 * 去除 } 或 ] 之前多余的逗号
+		 */
+		TRAILING_COMMAS,
+
+		/**
+		 * 转义字符串中的换行、制表符等控制字符
+		 */
+		UNESCAPED_CONTROL_CHARS,
+
+		/**
+		 * 丢弃被截断的末尾元素（未闭合的字符串、标量或缺少值的键）并补全数组和对象
+		 */
+		TRUNCATED
+
+	}
+
+	/**
+	 * 修复结果
+	 * @param json 修复后的文本
+	 * @param repairs 实际生效的修复项，为空表示文本未被改动
+	 */
+	public record RepairResult(String json, Set<Repair> repairs) {
+	}
+
+	/**
+	 * 按顺序应用所有本地修复规则
+	 * @param text 大模型输出的原始文本
+	 * @return 修复结果
+	 */
+	public static RepairResult repair(String text) {
+		if (text == null || text.isBlank()) {
+			return new RepairResult(text, Set.of());
+		}
+		Set<Repair> repairs = EnumSet.noneOf(Repair.class);
+		String current = text;
+
+		int thinkEnd = current.lastIndexOf(THINK_END_TAG);
+		if (thinkEnd >= 0) {
+			current = current.substring(thinkEnd + THINK_END_TAG.length());
+			repairs.add(Repair.THINK_TAGS);
+		}
+		if (current.contains(CODE_FENCE)) {
+			current = MarkdownParserUtil.extractRawText(current);
+			repairs.add(Repair.CODE_FENCE);
+		}
+		current = current.trim();
+
+		int start = indexOfStructureStart(current);
+		if (start < 0) {
+			return new RepairResult(current, Collections.unmodifiableSet(repairs));
+		}
+		if (start > 0) {
+			current = current.substring(start);
+			repairs.add(Repair.SURROUNDING_TEXT);
+		}
+		current = normalize(current, repairs);
+		return new RepairResult(current, Collections.unmodifiableSet(repairs));
+	}
+
+	private static int indexOfStructureStart(String text) {
+		int object = text.indexOf('{');
+		int array = text.indexOf('[');
+		if (object < 0) {
+			return array;
+		}
+		return array < 0 ? object : Math.min(object, array);
+	}
+
+	/**
+	 * 单遍扫描完成引号、键、逗号、控制字符和截断的修复，根结构闭合后的内容视为说明文字丢弃。
+	 * elementStarts 记录每层结构当前元素在输出中的起点（含前导逗号），截断时据此整体丢弃末尾元素
+	 */
+	private static String normalize(String text, Set<Repair> repairs) {
+		StringBuilder out = new StringBuilder(text.length() + 16);
+		Deque<Character> stack = new ArrayDeque<>();
+		Deque<Integer> elementStarts = new ArrayDeque<>();
+		boolean expectKey = false;
+		boolean keyPending = false;
+		boolean stringTruncated = false;
+		int i = 0;
+		int length = text.length();
+		while (i < length) {
+			char c = text.charAt(i);
+			if (c == '"' || c == '\'') {
+				boolean wasKey = expectKey;
+				int end = readString(text, i, out, repairs);
+				if (end < 0) {
+					stringTruncated = true;
+					break;
+				}
+				i = end;
+				expectKey = false;
+				keyPending = wasKey;
+				continue;
+			}
+			if (c == '{' || c == '[') {
+				stack.push(c);
+				out.append(c);
+				elementStarts.push(out.length());
+				expectKey = c == '{';
+			}
+			else if (c == '}' || c == ']') {
+				if (removeTrailingComma(out)) {
+					repairs.add(Repair.TRAILING_COMMAS);
+				}
+				if (!stack.isEmpty()) {
+					stack.pop();
+					elementStarts.pop();
+				}
+				out.append(c);
+				expectKey = false;
+				keyPending = false;
+				if (stack.isEmpty()) {
+					if (!text.substring(i + 1).isBlank()) {
+						repairs.add(Repair.SURROUNDING_TEXT);
+					}
+					return out.toString();
+				}
+			}
+			else if (c == ',') {
+				if (!elementStarts.isEmpty()) {
+					elementStarts.pop();
+					elementStarts.push(out.length());
+				}
+				out.append(c);
+				expectKey = !stack.isEmpty() && stack.peek() == '{';
+				keyPending = false;
+			}
+			else if (c == ':') {
+				out.append(c);
+				expectKey = false;
+				keyPending = false;
+			}
+			else if (expectKey && isIdentifierStart(c)) {
+				int end = i;
+				while (end < length && isIdentifierPart(text.charAt(end))) {
+					end++;
+				}
+				out.append('"').append(text, i, end).append('"');
+				repairs.add(Repair.UNQUOTED_KEYS);
+				expectKey = false;
+				keyPending = true;
+				i = end;
+				continue;
+			}
+			else {
+				out.append(c);
+			}
+			i++;
+		}
+
+		if (!stack.isEmpty()) {
+			closeTruncated(out, stack, elementStarts.peek(), stringTruncated || keyPending);
+			repairs.add(Repair.TRUNCATED);
+		}
+		return out.toString();
+	}
+
+	/**
+	 * 读取从 start 开始的字符串字面量，统一输出为双引号字符串，返回字符串结束后的位置，
+	 * 字符串未闭合时返回 -1
+	 */
+	private static int readString(String text, int start, StringBuilder out, Set<Repair> repairs) {
+		char quote = text.charAt(start);
+		if (quote == '\'') {
+			repairs.add(Repair.SINGLE_QUOTES);
+		}
+		out.append('"');
+		int i = start + 1;
+		while (i < text.length()) {
+			char c = text.charAt(i);
+			if (c == '\\' && i + 1 < text.length()) {
+				char next = text.charAt(i + 1);
+				if (next == '\'') {
+					out.append('\'');
+				}
+				else {
+					out.append(c).append(next);
+				}
+				i += 2;
+				continue;
+			}
+			if (c == quote) {
+				out.append('"');
+				return i + 1;
+			}
+			if (c == '"') {
+				out.append("\\\"");
+			}
+			else if (c < 0x20) {
+				out.append(escapeControlChar(c));
+				repairs.add(Repair.UNESCAPED_CONTROL_CHARS);
+			}
+			else {
+				out.append(c);
+			}
+			i++;
+		}
+		return -1;
+	}
+
+	private static String escapeControlChar(char c) {
+		return switch (c) {
+			case '\n' -> "\\n";
+			case '\r' -> "\\r";
+			case '\t' -> "\\t";
+			case '\b' -> "\\b";
+			case '\f' -> "\\f";
+			default -> String.format("\\u%04x", (int) c);
+		};
+	}
+
+	/**
+	 * 截断处的元素无法确认完整（如 "PYTH" 可能是 "PYTHON"、12 可能是 1234），整体丢弃而不是补全成看似合法的值，
+	 * 只保留已闭合的字符串、对象和数组
+	 */
+	private static void closeTruncated(StringBuilder out, Deque<Character> stack, int elementStart,
+			boolean incomplete) {
+		trimTrailingWhitespace(out);
+		if (incomplete || !endsWithCompleteValue(out)) {
+			out.setLength(elementStart);
+			trimTrailingWhitespace(out);
+		}
+		else if (out.charAt(out.length() - 1) == ',') {
+			out.setLength(out.length() - 1);
+		}
+		while (!stack.isEmpty()) {
+			out.append(stack.pop() == '{' ? '}' : ']');
+		}
+	}
+
+	private static boolean endsWithCompleteValue(StringBuilder out) {
+		char last = out.charAt(out.length() - 1);
+		return last == '"' || last == '}' || last == ']' || last == ',' || last == '{' || last == '[';
+	}
+
+	private static boolean removeTrailingComma(StringBuilder out) {
+		int end = out.length() - 1;
+		while (end >= 0 && Character.isWhitespace(out.charAt(end))) {
+			end--;
+		}
+		if (end >= 0 && out.charAt(end) == ',') {
+			out.deleteCharAt(end);
+			return true;
+		}
+		return false;
+	}
+
+	private static void trimTrailingWhitespace(StringBuilder out) {
+		int end = out.length();
+		while (end > 0 && Character.isWhitespace(out.charAt(end - 1))) {
+			end--;
+		}
+		out.setLength(end);
+	}
+
+	private static boolean isIdentifierStart(char c) {
+		return Character.isLetter(c) || c == '_' || c == '$';
+	}
+
+	private static boolean isIdentifierPart(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '-';
+	}
+
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL查询结果转为交给Python执行的列式CSV。
+ * 第一行为单行JSON格式的Schema头（列名、pandas dtype、需解析为日期的列、总行数），之后是带表头的标准CSV，
+ * Python端可直接用 pd.read_csv(sys.stdin, dtype=..., parse_dates=...) 得到带类型的DataFrame，无需再逐列猜测类型。
+ */
+public class SqlResultCsvUtil {
+
+	public static final String DTYPE_INT = "Int64";
+
+	public static final String DTYPE_FLOAT = "float64";
+
+	public static final String DTYPE_BOOLEAN = "boolean";
+
+	public static final String DTYPE_STRING = "string";
+
+	public static final String DTYPE_DATETIME = "datetime64[ns]";
+
+	/**
+	 * 超过 2^53 的整数转为 float64 会丢失精度，这类列只能是 Int64 或字符串，不能放宽为浮点数
+	 */
+	private static final String DTYPE_WIDE_INT = "Int64!";
+
+	private static final long MAX_EXACT_FLOAT_INTEGER = 1L << 53;
+
+	private static final Pattern INTEGER_PATTERN = Pattern.compile("-?(0|[1-9]\\d*)");
+
+	private static final Pattern DECIMAL_PATTERN = Pattern
+		.compile("-?(0|[1-9]\\d*)(\\.\\d+)?([eE][-+]?\\d+)?|-?\\.\\d+([eE][-+]?\\d+)?");
+
+	private static final Pattern DATETIME_PATTERN = Pattern
+		.compile("\\d{4}-\\d{2}-\\d{2}([ T]\\d{2}:\\d{2}(:\\d{2}(\\.\\d{1,9})?)?)?");
+
+	/**
+	 * 列的Schema
+	 */
+	public record ColumnSchema(String name, String dtype) {
+
+	}
+
+	/**
+	 * 按列推断类型，空值不参与推断；全部为空的列视为字符串。
+	 */
+	public static List<ColumnSchema> inferSchema(List<Map<String, String>> rows) {
+		Map<String, String> dtypes = new LinkedHashMap<>();
+		for (Map<String, String> row : rows) {
+			for (Map.Entry<String, String> entry : row.entrySet()) {
+				String current = dtypes.get(entry.getKey());
+				String value = entry.getValue();
+				if (value == null || value.isEmpty()) {
+					dtypes.putIfAbsent(entry.getKey(), null);
+					continue;
+				}
+				dtypes.put(entry.getKey(), widen(current, value));
+			}
+		}
+		List<ColumnSchema> schema = new ArrayList<>(dtypes.size());
+		dtypes.forEach((name, dtype) -> schema.add(new ColumnSchema(name,
+				dtype == null ? DTYPE_STRING : DTYPE_WIDE_INT.equals(dtype) ? DTYPE_INT : dtype)));
+		return schema;
+	}
+
+	/**
+	 * 估算编码后的字节数，用于决定以内联字符串还是临时文件的方式传递
+	 */
+	public static long estimateSize(List<Map<String, String>> rows) {
+		long size = 0;
+		for (Map<String, String> row : rows) {
+			for (String value : row.values()) {
+				// 分隔符及可能的引号
+				size += (value == null ? 0 : value.length()) + 1;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * 编码为字符串，只输出前 limit 行，Schema头中的行数仍为总行数
+	 */
+	public static String encode(List<Map<String, String>> rows, int limit) {
+		StringWriter writer = new StringWriter();
+		try {
+			write(rows, writer, limit);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * 编码并写入 writer，只输出前 limit 行，Schema头中的行数仍为总行数
+	 */
+	public static void write(List<Map<String, String>> rows, Writer writer, int limit) throws IOException {
+		List<ColumnSchema> schema = inferSchema(rows);
+		writer.write(buildHeader(schema, rows.size()));
+		writer.write('\n');
+		if (schema.isEmpty()) {
+			return;
+		}
+		List<String> names = schema.stream().map(ColumnSchema::name).toList();
+		writeRecord(writer, names, false);
+		int written = 0;
+		List<String> values = new ArrayList<>(names.size());
+		for (Map<String, String> row : rows) {
+			if (written++ >= limit) {
+				break;
+			}
+			values.clear();
+			for (String name : names) {
+				values.add(row.get(name));
+			}
+			writeRecord(writer, values, true);
+		}
+	}
+
+	private static String buildHeader(List<ColumnSchema> schema, int rowCount) {
+		Map<String, Object> header = new LinkedHashMap<>();
+		Map<String, String> dtypes = new LinkedHashMap<>();
+		List<String> parseDates = new ArrayList<>();
+		for (ColumnSchema column : schema) {
+			// 日期列由 parse_dates 解析，不能同时出现在 dtype 中
+			if (DTYPE_DATETIME.equals(column.dtype())) {
+				parseDates.add(column.name());
+			}
+			else {
+				dtypes.put(column.name(), column.dtype());
+			}
+		}
+		header.put("format", "csv");
+		header.put("rows", rowCount);
+		header.put("columns", schema.stream().map(ColumnSchema::name).toList());
+		header.put("dtypes", dtypes);
+		header.put("parse_dates", parseDates);
+		try {
+			return JsonUtil.getObjectMapper().writeValueAsString(header);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void writeRecord(Writer writer, List<String> values, boolean quoteEmpty) throws IOException {
+		for (int i = 0; i < values.size(); i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			String value = values.get(i);
+			if (value == null) {
+				continue;
+			}
+			// 空字符串加引号与NULL区分，Python端以 na_values=[""] 读取时二者均为缺失值
+			if (value.isEmpty() && quoteEmpty) {
+				writer.write("\"\"");
+			}
+			else if (needsQuote(value)) {
+				writer.write('"');
+				writer.write(value.replace("\"", "\"\""));
+				writer.write('"');
+			}
+			else {
+				writer.write(value);
+			}
+		}
+		writer.write('\n');
+	}
+
+	private static boolean needsQuote(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+				return true;
+			}
+		}
+		return !value.isEmpty() && (Character.isWhitespace(value.charAt(0))
+				|| Character.isWhitespace(value.charAt(value.length() - 1)));
+	}
+
+	/**
+	 * 根据新值放宽列类型：整数可放宽为浮点数，其余不兼容的组合一律退化为字符串；
+	 * 超出 float64 精确范围的整数（如雪花ID）与浮点数混合时同样退化为字符串
+	 */
+	private static String widen(String current, String value) {
+		if (DTYPE_STRING.equals(current)) {
+			return DTYPE_STRING;
+		}
+		String detected = detect(value);
+		if (current == null || current.equals(detected)) {
+			return detected;
+		}
+		if (isInteger(current) && isInteger(detected)) {
+			return DTYPE_WIDE_INT;
+		}
+		boolean numeric = (DTYPE_INT.equals(current) || DTYPE_FLOAT.equals(current))
+				&& (DTYPE_INT.equals(detected) || DTYPE_FLOAT.equals(detected));
+		return numeric ? DTYPE_FLOAT : DTYPE_STRING;
+	}
+
+	private static boolean isInteger(String dtype) {
+		return DTYPE_INT.equals(dtype) || DTYPE_WIDE_INT.equals(dtype);
+	}
+
+	private static String detect(String value) {
+		if (INTEGER_PATTERN.matcher(value).matches()) {
+			return detectInteger(value);
+		}
+		if (DECIMAL_PATTERN.matcher(value).matches()) {
+			return DTYPE_FLOAT;
+		}
+		if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+			return DTYPE_BOOLEAN;
+		}
+		if (DATETIME_PATTERN.matcher(value).matches()) {
+			return DTYPE_DATETIME;
+		}
+		return DTYPE_STRING;
+	}
+
+	/**
+	 * 超出 Int64 范围的整数只能按字符串保留，绝不放宽为浮点数
+	 */
+	private static String detectInteger(String value) {
+		long parsed;
+		try {
+			parsed = Long.parseLong(value);
+		}
+		catch (NumberFormatException e) {
+			return DTYPE_STRING;
+		}
+		return Math.abs(parsed) > MAX_EXACT_FLOAT_INTEGER ? DTYPE_WIDE_INT : DTYPE_INT;
+	}
+
+}
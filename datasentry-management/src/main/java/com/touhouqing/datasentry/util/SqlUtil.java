@@ -18,6 +18,13 @@ package com.touhouqing.datasentry.util;
 import com.touhouqing.datasentry.enums.BizDataSourceTypeEnum;
 import lombok.experimental.UtilityClass;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * SQL 工具类
  *
@@ -27,6 +34,157 @@ import lombok.experimental.UtilityClass;
 @UtilityClass
 public class SqlUtil {
 
+	private static final Pattern AGGREGATE_PATTERN = Pattern.compile("(?i)\\b(count|sum|avg|min|max)\\s*\\(");
+
+	private static final Pattern ALIAS_PATTERN = Pattern
+		.compile("(?is)^(.*?)\\s+(?:as\\s+)?([`\"\\[]?[\\p{L}_][\\p{L}\\p{N}_$]*[`\"\\]]?)$");
+
+	private static final Pattern COLUMN_REF_PATTERN = Pattern
+		.compile("^(?:[`\"\\[]?[\\p{L}_][\\p{L}\\p{N}_$]*[`\"\\]]?\\.)*([`\"\\[]?[\\p{L}_][\\p{L}\\p{N}_$]*[`\"\\]]?)$");
+
+	/**
+	 * 别名位置上出现这些关键字时说明表达式本身没有别名，例如 CASE ... END
+	 */
+	private static final Set<String> NON_ALIAS_KEYWORDS = Set.of("END", "NULL", "TRUE", "FALSE", "AND", "OR", "NOT",
+			"THEN", "ELSE", "DESC", "ASC");
+
+	/**
+	 * SELECT 投影列，name 为结果集中预期的列名（别名优先），aggregate 表示该列由聚合函数计算得到
+	 */
+	public record ProjectedColumn(String name, boolean aggregate) {
+	}
+
+	/**
+	 * 从 SQL 最外层 SELECT 中提取投影列，用于在查询返回前推断结果列。包含 * 或无法识别最外层 SELECT 时返回空列表
+	 * @param sql SQL语句
+	 * @return 投影列列表
+	 */
+	public static List<ProjectedColumn> extractProjectedColumns(String sql) {
+		if (sql == null || sql.isBlank()) {
+			return List.of();
+		}
+		String text = stripComments(sql);
+		int selectEnd = findTopLevelKeyword(text, "SELECT", 0);
+		if (selectEnd < 0) {
+			return List.of();
+		}
+		int fromStart = findTopLevelKeyword(text, "FROM", selectEnd);
+		String projection = text.substring(selectEnd, fromStart < 0 ? text.length() : fromStart - "FROM".length())
+			.trim();
+		projection = projection.replaceFirst("(?is)^(DISTINCT|ALL)\\s+", "").replaceFirst("(?is)^TOP\\s+\\d+\\s+", "");
+
+		List<ProjectedColumn> columns = new ArrayList<>();
+		for (String item : splitTopLevel(projection)) {
+			String expression = item.trim();
+			if (expression.isEmpty() || expression.equals("*") || expression.endsWith(".*")) {
+				return List.of();
+			}
+			columns.add(new ProjectedColumn(resolveColumnName(expression),
+					AGGREGATE_PATTERN.matcher(expression).find()));
+		}
+		return columns;
+	}
+
+	private static String resolveColumnName(String expression) {
+		Matcher columnRef = COLUMN_REF_PATTERN.matcher(expression);
+		if (columnRef.matches()) {
+			return unquote(columnRef.group(1));
+		}
+		Matcher alias = ALIAS_PATTERN.matcher(expression);
+		if (alias.matches()) {
+			String candidate = unquote(alias.group(2));
+			String body = alias.group(1).trim();
+			boolean dangling = body.endsWith("+") || body.endsWith("-") || body.endsWith("*") || body.endsWith("/")
+					|| body.endsWith(",") || body.endsWith("=");
+			if (!dangling && !NON_ALIAS_KEYWORDS.contains(candidate.toUpperCase(Locale.ROOT))) {
+				return candidate;
+			}
+		}
+		return expression;
+	}
+
+	private static String unquote(String identifier) {
+		if (identifier.length() >= 2) {
+			char first = identifier.charAt(0);
+			char last = identifier.charAt(identifier.length() - 1);
+			if ((first == '`' && last == '`') || (first == '"' && last == '"') || (first == '[' && last == ']')) {
+				return identifier.substring(1, identifier.length() - 1);
+			}
+		}
+		return identifier;
+	}
+
+	private static String stripComments(String sql) {
+		return sql.replaceAll("(?s)/\\*.*?\\*/", " ").replaceAll("--[^\\n]*", " ");
+	}
+
+	/**
+	 * 查找括号与引号之外、从 from 开始首次出现的关键字，返回关键字之后的位置，未找到返回 -1
+	 */
+	private static int findTopLevelKeyword(String text, String keyword, int from) {
+		int depth = 0;
+		char quote = 0;
+		for (int i = from; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+				continue;
+			}
+			if (c == '\'' || c == '"' || c == '`') {
+				quote = c;
+			}
+			else if (c == '(') {
+				depth++;
+			}
+			else if (c == ')') {
+				depth--;
+			}
+			else if (depth == 0 && text.regionMatches(true, i, keyword, 0, keyword.length())
+					&& (i == 0 || !isIdentifierPart(text.charAt(i - 1)))
+					&& (i + keyword.length() == text.length() || !isIdentifierPart(text.charAt(i + keyword.length())))) {
+				return i + keyword.length();
+			}
+		}
+		return -1;
+	}
+
+	private static List<String> splitTopLevel(String projection) {
+		List<String> items = new ArrayList<>();
+		int depth = 0;
+		char quote = 0;
+		int start = 0;
+		for (int i = 0; i < projection.length(); i++) {
+			char c = projection.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+				continue;
+			}
+			if (c == '\'' || c == '"' || c == '`') {
+				quote = c;
+			}
+			else if (c == '(') {
+				depth++;
+			}
+			else if (c == ')') {
+				depth--;
+			}
+			else if (c == ',' && depth == 0) {
+				items.add(projection.substring(start, i));
+				start = i + 1;
+			}
+		}
+		items.add(projection.substring(start));
+		return items;
+	}
+
+	private static boolean isIdentifierPart(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+	}
+
 	/**
 	 * 构建SELECT SQL语句
 	 * @param typeName 数据源类型
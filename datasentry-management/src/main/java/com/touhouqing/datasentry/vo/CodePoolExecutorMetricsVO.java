@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CodePoolExecutorMetricsVO {
+
+	private String executorType;
+
+	/**
+	 * 是否为容器池实现，非容器池实现（如AI模拟）只有 executorType 有值
+	 */
+	private boolean pooled;
+
+	/**
+	 * 当前核心/临时容器容量，由自适应调整在配置上下限之间变化
+	 */
+	private int coreCapacity;
+
+	private int tempCapacity;
+
+	private int coreContainerCount;
+
+	private int tempContainerCount;
+
+	private int readyCoreContainerCount;
+
+	private int readyTempContainerCount;
+
+	/**
+	 * 当前排队等待容器的任务数
+	 */
+	private int queueDepth;
+
+	private long taskCount;
+
+	/**
+	 * 容器执行异常（非代码错误）的次数
+	 */
+	private long taskExceptionCount;
+
+	/**
+	 * 代码执行失败（非零退出、超时等）的次数
+	 */
+	private long codeFailureCount;
+
+	private long queuedTaskCount;
+
+	private double queueWaitAvgMillis;
+
+	private long queueWaitMaxMillis;
+
+	private double executionAvgMillis;
+
+	private long executionMaxMillis;
+
+	private long containerCreateCount;
+
+	private long containerCreateFailureCount;
+
+	private double containerCreateAvgMillis;
+
+	private long containerCreateMaxMillis;
+
+	private long resizeCount;
+
+	private LocalDateTime lastResizeTime;
+
+}
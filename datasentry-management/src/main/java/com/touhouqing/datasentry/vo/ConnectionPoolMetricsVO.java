@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionPoolMetricsVO {
+
+	private Long datasourceId;
+
+	private String poolType;
+
+	/**
+	 * 连接池用途，如 query、cleaning
+	 */
+	private String workload;
+
+	private int maxActive;
+
+	private int activeCount;
+
+	private int idleCount;
+
+	/**
+	 * 当前阻塞在池上等待连接的线程数
+	 */
+	private int waitThreadCount;
+
+	/**
+	 * 池为空需要等待的累计次数
+	 */
+	private long notEmptyWaitCount;
+
+	private long borrowCount;
+
+	private long borrowFailureCount;
+
+	private double borrowWaitAvgMillis;
+
+	private long borrowWaitMaxMillis;
+
+	/**
+	 * 借出等待耗时分布，key 为桶上界（如 le_20ms、le_inf），value 为落入该桶的次数
+	 */
+	@Builder.Default
+	private Map<String, Long> borrowWaitHistogram = new LinkedHashMap<>();
+
+	private LocalDateTime createdTime;
+
+	private LocalDateTime lastAccessTime;
+
+}
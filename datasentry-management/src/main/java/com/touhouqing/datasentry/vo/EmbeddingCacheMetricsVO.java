@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmbeddingCacheMetricsVO {
+
+	private boolean enabled;
+
+	/**
+	 * 是否已持久化到本地文件
+	 */
+	private boolean persistent;
+
+	private int entries;
+
+	private int maxEntries;
+
+	private long hitCount;
+
+	private long missCount;
+
+	private double hitRate;
+
+	private long evictionCount;
+
+	/**
+	 * 持久化文件中的记录数，包含已被淘汰或重复写入、尚未整理的记录
+	 */
+	private long persistedRecords;
+
+	private long persistedBytes;
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphNodeMetricsVO {
+
+	/**
+	 * 节点名，__graph__ 为整次图执行
+	 */
+	private String nodeName;
+
+	private long sampleCount;
+
+	/**
+	 * 未成功完成（报错或被取消）的次数
+	 */
+	private long failedCount;
+
+	private long p50Ms;
+
+	private long p90Ms;
+
+	private long p99Ms;
+
+	private long maxMs;
+
+	private double avgMs;
+
+	/**
+	 * 到首个流式输出的平均耗时，节点无流式输出时为空
+	 */
+	private Double avgFirstChunkMs;
+
+	private double avgLlmCalls;
+
+	private double avgPromptTokens;
+
+	private double avgCompletionTokens;
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LlmResponseCacheMetricsVO {
+
+	private boolean enabled;
+
+	private boolean similarityEnabled;
+
+	private int entries;
+
+	private int maxEntries;
+
+	private long hitCount;
+
+	/**
+	 * 其中按问题向量相似度命中的次数
+	 */
+	private long similarHitCount;
+
+	private long missCount;
+
+	private double hitRate;
+
+	private long evictionCount;
+
+	/**
+	 * 因知识变更而失效的条目数
+	 */
+	private long invalidationCount;
+
+}
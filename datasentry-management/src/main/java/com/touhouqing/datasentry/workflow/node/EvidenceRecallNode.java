@@ -23,6 +23,8 @@ import com.touhouqing.datasentry.entity.AgentKnowledge;
 import com.touhouqing.datasentry.mapper.AgentKnowledgeMapper;
 import com.touhouqing.datasentry.prompt.PromptHelper;
 import com.touhouqing.datasentry.service.llm.LlmService;
+import com.touhouqing.datasentry.service.recall.ParallelRecallExecutor;
+import com.touhouqing.datasentry.service.recall.SchemaRecallPrefetcher;
 import com.touhouqing.datasentry.service.vectorstore.AgentVectorStoreService;
 import com.touhouqing.datasentry.util.*;
 import com.alibaba.cloud.ai.graph.GraphResponse;
@@ -42,6 +44,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static com.touhouqing.datasentry.constant.Constant.*;
 
@@ -58,6 +61,10 @@ public class EvidenceRecallNode implements NodeAction {
 
 	private final AgentKnowledgeMapper agentKnowledgeMapper;
 
+	private final ParallelRecallExecutor recallExecutor;
+
+	private final SchemaRecallPrefetcher schemaRecallPrefetcher;
+
 	@Override
 	public Map<String, Object> apply(OverAllState state) throws Exception {
 
@@ -69,6 +76,9 @@ public class EvidenceRecallNode implements NodeAction {
 		log.info("Rewriting query before getting evidence in question: {}", question);
 		log.debug("Agent ID: {}", agentId);
 
+		// Schema 召回不依赖证据，与查询重写和证据检索并行预取
+		schemaRecallPrefetcher.prefetch(agentId, question);
+
 		String multiTurn = StateUtil.getStringValue(state, MULTI_TURN_CONTEXT, "(无)");
 
 		// 构建查询重写提示
@@ -114,6 +124,8 @@ public class EvidenceRecallNode implements NodeAction {
 			// 获取业务知识和智能体知识文档
 			DocumentRetrievalResult retrievalResult = retrieveDocuments(agentId, standaloneQuery);
 
+			outputPartialSteps(retrievalResult.partialSteps(), sink);
+
 			// 检查是否有证据文档
 			if (retrievalResult.allDocuments().isEmpty()) {
 				log.debug("No evidence documents found for agent: {} with query: {}", agentId, standaloneQuery);
@@ -149,17 +161,23 @@ public class EvidenceRecallNode implements NodeAction {
 	}
 
 	private DocumentRetrievalResult retrieveDocuments(String agentId, String standaloneQuery) {
-		// 获取业务知识文档
-		List<Document> businessTermDocuments = vectorStoreService
-			.getDocumentsForAgent(agentId, standaloneQuery, DocumentMetadataConstant.BUSINESS_TERM)
-			.stream()
-			.toList();
-
-		// 获取智能体知识文档
-		List<Document> agentKnowledgeDocuments = vectorStoreService
-			.getDocumentsForAgent(agentId, standaloneQuery, DocumentMetadataConstant.AGENT_KNOWLEDGE)
-			.stream()
-			.toList();
+		// 业务知识与智能体知识的检索相互独立，并发执行，单路失败或超时以空结果继续
+		CompletableFuture<ParallelRecallExecutor.StepResult<List<Document>>> businessTermFuture = recallExecutor
+			.submit(DocumentMetadataConstant.BUSINESS_TERM, () -> vectorStoreService.getDocumentsForAgent(agentId,
+					standaloneQuery, DocumentMetadataConstant.BUSINESS_TERM), List.of());
+		CompletableFuture<ParallelRecallExecutor.StepResult<List<Document>>> agentKnowledgeFuture = recallExecutor
+			.submit(DocumentMetadataConstant.AGENT_KNOWLEDGE, () -> vectorStoreService.getDocumentsForAgent(agentId,
+					standaloneQuery, DocumentMetadataConstant.AGENT_KNOWLEDGE), List.of());
+
+		ParallelRecallExecutor.StepResult<List<Document>> businessTermResult = businessTermFuture.join();
+		ParallelRecallExecutor.StepResult<List<Document>> agentKnowledgeResult = agentKnowledgeFuture.join();
+		List<Document> businessTermDocuments = businessTermResult.value();
+		List<Document> agentKnowledgeDocuments = agentKnowledgeResult.value();
+		List<String> partialSteps = new ArrayList<>();
+		if (businessTermResult.partial())
+			partialSteps.add("业务知识");
+		if (agentKnowledgeResult.partial())
+			partialSteps.add("智能体知识");
 
 		// 合并所有证据文档
 		List<Document> allDocuments = new ArrayList<>();
@@ -172,7 +190,7 @@ public class EvidenceRecallNode implements NodeAction {
 		log.info("Retrieved documents for agent {}: {} business term docs, {} agent knowledge docs, total {} docs",
 				agentId, businessTermDocuments.size(), agentKnowledgeDocuments.size(), allDocuments.size());
 
-		return new DocumentRetrievalResult(businessTermDocuments, agentKnowledgeDocuments, allDocuments);
+		return new DocumentRetrievalResult(businessTermDocuments, agentKnowledgeDocuments, allDocuments, partialSteps);
 	}
 
 	// 构建证据内容，输出格式
@@ -341,8 +359,14 @@ public class EvidenceRecallNode implements NodeAction {
 		}
 	}
 
+	private void outputPartialSteps(List<String> partialSteps, Sinks.Many<String> sink) {
+		if (!partialSteps.isEmpty()) {
+			sink.tryEmitNext("\n" + String.join("、", partialSteps) + "检索失败或超时，已跳过\n");
+		}
+	}
+
 	private record DocumentRetrievalResult(List<Document> businessTermDocuments, List<Document> agentKnowledgeDocuments,
-			List<Document> allDocuments) {
+			List<Document> allDocuments, List<String> partialSteps) {
 	}
 
 	private String extractStandaloneQuery(String llmOutput) {
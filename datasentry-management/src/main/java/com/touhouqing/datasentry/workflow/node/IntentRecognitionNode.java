@@ -23,6 +23,7 @@ import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
 import com.touhouqing.datasentry.prompt.PromptHelper;
+import com.touhouqing.datasentry.service.llm.LlmResponseCache;
 import com.touhouqing.datasentry.service.llm.LlmService;
 import com.touhouqing.datasentry.util.ChatResponseUtil;
 import com.touhouqing.datasentry.util.FluxUtil;
@@ -49,6 +50,8 @@ public class IntentRecognitionNode implements NodeAction {
 
 	private final JsonParseUtil jsonParseUtil;
 
+	private final LlmResponseCache responseCache;
+
 	@Override
 	public Map<String, Object> apply(OverAllState state) throws Exception {
 
@@ -62,8 +65,17 @@ public class IntentRecognitionNode implements NodeAction {
 		String prompt = PromptHelper.buildIntentRecognitionPrompt(multiTurn, userInput);
 		log.debug("Built intent recognition prompt as follows \n {} \n", prompt);
 
+		// 相同智能体、提示词版本与上下文下的同一问题直接复用缓存的识别结果
+		LlmResponseCache.Key cacheKey = responseCache.key(StateUtil.getStringValue(state, AGENT_ID, null),
+				"intent-recognition", userInput, multiTurn);
+		String cached = responseCache.get(cacheKey);
+		if (cached != null) {
+			log.info("Intent recognition response cache hit");
+		}
+
 		// 调用LLM进行意图识别
-		Flux<ChatResponse> responseFlux = llmService.callUser(prompt);
+		Flux<ChatResponse> responseFlux = cached != null ? Flux.just(ChatResponseUtil.createPureResponse(cached))
+				: llmService.callUser(prompt);
 
 		Flux<GraphResponse<StreamingOutput>> generator = FluxUtil.createStreamingGenerator(this.getClass(), state,
 				responseFlux,
@@ -75,6 +87,9 @@ public class IntentRecognitionNode implements NodeAction {
 					// 使用JsonParseUtil解析JSON并转换为IntentRecognitionOutputDTO对象
 					IntentRecognitionOutputDTO intentRecognitionOutput = jsonParseUtil.tryConvertToObject(result,
 							IntentRecognitionOutputDTO.class);
+					if (cached == null && intentRecognitionOutput != null) {
+						responseCache.put(cacheKey, result);
+					}
 					return Map.of(INTENT_RECOGNITION_NODE_OUTPUT, intentRecognitionOutput);
 				});
 		return Map.of(INTENT_RECOGNITION_NODE_OUTPUT, generator);
@@ -26,6 +26,7 @@ import com.touhouqing.datasentry.service.code.CodePoolExecutorService;
 import com.touhouqing.datasentry.util.ChatResponseUtil;
 import com.touhouqing.datasentry.util.FluxUtil;
 import com.touhouqing.datasentry.util.JsonUtil;
+import com.touhouqing.datasentry.util.SqlResultCsvUtil;
 import com.touhouqing.datasentry.util.StateUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -33,6 +34,10 @@ import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -68,6 +73,7 @@ public class PythonExecuteNode implements NodeAction {
 	@Override
 	public Map<String, Object> apply(OverAllState state) throws Exception {
 
+		Path inputFile = null;
 		try {
 			// Get context
 			String pythonCode = StateUtil.getStringValue(state, PYTHON_GENERATE_NODE_OUTPUT);
@@ -77,8 +83,19 @@ public class PythonExecuteNode implements NodeAction {
 			// 检查重试次数
 			int triesCount = StateUtil.getObjectValue(state, PYTHON_TRIES_COUNT, Integer.class, 0);
 
-			CodePoolExecutorService.TaskRequest taskRequest = new CodePoolExecutorService.TaskRequest(pythonCode,
-					objectMapper.writeValueAsString(sqlResults), null);
+			// SQL结果以带Schema头的CSV传递，较大的结果写入临时文件按路径传递
+			CodePoolExecutorService.TaskRequest taskRequest;
+			if (SqlResultCsvUtil.estimateSize(sqlResults) > codeExecutorProperties.getInputFileThresholdBytes()) {
+				inputFile = Files.createTempFile("datasentry-sql-result-", ".csv");
+				try (Writer writer = Files.newBufferedWriter(inputFile, StandardCharsets.UTF_8)) {
+					SqlResultCsvUtil.write(sqlResults, writer, Integer.MAX_VALUE);
+				}
+				taskRequest = new CodePoolExecutorService.TaskRequest(pythonCode, null, null, inputFile);
+			}
+			else {
+				taskRequest = new CodePoolExecutorService.TaskRequest(pythonCode,
+						SqlResultCsvUtil.encode(sqlResults, Integer.MAX_VALUE), null);
+			}
 
 			// Run Python code
 			CodePoolExecutorService.TaskResponse taskResponse = this.codePoolExecutor.runTask(taskRequest);
@@ -161,6 +178,11 @@ public class PythonExecuteNode implements NodeAction {
 
 			return Map.of(PYTHON_EXECUTE_NODE_OUTPUT, generator);
 		}
+		finally {
+			if (inputFile != null) {
+				Files.deleteIfExists(inputFile);
+			}
+		}
 	}
 
 }
@@ -29,6 +29,7 @@ import com.touhouqing.datasentry.util.ChatResponseUtil;
 import com.touhouqing.datasentry.util.FluxUtil;
 import com.touhouqing.datasentry.util.MarkdownParserUtil;
 import com.touhouqing.datasentry.util.PlanProcessUtil;
+import com.touhouqing.datasentry.util.SqlResultCsvUtil;
 import com.touhouqing.datasentry.util.StateUtil;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -105,7 +106,7 @@ public class PythonGenerateNode implements NodeAction {
 			.render(Map.of("python_memory", codeExecutorProperties.getLimitMemory().toString(), "python_timeout",
 					codeExecutorProperties.getCodeTimeout(), "database_schema",
 					objectMapper.writeValueAsString(schemaDTO), "sample_input",
-					objectMapper.writeValueAsString(sqlResults.stream().limit(SAMPLE_DATA_NUMBER).toList()),
+					SqlResultCsvUtil.encode(sqlResults, SAMPLE_DATA_NUMBER),
 					"plan_description", objectMapper.writeValueAsString(toolParameters)));
 
 		Flux<ChatResponse> pythonGenerateFlux = llmService.call(systemPrompt, userPrompt);
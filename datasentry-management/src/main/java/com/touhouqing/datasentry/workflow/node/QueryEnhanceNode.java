@@ -23,6 +23,7 @@ import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
 import com.touhouqing.datasentry.prompt.PromptHelper;
+import com.touhouqing.datasentry.service.llm.LlmResponseCache;
 import com.touhouqing.datasentry.service.llm.LlmService;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +31,7 @@ import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 import static com.touhouqing.datasentry.constant.Constant.*;
@@ -46,6 +48,8 @@ public class QueryEnhanceNode implements NodeAction {
 
 	private final JsonParseUtil jsonParseUtil;
 
+	private final LlmResponseCache responseCache;
+
 	@Override
 	public Map<String, Object> apply(OverAllState state) throws Exception {
 
@@ -60,8 +64,17 @@ public class QueryEnhanceNode implements NodeAction {
 		String prompt = PromptHelper.buildQueryEnhancePrompt(multiTurn, userInput, evidence);
 		log.debug("Built query enhance prompt as follows \n {} \n", prompt);
 
+		// 提示词带有当前时间，按天划分缓存，避免相对时间在跨天后仍复用旧的改写结果
+		LlmResponseCache.Key cacheKey = responseCache.key(StateUtil.getStringValue(state, AGENT_ID, null),
+				"query-enhancement", userInput, multiTurn, evidence, LocalDate.now().toString());
+		String cached = responseCache.get(cacheKey);
+		if (cached != null) {
+			log.info("Query enhance response cache hit");
+		}
+
 		// 调用LLM进行查询处理
-		Flux<ChatResponse> responseFlux = llmService.callUser(prompt);
+		Flux<ChatResponse> responseFlux = cached != null ? Flux.just(ChatResponseUtil.createPureResponse(cached))
+				: llmService.callUser(prompt);
 
 		Flux<GraphResponse<StreamingOutput>> generator = FluxUtil.createStreamingGenerator(this.getClass(), state,
 				responseFlux,
@@ -69,7 +82,13 @@ public class QueryEnhanceNode implements NodeAction {
 						ChatResponseUtil.createPureResponse(TextType.JSON.getStartSign())),
 				Flux.just(ChatResponseUtil.createPureResponse(TextType.JSON.getEndSign()),
 						ChatResponseUtil.createResponse("\n问题增强完成！")),
-				this::handleQueryEnhance);
+				result -> {
+					Map<String, Object> output = handleQueryEnhance(result);
+					if (cached == null && !output.isEmpty()) {
+						responseCache.put(cacheKey, result);
+					}
+					return output;
+				});
 
 		return Map.of(QUERY_ENHANCE_NODE_OUTPUT, generator);
 	}
@@ -21,7 +21,7 @@ import com.alibaba.cloud.ai.graph.GraphResponse;
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
-import com.touhouqing.datasentry.service.schema.SchemaService;
+import com.touhouqing.datasentry.service.recall.SchemaRecallPrefetcher;
 import com.touhouqing.datasentry.util.ChatResponseUtil;
 import com.touhouqing.datasentry.util.FluxUtil;
 import com.touhouqing.datasentry.util.StateUtil;
@@ -32,7 +32,6 @@ import org.springframework.ai.document.Document;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -54,7 +53,7 @@ import static com.touhouqing.datasentry.constant.Constant.*;
 @AllArgsConstructor
 public class SchemaRecallNode implements NodeAction {
 
-	private final SchemaService schemaService;
+	private final SchemaRecallPrefetcher schemaRecallPrefetcher;
 
 	private final AgentDatasourceMapper agentDatasourceMapper;
 
@@ -97,12 +96,13 @@ public class SchemaRecallNode implements NodeAction {
 			return Map.of(SCHEMA_RECALL_NODE_OUTPUT, generator);
 		}
 
-		// Execute business logic first - recall schema information immediately
-		List<Document> tableDocuments = new ArrayList<>(
-				schemaService.getTableDocumentsByDatasource(datasourceId, input));
-		// extract table names
-		List<String> recalledTableNames = extractTableName(tableDocuments);
-		List<Document> columnDocuments = schemaService.getColumnDocumentsByTableName(datasourceId, recalledTableNames);
+		// Execute business logic first - reuse the schema prefetched during evidence recall
+		// when available, otherwise recall schema information immediately
+		SchemaRecallPrefetcher.SchemaRecallResult recallResult = schemaRecallPrefetcher.take(agentId, datasourceId)
+			.orElseGet(() -> schemaRecallPrefetcher.recall(datasourceId, input));
+		List<Document> tableDocuments = recallResult.tableDocuments();
+		List<String> recalledTableNames = recallResult.tableNames();
+		List<Document> columnDocuments = recallResult.columnDocuments();
 
 		String failMessage = """
 				\n 未检索到相关数据表
@@ -136,18 +136,4 @@ public class SchemaRecallNode implements NodeAction {
 		return Map.of(SCHEMA_RECALL_NODE_OUTPUT, generator);
 	}
 
-	private static List<String> extractTableName(List<Document> tableDocuments) {
-		List<String> tableNames = new ArrayList<>();
-		// metadata中的name字段
-		for (Document document : tableDocuments) {
-			String name = (String) document.getMetadata().get("name");
-			if (name != null && !name.isEmpty()) {
-				tableNames.add(name);
-			}
-		}
-		log.info("At this SchemaRecallNode, Recall tables are: {}", tableNames);
-		return tableNames;
-
-	}
-
 }
@@ -25,6 +25,7 @@ import static com.touhouqing.datasentry.constant.Constant.SQL_RESULT_LIST_MEMORY
 import com.touhouqing.datasentry.bo.DbConfigBO;
 import com.touhouqing.datasentry.bo.schema.DisplayStyleBO;
 import com.touhouqing.datasentry.bo.schema.ResultBO;
+import com.touhouqing.datasentry.bo.schema.ResultPageBO;
 import com.touhouqing.datasentry.bo.schema.ResultSetBO;
 import com.touhouqing.datasentry.connector.DbQueryParameter;
 import com.touhouqing.datasentry.connector.accessor.Accessor;
@@ -34,6 +35,7 @@ import com.touhouqing.datasentry.dto.planner.ExecutionStep;
 import com.touhouqing.datasentry.enums.TextType;
 import com.touhouqing.datasentry.prompt.PromptHelper;
 import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.service.chart.RuleBasedChartRecommender;
 import com.touhouqing.datasentry.service.llm.LlmService;
 import com.touhouqing.datasentry.service.nl2sql.Nl2SqlService;
 import com.touhouqing.datasentry.util.ChatResponseUtil;
@@ -43,20 +45,29 @@ import com.touhouqing.datasentry.util.JsonParseUtil;
 import com.touhouqing.datasentry.util.JsonUtil;
 import com.touhouqing.datasentry.util.MarkdownParserUtil;
 import com.touhouqing.datasentry.util.PlanProcessUtil;
+import com.touhouqing.datasentry.util.SqlUtil;
 import com.touhouqing.datasentry.util.StateUtil;
 import com.alibaba.cloud.ai.graph.GraphResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
 
 /**
  * SQL execution node that executes SQL queries against the database.
@@ -83,6 +94,8 @@ public class SqlExecuteNode implements NodeAction {
 
 	private final JsonParseUtil jsonParseUtil;
 
+	private final RuleBasedChartRecommender chartRecommender;
+
 	private static final int SAMPLE_DATA_NUMBER = 20;
 
 	@Override
@@ -141,25 +154,42 @@ public class SqlExecuteNode implements NodeAction {
 			emitter.next(ChatResponseUtil.createPureResponse(TextType.SQL.getStartSign()));
 			emitter.next(ChatResponseUtil.createResponse(sqlQuery));
 			emitter.next(ChatResponseUtil.createPureResponse(TextType.SQL.getEndSign()));
-			ResultBO resultBO = ResultBO.builder().build();
 
+			// 图表类型通常只取决于结果列和用户问题，在查询执行的同时按投影列提前请求图表配置
+			CompletableFuture<String> speculativeChart = startSpeculativeChartConfig(state, sqlQuery);
 			try {
-				// Execute SQL query and get results immediately
-				ResultSetBO resultSetBO = dbAccessor.executeSqlAndReturnObject(dbConfig, dbQueryParameter);
-				// 调用大模型获取图表配置信息并填充到ResultSetBO中
-				DisplayStyleBO displayStyleBO = enrichResultSetWithChartConfig(state, resultSetBO);
-				resultBO.setResultSet(resultSetBO);
-				resultBO.setDisplayStyle(displayStyleBO);
+				// 边读游标边按页输出结果，完整结果只在读取结束后写入一次图状态
+				AtomicInteger pageIndex = new AtomicInteger();
+				ResultSetBO resultSetBO = dbAccessor.executeSqlAndStreamPages(dbConfig, dbQueryParameter,
+						Math.max(1, properties.getSqlResultPageSize()), page -> {
+							if (pageIndex.get() == 0) {
+								emitter.next(ChatResponseUtil.createResponse("SQL查询结果："));
+							}
+							emitResultPage(emitter, ResultBO.builder()
+								.resultSet(page)
+								.page(ResultPageBO.builder().index(pageIndex.getAndIncrement()).build())
+								.build());
+						});
+				if (pageIndex.get() == 0) {
+					emitter.next(ChatResponseUtil.createResponse("SQL查询结果："));
+				}
+
+				// 规则推荐优先，其次采用与实际结果列对齐后的预测配置，随结束页一起输出
+				DisplayStyleBO displayStyleBO = resolveChartConfig(state, resultSetBO, speculativeChart);
+				emitResultPage(emitter, ResultBO.builder()
+					.resultSet(ResultSetBO.builder().column(resultSetBO.getColumn()).data(List.of()).build())
+					.displayStyle(displayStyleBO)
+					.page(ResultPageBO.builder()
+						.index(pageIndex.get())
+						.last(true)
+						.totalRows(resultSetBO.getData().size())
+						.build())
+					.build());
 
 				String strResultSetJson = JsonUtil.getObjectMapper().writeValueAsString(resultSetBO);
-				String strResultJson = JsonUtil.getObjectMapper().writeValueAsString(resultBO);
 
 				// 数据执行成功
 				emitter.next(ChatResponseUtil.createResponse("执行SQL完成"));
-				emitter.next(ChatResponseUtil.createResponse("SQL查询结果："));
-				emitter.next(ChatResponseUtil.createPureResponse(TextType.RESULT_SET.getStartSign()));
-				emitter.next(ChatResponseUtil.createPureResponse(strResultJson));
-				emitter.next(ChatResponseUtil.createPureResponse(TextType.RESULT_SET.getEndSign()));
 
 				// Update step results with the query output
 				Map<String, String> existingResults = StateUtil.getObjectValue(state, SQL_EXECUTE_NODE_OUTPUT,
@@ -183,6 +213,9 @@ public class SqlExecuteNode implements NodeAction {
 						currentStep + 1, SQL_GENERATE_COUNT, 0));
 			}
 			catch (Exception e) {
+				if (speculativeChart != null) {
+					speculativeChart.cancel(true);
+				}
 				String errorMessage = e.getMessage();
 				log.error("SQL execution failed - SQL as follows: \n {} \n ", sqlQuery, e);
 				result.put(SQL_REGENERATE_REASON, SqlRetryDto.sqlExecute(errorMessage));
@@ -200,12 +233,116 @@ public class SqlExecuteNode implements NodeAction {
 		return Map.of(SQL_EXECUTE_NODE_OUTPUT, generator);
 	}
 
+	private static void emitResultPage(FluxSink<ChatResponse> emitter, ResultBO resultBO) {
+		try {
+			String json = JsonUtil.getObjectMapper().writeValueAsString(resultBO);
+			emitter.next(ChatResponseUtil.createPureResponse(TextType.RESULT_SET.getStartSign()));
+			emitter.next(ChatResponseUtil.createPureResponse(json));
+			emitter.next(ChatResponseUtil.createPureResponse(TextType.RESULT_SET.getEndSign()));
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Failed to serialize SQL result page", e);
+		}
+	}
+
 	/**
-	 * 调用大模型获取图表配置信息并填充到ResultSetBO中
+	 * 在 SQL 执行前根据投影列异步请求图表配置。图表功能关闭、投影列无法确定（如 SELECT *）或结果形态大概率可由规则推荐时不发起请求
+	 * @param state 整体状态
+	 * @param sqlQuery 待执行的SQL
+	 * @return 大模型原始输出的异步结果，未发起请求时返回 null
+	 */
+	private CompletableFuture<String> startSpeculativeChartConfig(OverAllState state, String sqlQuery) {
+		if (!this.properties.isEnableSqlResultChart()) {
+			return null;
+		}
+		List<SqlUtil.ProjectedColumn> projectedColumns = SqlUtil.extractProjectedColumns(sqlQuery);
+		if (projectedColumns.isEmpty() || chartRecommender.isLikelyRuleResolvable(projectedColumns)) {
+			return null;
+		}
+		try {
+			String userQuery = StateUtil.getCanonicalQuery(state);
+			List<String> columnNames = projectedColumns.stream().map(SqlUtil.ProjectedColumn::name).toList();
+			String userPrompt = String.format("""
+					# 正式任务
+
+					<最新>用户输入: %s
+					结果列: %s
+					范例数据: 暂无，请根据结果列和用户输入推荐图表，x、y 只能取结果列中的名称
+
+					# 输出
+					""", userQuery != null ? userQuery : "数据可视化",
+					JsonUtil.getObjectMapper().writeValueAsString(columnNames));
+			log.debug("Requesting speculative chart config for projected columns {}", columnNames);
+			return callChartConfigLlm(userPrompt).toFuture();
+		}
+		catch (Exception e) {
+			log.warn("Failed to start speculative chart config generation", e);
+			return null;
+		}
+	}
+
+	/**
+	 * 结合规则推荐、预测配置和基于范例数据的大模型调用确定最终图表配置
 	 * @param state 整体状态
 	 * @param resultSetBO SQL执行结果
+	 * @param speculativeChart 执行前发起的图表配置请求，可能为 null
 	 */
+	private DisplayStyleBO resolveChartConfig(OverAllState state, ResultSetBO resultSetBO,
+			CompletableFuture<String> speculativeChart) {
+		if (this.properties.isEnableSqlResultChart()) {
+			Optional<DisplayStyleBO> ruleBased = chartRecommender.recommend(resultSetBO,
+					StateUtil.getCanonicalQuery(state));
+			if (ruleBased.isPresent()) {
+				if (speculativeChart != null) {
+					speculativeChart.cancel(true);
+				}
+				log.debug("Chart config resolved by rules: type={}, x={}, y={}", ruleBased.get().getType(),
+						ruleBased.get().getX(), ruleBased.get().getY());
+				return ruleBased.get();
+			}
+		}
+		if (speculativeChart == null) {
+			return enrichResultSetWithChartConfig(state, resultSetBO);
+		}
+
+		// 等待预测结果与基于范例数据的重试共用一份超时预算，预测失败或不匹配时用剩余时间重试
+		long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getEnrichSqlResultTimeout());
+		DisplayStyleBO speculative;
+		try {
+			speculative = parseChartConfig(
+					speculativeChart.get(properties.getEnrichSqlResultTimeout(), TimeUnit.MILLISECONDS));
+		}
+		catch (Exception e) {
+			speculativeChart.cancel(true);
+			log.warn("Speculative chart config generation failed or timed out, retrying with sample data: {}",
+					e.toString());
+			return enrichResultSetWithChartConfig(state, resultSetBO, remainingMillis(deadlineNanos));
+		}
+		Optional<DisplayStyleBO> reconciled = chartRecommender.reconcile(speculative, resultSetBO.getColumn());
+		if (reconciled.isPresent()) {
+			return reconciled.get();
+		}
+		log.info("Speculative chart config does not match result columns {}, retrying with sample data",
+				resultSetBO.getColumn());
+		return enrichResultSetWithChartConfig(state, resultSetBO, remainingMillis(deadlineNanos));
+	}
+
+	private static long remainingMillis(long deadlineNanos) {
+		return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+	}
+
 	private DisplayStyleBO enrichResultSetWithChartConfig(OverAllState state, ResultSetBO resultSetBO) {
+		return enrichResultSetWithChartConfig(state, resultSetBO, properties.getEnrichSqlResultTimeout());
+	}
+
+	/**
+	 * 调用大模型获取图表配置信息并填充到ResultSetBO中
+	 * @param state 整体状态
+	 * @param resultSetBO SQL执行结果
+	 * @param timeoutMillis 等待大模型输出的时长，不大于 0 时不再发起调用
+	 */
+	private DisplayStyleBO enrichResultSetWithChartConfig(OverAllState state, ResultSetBO resultSetBO,
+			long timeoutMillis) {
 		// 创建ResultDisplayStyleBO对象
 		DisplayStyleBO displayStyle = new DisplayStyleBO();
 		if (!this.properties.isEnableSqlResultChart()) {
@@ -213,6 +350,10 @@ public class SqlExecuteNode implements NodeAction {
 			displayStyle.setType("table");
 			return displayStyle;
 		}
+		if (timeoutMillis <= 0) {
+			log.warn("Chart config timeout budget exhausted, skipping chart config generation");
+			return null;
+		}
 
 		try {
 			// 获取用户查询
@@ -233,24 +374,9 @@ public class SqlExecuteNode implements NodeAction {
 					# 输出
 					""", userQuery != null ? userQuery : "数据可视化", sqlResultJson);
 
-			// 加载data-view-analyze提示词模板（系统提示词）
-			String fullPrompt = PromptHelper.buildDataViewAnalysisPrompt();
-			// 分割系统提示词和用户提示词模板
-			String[] parts = fullPrompt.split("=== 用户输入 ===", 2);
-			// 渲染系统提示词（当前没有变量，直接使用模板内容）
-			String systemPrompt = parts[0].trim();
-
-			log.debug("Built chart config generation system prompt as follows \n {} \n", systemPrompt);
-			log.debug("Built chart config generation user prompt as follows \n {} \n", userPrompt);
-
-			// 调用LLM生成图表配置（使用系统提示词和用户提示词）
-			String chartConfigJson = llmService.toStringFlux(llmService.call(systemPrompt, userPrompt))
-				.collect(StringBuilder::new, StringBuilder::append)
-				.map(StringBuilder::toString)
-				.block(Duration.ofMillis(properties.getEnrichSqlResultTimeout()));
-			if (chartConfigJson != null && !chartConfigJson.trim().isEmpty()) {
-				String content = MarkdownParserUtil.extractText(chartConfigJson.trim());
-				displayStyle = jsonParseUtil.tryConvertToObject(content, DisplayStyleBO.class);
+			displayStyle = parseChartConfig(
+					callChartConfigLlm(userPrompt).block(Duration.ofMillis(timeoutMillis)));
+			if (displayStyle != null) {
 				log.debug("Successfully enriched ResultSetBO with chart config: type={}, title={}, x={}, y={}",
 						displayStyle.getType(), displayStyle.getTitle(), displayStyle.getX(), displayStyle.getY());
 				return displayStyle;
@@ -266,4 +392,39 @@ public class SqlExecuteNode implements NodeAction {
 		return null;
 	}
 
+	/**
+	 * 使用data-view-analyze提示词调用大模型生成图表配置，订阅后才真正发起调用
+	 * @param userPrompt 用户提示词
+	 * @return 大模型输出的完整文本
+	 */
+	private Mono<String> callChartConfigLlm(String userPrompt) {
+		// 加载data-view-analyze提示词模板（系统提示词）
+		String fullPrompt = PromptHelper.buildDataViewAnalysisPrompt();
+		// 分割系统提示词和用户提示词模板
+		String[] parts = fullPrompt.split("=== 用户输入 ===", 2);
+		// 渲染系统提示词（当前没有变量，直接使用模板内容）
+		String systemPrompt = parts[0].trim();
+
+		log.debug("Built chart config generation system prompt as follows \n {} \n", systemPrompt);
+		log.debug("Built chart config generation user prompt as follows \n {} \n", userPrompt);
+
+		// 调用LLM生成图表配置（使用系统提示词和用户提示词）
+		return llmService.toStringFlux(llmService.call(systemPrompt, userPrompt))
+			.collect(StringBuilder::new, StringBuilder::append)
+			.map(StringBuilder::toString);
+	}
+
+	/**
+	 * 解析大模型输出的图表配置，解析失败时可能调用大模型修复，因此需在非响应式线程中调用
+	 * @param chartConfigJson 大模型输出
+	 * @return 图表配置，输出为空时返回 null
+	 */
+	private DisplayStyleBO parseChartConfig(String chartConfigJson) {
+		if (chartConfigJson == null || chartConfigJson.trim().isEmpty()) {
+			return null;
+		}
+		String content = MarkdownParserUtil.extractText(chartConfigJson.trim());
+		return jsonParseUtil.tryConvertToObject(content, DisplayStyleBO.class);
+	}
+
 }
@@ -0,0 +1,105 @@
+"""
+DataSentry 常驻 Python 工作进程。
+
+启动时预先导入常用分析库，之后逐行从 stdin 读取任务（JSON），在全新的命名空间中执行代码，
+并把退出码、标准输出、标准错误和进程峰值内存以一行 JSON 写回 stdout。
+任务代码看到的 sys.stdin / sys.stdout / sys.stderr 均为内存缓冲区，不会干扰通信通道。
+"""
+import builtins
+import gc
+import importlib
+import io
+import json
+import sys
+import traceback
+
+PROTOCOL_IN = sys.stdin
+PROTOCOL_OUT = sys.stdout
+WORKER_LOG = sys.stderr
+
+
+def preload(modules):
+    loaded = []
+    for name in modules:
+        if not name:
+            continue
+        try:
+            __import__(name)
+            loaded.append(name)
+        except Exception as e:
+            WORKER_LOG.write("preload %s failed: %s\n" % (name, e))
+    return loaded
+
+
+def max_rss_kb():
+    try:
+        import resource
+        rss = resource.getrusage(resource.RUSAGE_SELF).ru_maxrss
+        # macOS 以字节为单位，Linux 以 KB 为单位
+        return rss // 1024 if sys.platform == "darwin" else rss
+    except Exception:
+        return 0
+
+
+def send(message):
+    PROTOCOL_OUT.write(json.dumps(message, ensure_ascii=True) + "\n")
+    PROTOCOL_OUT.flush()
+
+
+def run(task):
+    stdout = io.StringIO()
+    stderr = io.StringIO()
+    namespace = {"__name__": "__main__", "__builtins__": builtins}
+    exit_code = 0
+    # 任务前可能通过 pip 安装了新依赖，刷新导入缓存
+    importlib.invalidate_caches()
+    sys.stdout = stdout
+    sys.stderr = stderr
+    try:
+        # 较大的输入以文件路径下发，直接作为任务的标准输入，避免在协议中内联传输
+        input_file = task.get("inputFile")
+        sys.stdin = open(input_file, encoding="utf-8") if input_file else io.StringIO(task.get("input") or "")
+        exec(compile(task.get("code") or "", "script.py", "exec"), namespace)
+    except SystemExit as e:
+        if e.code is None:
+            exit_code = 0
+        elif isinstance(e.code, int):
+            exit_code = e.code
+        else:
+            stderr.write(str(e.code) + "\n")
+            exit_code = 1
+    except BaseException:
+        # 跳过工作进程自身的栈帧，只保留任务代码的堆栈
+        error_type, error, tb = sys.exc_info()
+        traceback.print_exception(error_type, error, tb.tb_next, file=stderr)
+        exit_code = 1
+    finally:
+        sys.stdin.close()
+        sys.stdin = io.StringIO("")
+        sys.stdout = WORKER_LOG
+        sys.stderr = WORKER_LOG
+        namespace.clear()
+        gc.collect()
+    return {
+        "exitCode": exit_code,
+        "stdout": stdout.getvalue(),
+        "stderr": stderr.getvalue(),
+        "maxRssKb": max_rss_kb(),
+    }
+
+
+def main():
+    modules = sys.argv[1].split(",") if len(sys.argv) > 1 else []
+    loaded = preload([name.strip() for name in modules])
+    sys.stdin = io.StringIO("")
+    sys.stdout = WORKER_LOG
+    send({"ready": True, "modules": loaded, "maxRssKb": max_rss_kb()})
+    for line in PROTOCOL_IN:
+        line = line.strip()
+        if not line:
+            continue
+        send(run(json.loads(line)))
+
+
+if __name__ == "__main__":
+    main()
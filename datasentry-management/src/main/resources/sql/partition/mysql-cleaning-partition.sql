@@ -0,0 +1,41 @@
+-- 清理审计类表分区改造（仅 MySQL，可选）
+-- 改造后配置 spring.ai.alibaba.datasentry.cleaning.lifecycle.partition.enabled=true，
+-- 生命周期任务会自动在 pmax 之前预创建未来分区，并按整分区 DROP/TRUNCATE 过期数据。
+-- 分区键需包含在主键中，因此主键调整为 (id, created_time)，created_time 调整为 NOT NULL。
+-- 存量数据全部落入 pmax，首次执行生命周期任务时会从 pmax 中拆分出当前及未来分区；
+-- 存量数据需等待按原分批 DELETE 或手动清理，pmax 本身不会被整分区删除。
+
+ALTER TABLE datasentry_cleaning_backup_record
+  MODIFY created_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, created_time);
+ALTER TABLE datasentry_cleaning_backup_record
+  PARTITION BY RANGE (UNIX_TIMESTAMP(created_time)) (PARTITION pmax VALUES LESS THAN MAXVALUE);
+
+ALTER TABLE datasentry_cleaning_record
+  MODIFY created_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, created_time);
+ALTER TABLE datasentry_cleaning_record
+  PARTITION BY RANGE (UNIX_TIMESTAMP(created_time)) (PARTITION pmax VALUES LESS THAN MAXVALUE);
+
+ALTER TABLE datasentry_cleaning_review_task
+  MODIFY created_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, created_time);
+ALTER TABLE datasentry_cleaning_review_task
+  PARTITION BY RANGE (UNIX_TIMESTAMP(created_time)) (PARTITION pmax VALUES LESS THAN MAXVALUE);
+
+ALTER TABLE datasentry_cleaning_review_feedback_record
+  MODIFY created_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, created_time);
+ALTER TABLE datasentry_cleaning_review_feedback_record
+  PARTITION BY RANGE (UNIX_TIMESTAMP(created_time)) (PARTITION pmax VALUES LESS THAN MAXVALUE);
+
+ALTER TABLE datasentry_cleaning_shadow_compare_record
+  MODIFY created_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  DROP PRIMARY KEY,
+  ADD PRIMARY KEY (id, created_time);
+ALTER TABLE datasentry_cleaning_shadow_compare_record
+  PARTITION BY RANGE (UNIX_TIMESTAMP(created_time)) (PARTITION pmax VALUES LESS THAN MAXVALUE);
@@ -138,6 +138,21 @@ CREATE TABLE IF NOT EXISTS datasentry_logical_relation (
   FOREIGN KEY (datasource_id) REFERENCES datasentry_datasource(id) ON DELETE CASCADE
 ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT = '逻辑外键配置表';
 
+-- 数据源表结构指纹表
+CREATE TABLE IF NOT EXISTS datasentry_schema_table_fingerprint (
+  id BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+  datasource_id BIGINT NOT NULL COMMENT '数据源ID',
+  table_name VARCHAR(255) NOT NULL COMMENT '表名',
+  column_hash VARCHAR(64) NOT NULL COMMENT '表描述与列定义哈希',
+  foreign_key_hash VARCHAR(64) NOT NULL COMMENT '外键关系哈希',
+  column_count INT DEFAULT 0 COMMENT '列数量',
+  created_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  updated_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (id),
+  UNIQUE KEY uk_schema_fingerprint_table (datasource_id, table_name),
+  FOREIGN KEY (datasource_id) REFERENCES datasentry_datasource(id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT = '数据源表结构指纹，用于增量刷新 Schema 向量';
+
 -- 智能体数据源关联表
 CREATE TABLE IF NOT EXISTS datasentry_agent_datasource (
   id BIGINT NOT NULL AUTO_INCREMENT,
@@ -207,6 +222,27 @@ CREATE TABLE IF NOT EXISTS datasentry_chat_message (
   FOREIGN KEY (session_id) REFERENCES datasentry_chat_session(id) ON DELETE CASCADE
 ) ENGINE = InnoDB COMMENT = '聊天消息表';
 
+-- 图执行节点指标表
+CREATE TABLE IF NOT EXISTS datasentry_graph_node_metric (
+  id BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+  execution_id VARCHAR(36) NOT NULL COMMENT '图执行ID',
+  thread_id VARCHAR(64) NOT NULL COMMENT '图线程ID',
+  session_id VARCHAR(36) DEFAULT NULL COMMENT '聊天会话ID',
+  agent_id BIGINT DEFAULT NULL COMMENT '智能体ID',
+  node_name VARCHAR(128) NOT NULL COMMENT '节点名，__graph__ 为整次执行汇总',
+  node_order INT DEFAULT 0 COMMENT '节点完成顺序',
+  duration_ms BIGINT DEFAULT 0 COMMENT '耗时（毫秒）',
+  first_chunk_ms BIGINT DEFAULT NULL COMMENT '首个流式输出耗时（毫秒）',
+  llm_call_count INT DEFAULT 0 COMMENT '大模型调用次数',
+  prompt_tokens BIGINT DEFAULT 0 COMMENT '输入token数',
+  completion_tokens BIGINT DEFAULT 0 COMMENT '输出token数',
+  status VARCHAR(16) NOT NULL COMMENT '执行状态：SUCCESS/ERROR/CANCELLED',
+  created_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (id),
+  INDEX idx_session_id (session_id),
+  INDEX idx_created_time (created_time)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT = '图执行节点耗时与token指标';
+
 -- 用户Prompt配置表
 CREATE TABLE IF NOT EXISTS datasentry_user_prompt_config (
   id VARCHAR(36) NOT NULL COMMENT '配置ID（UUID）',
@@ -429,6 +465,10 @@ CREATE TABLE IF NOT EXISTS datasentry_cleaning_job (
   budget_currency VARCHAR(16) DEFAULT 'CNY' COMMENT '预算货币单位',
   online_fail_closed_enabled TINYINT DEFAULT 1 COMMENT '在线超限是否启用 fail-closed',
   online_request_token_limit INT DEFAULT 4000 COMMENT '在线单次请求 token 上限',
+  watermark_column VARCHAR(128) DEFAULT NULL COMMENT '增量水位列（更新时间或单调递增ID），为空时每次全表扫描',
+  watermark_value VARCHAR(64) DEFAULT NULL COMMENT '上次成功运行的高水位',
+  watermark_policy_version_id BIGINT DEFAULT NULL COMMENT '产生高水位时的策略版本ID',
+  full_rescan_on_policy_change TINYINT DEFAULT 1 COMMENT '策略版本变化时是否全量重扫',
   enabled TINYINT DEFAULT 1 COMMENT '是否启用',
   created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   updated_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
@@ -449,6 +489,8 @@ CREATE TABLE IF NOT EXISTS datasentry_cleaning_job_run (
   heartbeat_time TIMESTAMP NULL DEFAULT NULL COMMENT '心跳时间',
   attempt INT DEFAULT 0 COMMENT '重试次数',
   checkpoint_json TEXT COMMENT '游标检查点JSON',
+  watermark_from VARCHAR(64) DEFAULT NULL COMMENT '增量起始水位（不含），为空表示全量',
+  watermark_to VARCHAR(64) DEFAULT NULL COMMENT '增量截止水位（含），运行开始时确定',
   policy_version_id BIGINT DEFAULT NULL COMMENT '策略版本ID',
   policy_snapshot_json TEXT COMMENT '策略快照',
   total_scanned BIGINT DEFAULT 0 COMMENT '扫描总数',
@@ -526,10 +568,13 @@ CREATE TABLE IF NOT EXISTS datasentry_cleaning_backup_record (
   key_version VARCHAR(50) DEFAULT NULL COMMENT '密钥版本',
   before_row_ciphertext TEXT COMMENT '加密后的旧值快照',
   before_row_json TEXT COMMENT '明文旧值快照',
+  payload_codec VARCHAR(32) DEFAULT NULL COMMENT '旧值快照编码：JSON/DEFLATE_JSON，为空视为 JSON',
+  payload_ref_id BIGINT DEFAULT NULL COMMENT '去重引用的备份记录ID，非空时旧值快照取自被引用记录',
   created_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   PRIMARY KEY (id),
   INDEX idx_job_run_id (job_run_id),
-  INDEX idx_pk_hash (pk_hash)
+  INDEX idx_pk_hash (pk_hash),
+  INDEX idx_payload_ref_id (payload_ref_id)
 ) ENGINE=InnoDB COMMENT='清理备份记录';
 
 -- 清理审计记录
@@ -0,0 +1,142 @@
+package com.touhouqing.datasentry.cleaning;
+
+import com.touhouqing.datasentry.cleaning.mapper.CleaningBackupRecordMapper;
+import com.touhouqing.datasentry.cleaning.model.CleaningBackupRecord;
+import com.touhouqing.datasentry.cleaning.service.CleaningBackupEncryptionService;
+import com.touhouqing.datasentry.cleaning.service.CleaningBackupPayloadService;
+import com.touhouqing.datasentry.cleaning.service.CleaningOpsStateService;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CleaningBackupPayloadServiceTest {
+
+	@Mock
+	private CleaningBackupEncryptionService encryptionService;
+
+	@Mock
+	private CleaningBackupRecordMapper backupRecordMapper;
+
+	private DataSentryProperties properties;
+
+	private CleaningOpsStateService opsStateService;
+
+	private CleaningBackupPayloadService payloadService;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new DataSentryProperties();
+		opsStateService = new CleaningOpsStateService();
+		payloadService = new CleaningBackupPayloadService(properties, encryptionService, backupRecordMapper,
+				opsStateService);
+	}
+
+	@Test
+	public void shouldCompressWidePayloadBeforeEncryption() {
+		when(encryptionService.isEncryptionEnabled()).thenReturn(true);
+		when(encryptionService.encryptBytes(any()))
+			.thenAnswer(invocation -> Base64.getEncoder().encodeToString(invocation.getArgument(0)));
+		when(encryptionService.decryptBytes(anyString()))
+			.thenAnswer(invocation -> Base64.getDecoder().decode((String) invocation.getArgument(0)));
+		Map<String, Object> beforeRow = wideRow();
+		CleaningBackupRecord record = CleaningBackupRecord.builder().jobRunId(1L).tableName("t_user").build();
+
+		payloadService.encode(record, beforeRow);
+
+		assertEquals(CleaningBackupPayloadService.CODEC_DEFLATE_JSON, record.getPayloadCodec());
+		assertNull(record.getBeforeRowJson());
+		assertEquals(beforeRow, payloadService.decode(record));
+		assertTrue(opsStateService.getBackupStoredBytes() < opsStateService.getBackupRawBytes());
+	}
+
+	@Test
+	public void shouldKeepSmallPlaintextPayloadAsJson() {
+		CleaningBackupRecord record = CleaningBackupRecord.builder().jobRunId(1L).tableName("t_user").build();
+
+		payloadService.encode(record, Map.of("email", "a@b.com"));
+
+		assertEquals(CleaningBackupPayloadService.CODEC_JSON, record.getPayloadCodec());
+		assertEquals("{\"email\":\"a@b.com\"}", record.getBeforeRowJson());
+		assertEquals(Map.of("email", "a@b.com"), payloadService.decode(record));
+	}
+
+	@Test
+	public void shouldDecodeLegacyPlaintextRecord() {
+		CleaningBackupRecord record = CleaningBackupRecord.builder().beforeRowJson("{\"phone\":\"13800000000\"}").build();
+
+		assertEquals(Map.of("phone", "13800000000"), payloadService.decode(record));
+	}
+
+	@Test
+	public void shouldReferenceIdenticalPayloadWithinRun() {
+		properties.getCleaning().getBackup().setDedupEnabled(true);
+		doAnswer(invocation -> {
+			CleaningBackupRecord inserted = invocation.getArgument(0);
+			inserted.setId(inserted.getPayloadRefId() == null ? 10L : 11L);
+			return 1;
+		}).when(backupRecordMapper).insert(any(CleaningBackupRecord.class));
+		CleaningBackupRecord first = CleaningBackupRecord.builder().jobRunId(1L).tableName("t_user").build();
+		CleaningBackupRecord second = CleaningBackupRecord.builder().jobRunId(1L).tableName("t_user").build();
+
+		payloadService.store(first, Map.of("status", "active"));
+		payloadService.store(second, Map.of("status", "active"));
+
+		assertNull(first.getPayloadRefId());
+		assertEquals(10L, second.getPayloadRefId());
+		assertNull(second.getBeforeRowJson());
+		assertEquals(1L, opsStateService.getBackupDedupHitCount());
+		when(backupRecordMapper.selectById(10L)).thenReturn(first);
+		assertEquals(Map.of("status", "active"), payloadService.decode(second));
+	}
+
+	@Test
+	public void shouldRehomeReferencedPayloadBeforePurge() {
+		LocalDateTime expireBefore = LocalDateTime.of(2024, 1, 1, 0, 0);
+		CleaningBackupRecord source = CleaningBackupRecord.builder()
+			.id(10L)
+			.beforeRowJson("{\"status\":\"active\"}")
+			.payloadCodec(CleaningBackupPayloadService.CODEC_JSON)
+			.build();
+		when(backupRecordMapper.findExpiringReferencedIds(expireBefore, 2)).thenReturn(List.of(10L, 20L), List.of());
+		when(backupRecordMapper.selectById(10L)).thenReturn(source);
+		when(backupRecordMapper.findLatestReferrerId(10L)).thenReturn(15L);
+		when(backupRecordMapper.selectById(20L)).thenReturn(null);
+
+		int rehomed = payloadService.rehomeExpiringPayloads(expireBefore, 2);
+
+		assertEquals(1, rehomed);
+		verify(backupRecordMapper).adoptPayload(15L, source);
+		verify(backupRecordMapper).repointPayloadRef(10L, 15L);
+		verify(backupRecordMapper, never()).repointPayloadRef(eq(20L), any());
+	}
+
+	private Map<String, Object> wideRow() {
+		Map<String, Object> row = new LinkedHashMap<>();
+		for (int i = 0; i < 40; i++) {
+			row.put("column_" + i, "customer remark value " + (i % 4));
+		}
+		return row;
+	}
+
+}
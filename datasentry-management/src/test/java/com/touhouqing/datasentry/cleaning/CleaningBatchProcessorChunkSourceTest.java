@@ -0,0 +1,224 @@
+package com.touhouqing.datasentry.cleaning;
+
+import com.touhouqing.datasentry.bo.DbConfigBO;
+import com.touhouqing.datasentry.cleaning.model.CleaningJob;
+import com.touhouqing.datasentry.cleaning.service.CleaningBatchProcessor;
+import com.touhouqing.datasentry.connector.pool.DBConnectionPool;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CleaningBatchProcessorChunkSourceTest {
+
+	private static final String H2_URL = "jdbc:h2:mem:cleaning_chunk_source;DB_CLOSE_DELAY=-1";
+
+	@Mock
+	private DBConnectionPool pool;
+
+	@Mock
+	private Connection mainConnection;
+
+	@Mock
+	private Connection readConnection;
+
+	@Mock
+	private DatabaseMetaData metaData;
+
+	@Mock
+	private PreparedStatement statement;
+
+	@Mock
+	private ResultSet resultSet;
+
+	private DataSentryProperties properties;
+
+	private CleaningBatchProcessor processor;
+
+	private Connection h2Connection;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		properties = new DataSentryProperties();
+		properties.getCleaning().getBatch().setStreamFetchSize(3);
+		processor = new CleaningBatchProcessor(null, null, null, null, null, null, null, null, null, null, null, null,
+				null, null, null, null, null, null, null, null, properties, null);
+		h2Connection = DriverManager.getConnection(H2_URL, "sa", "");
+		try (Statement ddl = h2Connection.createStatement()) {
+			ddl.execute("CREATE TABLE IF NOT EXISTS t_user (id INT PRIMARY KEY, name VARCHAR(32))");
+			ddl.execute("DELETE FROM t_user");
+			for (int id = 1; id <= 5; id++) {
+				ddl.execute("INSERT INTO t_user (id, name) VALUES (" + id + ", 'user" + id + "')");
+			}
+		}
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		h2Connection.close();
+	}
+
+	@Test
+	public void shouldStreamRowsInBatchSizedChunksFromSingleQuery() throws Exception {
+		properties.getCleaning().getBatch().setReadMode("STREAM");
+		when(pool.getConnection(any())).thenReturn(DriverManager.getConnection(H2_URL, "sa", ""));
+
+		try (AutoCloseable source = openChunkSource(h2Connection, h2Config(), null)) {
+			assertEquals(List.of("1", "2"), ids(next(source)));
+			assertEquals(List.of("3", "4"), ids(next(source)));
+			assertEquals(List.of("5"), ids(next(source)));
+			assertTrue(next(source).isEmpty());
+		}
+		verify(pool, times(1)).getConnection(any());
+	}
+
+	@Test
+	public void shouldResumeStreamingAfterCheckpointedPk() throws Exception {
+		properties.getCleaning().getBatch().setReadMode("STREAM");
+		when(pool.getConnection(any())).thenReturn(DriverManager.getConnection(H2_URL, "sa", ""));
+
+		try (AutoCloseable source = openChunkSource(h2Connection, h2Config(), Map.of("id", "2"))) {
+			assertEquals(List.of("3", "4"), ids(next(source)));
+			assertEquals(List.of("5"), ids(next(source)));
+		}
+	}
+
+	@Test
+	public void shouldPageWithKeysetWhenReadModeIsNotStream() throws Exception {
+		try (AutoCloseable source = openChunkSource(h2Connection, h2Config(), null)) {
+			assertEquals(List.of("1", "2"), ids(next(source, null)));
+			assertEquals(List.of("3", "4"), ids(next(source, Map.of("id", "2"))));
+			assertEquals(List.of("5"), ids(next(source, Map.of("id", "4"))));
+			assertTrue(next(source, Map.of("id", "5")).isEmpty());
+		}
+		verify(pool, never()).getConnection(any());
+	}
+
+	@Test
+	public void shouldFallBackToKeysetWhenStreamingConnectionUnavailable() throws Exception {
+		properties.getCleaning().getBatch().setReadMode("STREAM");
+		when(pool.getConnection(any()))
+			.thenThrow(new RuntimeException("pool exhausted", new SQLException("wait millis 10000, active 20")));
+
+		try (AutoCloseable source = openChunkSource(h2Connection, h2Config(), null)) {
+			assertEquals(List.of("1", "2"), ids(next(source, null)));
+		}
+	}
+
+	@Test
+	public void shouldReadPostgresCursorInsideTransactionAndRestoreAutoCommit() throws Exception {
+		properties.getCleaning().getBatch().setReadMode("STREAM");
+		mockDialect("PostgreSQL");
+		mockStreamingStatement();
+		when(readConnection.getAutoCommit()).thenReturn(true);
+		DbConfigBO config = DbConfigBO.builder().url("jdbc:postgresql://db:5432/app").build();
+		when(pool.getConnection(config)).thenReturn(readConnection);
+
+		try (AutoCloseable source = openChunkSource(mainConnection, config, null)) {
+			assertTrue(next(source).isEmpty());
+		}
+
+		InOrder ordered = inOrder(readConnection, statement);
+		ordered.verify(readConnection).setReadOnly(true);
+		ordered.verify(readConnection).setAutoCommit(false);
+		ordered.verify(statement).setFetchSize(3);
+		ordered.verify(statement).executeQuery();
+		ordered.verify(readConnection).rollback();
+		ordered.verify(readConnection).setAutoCommit(true);
+		ordered.verify(readConnection).setReadOnly(false);
+		ordered.verify(readConnection).close();
+	}
+
+	@Test
+	public void shouldStreamMysqlRowsOnPooledReadConnection() throws Exception {
+		properties.getCleaning().getBatch().setReadMode("STREAM");
+		mockDialect("MySQL");
+		mockStreamingStatement();
+		when(pool.getConnection(any())).thenReturn(readConnection);
+		DbConfigBO config = DbConfigBO.builder().url("jdbc:mysql://db:3306/app?useSSL=false").datasourceId(7L).build();
+
+		try (AutoCloseable source = openChunkSource(mainConnection, config, null)) {
+			assertTrue(next(source).isEmpty());
+		}
+
+		verify(pool).getConnection(same(config));
+		verify(statement).setFetchSize(Integer.MIN_VALUE);
+		verify(readConnection, never()).setAutoCommit(anyBoolean());
+		verify(readConnection).close();
+	}
+
+	private void mockDialect(String productName) throws Exception {
+		when(mainConnection.getMetaData()).thenReturn(metaData);
+		when(metaData.getDatabaseProductName()).thenReturn(productName);
+	}
+
+	private void mockStreamingStatement() throws Exception {
+		when(readConnection.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY),
+				eq(ResultSet.CONCUR_READ_ONLY)))
+			.thenReturn(statement);
+		when(statement.executeQuery()).thenReturn(resultSet);
+		when(resultSet.next()).thenReturn(false);
+	}
+
+	private AutoCloseable openChunkSource(Connection connection, DbConfigBO dbConfig, Map<String, String> lastPk)
+			throws Exception {
+		CleaningJob job = CleaningJob.builder().id(1L).tableName("t_user").batchSize(2).build();
+		Class<?> watermarkType = Class.forName(CleaningBatchProcessor.class.getName() + "$WatermarkRange");
+		Method method = CleaningBatchProcessor.class.getDeclaredMethod("openChunkSource", DBConnectionPool.class,
+				DbConfigBO.class, Connection.class, CleaningJob.class, List.class, List.class, Map.class,
+				watermarkType);
+		method.setAccessible(true);
+		return (AutoCloseable) method.invoke(processor, pool, dbConfig, connection, job, List.of("id"),
+				List.of("id", "name"), lastPk, null);
+	}
+
+	private List<Map<String, String>> next(AutoCloseable source) throws Exception {
+		return next(source, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Map<String, String>> next(AutoCloseable source, Map<String, String> lastPk) throws Exception {
+		Method method = Class.forName(CleaningBatchProcessor.class.getName() + "$RowChunkSource")
+			.getDeclaredMethod("next", Map.class);
+		method.setAccessible(true);
+		return (List<Map<String, String>>) method.invoke(source, lastPk);
+	}
+
+	private List<String> ids(List<Map<String, String>> rows) {
+		return rows.stream().map(row -> row.get("id")).toList();
+	}
+
+	private DbConfigBO h2Config() {
+		return DbConfigBO.builder().url(H2_URL).username("sa").password("").build();
+	}
+
+}
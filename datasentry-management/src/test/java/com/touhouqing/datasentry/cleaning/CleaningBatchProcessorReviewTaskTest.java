@@ -73,7 +73,7 @@ public class CleaningBatchProcessorReviewTaskTest {
 
 	private CleaningBatchProcessor newProcessor() {
 		return new CleaningBatchProcessor(null, null, null, null, null, null, null, null, null, null, null, null, null,
-				null, null, null, null, null, null, null);
+				null, null, null, null, null, null, null, null, null);
 	}
 
 }
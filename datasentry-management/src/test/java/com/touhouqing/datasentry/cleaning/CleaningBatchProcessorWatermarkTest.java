@@ -0,0 +1,250 @@
+package com.touhouqing.datasentry.cleaning;
+
+import com.touhouqing.datasentry.bo.DbConfigBO;
+import com.touhouqing.datasentry.cleaning.mapper.CleaningAllowlistMapper;
+import com.touhouqing.datasentry.cleaning.mapper.CleaningJobMapper;
+import com.touhouqing.datasentry.cleaning.mapper.CleaningJobRunMapper;
+import com.touhouqing.datasentry.cleaning.model.CleaningJob;
+import com.touhouqing.datasentry.cleaning.model.CleaningJobRun;
+import com.touhouqing.datasentry.cleaning.service.CleaningBatchProcessor;
+import com.touhouqing.datasentry.cleaning.service.CleaningPolicyResolver;
+import com.touhouqing.datasentry.cleaning.service.CleaningPricingService;
+import com.touhouqing.datasentry.connector.pool.DBConnectionPool;
+import com.touhouqing.datasentry.connector.pool.DBConnectionPoolFactory;
+import com.touhouqing.datasentry.connector.pool.DataSourcePoolRegistry;
+import com.touhouqing.datasentry.entity.Datasource;
+import com.touhouqing.datasentry.enums.DatabaseDialectEnum;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.service.datasource.DatasourceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CleaningBatchProcessorWatermarkTest {
+
+	private static final String H2_URL = "jdbc:h2:mem:cleaning_watermark;DB_CLOSE_DELAY=-1";
+
+	@Mock
+	private CleaningJobMapper jobMapper;
+
+	@Mock
+	private CleaningJobRunMapper jobRunMapper;
+
+	@Mock
+	private CleaningPolicyResolver policyResolver;
+
+	@Mock
+	private CleaningAllowlistMapper allowlistMapper;
+
+	@Mock
+	private DatasourceService datasourceService;
+
+	@Mock
+	private DBConnectionPoolFactory connectionPoolFactory;
+
+	@Mock
+	private CleaningPricingService pricingService;
+
+	@Mock
+	private DBConnectionPool pool;
+
+	private DataSentryProperties properties;
+
+	private CleaningBatchProcessor processor;
+
+	private Connection h2Connection;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		properties = new DataSentryProperties();
+		processor = new CleaningBatchProcessor(jobMapper, jobRunMapper, null, null, null, policyResolver,
+				allowlistMapper, null, datasourceService, connectionPoolFactory, null, null, pricingService, null,
+				null, null, null, null, null, null, properties, null);
+		h2Connection = DriverManager.getConnection(H2_URL, "sa", "");
+		try (Statement ddl = h2Connection.createStatement()) {
+			ddl.execute(
+					"CREATE TABLE IF NOT EXISTS t_event (id INT PRIMARY KEY, name VARCHAR(32), updated_at TIMESTAMP)");
+			ddl.execute("DELETE FROM t_event");
+			ddl.execute("INSERT INTO t_event VALUES (1, 'a', TIMESTAMP '2024-01-01 10:00:00')");
+			ddl.execute("INSERT INTO t_event VALUES (2, 'b', TIMESTAMP '2024-01-01 10:00:00')");
+			ddl.execute("INSERT INTO t_event VALUES (3, 'c', TIMESTAMP '2024-01-01 11:00:00')");
+			ddl.execute("INSERT INTO t_event VALUES (4, 'd', TIMESTAMP '2024-01-01 11:00:00')");
+		}
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		h2Connection.close();
+	}
+
+	@Test
+	public void shouldScanEverythingUpToCurrentMaxOnFirstRun() throws Exception {
+		mockH2Pool();
+		CleaningJobRun run = CleaningJobRun.builder().id(9L).build();
+
+		Object range = resolveWatermarkRange(run, job(null));
+
+		assertNull(field(range, "from"));
+		assertEquals("2024-01-01T11:00", field(range, "to"));
+		verify(jobRunMapper).updateWatermarkRange(eq(9L), isNull(), eq("2024-01-01T11:00"), any());
+	}
+
+	@Test
+	public void shouldReuseRecordedRangeWhenResumingRun() throws Exception {
+		CleaningJobRun run = CleaningJobRun.builder()
+			.id(9L)
+			.watermarkFrom("2024-01-01T09:00")
+			.watermarkTo("2024-01-01T10:00")
+			.build();
+
+		Object range = resolveWatermarkRange(run, job("2024-01-01T10:00"));
+
+		assertEquals("2024-01-01T09:00", field(range, "from"));
+		assertEquals("2024-01-01T10:00", field(range, "to"));
+		verify(pool, never()).getConnection(any());
+		verify(jobRunMapper, never()).updateWatermarkRange(any(), any(), any(), any());
+	}
+
+	@Test
+	public void shouldKeepRowsSharingTimestampAcrossChunkBoundary() throws Exception {
+		mockH2Pool();
+		CleaningJob job = job("2024-01-01T10:00");
+		job.setBatchSize(1);
+		Object range = resolveWatermarkRange(CleaningJobRun.builder().id(9L).policyVersionId(3L).build(), job);
+
+		// 下界 10:00 已在上次处理，两行排除；上界 11:00 的两行在分块之间也不能漏掉
+		assertEquals(List.of("3"), ids(fetchRows(job, null, range)));
+		assertEquals(List.of("4"), ids(fetchRows(job, Map.of("id", "3"), range)));
+		assertTrue(fetchRows(job, Map.of("id", "4"), range).isEmpty());
+	}
+
+	@Test
+	public void shouldHoldUpperBoundBackBySafetyLag() throws Exception {
+		mockH2Pool();
+		properties.getCleaning().getBatch().setWatermarkSafetyLagSeconds(300);
+		try (Statement insert = h2Connection.createStatement()) {
+			insert.execute("INSERT INTO t_event VALUES (5, 'e', CURRENT_TIMESTAMP)");
+		}
+		CleaningJob job = job("2024-01-01T10:00");
+
+		Object range = resolveWatermarkRange(CleaningJobRun.builder().id(9L).policyVersionId(3L).build(), job);
+
+		// 刚写入的行可能仍有同时间段的事务未提交，留给下一次运行
+		LocalDateTime to = LocalDateTime.parse((String) field(range, "to"));
+		assertTrue(to.isBefore(LocalDateTime.now().minusSeconds(299)));
+		assertEquals(List.of("3", "4"), ids(fetchRows(job, null, range)));
+	}
+
+	@Test
+	public void shouldAdvanceWatermarkAfterSuccessfulRun() throws Exception {
+		mockProcessRun();
+		CleaningJob job = job("2024-01-01T11:00");
+		when(jobMapper.selectById(1L)).thenReturn(job);
+		CleaningJobRun run = CleaningJobRun.builder().id(9L).jobId(1L).policyVersionId(3L).status("RUNNING").build();
+		when(jobRunMapper.selectById(9L)).thenReturn(run);
+
+		processor.processRun(run, "worker-1");
+
+		verify(jobRunMapper).updateStatus(eq(9L), eq("SUCCEEDED"), any(), any());
+		verify(jobMapper).updateWatermark(eq(1L), eq("2024-01-01T11:00"), eq(3L), any());
+	}
+
+	@Test
+	public void shouldNotAdvanceWatermarkWhenRunFails() throws Exception {
+		mockProcessRun();
+		when(jobMapper.selectById(1L)).thenReturn(job(null));
+		CleaningJobRun run = CleaningJobRun.builder().id(9L).jobId(1L).policyVersionId(3L).status("RUNNING").build();
+		when(jobRunMapper.selectById(9L)).thenThrow(new IllegalStateException("metadata database unavailable"));
+
+		processor.processRun(run, "worker-1");
+
+		verify(jobRunMapper).updateStatus(eq(9L), eq("FAILED"), any(), any());
+		verify(jobMapper, never()).updateWatermark(any(), any(), any(), any());
+	}
+
+	private void mockH2Pool() throws Exception {
+		when(pool.getConnection(any())).thenAnswer(invocation -> DriverManager.getConnection(H2_URL, "sa", ""));
+	}
+
+	private void mockProcessRun() throws Exception {
+		properties.getCleaning().setEnabled(true);
+		properties.getCleaning().getBatch().setEnabled(true);
+		mockH2Pool();
+		Datasource datasource = new Datasource();
+		datasource.setType("h2");
+		when(datasourceService.getDatasourceById(5L)).thenReturn(datasource);
+		when(datasourceService.getDbConfig(datasource, DataSourcePoolRegistry.WORKLOAD_CLEANING))
+			.thenReturn(new DbConfigBO());
+		when(datasourceService.getTableColumns(5L, "t_event")).thenReturn(List.of("id", "name", "updated_at"));
+		when(connectionPoolFactory.getPoolByDbType("h2")).thenReturn(pool);
+		when(pricingService.resolvePricing(anyString(), anyString())).thenReturn(new CleaningPricingService.Pricing(
+				"LOCAL_DEFAULT", "L3_LLM", BigDecimal.ZERO, BigDecimal.ZERO, "CNY"));
+	}
+
+	private CleaningJob job(String watermarkValue) {
+		return CleaningJob.builder()
+			.id(1L)
+			.datasourceId(5L)
+			.tableName("t_event")
+			.pkColumnsJson("[\"id\"]")
+			.targetColumnsJson("[\"name\"]")
+			.watermarkColumn("updated_at")
+			.watermarkValue(watermarkValue)
+			.watermarkPolicyVersionId(3L)
+			.batchSize(10)
+			.enabled(1)
+			.build();
+	}
+
+	private Object resolveWatermarkRange(CleaningJobRun run, CleaningJob job) throws Exception {
+		Method method = CleaningBatchProcessor.class.getDeclaredMethod("resolveWatermarkRange", CleaningJobRun.class,
+				CleaningJob.class, DBConnectionPool.class, DbConfigBO.class);
+		method.setAccessible(true);
+		return method.invoke(processor, run, job, pool, new DbConfigBO());
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Map<String, String>> fetchRows(CleaningJob job, Map<String, String> lastPk, Object range)
+			throws Exception {
+		Method method = CleaningBatchProcessor.class.getDeclaredMethod("fetchRows", Connection.class,
+				DatabaseDialectEnum.class, CleaningJob.class, List.class, List.class, Map.class, range.getClass());
+		method.setAccessible(true);
+		return (List<Map<String, String>>) method.invoke(processor, h2Connection, DatabaseDialectEnum.H2, job,
+				List.of("id"), List.of("id", "name"), lastPk, range);
+	}
+
+	private Object field(Object range, String accessor) throws Exception {
+		Method method = range.getClass().getDeclaredMethod(accessor);
+		method.setAccessible(true);
+		return method.invoke(range);
+	}
+
+	private List<String> ids(List<Map<String, String>> rows) {
+		return rows.stream().map(row -> row.get("id")).toList();
+	}
+
+}
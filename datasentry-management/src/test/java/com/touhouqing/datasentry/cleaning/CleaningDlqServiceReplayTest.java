@@ -0,0 +1,135 @@
+package com.touhouqing.datasentry.cleaning;
+
+import com.touhouqing.datasentry.cleaning.mapper.CleaningDlqMapper;
+import com.touhouqing.datasentry.cleaning.model.CleaningDlqRecord;
+import com.touhouqing.datasentry.cleaning.service.CleaningBatchProcessor;
+import com.touhouqing.datasentry.cleaning.service.CleaningDlqService;
+import com.touhouqing.datasentry.cleaning.service.CleaningNotificationService;
+import com.touhouqing.datasentry.cleaning.service.CleaningOpsStateService;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CleaningDlqServiceReplayTest {
+
+	@Mock
+	private CleaningDlqMapper dlqMapper;
+
+	@Mock
+	private CleaningNotificationService notificationService;
+
+	@Mock
+	private ObjectProvider<CleaningBatchProcessor> batchProcessorProvider;
+
+	@Mock
+	private CleaningBatchProcessor batchProcessor;
+
+	private CleaningOpsStateService opsStateService;
+
+	private CleaningDlqService dlqService;
+
+	@BeforeEach
+	public void setUp() {
+		opsStateService = new CleaningOpsStateService();
+		dlqService = new CleaningDlqService(dlqMapper, new DataSentryProperties(), notificationService,
+				batchProcessorProvider, opsStateService);
+	}
+
+	@Test
+	public void shouldReplaySameRunAndTableInOneGroup() {
+		when(dlqMapper.findRunnable(any(), anyInt()))
+			.thenReturn(List.of(record(1L, "{\"id\":\"1\"}"), record(2L, "{\"id\":\"2\"}"),
+					record(3L, "{\"id\":\"3\"}")));
+		when(dlqMapper.claim(any(), any(), any())).thenReturn(1);
+		when(batchProcessorProvider.getObject()).thenReturn(batchProcessor);
+		when(batchProcessor.replayRows(eq(10L), any()))
+			.thenReturn(List.of(new CleaningBatchProcessor.ReplayOutcome("SUCCEEDED", true, null, null),
+					new CleaningBatchProcessor.ReplayOutcome("FAILED", false, "timeout", null),
+					new CleaningBatchProcessor.ReplayOutcome("MISSING", false, null, null)));
+		LocalDateTime before = LocalDateTime.now();
+
+		dlqService.retryBatch();
+
+		verify(batchProcessor, times(1)).replayRows(10L,
+				List.of(Map.of("id", "1"), Map.of("id", "2"), Map.of("id", "3")));
+		verify(dlqMapper).markDone(1L);
+		verify(dlqMapper).markDone(3L);
+		ArgumentCaptor<LocalDateTime> nextRetry = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(dlqMapper).recordReplayFailure(eq(2L), eq("READY"), eq(1), nextRetry.capture(), anyString());
+		assertFalse(nextRetry.getValue().isBefore(before.plusSeconds(150)));
+		assertFalse(nextRetry.getValue().isAfter(LocalDateTime.now().plusSeconds(300)));
+		assertEquals(1L, opsStateService.getDlqReplaySucceededCount());
+		assertEquals(1L, opsStateService.getDlqReplayMissingCount());
+		assertEquals(1L, opsStateService.getDlqFailureByClass().get("UNKNOWN"));
+	}
+
+	@Test
+	public void shouldClassifyFailuresAndStopRetryingDataErrors() {
+		when(dlqMapper.findRunnable(any(), anyInt()))
+			.thenReturn(List.of(record(1L, "{\"id\":\"1\"}"), record(2L, "{\"id\":\"2\"}")));
+		when(dlqMapper.claim(any(), any(), any())).thenReturn(1);
+		when(batchProcessorProvider.getObject()).thenReturn(batchProcessor);
+		when(batchProcessor.replayRows(eq(10L), any())).thenReturn(List.of(
+				new CleaningBatchProcessor.ReplayOutcome("FAILED", false, "conn reset",
+						new SQLTransientConnectionException("conn reset")),
+				new CleaningBatchProcessor.ReplayOutcome("FAILED", false, "duplicate",
+						new IllegalStateException(new SQLIntegrityConstraintViolationException("duplicate")))));
+
+		dlqService.retryBatch();
+
+		verify(dlqMapper).recordReplayFailure(eq(1L), eq("READY"), eq(1), any(), eq("[TRANSIENT] conn reset"));
+		verify(dlqMapper).recordReplayFailure(eq(2L), eq("DEAD"), eq(1), isNull(), eq("[DATA] duplicate"));
+		Map<String, Long> failureByClass = opsStateService.getDlqFailureByClass();
+		assertEquals(1L, failureByClass.get("TRANSIENT"));
+		assertEquals(1L, failureByClass.get("DATA"));
+		assertEquals(1L, opsStateService.getDlqDeadCount());
+	}
+
+	@Test
+	public void shouldSkipRecordsClaimedByAnotherInstance() {
+		when(dlqMapper.findRunnable(any(), anyInt())).thenReturn(List.of(record(1L, "{\"id\":\"1\"}")));
+		when(dlqMapper.claim(any(), any(), any())).thenReturn(0);
+
+		dlqService.retryBatch();
+
+		verify(batchProcessorProvider, times(0)).getObject();
+		assertTrue(opsStateService.getDlqFailureByClass().isEmpty());
+	}
+
+	private CleaningDlqRecord record(Long id, String pkJson) {
+		return CleaningDlqRecord.builder()
+			.id(id)
+			.jobId(5L)
+			.jobRunId(10L)
+			.tableName("t_user")
+			.pkJson(pkJson)
+			.retryCount(0)
+			.status("READY")
+			.build();
+	}
+
+}
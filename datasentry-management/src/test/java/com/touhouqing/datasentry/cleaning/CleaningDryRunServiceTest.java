@@ -0,0 +1,207 @@
+package com.touhouqing.datasentry.cleaning;
+
+import com.touhouqing.datasentry.cleaning.dto.CleaningDryRunEstimateView;
+import com.touhouqing.datasentry.cleaning.dto.CleaningDryRunRequest;
+import com.touhouqing.datasentry.cleaning.enums.CleaningVerdict;
+import com.touhouqing.datasentry.cleaning.mapper.CleaningAllowlistMapper;
+import com.touhouqing.datasentry.cleaning.mapper.CleaningJobMapper;
+import com.touhouqing.datasentry.cleaning.model.CleaningContext;
+import com.touhouqing.datasentry.cleaning.model.CleaningJob;
+import com.touhouqing.datasentry.cleaning.pipeline.CleaningPipeline;
+import com.touhouqing.datasentry.cleaning.service.CleaningDryRunService;
+import com.touhouqing.datasentry.cleaning.service.CleaningPolicyResolver;
+import com.touhouqing.datasentry.cleaning.service.CleaningPricingService;
+import com.touhouqing.datasentry.cleaning.service.CleaningTokenEstimator;
+import com.touhouqing.datasentry.cleaning.util.CleaningJsonPathProcessor;
+import com.touhouqing.datasentry.connector.pool.DBConnectionPool;
+import com.touhouqing.datasentry.connector.pool.DBConnectionPoolFactory;
+import com.touhouqing.datasentry.entity.Datasource;
+import com.touhouqing.datasentry.exception.InvalidInputException;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.service.datasource.DatasourceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CleaningDryRunServiceTest {
+
+	private static final String URL = "jdbc:h2:mem:cleaning_dry_run;DB_CLOSE_DELAY=-1";
+
+	@Mock
+	private CleaningJobMapper jobMapper;
+
+	@Mock
+	private CleaningPolicyResolver policyResolver;
+
+	@Mock
+	private CleaningAllowlistMapper allowlistMapper;
+
+	@Mock
+	private CleaningPipeline pipeline;
+
+	@Mock
+	private CleaningJsonPathProcessor jsonPathProcessor;
+
+	@Mock
+	private CleaningPricingService pricingService;
+
+	@Mock
+	private DatasourceService datasourceService;
+
+	@Mock
+	private DBConnectionPoolFactory connectionPoolFactory;
+
+	@Mock
+	private DBConnectionPool connectionPool;
+
+	private Connection keepAlive;
+
+	private CleaningDryRunService dryRunService;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		keepAlive = DriverManager.getConnection(URL);
+		try (Statement statement = keepAlive.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS t_comment");
+			statement.execute("CREATE TABLE t_comment (id BIGINT PRIMARY KEY, content VARCHAR(200))");
+			for (int i = 1; i <= 2000; i++) {
+				String content = i % 10 == 0 ? "phone 13800000000" : "normal comment " + i;
+				statement.execute("INSERT INTO t_comment VALUES (" + i + ", '" + content + "')");
+			}
+		}
+		Datasource datasource = new Datasource();
+		datasource.setType("h2");
+		when(datasourceService.getDatasourceById(1L)).thenReturn(datasource);
+		when(connectionPoolFactory.getPoolByDbType("h2")).thenReturn(connectionPool);
+		when(connectionPool.getConnection(any())).thenAnswer(invocation -> DriverManager.getConnection(URL));
+		when(pipeline.execute(any(CleaningContext.class), anyBoolean())).thenAnswer(invocation -> {
+			CleaningContext context = invocation.getArgument(0);
+			context.setVerdict(context.getOriginalText().startsWith("phone") ? CleaningVerdict.REDACTED
+					: CleaningVerdict.ALLOW);
+			return context;
+		});
+		when(pricingService.resolvePricing(anyString(), anyString()))
+			.thenReturn(new CleaningPricingService.Pricing("LOCAL_DEFAULT", "L3_LLM", new BigDecimal("0.01"),
+					new BigDecimal("0.02"), "CNY"));
+		dryRunService = new CleaningDryRunService(jobMapper, policyResolver, allowlistMapper, pipeline,
+				jsonPathProcessor, new CleaningTokenEstimator(), pricingService, datasourceService,
+				connectionPoolFactory, new DataSentryProperties());
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		keepAlive.close();
+	}
+
+	@Test
+	public void shouldExtrapolateFlaggedRowsFromRandomSample() {
+		when(jobMapper.selectById(5L)).thenReturn(job(null, new BigDecimal("0.000001")));
+
+		CleaningDryRunEstimateView view = dryRunService.estimate(5L,
+				CleaningDryRunRequest.builder().sampleSize(800).build());
+
+		assertEquals("H2", view.getDialect());
+		assertEquals("RANDOM_FILTER", view.getSamplingMethod());
+		assertEquals(2000L, view.getPopulationRows());
+		assertFalse(view.isPopulationRowsApproximate());
+		assertTrue(view.getSampledRows() > 0 && view.getSampledRows() <= 800);
+		CleaningDryRunEstimateView.Estimate flaggedRows = view.getFlaggedRows();
+		assertTrue(flaggedRows.getLower() <= flaggedRows.getExpected()
+				&& flaggedRows.getExpected() <= flaggedRows.getUpper());
+		assertTrue(flaggedRows.getExpected() > 100 && flaggedRows.getExpected() < 300);
+		assertEquals("CNY", view.getCurrency());
+		assertTrue(view.getTokens().getExpected() > 0);
+		assertTrue(view.isHardLimitAtRisk());
+	}
+
+	@Test
+	public void shouldDrawSampleFromWholeTableRatherThanScanPrefix() {
+		when(jobMapper.selectById(5L)).thenReturn(job(null, null));
+		List<Long> sampledIds = new ArrayList<>();
+		when(pipeline.execute(any(CleaningContext.class), anyBoolean())).thenAnswer(invocation -> {
+			CleaningContext context = invocation.getArgument(0);
+			if (context.getOriginalText().startsWith("normal comment ")) {
+				sampledIds.add(Long.parseLong(context.getOriginalText().substring("normal comment ".length())));
+			}
+			context.setVerdict(CleaningVerdict.ALLOW);
+			return context;
+		});
+
+		CleaningDryRunEstimateView view = dryRunService.estimate(5L,
+				CleaningDryRunRequest.builder().sampleSize(100).build());
+
+		assertEquals(100, view.getSampledRows());
+		// 按扫描顺序截取时只会取到 id 较小的行
+		assertTrue(sampledIds.stream().anyMatch(id -> id > 1000));
+	}
+
+	@Test
+	public void shouldReadWholeFilteredPopulationWhenSampleCoversIt() {
+		when(jobMapper.selectById(5L)).thenReturn(job("id <= 50", null));
+
+		CleaningDryRunEstimateView view = dryRunService.estimate(5L, null);
+
+		assertEquals("FULL", view.getSamplingMethod());
+		assertEquals(50L, view.getPopulationRows());
+		assertEquals(50, view.getSampledRows());
+		assertEquals(5D, view.getFlaggedRows().getExpected(), 1e-9);
+		assertEquals(view.getFlaggedRows().getLower(), view.getFlaggedRows().getUpper(), 1e-9);
+		assertFalse(view.isHardLimitAtRisk());
+	}
+
+	@Test
+	public void shouldLeaveCostEmptyWhenPricingMissing() {
+		when(jobMapper.selectById(5L)).thenReturn(job("id <= 20", null));
+		when(pricingService.resolvePricing(anyString(), anyString()))
+			.thenThrow(new CleaningPricingService.PricingNotConfiguredException("missing"));
+
+		CleaningDryRunEstimateView view = dryRunService.estimate(5L, null);
+
+		assertNull(view.getCost());
+		assertNull(view.getCurrency());
+	}
+
+	@Test
+	public void shouldRejectMissingJob() {
+		assertThrows(InvalidInputException.class, () -> dryRunService.estimate(404L, null));
+	}
+
+	private CleaningJob job(String whereSql, BigDecimal hardLimit) {
+		return CleaningJob.builder()
+			.id(5L)
+			.agentId(1L)
+			.datasourceId(1L)
+			.tableName("t_comment")
+			.pkColumnsJson("[\"id\"]")
+			.targetColumnsJson("[\"content\"]")
+			.whereSql(whereSql)
+			.policyId(1L)
+			.budgetHardLimit(hardLimit)
+			.build();
+	}
+
+}
@@ -10,7 +10,9 @@ import com.touhouqing.datasentry.cleaning.mapper.CleaningRollbackRunMapper;
 import com.touhouqing.datasentry.cleaning.mapper.CleaningRollbackVerifyRecordMapper;
 import com.touhouqing.datasentry.cleaning.mapper.CleaningShadowCompareRecordMapper;
 import com.touhouqing.datasentry.cleaning.model.CleaningRecord;
+import com.touhouqing.datasentry.cleaning.service.CleaningBackupPayloadService;
 import com.touhouqing.datasentry.cleaning.service.CleaningLifecycleService;
+import com.touhouqing.datasentry.cleaning.service.CleaningPartitionService;
 import com.touhouqing.datasentry.properties.DataSentryProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -57,6 +59,12 @@ public class CleaningLifecycleServiceTest {
 	@Mock
 	private CleaningDlqMapper dlqMapper;
 
+	@Mock
+	private CleaningPartitionService partitionService;
+
+	@Mock
+	private CleaningBackupPayloadService backupPayloadService;
+
 	private DataSentryProperties properties;
 
 	private CleaningLifecycleService lifecycleService;
@@ -69,7 +77,8 @@ public class CleaningLifecycleServiceTest {
 		properties.getCleaning().getLifecycle().setBatchLimit(2);
 		lifecycleService = new CleaningLifecycleService(properties, backupRecordMapper, recordMapper, reviewTaskMapper,
 				reviewFeedbackRecordMapper, shadowCompareRecordMapper, rollbackVerifyRecordMapper,
-				rollbackConflictRecordMapper, rollbackRunMapper, dlqMapper);
+				rollbackConflictRecordMapper, rollbackRunMapper, dlqMapper, partitionService,
+				backupPayloadService);
 	}
 
 	@Test
@@ -98,6 +107,7 @@ public class CleaningLifecycleServiceTest {
 		CleaningLifecycleService.CleaningLifecyclePurgeResult result = lifecycleService.purgeExpiredData();
 
 		assertEquals(3L, result.backupDeleted());
+		verify(backupPayloadService).rehomeExpiringPayloads(any(), anyInt());
 		assertEquals(3L, result.totalDeleted());
 		ArgumentCaptor<CleaningRecord> captor = ArgumentCaptor.forClass(CleaningRecord.class);
 		verify(recordMapper).insert(captor.capture());
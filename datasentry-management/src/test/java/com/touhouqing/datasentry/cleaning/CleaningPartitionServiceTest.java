@@ -0,0 +1,133 @@
+package com.touhouqing.datasentry.cleaning;
+
+import com.touhouqing.datasentry.cleaning.mapper.CleaningPartitionMapper;
+import com.touhouqing.datasentry.cleaning.model.CleaningPartitionInfo;
+import com.touhouqing.datasentry.cleaning.service.CleaningPartitionService;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CleaningPartitionServiceTest {
+
+	private static final String TABLE = CleaningPartitionService.RECORD_TABLE;
+
+	@Mock
+	private CleaningPartitionMapper partitionMapper;
+
+	@Mock
+	private DataSource dataSource;
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private DatabaseMetaData metaData;
+
+	private DataSentryProperties properties;
+
+	private CleaningPartitionService service;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new DataSentryProperties();
+		properties.getCleaning().getLifecycle().getPartition().setEnabled(true);
+		service = new CleaningPartitionService(properties, partitionMapper, dataSource);
+	}
+
+	@Test
+	public void shouldDropOnlyFullyExpiredPartitions() {
+		when(partitionMapper.listPartitions(TABLE)).thenReturn(List.of(partition("p20240101", 10L),
+				partition("p20240102", 20L), partition("p20240103", 30L), partition("pmax", 5L)));
+
+		long purged = service.purgeExpiredPartitions(TABLE, LocalDateTime.of(2024, 1, 3, 12, 0));
+
+		assertEquals(30L, purged);
+		verify(partitionMapper).dropPartition(TABLE, "p20240101");
+		verify(partitionMapper).dropPartition(TABLE, "p20240102");
+		verify(partitionMapper, never()).dropPartition(TABLE, "p20240103");
+		verify(partitionMapper, never()).dropPartition(TABLE, "pmax");
+	}
+
+	@Test
+	public void shouldTruncateWhenConfigured() {
+		properties.getCleaning().getLifecycle().getPartition().setRetentionAction("TRUNCATE");
+		when(partitionMapper.listPartitions(TABLE))
+			.thenReturn(List.of(partition("p202311", 0L), partition("p202312", 100L), partition("p202401", 0L),
+					partition("pmax", 0L)));
+		when(partitionMapper.probePartitionRow(TABLE, "p202311")).thenReturn(1);
+		when(partitionMapper.probePartitionRow(TABLE, "p202312")).thenReturn(1);
+		when(partitionMapper.probePartitionRow(TABLE, "p202401")).thenReturn(null);
+
+		long purged = service.purgeExpiredPartitions(TABLE, LocalDateTime.of(2024, 3, 1, 0, 0));
+
+		assertEquals(100L, purged);
+		verify(partitionMapper).truncatePartition(TABLE, "p202311");
+		verify(partitionMapper).truncatePartition(TABLE, "p202312");
+		verify(partitionMapper, never()).truncatePartition(TABLE, "p202401");
+		verify(partitionMapper, never()).dropPartition(anyString(), anyString());
+	}
+
+	@Test
+	public void shouldReorganizeMaxPartitionForFuturePeriods() throws Exception {
+		mockMetadb("MySQL");
+		properties.getCleaning().getLifecycle().getPartition().setPrecreatePeriods(2);
+		String today = LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
+		when(partitionMapper.listPartitions(anyString())).thenReturn(List.of());
+		when(partitionMapper.listPartitions(TABLE))
+			.thenReturn(List.of(partition("p" + today, 0L), partition("pmax", 0L)));
+
+		service.ensureFuturePartitions();
+
+		ArgumentCaptor<String> definitions = ArgumentCaptor.forClass(String.class);
+		verify(partitionMapper).reorganizeMaxPartition(eq(TABLE), eq("pmax"), definitions.capture());
+		String tomorrow = LocalDate.now().plusDays(1).format(DateTimeFormatter.BASIC_ISO_DATE);
+		String afterTomorrow = LocalDate.now().plusDays(2).format(DateTimeFormatter.BASIC_ISO_DATE);
+		assertFalse(definitions.getValue().contains("PARTITION p" + today + " "));
+		assertTrue(definitions.getValue().contains("PARTITION p" + tomorrow + " "));
+		assertTrue(definitions.getValue().contains("PARTITION p" + afterTomorrow + " "));
+		assertTrue(definitions.getValue().endsWith("PARTITION pmax VALUES LESS THAN MAXVALUE"));
+	}
+
+	@Test
+	public void shouldSkipPartitionModeForNonMysqlMetadb() throws Exception {
+		mockMetadb("H2");
+
+		assertFalse(service.isPartitionManaged(TABLE));
+		service.ensureFuturePartitions();
+
+		verify(partitionMapper, never()).listPartitions(anyString());
+	}
+
+	private void mockMetadb(String productName) throws Exception {
+		when(dataSource.getConnection()).thenReturn(connection);
+		when(connection.getMetaData()).thenReturn(metaData);
+		when(metaData.getDatabaseProductName()).thenReturn(productName);
+	}
+
+	private CleaningPartitionInfo partition(String name, long rows) {
+		return CleaningPartitionInfo.builder().partitionName(name).tableRows(rows).build();
+	}
+
+}
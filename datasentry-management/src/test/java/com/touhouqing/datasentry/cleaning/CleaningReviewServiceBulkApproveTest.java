@@ -0,0 +1,204 @@
+package com.touhouqing.datasentry.cleaning;
+
+import com.touhouqing.datasentry.bo.DbConfigBO;
+import com.touhouqing.datasentry.cleaning.dto.CleaningReviewBatchRequest;
+import com.touhouqing.datasentry.cleaning.dto.CleaningReviewBatchResult;
+import com.touhouqing.datasentry.cleaning.mapper.CleaningBackupRecordMapper;
+import com.touhouqing.datasentry.cleaning.mapper.CleaningJobRunMapper;
+import com.touhouqing.datasentry.cleaning.mapper.CleaningRecordMapper;
+import com.touhouqing.datasentry.cleaning.mapper.CleaningReviewFeedbackRecordMapper;
+import com.touhouqing.datasentry.cleaning.mapper.CleaningReviewTaskMapper;
+import com.touhouqing.datasentry.cleaning.model.CleaningReviewTask;
+import com.touhouqing.datasentry.cleaning.service.CleaningBackupEncryptionService;
+import com.touhouqing.datasentry.cleaning.service.CleaningBackupPayloadService;
+import com.touhouqing.datasentry.cleaning.service.CleaningReviewService;
+import com.touhouqing.datasentry.connector.pool.DBConnectionPool;
+import com.touhouqing.datasentry.connector.pool.DBConnectionPoolFactory;
+import com.touhouqing.datasentry.connector.pool.DataSourcePoolRegistry;
+import com.touhouqing.datasentry.entity.Datasource;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.service.datasource.DatasourceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CleaningReviewServiceBulkApproveTest {
+
+	@Mock
+	private CleaningReviewTaskMapper reviewTaskMapper;
+
+	@Mock
+	private CleaningBackupRecordMapper backupRecordMapper;
+
+	@Mock
+	private CleaningJobRunMapper jobRunMapper;
+
+	@Mock
+	private CleaningRecordMapper recordMapper;
+
+	@Mock
+	private CleaningReviewFeedbackRecordMapper reviewFeedbackRecordMapper;
+
+	@Mock
+	private CleaningBackupEncryptionService encryptionService;
+
+	@Mock
+	private DatasourceService datasourceService;
+
+	@Mock
+	private DBConnectionPoolFactory connectionPoolFactory;
+
+	@Mock
+	private CleaningBackupPayloadService backupPayloadService;
+
+	@Mock
+	private DBConnectionPool pool;
+
+	@Mock
+	private Connection connection;
+
+	@Mock
+	private PreparedStatement selectStatement;
+
+	@Mock
+	private PreparedStatement updateStatement;
+
+	@Mock
+	private ResultSet resultSet;
+
+	private CleaningReviewService reviewService;
+
+	@BeforeEach
+	public void setUp() {
+		reviewService = new CleaningReviewService(reviewTaskMapper, backupRecordMapper, reviewFeedbackRecordMapper,
+				jobRunMapper, recordMapper, encryptionService, datasourceService, connectionPoolFactory,
+				new DataSentryProperties(), Runnable::run, backupPayloadService);
+	}
+
+	@Test
+	public void shouldApproveSameTableTasksWithSingleConnectionAndBatchedWrites() throws Exception {
+		when(reviewTaskMapper.selectList(any()))
+			.thenReturn(List.of(updateTask(1L, "1", "alice", "a***"), updateTask(2L, "2", "bob", "b**")));
+		when(reviewTaskMapper.updateStatusWithVersion(any(), any(), any(), any(), any(), any())).thenReturn(1);
+		Datasource datasource = new Datasource();
+		datasource.setType("mysql");
+		when(datasourceService.getDatasourceById(5L)).thenReturn(datasource);
+		when(datasourceService.getDbConfig(datasource, DataSourcePoolRegistry.WORKLOAD_CLEANING))
+			.thenReturn(new DbConfigBO());
+		when(connectionPoolFactory.getPoolByDbType("mysql")).thenReturn(pool);
+		when(pool.getConnection(any())).thenReturn(connection);
+		when(connection.getAutoCommit()).thenReturn(true);
+		when(connection.prepareStatement(anyString())).thenReturn(selectStatement, updateStatement);
+		when(selectStatement.executeQuery()).thenReturn(resultSet);
+		when(resultSet.next()).thenReturn(true, true, false);
+		when(resultSet.getString("id")).thenReturn("1", "2");
+		when(resultSet.getString("name")).thenReturn("alice", "bobby");
+		when(updateStatement.executeBatch()).thenReturn(new int[] { 1 });
+
+		CleaningReviewBatchResult result = reviewService
+			.batchApprove(CleaningReviewBatchRequest.builder().taskIds(List.of(1L, 2L)).reviewer("ops").build());
+
+		assertEquals(2, result.getTotal());
+		assertEquals(1, result.getSuccess());
+		assertEquals(1, result.getConflict());
+		assertEquals(0, result.getFailed());
+		verify(pool, times(1)).getConnection(any());
+		verify(connection, times(2)).prepareStatement(anyString());
+		verify(updateStatement, times(1)).addBatch();
+		verify(updateStatement, times(1)).executeBatch();
+		verify(connection, times(1)).commit();
+		verify(backupRecordMapper, times(1)).insert(anyList());
+	}
+
+	@Test
+	public void shouldFlushOnSqlChangeAndTreatZeroUpdateCountAsConflict() throws Exception {
+		when(reviewTaskMapper.selectList(any())).thenReturn(List.of(updateTask(1L, "1", "name", "alice", "a***"),
+				updateTask(2L, "2", "email", "b@x.com", "b***"), updateTask(3L, "3", "name", "carol", "c***")));
+		when(reviewTaskMapper.updateStatusWithVersion(any(), any(), any(), any(), any(), any())).thenReturn(1);
+		mockConnection();
+		when(connection.prepareStatement(anyString())).thenReturn(selectStatement, updateStatement);
+		when(selectStatement.executeQuery()).thenReturn(resultSet);
+		when(resultSet.next()).thenReturn(true, true, true, false);
+		when(resultSet.getString("id")).thenReturn("1", "2", "3");
+		when(resultSet.getString("name")).thenReturn("alice", "bob", "carol");
+		when(resultSet.getString("email")).thenReturn("a@x.com", "b@x.com", "c@x.com");
+		when(updateStatement.executeBatch()).thenReturn(new int[] { 1 }, new int[] { 0 }, new int[] { 1 });
+
+		CleaningReviewBatchResult result = reviewService
+			.batchApprove(CleaningReviewBatchRequest.builder().taskIds(List.of(1L, 2L, 3L)).reviewer("ops").build());
+
+		assertEquals(2, result.getSuccess());
+		assertEquals(1, result.getConflict());
+		assertEquals(0, result.getFailed());
+		// name -> email -> name：每次 SQL 变化都先执行前一批，共三批
+		verify(connection, times(4)).prepareStatement(anyString());
+		verify(updateStatement, times(3)).executeBatch();
+		verify(backupRecordMapper, times(2)).insert(anyList());
+		verify(connection, times(1)).commit();
+	}
+
+	@Test
+	public void shouldRecordErrorTextOnFailedWriteback() throws Exception {
+		when(reviewTaskMapper.selectList(any())).thenReturn(List.of(updateTask(1L, "1", "alice", "a***")));
+		when(reviewTaskMapper.updateStatusWithVersion(any(), any(), any(), any(), any(), any())).thenReturn(1);
+		mockConnection();
+		when(connection.prepareStatement(anyString())).thenThrow(new SQLException("table is locked"));
+
+		CleaningReviewBatchResult result = reviewService.batchApprove(
+				CleaningReviewBatchRequest.builder().taskIds(List.of(1L)).reviewer("ops").reason("looks fine").build());
+
+		assertEquals(1, result.getFailed());
+		verify(reviewTaskMapper).updateStatusBatchIfMatch(eq(List.of(1L)), eq("APPROVED"), eq("FAILED"), eq("ops"),
+				eq("Writeback failed: table is locked"), any());
+	}
+
+	private void mockConnection() throws Exception {
+		Datasource datasource = new Datasource();
+		datasource.setType("mysql");
+		when(datasourceService.getDatasourceById(5L)).thenReturn(datasource);
+		when(datasourceService.getDbConfig(datasource, DataSourcePoolRegistry.WORKLOAD_CLEANING))
+			.thenReturn(new DbConfigBO());
+		when(connectionPoolFactory.getPoolByDbType("mysql")).thenReturn(pool);
+		when(pool.getConnection(any())).thenReturn(connection);
+		when(connection.getAutoCommit()).thenReturn(true);
+	}
+
+	private CleaningReviewTask updateTask(Long id, String pk, String before, String after) {
+		return updateTask(id, pk, "name", before, after);
+	}
+
+	private CleaningReviewTask updateTask(Long id, String pk, String column, String before, String after) {
+		return CleaningReviewTask.builder()
+			.id(id)
+			.jobRunId(9L)
+			.datasourceId(5L)
+			.tableName("t_user")
+			.pkJson("{\"id\":\"" + pk + "\"}")
+			.columnName(column)
+			.actionSuggested("UPDATE")
+			.beforeRowJson("{\"" + column + "\":\"" + before + "\"}")
+			.writebackPayloadJson("{\"" + column + "\":\"" + after + "\"}")
+			.status("PENDING")
+			.version(0)
+			.build();
+	}
+
+}
@@ -9,8 +9,10 @@ import com.touhouqing.datasentry.cleaning.mapper.CleaningReviewFeedbackRecordMap
 import com.touhouqing.datasentry.cleaning.mapper.CleaningReviewTaskMapper;
 import com.touhouqing.datasentry.cleaning.model.CleaningReviewTask;
 import com.touhouqing.datasentry.cleaning.service.CleaningBackupEncryptionService;
+import com.touhouqing.datasentry.cleaning.service.CleaningBackupPayloadService;
 import com.touhouqing.datasentry.cleaning.service.CleaningReviewService;
 import com.touhouqing.datasentry.connector.pool.DBConnectionPoolFactory;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
 import com.touhouqing.datasentry.service.datasource.DatasourceService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -52,12 +54,16 @@ public class CleaningReviewServiceEscalationTest {
 	@Mock
 	private DBConnectionPoolFactory connectionPoolFactory;
 
+	@Mock
+	private CleaningBackupPayloadService backupPayloadService;
+
 	private CleaningReviewService reviewService;
 
 	@BeforeEach
 	public void setUp() {
 		reviewService = new CleaningReviewService(reviewTaskMapper, backupRecordMapper, reviewFeedbackRecordMapper,
-				jobRunMapper, recordMapper, encryptionService, datasourceService, connectionPoolFactory);
+				jobRunMapper, recordMapper, encryptionService, datasourceService, connectionPoolFactory,
+				new DataSentryProperties(), Runnable::run, backupPayloadService);
 	}
 
 	@Test
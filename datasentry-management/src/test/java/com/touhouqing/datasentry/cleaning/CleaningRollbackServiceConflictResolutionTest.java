@@ -11,6 +11,7 @@ import com.touhouqing.datasentry.cleaning.mapper.CleaningRollbackRunMapper;
 import com.touhouqing.datasentry.cleaning.mapper.CleaningRollbackVerifyRecordMapper;
 import com.touhouqing.datasentry.cleaning.model.CleaningRollbackConflictRecord;
 import com.touhouqing.datasentry.cleaning.service.CleaningBackupEncryptionService;
+import com.touhouqing.datasentry.cleaning.service.CleaningBackupPayloadService;
 import com.touhouqing.datasentry.cleaning.service.CleaningRollbackService;
 import com.touhouqing.datasentry.connector.pool.DBConnectionPoolFactory;
 import com.touhouqing.datasentry.exception.InvalidInputException;
@@ -62,13 +63,16 @@ public class CleaningRollbackServiceConflictResolutionTest {
 	@Mock
 	private CleaningReviewTaskMapper reviewTaskMapper;
 
+	@Mock
+	private CleaningBackupPayloadService backupPayloadService;
+
 	private CleaningRollbackService rollbackService;
 
 	@BeforeEach
 	public void setUp() {
 		rollbackService = new CleaningRollbackService(rollbackRunMapper, backupRecordMapper, jobRunMapper, jobMapper,
 				datasourceService, connectionPoolFactory, encryptionService, rollbackVerifyRecordMapper,
-				rollbackConflictRecordMapper, reviewTaskMapper, new DataSentryProperties());
+				rollbackConflictRecordMapper, reviewTaskMapper, new DataSentryProperties(), backupPayloadService);
 	}
 
 	@Test
@@ -0,0 +1,169 @@
+package com.touhouqing.datasentry.connector;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.touhouqing.datasentry.bo.DbConfigBO;
+import com.touhouqing.datasentry.connector.impls.h2.H2JdbcConnectionPool;
+import com.touhouqing.datasentry.connector.pool.DataSourcePoolRegistry;
+import com.touhouqing.datasentry.enums.ErrorCodeEnum;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.vo.ConnectionPoolMetricsVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DataSourcePoolRegistryTest {
+
+	private DataSentryProperties properties;
+
+	private DataSourcePoolRegistry registry;
+
+	private H2JdbcConnectionPool pool;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new DataSentryProperties();
+		DataSentryProperties.ConnectionPool.PoolSettings override = new DataSentryProperties.ConnectionPool.PoolSettings();
+		override.setMaxActive(3);
+		override.setInitialSize(1);
+		properties.getConnectionPool().getDatasources().put("7", override);
+		registry = new DataSourcePoolRegistry(properties);
+		pool = new H2JdbcConnectionPool();
+		pool.setPoolRegistry(registry, properties);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		registry.closePools(null);
+	}
+
+	@Test
+	public void shouldApplyPerDatasourceSettingsAndRecordBorrowWaits() throws Exception {
+		try (Connection ignored = pool.getConnection(config(7L, "pool_a"))) {
+			try (Connection ignoredToo = pool.getConnection(config(8L, "pool_b"))) {
+				List<ConnectionPoolMetricsVO> metrics = registry.snapshot();
+
+				assertEquals(2, metrics.size());
+				assertEquals(7L, metrics.get(0).getDatasourceId());
+				assertEquals(3, metrics.get(0).getMaxActive());
+				assertEquals(1, metrics.get(0).getActiveCount());
+				assertEquals(20, metrics.get(1).getMaxActive());
+				assertEquals(1L, metrics.get(0).getBorrowCount());
+				assertEquals(1L, metrics.get(0).getBorrowWaitHistogram().values().stream().mapToLong(Long::longValue).sum());
+			}
+		}
+	}
+
+	@Test
+	public void shouldPingThroughPoolAndInvalidateByDatasource() {
+		assertEquals(ErrorCodeEnum.SUCCESS, pool.ping(config(7L, "pool_ping")));
+		assertEquals(1, registry.snapshot().size());
+
+		assertEquals(1, registry.invalidate(7L));
+		assertTrue(registry.snapshot().isEmpty());
+	}
+
+	@Test
+	public void shouldIsolateCleaningPoolFromQueryPool() throws Exception {
+		DbConfigBO cleaning = config(7L, "pool_workload");
+		cleaning.setPoolWorkload(DataSourcePoolRegistry.WORKLOAD_CLEANING);
+		try (Connection ignored = pool.getConnection(config(7L, "pool_workload"));
+				Connection ignoredToo = pool.getConnection(cleaning)) {
+			List<ConnectionPoolMetricsVO> metrics = registry.snapshot();
+
+			assertEquals(2, metrics.size());
+			assertEquals(DataSourcePoolRegistry.WORKLOAD_CLEANING, metrics.get(0).getWorkload());
+			assertEquals(DataSourcePoolRegistry.WORKLOAD_QUERY, metrics.get(1).getWorkload());
+			assertEquals(1, metrics.get(0).getActiveCount());
+			assertEquals(1, metrics.get(1).getActiveCount());
+		}
+	}
+
+	@Test
+	public void shouldSizeCleaningPoolFromWorkloadSettings() throws Exception {
+		DbConfigBO cleaning = config(8L, "pool_workload_size");
+		cleaning.setPoolWorkload(DataSourcePoolRegistry.WORKLOAD_CLEANING);
+		try (Connection ignored = pool.getConnection(config(8L, "pool_workload_size"));
+				Connection ignoredToo = pool.getConnection(cleaning)) {
+			List<ConnectionPoolMetricsVO> metrics = registry.snapshot();
+
+			assertEquals(5, metrics.get(0).getMaxActive());
+			assertEquals(20, metrics.get(1).getMaxActive());
+		}
+	}
+
+	@Test
+	public void shouldKeepInvalidatedPoolOpenUntilConnectionsReturn() throws Exception {
+		Connection inFlight = pool.getConnection(config(9L, "pool_in_flight"));
+
+		assertEquals(1, registry.invalidate(9L));
+		assertTrue(registry.snapshot().isEmpty());
+		try (Statement statement = inFlight.createStatement()) {
+			assertTrue(statement.execute("SELECT 1"));
+		}
+		assertEquals(0, registry.closeDrainedRetired());
+
+		inFlight.close();
+		assertEquals(1, registry.closeDrainedRetired());
+	}
+
+	@Test
+	public void shouldRetryOnceWhenPoolClosedConcurrently() throws Exception {
+		AtomicInteger created = new AtomicInteger();
+		DataSourcePoolRegistry.PoolFactory factory = (url, username, password, settings) -> {
+			DruidDataSource dataSource = new DruidDataSource();
+			dataSource.setUrl(url);
+			dataSource.setUsername(username);
+			dataSource.setPassword(password);
+			// 第一次建出的池模拟在借出前被并发回收关闭
+			if (created.getAndIncrement() == 0) {
+				dataSource.init();
+				dataSource.close();
+			}
+			return dataSource;
+		};
+
+		try (Connection connection = registry.borrow("h2", config(10L, "pool_retry"), factory)) {
+			assertTrue(connection.isValid(1));
+		}
+		assertEquals(2, created.get());
+	}
+
+	@Test
+	public void shouldCloseAdhocPoolAfterPing() {
+		assertEquals(ErrorCodeEnum.SUCCESS, pool.ping(config(null, "pool_adhoc")));
+
+		assertTrue(registry.snapshot().isEmpty());
+	}
+
+	@Test
+	public void shouldEvictIdlePools() throws Exception {
+		properties.getConnectionPool().setIdleEvictSeconds(1);
+		try (Connection ignored = pool.getConnection(config(9L, "pool_idle"))) {
+			Thread.sleep(1100);
+			registry.evictIdlePools();
+			assertEquals(1, registry.snapshot().size());
+		}
+
+		registry.evictIdlePools();
+		assertTrue(registry.snapshot().isEmpty());
+	}
+
+	private DbConfigBO config(Long datasourceId, String database) {
+		DbConfigBO config = new DbConfigBO();
+		config.setDatasourceId(datasourceId);
+		config.setUrl("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+		config.setUsername("sa");
+		config.setPassword("");
+		config.setConnectionType("h2");
+		return config;
+	}
+
+}
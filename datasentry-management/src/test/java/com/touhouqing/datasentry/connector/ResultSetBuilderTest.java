@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.connector;
+
+import com.touhouqing.datasentry.bo.schema.ResultSetBO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResultSetBuilderTest {
+
+	private static final String URL = "jdbc:h2:mem:result_set_builder;DB_CLOSE_DELAY=-1";
+
+	private Connection connection;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		connection = DriverManager.getConnection(URL);
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS t_order");
+			statement.execute("CREATE TABLE t_order (id BIGINT PRIMARY KEY, remark VARCHAR(50))");
+			for (int i = 1; i <= 25; i++) {
+				statement.execute("INSERT INTO t_order VALUES (" + i + ", " + (i % 5 == 0 ? "NULL" : "'r" + i + "'")
+						+ ")");
+			}
+		}
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		connection.close();
+	}
+
+	@Test
+	public void shouldEmitPagesWhileReadingCursor() throws Exception {
+		List<ResultSetBO> pages = new ArrayList<>();
+
+		ResultSetBO result = SqlExecutor.executeSqlAndStreamPages(connection, null,
+				"SELECT id, remark FROM t_order ORDER BY id", 10, pages::add);
+
+		assertEquals(List.of(10, 10, 5), pages.stream().map(page -> page.getData().size()).toList());
+		assertEquals(25, result.getData().size());
+		assertEquals(List.of("ID", "REMARK"), result.getColumn());
+		assertEquals("11", pages.get(1).getData().get(0).get("ID"));
+		assertEquals("", result.getData().get(4).get("REMARK"));
+	}
+
+	@Test
+	public void shouldStopAtResultSetLimit() throws Exception {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("INSERT INTO t_order SELECT x + 100, 'bulk' FROM SYSTEM_RANGE(1, 1200)");
+		}
+		List<ResultSetBO> pages = new ArrayList<>();
+
+		ResultSetBO result = SqlExecutor.executeSqlAndStreamPages(connection, null, "SELECT id FROM t_order", 300,
+				pages::add);
+
+		assertEquals(SqlExecutor.RESULT_SET_LIMIT, result.getData().size());
+		assertEquals(SqlExecutor.RESULT_SET_LIMIT.intValue(),
+				pages.stream().mapToInt(page -> page.getData().size()).sum());
+		assertTrue(pages.stream().allMatch(page -> page.getData().size() <= 300));
+	}
+
+	@Test
+	public void shouldBuildWholeResultWithoutConsumer() throws Exception {
+		try (Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery("SELECT id FROM t_order")) {
+			assertEquals(25, ResultSetBuilder.buildFrom(rs, null).getData().size());
+		}
+	}
+
+}
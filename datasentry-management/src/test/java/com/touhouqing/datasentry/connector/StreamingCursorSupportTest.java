@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.connector;
+
+import com.touhouqing.datasentry.enums.DatabaseDialectEnum;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StreamingCursorSupportTest {
+
+	@Test
+	public void shouldStreamMysqlRowByRowWithoutChangingConnection() {
+		assertEquals(Integer.MIN_VALUE, StreamingCursorSupport.streamingFetchSize(DatabaseDialectEnum.MYSQL, 500));
+		assertEquals(500, StreamingCursorSupport.streamingFetchSize(DatabaseDialectEnum.POSTGRESQL, 500));
+		assertEquals(1, StreamingCursorSupport.streamingFetchSize(null, 0));
+	}
+
+	@Test
+	public void shouldReadPostgresCursorInsideReadOnlyTransaction() throws Exception {
+		Connection connection = mock(Connection.class);
+		when(connection.getAutoCommit()).thenReturn(true);
+
+		assertTrue(StreamingCursorSupport.beginCursorRead(connection, DatabaseDialectEnum.POSTGRESQL));
+		StreamingCursorSupport.endCursorRead(connection, true);
+
+		InOrder order = inOrder(connection);
+		order.verify(connection).setReadOnly(true);
+		order.verify(connection).setAutoCommit(false);
+		order.verify(connection).rollback();
+		order.verify(connection).setAutoCommit(true);
+		order.verify(connection).setReadOnly(false);
+	}
+
+	@Test
+	public void shouldLeaveOtherDialectsUntouched() throws Exception {
+		Connection connection = mock(Connection.class);
+		when(connection.getAutoCommit()).thenReturn(true);
+
+		assertFalse(StreamingCursorSupport.beginCursorRead(connection, DatabaseDialectEnum.MYSQL));
+		assertFalse(StreamingCursorSupport.beginCursorRead(connection, null));
+		StreamingCursorSupport.endCursorRead(connection, false);
+
+		verify(connection, never()).setAutoCommit(false);
+		verify(connection, never()).rollback();
+		verify(connection, never()).setReadOnly(anyBoolean());
+	}
+
+}
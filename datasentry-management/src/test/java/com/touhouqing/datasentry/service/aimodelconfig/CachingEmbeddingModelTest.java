@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.aimodelconfig;
+
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingEmbeddingModelTest {
+
+	@TempDir
+	private Path directory;
+
+	@Mock
+	private EmbeddingModel delegate;
+
+	private DataSentryProperties properties;
+
+	private EmbeddingCache cache;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new DataSentryProperties();
+		properties.getEmbeddingCache().setDirectory(directory.toString());
+		cache = openCache();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		cache.close();
+	}
+
+	@Test
+	public void shouldOnlyEmbedMissingAndDistinctTexts() {
+		when(delegate.embed(anyList())).thenAnswer(invocation -> {
+			List<String> texts = invocation.getArgument(0);
+			return texts.stream().map(text -> new float[] { text.length(), 1F }).toList();
+		});
+		CachingEmbeddingModel model = new CachingEmbeddingModel(delegate, cache, () -> "openai:text-embedding");
+
+		List<float[]> first = model.embed(List.of("alpha", "beta", "alpha"));
+		List<float[]> second = model.embed(List.of("beta", "  alpha ", "gamma"));
+
+		assertThat(first).hasSize(3);
+		assertThat(first.get(2)).containsExactly(5F, 1F);
+		assertThat(second.get(1)).containsExactly(5F, 1F);
+		verify(delegate).embed(List.of("alpha", "beta"));
+		verify(delegate).embed(List.of("gamma"));
+		assertThat(cache.snapshot().getHitCount()).isEqualTo(2L);
+		assertThat(cache.snapshot().getMissCount()).isEqualTo(3L);
+	}
+
+	@Test
+	public void shouldSeparateEntriesByModel() {
+		assertThat(EmbeddingCache.key("openai:a", "text")).isNotEqualTo(EmbeddingCache.key("openai:b", "text"));
+		assertThat(EmbeddingCache.key("openai:a", "hello   world"))
+			.isEqualTo(EmbeddingCache.key("openai:a", "hello world"));
+	}
+
+	@Test
+	public void shouldPassThroughWhenNoModelConfigured() {
+		when(delegate.embed(anyList())).thenReturn(List.of());
+		CachingEmbeddingModel model = new CachingEmbeddingModel(delegate, cache, () -> null);
+
+		assertThat(model.embed(List.of("alpha"))).isEmpty();
+		assertThat(cache.snapshot().getEntries()).isZero();
+	}
+
+	@Test
+	public void shouldReloadPersistedEntriesAndDropTornTail() throws Exception {
+		cache.put(EmbeddingCache.key("m", "alpha"), new float[] { 1F, 2F });
+		cache.put(EmbeddingCache.key("m", "beta"), new float[] { 3F, 4F });
+		cache.close();
+		Path file = directory.resolve("embeddings.bin");
+		long committedSize = Files.size(file);
+		Files.write(file, new byte[] { 1, 2, 3, 4, 5 }, StandardOpenOption.APPEND);
+
+		cache = openCache();
+		CachingEmbeddingModel model = new CachingEmbeddingModel(delegate, cache, () -> "m");
+
+		assertThat(Files.size(file)).isEqualTo(committedSize);
+		assertThat(model.embed("beta")).containsExactly(3F, 4F);
+		verify(delegate, never()).embed(anyList());
+	}
+
+	@Test
+	public void shouldBoundEntriesAndCompactFile() throws Exception {
+		cache.close();
+		properties.getEmbeddingCache().setMaxEntries(2);
+		properties.getEmbeddingCache().setCompactFactor(2.0);
+		cache = openCache();
+		for (int i = 0; i < 6; i++) {
+			cache.put(EmbeddingCache.key("m", "text " + i), new float[] { i });
+		}
+
+		assertThat(cache.snapshot().getEntries()).isEqualTo(2);
+		assertThat(cache.snapshot().getEvictionCount()).isEqualTo(4L);
+		assertThat(cache.snapshot().getPersistedRecords()).isLessThanOrEqualTo(4L);
+		cache.close();
+		cache = openCache();
+		assertThat(cache.get(EmbeddingCache.key("m", "text 5"))).containsExactly(5F);
+		assertThat(cache.get(EmbeddingCache.key("m", "text 0"))).isNull();
+	}
+
+	private EmbeddingCache openCache() {
+		EmbeddingCache embeddingCache = new EmbeddingCache(properties);
+		embeddingCache.load();
+		return embeddingCache;
+	}
+
+}
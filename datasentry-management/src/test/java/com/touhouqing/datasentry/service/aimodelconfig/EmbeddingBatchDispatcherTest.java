@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.aimodelconfig;
+
+import com.touhouqing.datasentry.cleaning.context.AiCostContextHolder;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class EmbeddingBatchDispatcherTest {
+
+	@Mock
+	private AiModelRegistry registry;
+
+	private DataSentryProperties properties;
+
+	private EmbeddingBatchDispatcher dispatcher;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new DataSentryProperties();
+		properties.getEmbeddingConcurrency().setMaxInFlight(4);
+		properties.getEmbeddingConcurrency().setInitialBackoffMs(1);
+		properties.getEmbeddingConcurrency().setRateLimitCooldownMs(1);
+		when(registry.getEmbeddingProvider()).thenReturn("dashscope");
+		dispatcher = new EmbeddingBatchDispatcher(properties, registry);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		dispatcher.shutdown();
+		AiCostContextHolder.clearContext();
+	}
+
+	@Test
+	public void shouldRunBatchesConcurrentlyAndKeepOrder() {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		List<List<String>> batches = List.of(List.of("a", "b"), List.of("c"), List.of("d", "e"), List.of("f"),
+				List.of("g"), List.of("h"));
+
+		List<String> results = dispatcher.dispatch(batches, batch -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				// 越靠前的批次越慢，验证结果仍按原顺序拼接
+				Thread.sleep(10L * ("h".compareTo(batch.get(0)) + 1));
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			inFlight.decrementAndGet();
+			return batch.stream().map(String::toUpperCase).toList();
+		}, null);
+
+		assertThat(results).containsExactly("A", "B", "C", "D", "E", "F", "G", "H");
+		assertThat(maxInFlight.get()).isBetween(2, 4);
+	}
+
+	@Test
+	public void shouldCapSingleBatchCallsFromManyCallers() throws Exception {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		List<Thread> callers = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			Thread caller = new Thread(() -> dispatcher.dispatch(List.of(List.of("a")), batch -> {
+				maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(20L);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				inFlight.decrementAndGet();
+				return batch;
+			}, null));
+			callers.add(caller);
+			caller.start();
+		}
+		for (Thread caller : callers) {
+			caller.join();
+		}
+
+		// 单批次在调用方线程上执行，同样受全局在途上限约束
+		assertThat(maxInFlight.get()).isBetween(1, 4);
+	}
+
+	@Test
+	public void shouldRetryOnlyFailedBatch() {
+		Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+		List<String> results = dispatcher.dispatch(List.of(List.of("a"), List.of("b"), List.of("c")), batch -> {
+			int attempt = attempts.computeIfAbsent(batch.get(0), key -> new AtomicInteger()).incrementAndGet();
+			if ("b".equals(batch.get(0)) && attempt < 3) {
+				throw new IllegalStateException("HTTP 429 Too Many Requests");
+			}
+			return batch;
+		}, null);
+
+		assertThat(results).containsExactly("a", "b", "c");
+		assertThat(attempts.get("a").get()).isEqualTo(1);
+		assertThat(attempts.get("b").get()).isEqualTo(3);
+		assertThat(attempts.get("c").get()).isEqualTo(1);
+	}
+
+	@Test
+	public void shouldUseFallbackOrFailAfterRetriesExhausted() {
+		List<List<String>> batches = List.of(List.of("a"), List.of("b"));
+
+		List<String> results = dispatcher.dispatch(batches, batch -> {
+			if ("b".equals(batch.get(0))) {
+				throw new IllegalStateException("connection reset");
+			}
+			return batch;
+		}, batch -> List.of("fallback"));
+
+		assertThat(results).containsExactly("a", "fallback");
+		assertThatThrownBy(() -> dispatcher.dispatch(batches, batch -> {
+			throw new IllegalStateException("connection reset");
+		}, null)).isInstanceOf(IllegalStateException.class).hasMessage("connection reset");
+	}
+
+	@Test
+	public void shouldPropagateCostContextToWorkers() {
+		AiCostContextHolder.setContext("thread-1", 7L);
+		Set<String> seen = ConcurrentHashMap.newKeySet();
+
+		dispatcher.dispatch(List.of(List.of("a"), List.of("b"), List.of("c")), batch -> {
+			AiCostContextHolder.RequestContext context = AiCostContextHolder.getContext();
+			seen.add(context != null ? context.threadId() : "none");
+			return batch;
+		}, null);
+
+		assertThat(seen).containsExactly("thread-1");
+	}
+
+	@Test
+	public void shouldDetectRateLimitErrors() {
+		assertThat(EmbeddingBatchDispatcher
+			.isRateLimited(new RuntimeException(new RuntimeException("Throttling.RateQuota")))).isTrue();
+		assertThat(EmbeddingBatchDispatcher.isRateLimited(new RuntimeException("timeout"))).isFalse();
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.chart;
+
+import com.touhouqing.datasentry.bo.schema.DisplayStyleBO;
+import com.touhouqing.datasentry.bo.schema.ResultSetBO;
+import com.touhouqing.datasentry.util.SqlUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RuleBasedChartRecommenderTest {
+
+	private final RuleBasedChartRecommender recommender = new RuleBasedChartRecommender();
+
+	@Test
+	public void shouldRecommendLineForTimeSeries() {
+		ResultSetBO resultSet = resultSet(List.of("month", "order_count", "amount"),
+				List.of("2024-01", "12", "300.5"), List.of("2024-02", "18", "410"), List.of("2024-03", "9", "120"));
+
+		DisplayStyleBO style = recommender.recommend(resultSet, "每月订单趋势").orElseThrow();
+
+		assertEquals("line", style.getType());
+		assertEquals("month", style.getX());
+		assertEquals(List.of("order_count", "amount"), style.getY());
+		assertEquals("每月订单趋势", style.getTitle());
+	}
+
+	@Test
+	public void shouldTreatCompactYearAsTimeOnlyWhenNameSaysSo() {
+		ResultSetBO byYear = resultSet(List.of("year", "total"), List.of("2022", "5"), List.of("2023", "7"));
+		ResultSetBO byCode = resultSet(List.of("code", "total"), List.of("2022", "5"), List.of("2023", "7"));
+
+		assertEquals("line", recommender.recommend(byYear, null).orElseThrow().getType());
+		assertTrue(recommender.recommend(byCode, null).isEmpty());
+	}
+
+	@Test
+	public void shouldRecommendColumnOrPieForCategoryCounts() {
+		ResultSetBO counts = resultSet(List.of("city", "user_count"), List.of("杭州", "10"), List.of("上海", "20"));
+		ResultSetBO shares = resultSet(List.of("channel", "ratio"), List.of("web", "0.6"), List.of("app", "0.4"));
+
+		DisplayStyleBO column = recommender.recommend(counts, "各城市用户数").orElseThrow();
+		assertEquals("column", column.getType());
+		assertEquals("city", column.getX());
+		assertEquals(List.of("user_count"), column.getY());
+		assertEquals("pie", recommender.recommend(shares, "渠道占比").orElseThrow().getType());
+	}
+
+	@Test
+	public void shouldFallBackToTableOrLlmForOtherShapes() {
+		ResultSetBO single = resultSet(List.of("name", "age"), List.of("alice", "20"));
+		ResultSetBO twoDimensions = resultSet(List.of("city", "gender", "total"), List.of("杭州", "M", "1"),
+				List.of("杭州", "F", "2"));
+		List<List<String>> manyRows = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			manyRows.add(List.of("product_" + i, String.valueOf(i)));
+		}
+
+		assertEquals("table", recommender.recommend(single, null).orElseThrow().getType());
+		assertTrue(recommender.recommend(twoDimensions, null).isEmpty());
+		assertTrue(recommender.recommend(resultSetOf(List.of("product", "sales"), manyRows), null).isEmpty());
+	}
+
+	@Test
+	public void shouldReconcileSpeculativeConfigWithActualColumns() {
+		DisplayStyleBO speculative = DisplayStyleBO.builder()
+			.type("column")
+			.title("销售额")
+			.x("region")
+			.y(List.of("TOTAL_SALES", "missing"))
+			.build();
+
+		DisplayStyleBO reconciled = recommender.reconcile(speculative, List.of("REGION", "TOTAL_SALES")).orElseThrow();
+
+		assertEquals("REGION", reconciled.getX());
+		assertEquals(List.of("TOTAL_SALES"), reconciled.getY());
+		Optional<DisplayStyleBO> mismatch = recommender.reconcile(speculative, List.of("area", "sales"));
+		assertTrue(mismatch.isEmpty());
+	}
+
+	@Test
+	public void shouldDecideFromProjectionWhetherRulesLikelyApply() {
+		List<SqlUtil.ProjectedColumn> grouped = SqlUtil.extractProjectedColumns(
+				"SELECT DATE_FORMAT(o.created_at, '%Y-%m') AS month, COUNT(*) cnt FROM orders o GROUP BY 1");
+		List<SqlUtil.ProjectedColumn> detail = SqlUtil
+			.extractProjectedColumns("select u.name, u.city, CASE WHEN u.vip THEN 1 ELSE 0 END from users u");
+
+		assertEquals(List.of(new SqlUtil.ProjectedColumn("month", false), new SqlUtil.ProjectedColumn("cnt", true)),
+				grouped);
+		assertTrue(recommender.isLikelyRuleResolvable(grouped));
+		assertEquals(List.of("name", "city", "CASE WHEN u.vip THEN 1 ELSE 0 END"),
+				detail.stream().map(SqlUtil.ProjectedColumn::name).toList());
+		assertFalse(recommender.isLikelyRuleResolvable(detail));
+		assertTrue(SqlUtil.extractProjectedColumns("SELECT * FROM users").isEmpty());
+	}
+
+	@SafeVarargs
+	private ResultSetBO resultSet(List<String> columns, List<String>... rows) {
+		return resultSetOf(columns, List.of(rows));
+	}
+
+	private ResultSetBO resultSetOf(List<String> columns, List<List<String>> rows) {
+		List<Map<String, String>> data = new ArrayList<>();
+		for (List<String> row : rows) {
+			Map<String, String> values = new LinkedHashMap<>();
+			for (int i = 0; i < columns.size(); i++) {
+				values.put(columns.get(i), row.get(i));
+			}
+			data.add(values);
+		}
+		return ResultSetBO.builder().column(columns).data(data).build();
+	}
+
+}
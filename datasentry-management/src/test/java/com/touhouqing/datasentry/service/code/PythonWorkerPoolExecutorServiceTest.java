@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.code;
+
+import com.touhouqing.datasentry.enums.CodePoolExecutorEnum;
+import com.touhouqing.datasentry.properties.CodeExecutorProperties;
+import com.touhouqing.datasentry.service.code.impls.PythonWorkerPoolExecutorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Run Python Code in Persistent Worker Test")
+public class PythonWorkerPoolExecutorServiceTest {
+
+	private static final String PRINT_PID = """
+			import os
+			print(os.getpid())
+			""";
+
+	private CodeExecutorProperties properties;
+
+	private CodePoolExecutorService codePoolExecutorService;
+
+	@BeforeEach
+	public void init() {
+		this.properties = new CodeExecutorProperties();
+		this.properties.setCodeTimeout("5s");
+		this.properties.setCodePoolExecutor(CodePoolExecutorEnum.LOCAL_WORKER);
+		this.properties.setWorkerPreloadModules(List.of("json", "math"));
+		this.codePoolExecutorService = new PythonWorkerPoolExecutorService(properties);
+	}
+
+	@Test
+	public void shouldRunTasksLikeFreshInterpreter() {
+		CodePoolExecutorService.TaskResponse normal = run(CodeTestConstant.NORMAL_CODE, "");
+		CodePoolExecutorService.TaskResponse input = run(CodeTestConstant.NEED_INPUT, "DataFrame Data");
+		CodePoolExecutorService.TaskResponse error = run(CodeTestConstant.ERROR_CODE, "");
+		CodePoolExecutorService.TaskResponse analysis = run(CodeTestConstant.STUDENT_SCORE_ANALYSIS,
+				CodeTestConstant.STUDENT_SCORE_ANALYSIS_INPUT);
+
+		assertTrue(normal.isSuccess() && normal.stdOut().contains("3628800"));
+		assertTrue(input.isSuccess() && input.stdOut().contains("DataFrame Data"));
+		assertTrue(error.executionSuccessButResultFailed() && error.stdErr().contains("SyntaxError"));
+		assertTrue(analysis.isSuccess(), analysis.toString());
+	}
+
+	@Test
+	public void shouldIsolateNamespacesAndReportExitCode() {
+		run("leaked = 42\nprint('defined')", "");
+
+		CodePoolExecutorService.TaskResponse lookup = run("print(leaked)", "");
+		CodePoolExecutorService.TaskResponse exit = run("import sys\nprint('partial')\nsys.exit(3)", "");
+
+		assertTrue(lookup.executionSuccessButResultFailed() && lookup.stdErr().contains("NameError"));
+		assertFalse(exit.isSuccess());
+		assertEquals("partial\n", exit.stdOut());
+	}
+
+	@Test
+	public void shouldReuseWorkerAndRecycleAfterLimit() {
+		this.properties.setWorkerMaxTasks(2);
+
+		String first = run(PRINT_PID, "").stdOut().trim();
+		String second = run(PRINT_PID, "").stdOut().trim();
+		String third = run(PRINT_PID, "").stdOut().trim();
+
+		assertEquals(first, second);
+		assertNotEquals(second, third);
+	}
+
+	@Test
+	public void shouldKillTimedOutTaskAndKeepServing() {
+		CodePoolExecutorService.TaskResponse timeout = run(CodeTestConstant.TIMEOUT_CODE, "");
+		CodePoolExecutorService.TaskResponse next = run(CodeTestConstant.NORMAL_CODE, "");
+
+		assertTrue(timeout.executionSuccessButResultFailed() && timeout.toString().contains("Killed"));
+		assertTrue(next.isSuccess() && next.stdOut().contains("3628800"));
+	}
+
+	private CodePoolExecutorService.TaskResponse run(String code, String input) {
+		return codePoolExecutorService.runTask(new CodePoolExecutorService.TaskRequest(code, input, null));
+	}
+
+}
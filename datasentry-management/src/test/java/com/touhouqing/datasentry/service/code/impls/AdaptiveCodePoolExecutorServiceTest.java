@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.code.impls;
+
+import com.touhouqing.datasentry.properties.CodeExecutorProperties;
+import com.touhouqing.datasentry.service.code.CodePoolExecutorService;
+import com.touhouqing.datasentry.vo.CodePoolExecutorMetricsVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveCodePoolExecutorServiceTest {
+
+	private final ExecutorService callers = Executors.newFixedThreadPool(4);
+
+	private CodeExecutorProperties properties;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new CodeExecutorProperties();
+		properties.setCoreContainerNum(1);
+		properties.setTempContainerNum(1);
+		properties.setMaxCoreContainerNum(3);
+		properties.setMaxTempContainerNum(1);
+		// 由测试直接触发扩缩容，避免定时任务干扰
+		properties.setResizeIntervalSeconds(3600L);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		callers.shutdownNow();
+	}
+
+	@Test
+	public void shouldPrewarmCoreContainersBeforeFirstTask() throws Exception {
+		FakeCodePoolExecutorService pool = new FakeCodePoolExecutorService(properties, new CountDownLatch(0));
+
+		pool.prewarm();
+		waitUntil(() -> pool.getMetrics().getReadyCoreContainerCount() == 1);
+		CodePoolExecutorService.TaskResponse response = pool
+			.runTask(new CodePoolExecutorService.TaskRequest("print(1)", "", null));
+
+		assertTrue(response.isSuccess());
+		CodePoolExecutorMetricsVO metrics = pool.getMetrics();
+		assertEquals(1L, metrics.getContainerCreateCount());
+		assertEquals(1L, metrics.getTaskCount());
+		assertEquals(0L, metrics.getQueuedTaskCount());
+	}
+
+	@Test
+	public void shouldResumeQueuedTasksAfterGrowingAndTrimAfterShrinking() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+		FakeCodePoolExecutorService pool = new FakeCodePoolExecutorService(properties, gate);
+		List<CompletableFuture<CodePoolExecutorService.TaskResponse>> responses = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			responses.add(CompletableFuture.supplyAsync(
+					() -> pool.runTask(new CodePoolExecutorService.TaskRequest("print(1)", "", null)), callers));
+		}
+		waitUntil(() -> pool.getMetrics().getQueueDepth() == 2);
+
+		pool.resize(4);
+		waitUntil(() -> pool.getMetrics().getCoreContainerCount() == 3);
+		gate.countDown();
+		for (CompletableFuture<CodePoolExecutorService.TaskResponse> response : responses) {
+			assertTrue(response.get(10, TimeUnit.SECONDS).isSuccess());
+		}
+
+		CodePoolExecutorMetricsVO grown = pool.getMetrics();
+		assertEquals(3, grown.getCoreCapacity());
+		assertEquals(1, grown.getTempCapacity());
+		assertEquals(2L, grown.getQueuedTaskCount());
+		assertEquals(4L, grown.getTaskCount());
+		assertEquals(1L, grown.getResizeCount());
+
+		pool.resize(2);
+		CodePoolExecutorMetricsVO shrunk = pool.getMetrics();
+		assertEquals(1, shrunk.getCoreCapacity());
+		assertEquals(1, shrunk.getCoreContainerCount());
+	}
+
+	private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				throw new AssertionError("Condition not met in time");
+			}
+			Thread.sleep(10);
+		}
+	}
+
+	private static final class FakeCodePoolExecutorService extends AbstractCodePoolExecutorService {
+
+		private final CountDownLatch gate;
+
+		private FakeCodePoolExecutorService(CodeExecutorProperties properties, CountDownLatch gate) {
+			super(properties);
+			this.gate = gate;
+		}
+
+		@Override
+		protected String createNewContainer() {
+			return UUID.randomUUID().toString();
+		}
+
+		@Override
+		protected TaskResponse execTaskInContainer(TaskRequest request, String containerId) {
+			try {
+				gate.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return TaskResponse.exception(e.getMessage());
+			}
+			return TaskResponse.success("1");
+		}
+
+		@Override
+		protected void stopContainer(String containerId) {
+		}
+
+		@Override
+		protected void removeContainer(String containerId) {
+		}
+
+	}
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.graph;
+
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
+import com.touhouqing.datasentry.entity.GraphNodeMetric;
+import com.touhouqing.datasentry.mapper.GraphNodeMetricMapper;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.vo.GraphNodeMetricsVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class GraphExecutionMetricsServiceTest {
+
+	@Mock
+	private GraphNodeMetricMapper graphNodeMetricMapper;
+
+	private DataSentryProperties properties;
+
+	private GraphExecutionMetricsService metricsService;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new DataSentryProperties();
+		metricsService = new GraphExecutionMetricsService(graphNodeMetricMapper, properties);
+	}
+
+	@Test
+	public void shouldAttributeUsageToNodesAndWriteSummaryRow() {
+		metricsService.start("t1", "s1", "3");
+		metricsService.onNodeOutput("t1", nodeOutput(StateGraph.START));
+		metricsService.onNodeOutput("t1", streamingOutput("SqlGenerateNode"));
+		metricsService.recordLlmUsage("t1", 100, 20);
+		metricsService.recordLlmUsage("t1", 50, 10);
+		metricsService.onNodeOutput("t1", nodeOutput("SqlGenerateNode"));
+		metricsService.onNodeOutput("t1", nodeOutput("SqlExecuteNode"));
+		metricsService.onNodeOutput("t1", nodeOutput(StateGraph.END));
+		metricsService.finish("t1", GraphExecutionMetricsService.STATUS_SUCCESS);
+
+		List<GraphNodeMetric> metrics = captureInserted();
+		assertEquals(3, metrics.size());
+		GraphNodeMetric summary = metrics.get(0);
+		assertEquals(GraphExecutionMetricsService.GRAPH_NODE_NAME, summary.getNodeName());
+		assertEquals(2, summary.getLlmCallCount());
+		assertEquals(150L, summary.getPromptTokens());
+		assertEquals(30L, summary.getCompletionTokens());
+		assertEquals(3L, summary.getAgentId());
+		assertNotNull(summary.getFirstChunkMs());
+		GraphNodeMetric generate = metrics.get(1);
+		assertEquals("SqlGenerateNode", generate.getNodeName());
+		assertEquals(1, generate.getNodeOrder());
+		assertEquals(2, generate.getLlmCallCount());
+		assertEquals("s1", generate.getSessionId());
+		GraphNodeMetric execute = metrics.get(2);
+		assertEquals("SqlExecuteNode", execute.getNodeName());
+		assertEquals(0, execute.getLlmCallCount());
+		assertEquals(summary.getExecutionId(), execute.getExecutionId());
+	}
+
+	@Test
+	public void shouldRecordUnfinishedNodeWhenExecutionFails() {
+		metricsService.start("t1", null, "3");
+		metricsService.onNodeOutput("t1", nodeOutput("PlannerNode"));
+		metricsService.onNodeOutput("t1", streamingOutput("PythonExecuteNode"));
+		metricsService.finish("t1", GraphExecutionMetricsService.STATUS_ERROR);
+		metricsService.finish("t1", GraphExecutionMetricsService.STATUS_CANCELLED);
+
+		List<GraphNodeMetric> metrics = captureInserted();
+		assertEquals(3, metrics.size());
+		assertEquals(GraphExecutionMetricsService.STATUS_ERROR, metrics.get(0).getStatus());
+		assertEquals(GraphExecutionMetricsService.STATUS_SUCCESS, metrics.get(1).getStatus());
+		assertEquals("PythonExecuteNode", metrics.get(2).getNodeName());
+		assertEquals(GraphExecutionMetricsService.STATUS_ERROR, metrics.get(2).getStatus());
+	}
+
+	@Test
+	public void shouldComputeNodePercentiles() {
+		List<GraphNodeMetric> rows = new ArrayList<>();
+		for (long i = 1; i <= 100; i++) {
+			String status = i == 100 ? GraphExecutionMetricsService.STATUS_ERROR
+					: GraphExecutionMetricsService.STATUS_SUCCESS;
+			rows.add(GraphNodeMetric.builder()
+				.nodeName("SqlGenerateNode")
+				.durationMs(i)
+				.llmCallCount(1)
+				.promptTokens(10L)
+				.completionTokens(2L)
+				.status(status)
+				.build());
+		}
+		rows.add(GraphNodeMetric.builder().nodeName("SchemaRecallNode").durationMs(5L).status("SUCCESS").build());
+		when(graphNodeMetricMapper.selectSince(isNull(), any(), anyInt())).thenReturn(rows);
+
+		List<GraphNodeMetricsVO> result = metricsService.getNodePercentiles(null, null);
+
+		assertEquals(2, result.size());
+		GraphNodeMetricsVO generate = result.get(0);
+		assertEquals("SqlGenerateNode", generate.getNodeName());
+		assertEquals(100, generate.getSampleCount());
+		assertEquals(1, generate.getFailedCount());
+		assertEquals(50, generate.getP50Ms());
+		assertEquals(90, generate.getP90Ms());
+		assertEquals(99, generate.getP99Ms());
+		assertEquals(100, generate.getMaxMs());
+		assertEquals(10.0, generate.getAvgPromptTokens(), 1e-9);
+		assertEquals(5, result.get(1).getP99Ms());
+	}
+
+	@Test
+	public void shouldSkipRecordingWhenDisabled() {
+		properties.getGraphMetrics().setEnabled(false);
+
+		metricsService.start("t1", "s1", "3");
+		// 关闭时不会读取节点信息，这里不设置 stub
+		metricsService.onNodeOutput("t1", mock(NodeOutput.class));
+		metricsService.finish("t1", GraphExecutionMetricsService.STATUS_SUCCESS);
+
+		verify(graphNodeMetricMapper, never()).insertBatch(any());
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<GraphNodeMetric> captureInserted() {
+		ArgumentCaptor<List<GraphNodeMetric>> captor = ArgumentCaptor.forClass(List.class);
+		verify(graphNodeMetricMapper).insertBatch(captor.capture());
+		return captor.getValue();
+	}
+
+	private NodeOutput nodeOutput(String node) {
+		NodeOutput output = mock(NodeOutput.class);
+		when(output.node()).thenReturn(node);
+		return output;
+	}
+
+	private StreamingOutput streamingOutput(String node) {
+		StreamingOutput output = mock(StreamingOutput.class);
+		when(output.node()).thenReturn(node);
+		return output;
+	}
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.graph;
+
+import com.touhouqing.datasentry.entity.ChatMessage;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.service.chat.ChatMessageService;
+import com.touhouqing.datasentry.service.graph.Context.MultiTurnContextManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MultiTurnContextManagerTest {
+
+	@Mock
+	private ChatMessageService chatMessageService;
+
+	private DataSentryProperties properties;
+
+	private MultiTurnContextManager manager;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new DataSentryProperties();
+		manager = new MultiTurnContextManager(properties, chatMessageService);
+	}
+
+	@Test
+	public void shouldPersistTurnAndReloadAfterEviction() {
+		properties.getMultiTurn().setMaxCachedSessions(1);
+		when(chatMessageService.findRecentBySessionIdAndType(any(), eq(MultiTurnContextManager.CONTEXT_MESSAGE_TYPE),
+				anyInt()))
+			.thenReturn(List.of());
+		when(chatMessageService.saveMessage(any())).thenAnswer(invocation -> {
+			ChatMessage message = invocation.getArgument(0);
+			message.setId(7L);
+			return message;
+		});
+
+		manager.bindSession("t1", "s1");
+		manager.beginTurn("t1", "统计销量");
+		manager.appendPlannerChunk("t1", "按月份汇总");
+		manager.finishTurn("t1");
+
+		ArgumentCaptor<ChatMessage> saved = ArgumentCaptor.forClass(ChatMessage.class);
+		verify(chatMessageService).saveMessage(saved.capture());
+		assertEquals("s1", saved.getValue().getSessionId());
+		assertEquals("按月份汇总", saved.getValue().getContent());
+		assertTrue(saved.getValue().getMetadata().contains("统计销量"));
+
+		manager.bindSession("t2", "s2");
+		assertEquals(1, manager.getCachedSessionCount());
+		assertEquals("(无)", manager.buildContext("t1"));
+
+		when(chatMessageService.findRecentBySessionIdAndType(eq("s1"), any(), anyInt()))
+			.thenReturn(List.of(saved.getValue()));
+		manager.bindSession("t1", "s1");
+		assertEquals("用户: 统计销量\nAI计划: 按月份汇总", manager.buildContext("t1"));
+	}
+
+	@Test
+	public void shouldKeepOnlyNewestTurnsWithinTokenBudget() {
+		properties.getMultiTurn().setContextTokenBudget(30);
+		for (int i = 0; i < 4; i++) {
+			manager.beginTurn("t1", "question " + i);
+			manager.appendPlannerChunk("t1", "plan ".repeat(10) + i);
+			manager.finishTurn("t1");
+		}
+
+		String context = manager.buildContext("t1");
+
+		assertTrue(context.contains("question 3"));
+		assertFalse(context.contains("question 0"));
+		verify(chatMessageService, never()).saveMessage(any());
+	}
+
+	@Test
+	public void shouldDeletePersistedTurnWhenRestarting() {
+		when(chatMessageService.findRecentBySessionIdAndType(any(), any(), anyInt())).thenReturn(List.of(ChatMessage
+			.builder()
+			.id(9L)
+			.sessionId("s1")
+			.content("旧计划")
+			.metadata("{\"userQuestion\":\"旧问题\"}")
+			.build()));
+
+		manager.bindSession("t1", "s1");
+		manager.restartLastTurn("t1");
+
+		verify(chatMessageService).deleteMessage(9L);
+		assertEquals("(无)", manager.buildContext("t1"));
+	}
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.hybrid.keyword;
+
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.service.vectorstore.file.FileVectorStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LocalKeywordIndexTest {
+
+	@TempDir
+	private Path directory;
+
+	@SuppressWarnings("unchecked")
+	private final ObjectProvider<FileVectorStore> fileVectorStoreProvider = mock(ObjectProvider.class);
+
+	private DataSentryProperties properties;
+
+	private LocalKeywordIndex index;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new DataSentryProperties();
+		properties.getVectorStore().setEnableHybridSearch(true);
+		properties.getVectorStore().setFilePath(directory.resolve("vectorstore.json").toString());
+		properties.getVectorStore().getKeywordIndex().setFilePath(directory.resolve("keyword-index.json").toString());
+		index = new LocalKeywordIndex(properties, "simple", fileVectorStoreProvider);
+	}
+
+	@Test
+	public void shouldTokenizeCjkAsBigramsAndLatinAsWords() {
+		assertThat(KeywordTokenizer.tokenize("统计GMV订单量, Order_Count 2024"))
+			.containsExactly("统计", "gmv", "订单", "单量", "order", "count", "2024");
+		assertThat(KeywordTokenizer.tokenize("表 t1")).containsExactly("表", "t1");
+	}
+
+	@Test
+	public void shouldRankByBm25AndApplyMetadataFilter() {
+		index.add(List.of(document("1", "订单表记录每一笔订单的金额和状态", "1"),
+				document("2", "用户表记录用户的注册信息", "1"), document("3", "退款订单对应的订单编号", "2"),
+				document("4", "商品表记录商品价格", "1")));
+
+		List<Document> results = index.search("订单金额", 10, null);
+		assertThat(results).extracting(Document::getId).containsExactly("1", "3");
+		assertThat(results.get(0).getScore()).isGreaterThan(results.get(1).getScore());
+
+		List<Document> filtered = index.search("订单金额", 10, new FilterExpressionBuilder().eq("agentId", "2").build());
+		assertThat(filtered).extracting(Document::getId).containsExactly("3");
+		assertThat(index.search("不存在的词", 10, null)).isEmpty();
+	}
+
+	@Test
+	public void shouldUpdateIncrementally() {
+		index.add(List.of(document("1", "订单金额", "1"), document("2", "订单状态", "2")));
+		index.add(List.of(document("1", "用户名称", "1")));
+
+		assertThat(index.search("订单", 10, null)).extracting(Document::getId).containsExactly("2");
+		assertThat(index.search("用户", 10, null)).extracting(Document::getId).containsExactly("1");
+
+		index.delete("agentId == '2'");
+		index.delete(List.of("1"));
+		assertThat(index.size()).isZero();
+		assertThat(index.search("订单", 10, null)).isEmpty();
+	}
+
+	@Test
+	public void shouldRestoreFromSnapshot() {
+		index.add(List.of(document("1", "订单金额统计", "1")));
+		index.save();
+
+		LocalKeywordIndex reloaded = new LocalKeywordIndex(properties, "simple", fileVectorStoreProvider);
+		reloaded.load();
+
+		assertThat(reloaded.search("金额", 5, null)).extracting(Document::getId).containsExactly("1");
+		assertThat(reloaded.search("金额", 5, null).get(0).getMetadata()).containsEntry("agentId", "1");
+	}
+
+	@Test
+	public void shouldSeedFromSimpleVectorStoreFile() throws Exception {
+		Files.writeString(directory.resolve("vectorstore.json"), """
+				{"a1": {"id": "a1", "text": "订单退款流程", "embedding": [0.1, 0.2], "metadata": {"agentId": "1"}},
+				 "a2": {"id": "a2", "text": "用户画像", "embedding": [0.3, 0.4], "metadata": {"agentId": "1"}}}
+				""");
+
+		index.load();
+
+		assertThat(index.size()).isEqualTo(2);
+		assertThat(index.search("退款", 5, null)).extracting(Document::getId).containsExactly("a1");
+	}
+
+	@Test
+	public void shouldRebuildFromFileVectorStoreInsteadOfStaleSnapshot() throws Exception {
+		Files.writeString(directory.resolve("keyword-index.json"), """
+				[{"id": "deleted", "text": "已删除的订单文档", "metadata": {"agentId": "1"}}]
+				""");
+		FileVectorStore store = mock(FileVectorStore.class);
+		when(store.forEachDocument(any())).thenAnswer(invocation -> {
+			Consumer<Document> consumer = invocation.getArgument(0);
+			consumer.accept(document("added", "新增的订单明细", "1"));
+			return 1;
+		});
+		when(fileVectorStoreProvider.getIfAvailable()).thenReturn(store);
+		LocalKeywordIndex fileIndex = new LocalKeywordIndex(properties, "file", fileVectorStoreProvider);
+
+		fileIndex.load();
+
+		assertThat(fileIndex.search("订单", 5, null)).extracting(Document::getId).containsExactly("added");
+		fileIndex.save();
+		assertThat(Files.readString(directory.resolve("keyword-index.json"))).contains("deleted");
+	}
+
+	@Test
+	public void shouldStayInactiveWithoutHybridSearch() {
+		properties.getVectorStore().setEnableHybridSearch(false);
+		assertThat(index.isActive()).isFalse();
+		assertThat(new LocalKeywordIndex(properties, "elasticsearch", fileVectorStoreProvider).isActive()).isFalse();
+	}
+
+	private static Document document(String id, String text, String agentId) {
+		return Document.builder().id(id).text(text).metadata(Map.of("agentId", agentId)).build();
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.llm;
+
+import com.touhouqing.datasentry.event.AgentKnowledgeChangedEvent;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import com.touhouqing.datasentry.service.aimodelconfig.AiModelRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class LlmResponseCacheTest {
+
+	private static final String RESPONSE = "{\"classification\":\"可能的数据分析请求\"}";
+
+	@Mock
+	private AiModelRegistry registry;
+
+	@Mock
+	private EmbeddingModel embeddingModel;
+
+	private DataSentryProperties properties;
+
+	private LlmResponseCache cache;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new DataSentryProperties();
+		when(registry.getEmbeddingModel()).thenReturn(embeddingModel);
+		when(registry.getEmbeddingModelId()).thenReturn("dashscope:text-embedding-v4@local");
+		cache = new LlmResponseCache(properties, registry);
+	}
+
+	@Test
+	public void shouldHitNormalizedQuestionWithinSameScope() {
+		cache.put(cache.key("1", "intent-recognition", "统计上个月的销售额？", "(无)"), RESPONSE);
+
+		assertThat(cache.get(cache.key("1", "intent-recognition", "  统计上个月的销售额 ", "(无)"))).isEqualTo(RESPONSE);
+		assertThat(cache.get(cache.key("1", "intent-recognition", "统计上个月的销售额。", "(无)"))).isEqualTo(RESPONSE);
+		assertThat(cache.get(cache.key("2", "intent-recognition", "统计上个月的销售额", "(无)"))).isNull();
+		assertThat(cache.get(cache.key("1", "intent-recognition", "统计上个月的销售额", "上一轮: 查询库存"))).isNull();
+		assertThat(cache.get(cache.key("1", "query-enhancement", "统计上个月的销售额", "(无)"))).isNull();
+		assertThat(cache.snapshot().getHitCount()).isEqualTo(2L);
+		assertThat(cache.snapshot().getMissCount()).isEqualTo(3L);
+		verify(embeddingModel, never()).embed(anyString());
+	}
+
+	@Test
+	public void shouldNormalizeFullWidthAndTrailingPunctuation() {
+		assertThat(LlmResponseCache.normalizeQuestion("  Top１０  Products？！ ")).isEqualTo("top10 products");
+		assertThat(LlmResponseCache.normalizeQuestion(null)).isEmpty();
+	}
+
+	@Test
+	public void shouldDropEntriesWhenAgentKnowledgeChanges() {
+		LlmResponseCache.Key key = cache.key("1", "intent-recognition", "统计销售额", "(无)");
+		cache.put(key, RESPONSE);
+		cache.put(cache.key("2", "intent-recognition", "统计销售额", "(无)"), RESPONSE);
+
+		LlmResponseCache.Key inFlight = cache.key("1", "intent-recognition", "统计库存", "(无)");
+		cache.onAgentKnowledgeChanged(new AgentKnowledgeChangedEvent(this, 1L));
+		cache.put(inFlight, RESPONSE);
+
+		assertThat(cache.get(cache.key("1", "intent-recognition", "统计销售额", "(无)"))).isNull();
+		assertThat(cache.get(cache.key("1", "intent-recognition", "统计库存", "(无)"))).isNull();
+		assertThat(cache.get(cache.key("2", "intent-recognition", "统计销售额", "(无)"))).isEqualTo(RESPONSE);
+		assertThat(cache.snapshot().getInvalidationCount()).isEqualTo(1L);
+	}
+
+	@Test
+	public void shouldMatchSimilarQuestionAboveThresholdOnly() {
+		properties.getResponseCache().setSimilarityEnabled(true);
+		when(embeddingModel.embed("统计上个月的销售额")).thenReturn(new float[] { 1F, 0F, 0F });
+		when(embeddingModel.embed("上个月销售额统计")).thenReturn(new float[] { 0.99F, 0.05F, 0F });
+		when(embeddingModel.embed("上个月退货率")).thenReturn(new float[] { 0.6F, 0.8F, 0F });
+		cache.put(cache.key("1", "intent-recognition", "统计上个月的销售额", "(无)"), RESPONSE);
+
+		assertThat(cache.get(cache.key("1", "intent-recognition", "上个月销售额统计", "(无)"))).isEqualTo(RESPONSE);
+		assertThat(cache.get(cache.key("1", "intent-recognition", "上个月退货率", "(无)"))).isNull();
+		assertThat(cache.get(cache.key("1", "intent-recognition", "上个月销售额统计", "上一轮: 查询库存"))).isNull();
+		assertThat(cache.snapshot().getSimilarHitCount()).isEqualTo(1L);
+	}
+
+}
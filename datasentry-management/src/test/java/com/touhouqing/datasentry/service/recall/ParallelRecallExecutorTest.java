@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.recall;
+
+import com.touhouqing.datasentry.cleaning.context.AiCostContextHolder;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelRecallExecutorTest {
+
+	private DataSentryProperties properties;
+
+	private ParallelRecallExecutor executor;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new DataSentryProperties();
+		properties.getGraphRecall().setStepTimeoutMs(300);
+		executor = new ParallelRecallExecutor(properties);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void shouldRunStepsConcurrently() throws Exception {
+		CountDownLatch bothStarted = new CountDownLatch(2);
+		CompletableFuture<ParallelRecallExecutor.StepResult<String>> first = executor.submit("first",
+				() -> awaitPeer(bothStarted, "a"), "");
+		CompletableFuture<ParallelRecallExecutor.StepResult<String>> second = executor.submit("second",
+				() -> awaitPeer(bothStarted, "b"), "");
+
+		assertThat(first.get(1, TimeUnit.SECONDS).value()).isEqualTo("a");
+		assertThat(second.get(1, TimeUnit.SECONDS).value()).isEqualTo("b");
+		assertThat(first.get().partial()).isFalse();
+	}
+
+	@Test
+	public void shouldFallBackWhenStepTimesOut() {
+		ParallelRecallExecutor.StepResult<List<String>> result = executor.submit("slow", () -> {
+			sleep(2000);
+			return List.of("late");
+		}, List.<String>of()).join();
+
+		assertThat(result.partial()).isTrue();
+		assertThat(result.reason()).isEqualTo("timeout");
+		assertThat(result.value()).isEmpty();
+	}
+
+	@Test
+	public void shouldFallBackWhenStepFails() {
+		ParallelRecallExecutor.StepResult<String> result = executor.submit("broken", () -> {
+			throw new IllegalStateException("store unavailable");
+		}, "fallback").join();
+
+		assertThat(result.partial()).isTrue();
+		assertThat(result.reason()).isEqualTo("store unavailable");
+		assertThat(result.value()).isEqualTo("fallback");
+	}
+
+	@Test
+	public void shouldPropagateCostContextToWorker() {
+		AiCostContextHolder.setContext("thread-1", 7L);
+		try {
+			ParallelRecallExecutor.StepResult<AiCostContextHolder.RequestContext> result = executor
+				.submit("cost", AiCostContextHolder::getContext, null)
+				.join();
+
+			assertThat(result.value()).isEqualTo(new AiCostContextHolder.RequestContext("thread-1", 7L));
+		}
+		finally {
+			AiCostContextHolder.clearContext();
+		}
+	}
+
+	@Test
+	public void shouldRunInlineWhenParallelDisabled() {
+		properties.getGraphRecall().setParallelEnabled(false);
+		Thread caller = Thread.currentThread();
+
+		ParallelRecallExecutor.StepResult<Thread> result = executor.submit("inline", Thread::currentThread, null)
+			.join();
+
+		assertThat(result.value()).isSameAs(caller);
+	}
+
+	private static String awaitPeer(CountDownLatch latch, String value) {
+		latch.countDown();
+		try {
+			if (!latch.await(200, TimeUnit.MILLISECONDS)) {
+				throw new IllegalStateException("steps did not overlap");
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return value;
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.schema;
+
+import com.touhouqing.datasentry.bo.schema.ColumnInfoBO;
+import com.touhouqing.datasentry.bo.schema.TableInfoBO;
+import com.touhouqing.datasentry.entity.SchemaTableFingerprint;
+import com.touhouqing.datasentry.mapper.SchemaTableFingerprintMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SchemaFingerprintServiceTest {
+
+	@Mock
+	private SchemaTableFingerprintMapper fingerprintMapper;
+
+	private SchemaFingerprintService fingerprintService;
+
+	@BeforeEach
+	public void setUp() {
+		fingerprintService = new SchemaFingerprintService(fingerprintMapper);
+	}
+
+	@Test
+	public void shouldTreatDatasourceWithoutFingerprintsAsInitial() {
+		when(fingerprintMapper.selectByDatasourceId(1L)).thenReturn(List.of());
+
+		SchemaFingerprintService.SchemaDiff diff = fingerprintService.diff(1L, List.of(table("t_user")),
+				Map.of("t_user", List.of(column("id", "BIGINT", true))), Map.of());
+
+		assertThat(diff.initial()).isTrue();
+		assertThat(diff.refreshTables()).containsExactly("t_user");
+		fingerprintService.commit(1L, diff);
+		verify(fingerprintMapper, times(1)).upsert(any(SchemaTableFingerprint.class));
+	}
+
+	@Test
+	public void shouldDetectAddedChangedDroppedAndUnchangedTables() {
+		List<ColumnInfoBO> userColumns = List.of(column("id", "BIGINT", true), column("name", "VARCHAR", false));
+		List<ColumnInfoBO> orderColumns = List.of(column("id", "BIGINT", true), column("user_id", "BIGINT", false));
+		List<String> orderForeignKeys = List.of("t_order.user_id=t_user.id");
+		when(fingerprintMapper.selectByDatasourceId(1L)).thenReturn(List.of(
+				SchemaFingerprintService.fingerprint(1L, table("t_user"), userColumns, List.of()),
+				SchemaFingerprintService.fingerprint(1L, table("t_order"), orderColumns, List.of()),
+				SchemaFingerprintService.fingerprint(1L, table("t_legacy"), userColumns, List.of())));
+
+		SchemaFingerprintService.SchemaDiff diff = fingerprintService.diff(1L,
+				List.of(table("t_user"), table("t_order"), table("t_item")),
+				Map.of("t_user", List.of(userColumns.get(1), userColumns.get(0)), "t_order", orderColumns, "t_item",
+						List.of(column("id", "BIGINT", true))),
+				Map.of("t_order", orderForeignKeys));
+
+		assertThat(diff.initial()).isFalse();
+		assertThat(diff.unchanged()).containsExactly("t_user");
+		assertThat(diff.changed()).containsExactly("t_order");
+		assertThat(diff.added()).containsExactly("t_item");
+		assertThat(diff.dropped()).containsExactly("t_legacy");
+		assertThat(diff.promoteToChanged(List.of("t_user")).unchanged()).isEmpty();
+	}
+
+	@Test
+	public void shouldIgnoreSampleDataWhenFingerprinting() {
+		ColumnInfoBO withSamples = column("name", "VARCHAR", false);
+		withSamples.setSamples("[\"alice\"]");
+		ColumnInfoBO otherSamples = column("name", "VARCHAR", false);
+		otherSamples.setSamples("[\"bob\"]");
+
+		SchemaTableFingerprint first = SchemaFingerprintService.fingerprint(1L, table("t_user"), List.of(withSamples),
+				List.of());
+		SchemaTableFingerprint second = SchemaFingerprintService.fingerprint(1L, table("t_user"),
+				List.of(otherSamples), List.of());
+
+		assertThat(first.getColumnHash()).isEqualTo(second.getColumnHash());
+	}
+
+	private TableInfoBO table(String name) {
+		return TableInfoBO.builder().name(name).description(name + " table").build();
+	}
+
+	private ColumnInfoBO column(String name, String type, boolean primary) {
+		ColumnInfoBO column = new ColumnInfoBO();
+		column.setName(name);
+		column.setType(type);
+		column.setPrimary(primary);
+		return column;
+	}
+
+}
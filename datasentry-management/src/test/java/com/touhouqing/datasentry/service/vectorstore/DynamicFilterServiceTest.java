@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.vectorstore;
+
+import com.touhouqing.datasentry.constant.DocumentMetadataConstant;
+import com.touhouqing.datasentry.event.AgentKnowledgeChangedEvent;
+import com.touhouqing.datasentry.mapper.AgentKnowledgeMapper;
+import com.touhouqing.datasentry.mapper.BusinessKnowledgeMapper;
+import com.touhouqing.datasentry.properties.DataSentryProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DynamicFilterServiceTest {
+
+	@Mock
+	private AgentKnowledgeMapper agentKnowledgeMapper;
+
+	@Mock
+	private BusinessKnowledgeMapper businessKnowledgeMapper;
+
+	private DataSentryProperties properties;
+
+	private DynamicFilterService dynamicFilterService;
+
+	@BeforeEach
+	public void setUp() {
+		properties = new DataSentryProperties();
+		dynamicFilterService = new DynamicFilterService(agentKnowledgeMapper, businessKnowledgeMapper, properties);
+	}
+
+	@Test
+	public void shouldReuseCachedFilterUntilAgentIsEvicted() {
+		when(agentKnowledgeMapper.selectRecalledKnowledgeIds(1L)).thenReturn(List.of(10L, 11L));
+
+		Filter.Expression first = dynamicFilterService.buildDynamicFilter("1",
+				DocumentMetadataConstant.AGENT_KNOWLEDGE);
+		Filter.Expression second = dynamicFilterService.buildDynamicFilter("1",
+				DocumentMetadataConstant.AGENT_KNOWLEDGE);
+
+		assertThat(second).isSameAs(first);
+		verify(agentKnowledgeMapper, times(1)).selectRecalledKnowledgeIds(1L);
+
+		dynamicFilterService.onAgentKnowledgeChanged(new AgentKnowledgeChangedEvent(this, 1L));
+		dynamicFilterService.buildDynamicFilter("1", DocumentMetadataConstant.AGENT_KNOWLEDGE);
+		verify(agentKnowledgeMapper, times(2)).selectRecalledKnowledgeIds(1L);
+	}
+
+	@Test
+	public void shouldNotCacheFilterLoadedWhileKnowledgeChanged() {
+		when(agentKnowledgeMapper.selectRecalledKnowledgeIds(1L)).thenAnswer(invocation -> {
+			dynamicFilterService.onAgentKnowledgeChanged(new AgentKnowledgeChangedEvent(this, 1L));
+			return List.of(10L);
+		}).thenReturn(List.of(10L, 11L));
+
+		dynamicFilterService.buildDynamicFilter("1", DocumentMetadataConstant.AGENT_KNOWLEDGE);
+		dynamicFilterService.buildDynamicFilter("1", DocumentMetadataConstant.AGENT_KNOWLEDGE);
+		dynamicFilterService.buildDynamicFilter("1", DocumentMetadataConstant.AGENT_KNOWLEDGE);
+
+		verify(agentKnowledgeMapper, times(2)).selectRecalledKnowledgeIds(1L);
+	}
+
+	@Test
+	public void shouldCacheEmptyFilterSignal() {
+		when(businessKnowledgeMapper.selectRecalledKnowledgeIds(2L)).thenReturn(List.of());
+
+		assertThat(dynamicFilterService.buildDynamicFilter("2", DocumentMetadataConstant.BUSINESS_TERM)).isNull();
+		assertThat(dynamicFilterService.buildDynamicFilter("2", DocumentMetadataConstant.BUSINESS_TERM)).isNull();
+
+		verify(businessKnowledgeMapper, times(1)).selectRecalledKnowledgeIds(2L);
+	}
+
+	@Test
+	public void shouldQueryEveryTimeWhenCacheDisabled() {
+		properties.getVectorStore().setDynamicFilterCacheTtlSeconds(0);
+		when(agentKnowledgeMapper.selectRecalledKnowledgeIds(1L)).thenReturn(List.of(10L));
+
+		dynamicFilterService.buildDynamicFilter("1", DocumentMetadataConstant.AGENT_KNOWLEDGE);
+		dynamicFilterService.buildDynamicFilter("1", DocumentMetadataConstant.AGENT_KNOWLEDGE);
+
+		verify(agentKnowledgeMapper, times(2)).selectRecalledKnowledgeIds(1L);
+	}
+
+}
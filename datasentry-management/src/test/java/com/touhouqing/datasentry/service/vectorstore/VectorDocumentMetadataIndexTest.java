@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.vectorstore;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VectorDocumentMetadataIndexTest {
+
+	@TempDir
+	private Path directory;
+
+	@Test
+	public void shouldFindExactIntersectionOfIndexedKeys() {
+		VectorDocumentMetadataIndex index = new VectorDocumentMetadataIndex();
+		index.markReady();
+		index.add(List.of(document("t1", Map.of("datasourceId", "1", "vectorType", "table", "name", "orders")),
+				document("c1", Map.of("datasourceId", "1", "vectorType", "column", "tableName", "orders")),
+				document("c2", Map.of("datasourceId", "1", "vectorType", "column", "tableName", "users")),
+				document("k1", Map.of("agentId", "7", "agentKnowledgeId", 42L, "vectorType", "agentKnowledge"))));
+
+		assertThat(index.find(Map.of("datasourceId", "1", "vectorType", "column"))).containsExactlyInAnyOrder("c1",
+				"c2");
+		assertThat(index.find(Map.of("datasourceId", "1", "vectorType", "column", "tableName", "orders")))
+			.containsExactly("c1");
+		assertThat(index.find(Map.of("agentId", "7", "agentKnowledgeId", 42))).containsExactly("k1");
+		assertThat(index.find(Map.of("datasourceId", "2"))).isEmpty();
+
+		index.remove(List.of("c1"));
+		assertThat(index.find(Map.of("tableName", "orders"))).isEmpty();
+		assertThat(index.size()).isEqualTo(3);
+	}
+
+	@Test
+	public void shouldOnlySupportConditionsOnIndexedKeys() {
+		VectorDocumentMetadataIndex index = new VectorDocumentMetadataIndex();
+		assertThat(index.supports(Map.of("agentId", "1"))).isFalse();
+
+		index.markReady();
+		assertThat(index.supports(Map.of("agentId", "1"))).isTrue();
+		assertThat(index.supports(Map.of("agentId", "1", "description", "x"))).isFalse();
+		assertThat(index.supports(Map.of())).isFalse();
+	}
+
+	@Test
+	public void shouldReplaceMetadataWhenDocumentIsOverwritten() {
+		VectorDocumentMetadataIndex index = new VectorDocumentMetadataIndex();
+		index.markReady();
+		index.add(List.of(document("d1", Map.of("agentId", "1"))));
+		index.add(List.of(document("d1", Map.of("agentId", "2"))));
+
+		assertThat(index.find(Map.of("agentId", "1"))).isEmpty();
+		assertThat(index.find(Map.of("agentId", "2"))).containsExactly("d1");
+	}
+
+	@Test
+	public void shouldRebuildFromSimpleVectorStoreFile() throws Exception {
+		Path file = directory.resolve("vectorstore.json");
+		Files.writeString(file, """
+				{"a1": {"id": "a1", "text": "t", "embedding": [0.1], "metadata": {"agentId": "1", "businessTermId": 3}},
+				 "a2": {"id": "a2", "text": "t", "embedding": [0.2], "metadata": {"agentId": "2"}}}
+				""");
+		VectorDocumentMetadataIndex index = new VectorDocumentMetadataIndex();
+
+		index.rebuild(file);
+
+		assertThat(index.isReady()).isTrue();
+		assertThat(index.find(Map.of("agentId", "1", "businessTermId", 3L))).containsExactly("a1");
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	private static Document document(String id, Map<String, Object> metadata) {
+		return Document.builder().id(id).text("content " + id).metadata(metadata).build();
+	}
+
+}
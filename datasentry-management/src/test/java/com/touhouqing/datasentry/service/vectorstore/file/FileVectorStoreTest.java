@@ -0,0 +1,279 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.service.vectorstore.file;
+
+import com.touhouqing.datasentry.properties.DataSentryProperties.VectorStoreProperties.FileStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class FileVectorStoreTest {
+
+	@TempDir
+	private Path directory;
+
+	private final FakeEmbeddingModel embeddingModel = new FakeEmbeddingModel();
+
+	private final List<FileVectorStore> opened = new ArrayList<>();
+
+	@AfterEach
+	public void tearDown() {
+		opened.forEach(FileVectorStore::close);
+	}
+
+	@Test
+	public void shouldSearchFilterAndDeleteDocuments() {
+		FileVectorStore store = open();
+		embeddingModel.register("north", 1F, 0F, 0F);
+		embeddingModel.register("north east", 1F, 1F, 0F);
+		embeddingModel.register("east", 0F, 1F, 0F);
+		embeddingModel.register("up", 0F, 0F, 1F);
+		store.add(List.of(document("1", "north", "1"), document("2", "north east", "1"),
+				document("3", "east", "2"), document("4", "up", "2")));
+
+		List<Document> nearest = store.similaritySearch(SearchRequest.builder().query("north").topK(2).build());
+		assertThat(nearest).extracting(Document::getId).containsExactly("1", "2");
+		assertThat(nearest.get(0).getText()).isEqualTo("north");
+		assertThat(nearest.get(0).getScore()).isCloseTo(1D, within(1e-5));
+
+		List<Document> filtered = store.similaritySearch(SearchRequest.builder()
+			.query("north east")
+			.topK(2)
+			.filterExpression(new FilterExpressionBuilder().eq("agentId", "2").build())
+			.build());
+		assertThat(filtered).extracting(Document::getId).containsExactly("3", "4");
+
+		store.delete(List.of("1"));
+		store.delete(new FilterExpressionBuilder().eq("agentId", "2").build());
+		assertThat(store.size()).isEqualTo(1);
+		assertThat(store.similaritySearch(SearchRequest.builder().query("north").topK(4).build()))
+			.extracting(Document::getId)
+			.containsExactly("2");
+	}
+
+	@Test
+	public void shouldRestoreDocumentsAfterReopen() {
+		FileVectorStore store = open();
+		embeddingModel.register("north", 1F, 0F, 0F);
+		embeddingModel.register("east", 0F, 1F, 0F);
+		store.add(List.of(document("1", "north", "1"), document("2", "east", "1")));
+		store.add(List.of(document("1", "east", "1")));
+		store.delete(List.of("2"));
+		close(store);
+
+		FileVectorStore reopened = open();
+
+		assertThat(reopened.size()).isEqualTo(1);
+		List<Document> results = reopened.similaritySearch(SearchRequest.builder().query("east").topK(1).build());
+		assertThat(results).extracting(Document::getId).containsExactly("1");
+		assertThat(results.get(0).getText()).isEqualTo("east");
+		assertThat(results.get(0).getMetadata()).containsEntry("agentId", "1");
+	}
+
+	@Test
+	public void shouldDropTornTailOfDocumentLog() throws Exception {
+		FileVectorStore store = open();
+		embeddingModel.register("north", 1F, 0F, 0F);
+		store.add(List.of(document("1", "north", "1")));
+		close(store);
+		Path logFile = directory.resolve("0").resolve("documents.log");
+		long committedSize = Files.size(logFile);
+		Files.write(logFile, new byte[] { 0, 0, 0, 40, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+		FileVectorStore reopened = open();
+
+		assertThat(Files.size(logFile)).isEqualTo(committedSize);
+		assertThat(reopened.size()).isEqualTo(1);
+		embeddingModel.register("east", 0F, 1F, 0F);
+		reopened.add(List.of(document("2", "east", "1")));
+		assertThat(reopened.similaritySearch(SearchRequest.builder().query("east").topK(1).build()))
+			.extracting(Document::getId)
+			.containsExactly("2");
+	}
+
+	@Test
+	public void shouldCompactDeletedDocumentsOnStartup() {
+		FileVectorStore store = open();
+		List<Document> documents = IntStream.range(0, 10).mapToObj(i -> document("d" + i, "doc " + i, "1")).toList();
+		store.add(documents);
+		store.delete(List.of("d0", "d1", "d2", "d3", "d4"));
+		close(store);
+
+		FileVectorStore reopened = open();
+
+		assertThat(Files.exists(directory.resolve("1").resolve("documents.log"))).isTrue();
+		assertThat(Files.exists(directory.resolve("0"))).isFalse();
+		assertThat(reopened.size()).isEqualTo(5);
+		assertThat(reopened.similaritySearch(SearchRequest.builder().query("doc 7").topK(1).build()))
+			.extracting(Document::getId)
+			.containsExactly("d7");
+	}
+
+	@Test
+	public void shouldKeepHighRecallAgainstBruteForce() {
+		FileVectorStore store = open();
+		int dimension = 32;
+		Random random = new Random(7L);
+		List<Document> documents = new ArrayList<>();
+		Map<String, float[]> vectors = new HashMap<>();
+		for (int i = 0; i < 2000; i++) {
+			float[] vector = randomVector(random, dimension);
+			embeddingModel.register("doc " + i, vector);
+			vectors.put("d" + i, vector);
+			documents.add(document("d" + i, "doc " + i, String.valueOf(i % 3)));
+		}
+		store.add(documents);
+
+		int hits = 0;
+		int expected = 0;
+		for (int q = 0; q < 20; q++) {
+			float[] query = randomVector(random, dimension);
+			embeddingModel.register("query " + q, query);
+			Set<String> exact = new HashSet<>(vectors.entrySet()
+				.stream()
+				.sorted(Comparator.comparingDouble(entry -> -cosine(query, entry.getValue())))
+				.limit(10)
+				.map(Map.Entry::getKey)
+				.toList());
+			List<Document> results = store
+				.similaritySearch(SearchRequest.builder().query("query " + q).topK(10).build());
+			assertThat(results).hasSize(10);
+			hits += (int) results.stream().filter(result -> exact.contains(result.getId())).count();
+			expected += exact.size();
+		}
+		assertThat((double) hits / expected).isGreaterThanOrEqualTo(0.9D);
+
+		List<Document> filtered = store.similaritySearch(SearchRequest.builder()
+			.query("query 0")
+			.topK(10)
+			.filterExpression(new FilterExpressionBuilder().eq("agentId", "1").build())
+			.build());
+		assertThat(filtered).hasSize(10).allMatch(document -> "1".equals(document.getMetadata().get("agentId")));
+	}
+
+	@Test
+	public void shouldIterateLiveDocumentsAfterReopen() {
+		FileVectorStore store = open();
+		store.add(List.of(document("1", "north", "1"), document("2", "east", "1"), document("3", "up", "2")));
+		store.delete(List.of("2"));
+		close(store);
+
+		List<Document> documents = new ArrayList<>();
+		assertThat(open().forEachDocument(documents::add)).isEqualTo(2);
+		assertThat(documents).extracting(Document::getId).containsExactly("1", "3");
+		assertThat(documents.get(1).getText()).isEqualTo("up");
+		assertThat(documents.get(1).getMetadata()).containsEntry("agentId", "2");
+	}
+
+	private FileVectorStore open() {
+		FileStore properties = new FileStore();
+		properties.setDirectory(directory.toString());
+		properties.setFsyncOnWrite(false);
+		properties.setMmapChunkMb(1);
+		FileVectorStore store = new FileVectorStore(embeddingModel, List::of, properties);
+		opened.add(store);
+		return store;
+	}
+
+	private void close(FileVectorStore store) {
+		store.close();
+		opened.remove(store);
+	}
+
+	private static Document document(String id, String text, String agentId) {
+		return Document.builder().id(id).text(text).metadata(Map.of("agentId", agentId)).build();
+	}
+
+	private static float[] randomVector(Random random, int dimension) {
+		float[] vector = new float[dimension];
+		for (int i = 0; i < dimension; i++) {
+			vector[i] = (float) random.nextGaussian();
+		}
+		return vector;
+	}
+
+	private static double cosine(float[] left, float[] right) {
+		double dot = 0D;
+		double leftNorm = 0D;
+		double rightNorm = 0D;
+		for (int i = 0; i < left.length; i++) {
+			dot += left[i] * right[i];
+			leftNorm += left[i] * left[i];
+			rightNorm += right[i] * right[i];
+		}
+		return dot / Math.sqrt(leftNorm * rightNorm);
+	}
+
+	/**
+	 * 按文本返回预先登记的向量，未登记的文本按哈希生成确定性向量
+	 */
+	private static final class FakeEmbeddingModel implements EmbeddingModel {
+
+		private final Map<String, float[]> vectors = new HashMap<>();
+
+		private void register(String text, float... vector) {
+			vectors.put(text, vector);
+		}
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			List<Embedding> embeddings = new ArrayList<>();
+			for (int i = 0; i < request.getInstructions().size(); i++) {
+				embeddings.add(new Embedding(vector(request.getInstructions().get(i)), i));
+			}
+			return new EmbeddingResponse(embeddings);
+		}
+
+		@Override
+		public float[] embed(Document document) {
+			return vector(document.getText());
+		}
+
+		private float[] vector(String text) {
+			float[] registered = vectors.get(text);
+			if (registered != null) {
+				return registered;
+			}
+			int dimension = vectors.isEmpty() ? 3 : vectors.values().iterator().next().length;
+			return randomVector(new Random(text.hashCode()), dimension);
+		}
+
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.util;
+
+import com.touhouqing.datasentry.bo.schema.DisplayStyleBO;
+import com.touhouqing.datasentry.service.llm.LlmService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class JsonParseUtilTest {
+
+	@Mock
+	private LlmService llmService;
+
+	private JsonParseUtil jsonParseUtil;
+
+	@BeforeEach
+	public void setUp() {
+		jsonParseUtil = new JsonParseUtil(llmService);
+	}
+
+	@Test
+	public void shouldRepairCommonModelOutputLocally() {
+		String output = "<think>推理过程</think>结果如下：\n```json\n{type: 'column', \"title\": \"销售\n统计\", \"y\": [\"amount\",],}\n```";
+
+		DisplayStyleBO style = jsonParseUtil.tryConvertToObject(output, DisplayStyleBO.class);
+
+		assertEquals("column", style.getType());
+		assertEquals("销售\n统计", style.getTitle());
+		assertEquals(List.of("amount"), style.getY());
+		verifyNoInteractions(llmService);
+		Map<String, Long> statistics = jsonParseUtil.getRepairStatistics();
+		assertEquals(1L, statistics.get("UNQUOTED_KEYS"));
+		assertEquals(1L, statistics.get("SINGLE_QUOTES"));
+		assertEquals(1L, statistics.get("TRAILING_COMMAS"));
+		assertEquals(1L, statistics.get("UNESCAPED_CONTROL_CHARS"));
+		assertEquals(0L, statistics.get("LLM_FIX"));
+	}
+
+	@Test
+	public void shouldCloseTruncatedStructures() {
+		List<Map<String, Object>> steps = jsonParseUtil.tryConvertToObject(
+				"[{\"step\": 1, \"tool\": \"SQL\"}, {\"step\": 2, \"tool\": \"PYTH",
+				new TypeReference<List<Map<String, Object>>>() {
+				});
+
+		assertEquals(2, steps.size());
+		assertEquals(Map.of("step", 1, "tool", "SQL"), steps.get(0));
+		assertEquals(Map.of("step", 2), steps.get(1));
+		verifyNoInteractions(llmService);
+	}
+
+	@Test
+	public void shouldDropTruncatedTrailingElement() {
+		assertEquals("{\"a\": 1}", JsonRepairUtil.repair("{\"a\": 1, \"b\": tru").json());
+		assertEquals("[1, 2]", JsonRepairUtil.repair("[1, 2, 34").json());
+		assertEquals("{\"a\": [\"x\"]}", JsonRepairUtil.repair("{\"a\": [\"x\", \"y").json());
+		assertEquals("{\"a\": \"x\"}", JsonRepairUtil.repair("{\"a\": \"x\"").json());
+		assertEquals("{}", JsonRepairUtil.repair("{\"na").json());
+	}
+
+	@Test
+	public void shouldReportAppliedRepairs() {
+		JsonRepairUtil.RepairResult result = JsonRepairUtil.repair("{\"a\": 1, \"b\"");
+
+		assertEquals("{\"a\": 1}", result.json());
+		assertEquals(Set.of(JsonRepairUtil.Repair.TRUNCATED), result.repairs());
+		assertTrue(JsonRepairUtil.repair("{\"ok\": true}").repairs().isEmpty());
+		assertEquals(Set.of(JsonRepairUtil.Repair.SURROUNDING_TEXT),
+				JsonRepairUtil.repair("{\"ok\": true} 以上为结果").repairs());
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.touhouqing.datasentry.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SqlResultCsvUtilTest {
+
+	@Test
+	public void shouldInferColumnTypes() {
+		List<Map<String, String>> rows = List.of(
+				row("1", "10", "007", "2025-01-02 10:00:00", "true", null),
+				row("2", "12.5", "042", "2025-01-03", "false", ""));
+
+		List<SqlResultCsvUtil.ColumnSchema> schema = SqlResultCsvUtil.inferSchema(rows);
+
+		assertEquals(List.of(new SqlResultCsvUtil.ColumnSchema("id", SqlResultCsvUtil.DTYPE_INT),
+				new SqlResultCsvUtil.ColumnSchema("amount", SqlResultCsvUtil.DTYPE_FLOAT),
+				new SqlResultCsvUtil.ColumnSchema("code", SqlResultCsvUtil.DTYPE_STRING),
+				new SqlResultCsvUtil.ColumnSchema("created", SqlResultCsvUtil.DTYPE_DATETIME),
+				new SqlResultCsvUtil.ColumnSchema("flag", SqlResultCsvUtil.DTYPE_BOOLEAN),
+				new SqlResultCsvUtil.ColumnSchema("note", SqlResultCsvUtil.DTYPE_STRING)), schema);
+	}
+
+	@Test
+	public void shouldNeverTypeLargeIdsAsFloat() {
+		List<Map<String, String>> rows = List.of(
+				Map.of("snowflake", "1789012345678901234", "mixed", "9007199254740993", "overflow",
+						"12345678901234567890"),
+				Map.of("snowflake", "12", "mixed", "1.5", "overflow", "1"));
+
+		Map<String, String> dtypes = new LinkedHashMap<>();
+		SqlResultCsvUtil.inferSchema(rows).forEach(column -> dtypes.put(column.name(), column.dtype()));
+
+		assertEquals(SqlResultCsvUtil.DTYPE_INT, dtypes.get("snowflake"));
+		assertEquals(SqlResultCsvUtil.DTYPE_STRING, dtypes.get("mixed"));
+		assertEquals(SqlResultCsvUtil.DTYPE_STRING, dtypes.get("overflow"));
+	}
+
+	@Test
+	public void shouldWriteSchemaHeaderFollowedByCsv() throws Exception {
+		List<Map<String, String>> rows = List.of(row("1", "10", "a,b", "2025-01-02", "true", "say \"hi\""),
+				row("2", "-3.5", "c", "2025-01-03", "false", null));
+
+		String[] lines = SqlResultCsvUtil.encode(rows, Integer.MAX_VALUE).split("\n");
+
+		JsonNode header = JsonUtil.getObjectMapper().readTree(lines[0]);
+		assertEquals("csv", header.get("format").asText());
+		assertEquals(2, header.get("rows").asInt());
+		assertEquals(6, header.get("columns").size());
+		assertEquals("Int64", header.get("dtypes").get("id").asText());
+		assertFalse(header.get("dtypes").has("created"));
+		assertEquals("created", header.get("parse_dates").get(0).asText());
+		assertEquals("id,amount,code,created,flag,note", lines[1]);
+		assertEquals("1,10,\"a,b\",2025-01-02,true,\"say \"\"hi\"\"\"", lines[2]);
+		assertEquals("2,-3.5,c,2025-01-03,false,", lines[3]);
+		assertEquals(4, lines.length);
+	}
+
+	@Test
+	public void shouldLimitRowsButReportTotal() throws Exception {
+		List<Map<String, String>> rows = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			rows.add(row(String.valueOf(i), "1", "x", null, null, null));
+		}
+
+		String[] lines = SqlResultCsvUtil.encode(rows, 3).split("\n");
+
+		assertEquals(10, JsonUtil.getObjectMapper().readTree(lines[0]).get("rows").asInt());
+		assertEquals(5, lines.length);
+	}
+
+	@Test
+	public void shouldWriteOnlyHeaderForEmptyResult() throws Exception {
+		String encoded = SqlResultCsvUtil.encode(List.of(), Integer.MAX_VALUE);
+
+		JsonNode header = JsonUtil.getObjectMapper().readTree(encoded.trim());
+		assertEquals(0, header.get("columns").size());
+		assertTrue(encoded.endsWith("\n"));
+		assertEquals(0L, SqlResultCsvUtil.estimateSize(List.of()));
+	}
+
+	private Map<String, String> row(String id, String amount, String code, String created, String flag,
+			String note) {
+		Map<String, String> row = new LinkedHashMap<>();
+		row.put("id", id);
+		row.put("amount", amount);
+		row.put("code", code);
+		row.put("created", created);
+		row.put("flag", flag);
+		row.put("note", note);
+		return row;
+	}
+
+}